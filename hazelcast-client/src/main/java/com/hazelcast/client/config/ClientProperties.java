@@ -37,12 +37,29 @@ public class ClientProperties {
     public static final String PROP_RETRY_WAIT_TIME = "hazelcast.client.retry.wait.time";
     public static final String PROP_RETRY_WAIT_TIME_DEFAULT = "250";
 
+    /**
+     * When enabled, requests are pipelined: the write handler keeps coalescing queued requests
+     * into socket writes as long as the socket accepts them, and the number of requests waiting
+     * for a response is bounded per connection.
+     */
+    public static final String PROP_PIPELINING_ENABLED = "hazelcast.client.pipelining.enabled";
+    public static final String PROP_PIPELINING_ENABLED_DEFAULT = "false";
+
+    /**
+     * Maximum number of requests waiting for a response per connection when pipelining is enabled.
+     * Invocations beyond this limit wait for a response to arrive first.
+     */
+    public static final String PROP_MAX_IN_FLIGHT_INVOCATIONS = "hazelcast.client.max.in.flight.invocations";
+    public static final String PROP_MAX_IN_FLIGHT_INVOCATIONS_DEFAULT = "1024";
+
 
     public final ClientProperty CONNECTION_TIMEOUT;
     public final ClientProperty HEARTBEAT_INTERVAL;
     public final ClientProperty MAX_FAILED_HEARTBEAT_COUNT;
     public final ClientProperty RETRY_COUNT;
     public final ClientProperty RETRY_WAIT_TIME;
+    public final ClientProperty PIPELINING_ENABLED;
+    public final ClientProperty MAX_IN_FLIGHT_INVOCATIONS;
 
     public ClientProperties(ClientConfig clientConfig) {
         CONNECTION_TIMEOUT = new ClientProperty(clientConfig, PROP_CONNECTION_TIMEOUT, PROP_CONNECTION_TIMEOUT_DEFAULT);
@@ -50,6 +67,9 @@ public class ClientProperties {
         MAX_FAILED_HEARTBEAT_COUNT = new ClientProperty(clientConfig, PROP_MAX_FAILED_HEARTBEAT_COUNT, PROP_MAX_FAILED_HEARTBEAT_COUNT_DEFAULT);
         RETRY_COUNT = new ClientProperty(clientConfig, PROP_RETRY_COUNT, PROP_RETRY_COUNT_DEFAULT);
         RETRY_WAIT_TIME = new ClientProperty(clientConfig, PROP_RETRY_WAIT_TIME, PROP_RETRY_WAIT_TIME_DEFAULT);
+        PIPELINING_ENABLED = new ClientProperty(clientConfig, PROP_PIPELINING_ENABLED, PROP_PIPELINING_ENABLED_DEFAULT);
+        MAX_IN_FLIGHT_INVOCATIONS = new ClientProperty(clientConfig, PROP_MAX_IN_FLIGHT_INVOCATIONS,
+                PROP_MAX_IN_FLIGHT_INVOCATIONS_DEFAULT);
     }
 
     public static class ClientProperty {
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.connection.nio;
+
+import com.hazelcast.client.spi.impl.ClientCallFuture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free table of the calls waiting for a response on a connection, keyed by call id.
+ * <p/>
+ * Call ids are handed out sequentially, so the low bits of a call id spread the calls
+ * evenly over the buckets and a bucket rarely holds more than a single call. Each bucket
+ * is an immutable chain which is replaced with a CAS; call ids are never boxed.
+ */
+final class CallIdTable {
+
+    private final AtomicReferenceArray<Node> buckets;
+    private final int mask;
+
+    CallIdTable(int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.buckets = new AtomicReferenceArray<Node>(size);
+        this.mask = size - 1;
+    }
+
+    void put(int callId, ClientCallFuture future) {
+        final int index = callId & mask;
+        for (; ; ) {
+            final Node head = buckets.get(index);
+            if (buckets.compareAndSet(index, head, new Node(callId, future, head))) {
+                return;
+            }
+        }
+    }
+
+    ClientCallFuture get(int callId) {
+        for (Node node = buckets.get(callId & mask); node != null; node = node.next) {
+            if (node.callId == callId) {
+                return node.future;
+            }
+        }
+        return null;
+    }
+
+    ClientCallFuture remove(int callId) {
+        final int index = callId & mask;
+        for (; ; ) {
+            final Node head = buckets.get(index);
+            Node node = head;
+            while (node != null && node.callId != callId) {
+                node = node.next;
+            }
+            if (node == null) {
+                return null;
+            }
+            if (buckets.compareAndSet(index, head, unlink(head, node))) {
+                return node.future;
+            }
+        }
+    }
+
+    /**
+     * Removes all the calls from the table.
+     *
+     * @return the removed calls
+     */
+    List<ClientCallFuture> removeAll() {
+        final List<ClientCallFuture> futures = new ArrayList<ClientCallFuture>();
+        for (int i = 0; i < buckets.length(); i++) {
+            for (Node node = buckets.getAndSet(i, null); node != null; node = node.next) {
+                futures.add(node.future);
+            }
+        }
+        return futures;
+    }
+
+    private static Node unlink(Node head, Node removed) {
+        if (head == removed) {
+            return removed.next;
+        }
+        return new Node(head.callId, head.future, unlink(head.next, removed));
+    }
+
+    private static final class Node {
+        final int callId;
+        final ClientCallFuture future;
+        final Node next;
+
+        Node(int callId, ClientCallFuture future, Node next) {
+            this.callId = callId;
+            this.future = future;
+            this.next = next;
+        }
+    }
+}
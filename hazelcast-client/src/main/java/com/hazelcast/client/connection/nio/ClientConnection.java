@@ -47,11 +47,9 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.nio.ByteBuffer;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.List;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -61,6 +59,8 @@ public class ClientConnection implements Connection, Closeable {
 
     private static final int SLEEP_TIME = 10;
 
+    private static final int EVENT_HANDLER_TABLE_CAPACITY = 64;
+
     private volatile boolean live = true;
 
     private final ILogger logger = Logger.getLogger(ClientConnection.class);
@@ -77,10 +77,10 @@ public class ClientConnection implements Connection, Closeable {
 
     private volatile Address remoteEndpoint;
 
-    private final ConcurrentMap<Integer, ClientCallFuture> callIdMap
-            = new ConcurrentHashMap<Integer, ClientCallFuture>();
-    private final ConcurrentMap<Integer, ClientCallFuture> eventHandlerMap
-            = new ConcurrentHashMap<Integer, ClientCallFuture>();
+    private final CallIdTable callIdMap;
+    private final CallIdTable eventHandlerMap = new CallIdTable(EVENT_HANDLER_TABLE_CAPACITY);
+    // bounds the calls waiting for a response when pipelining, null otherwise
+    private final Semaphore inFlightPermits;
     private final ByteBuffer readBuffer;
     private final SerializationService serializationService;
     private final ClientExecutionService executionService;
@@ -99,8 +99,12 @@ public class ClientConnection implements Connection, Closeable {
         this.invocationService = invocationService;
         this.socketChannelWrapper = socketChannelWrapper;
         this.connectionId = connectionId;
+        this.callIdMap = new CallIdTable(connectionManager.maxInFlightInvocations);
+        this.inFlightPermits = connectionManager.pipeliningEnabled
+                ? new Semaphore(connectionManager.maxInFlightInvocations) : null;
         this.readHandler = new ClientReadHandler(this, in, socket.getReceiveBufferSize());
-        this.writeHandler = new ClientWriteHandler(this, out, socket.getSendBufferSize());
+        this.writeHandler = new ClientWriteHandler(this, out, socket.getSendBufferSize(),
+                connectionManager.pipeliningEnabled);
         this.readBuffer = ByteBuffer.allocate(socket.getReceiveBufferSize());
     }
 
@@ -113,6 +117,9 @@ public class ClientConnection implements Connection, Closeable {
     }
 
     public void registerCallId(ClientCallFuture future) {
+        if (inFlightPermits != null) {
+            acquireInFlightPermit();
+        }
         final int callId = connectionManager.newCallId();
         future.getRequest().setCallId(callId);
         callIdMap.put(callId, future);
@@ -121,8 +128,30 @@ public class ClientConnection implements Connection, Closeable {
         }
     }
 
+    /**
+     * Waits until the number of calls waiting for a response drops below the limit. The wait is
+     * bounded by the heartbeat interval, since the responses which release permits might be
+     * processed by the very thread that is waiting.
+     */
+    private void acquireInFlightPermit() {
+        try {
+            if (inFlightPermits.tryAcquire(connectionManager.heartBeatInterval, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HazelcastException("Interrupted while waiting for an in-flight invocation slot", e);
+        }
+        throw new HazelcastException("Maximum number of in-flight invocations ("
+                + connectionManager.maxInFlightInvocations + ") reached on connection to " + remoteEndpoint);
+    }
+
     public ClientCallFuture deRegisterCallId(int callId) {
-        return callIdMap.remove(callId);
+        final ClientCallFuture future = callIdMap.remove(callId);
+        if (future != null && inFlightPermits != null) {
+            inFlightPermits.release();
+        }
+        return future;
     }
 
     public ClientCallFuture deRegisterEventHandler(int callId) {
@@ -333,17 +362,15 @@ public class ClientConnection implements Connection, Closeable {
     }
 
     private void cleanResources(HazelcastException response) {
-        final Iterator<Map.Entry<Integer, ClientCallFuture>> iter = callIdMap.entrySet().iterator();
-        while (iter.hasNext()) {
-            final Map.Entry<Integer, ClientCallFuture> entry = iter.next();
-            iter.remove();
-            entry.getValue().notify(response);
-            eventHandlerMap.remove(entry.getKey());
+        final List<ClientCallFuture> calls = callIdMap.removeAll();
+        if (inFlightPermits != null) {
+            inFlightPermits.release(calls.size());
         }
-        final Iterator<ClientCallFuture> iterator = eventHandlerMap.values().iterator();
-        while (iterator.hasNext()) {
-            final ClientCallFuture future = iterator.next();
-            iterator.remove();
+        for (ClientCallFuture future : calls) {
+            eventHandlerMap.remove(future.getRequest().getCallId());
+            future.notify(response);
+        }
+        for (ClientCallFuture future : eventHandlerMap.removeAll()) {
             future.notify(response);
         }
     }
@@ -376,12 +403,8 @@ public class ClientConnection implements Connection, Closeable {
         failedHeartBeat++;
         if (failedHeartBeat == connectionManager.maxFailedHeartbeatCount) {
             connectionManager.connectionMarkedAsNotResponsive(this);
-            final Iterator<ClientCallFuture> iterator = eventHandlerMap.values().iterator();
             final TargetDisconnectedException response = new TargetDisconnectedException(remoteEndpoint);
-
-            while (iterator.hasNext()) {
-                final ClientCallFuture future = iterator.next();
-                iterator.remove();
+            for (ClientCallFuture future : eventHandlerMap.removeAll()) {
                 future.notify(response);
             }
         }
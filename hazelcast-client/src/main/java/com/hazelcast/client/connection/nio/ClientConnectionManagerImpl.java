@@ -37,6 +37,7 @@ import com.hazelcast.client.spi.EventHandler;
 import com.hazelcast.client.spi.impl.ClientCallFuture;
 import com.hazelcast.client.spi.impl.ClientClusterServiceImpl;
 import com.hazelcast.client.spi.impl.ClientInvocationServiceImpl;
+import com.hazelcast.client.spi.impl.ClientPartitionServiceImpl;
 import com.hazelcast.cluster.client.ClientPingRequest;
 import com.hazelcast.config.GroupConfig;
 import com.hazelcast.config.SSLConfig;
@@ -87,6 +88,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import static com.hazelcast.client.config.ClientProperties.PROP_CONNECTION_TIMEOUT_DEFAULT;
 import static com.hazelcast.client.config.ClientProperties.PROP_HEARTBEAT_INTERVAL_DEFAULT;
 import static com.hazelcast.client.config.ClientProperties.PROP_MAX_FAILED_HEARTBEAT_COUNT_DEFAULT;
+import static com.hazelcast.client.config.ClientProperties.PROP_MAX_IN_FLIGHT_INVOCATIONS_DEFAULT;
 
 public class ClientConnectionManagerImpl extends MembershipAdapter implements ClientConnectionManager, MembershipListener {
 
@@ -102,6 +104,8 @@ public class ClientConnectionManagerImpl extends MembershipAdapter implements Cl
     final int connectionTimeout;
     final int heartBeatInterval;
     final int maxFailedHeartbeatCount;
+    final boolean pipeliningEnabled;
+    final int maxInFlightInvocations;
 
     private final ConcurrentMap<Address, Object> connectionLockMap = new ConcurrentHashMap<Address, Object>();
 
@@ -163,6 +167,10 @@ public class ClientConnectionManagerImpl extends MembershipAdapter implements Cl
         int failedHeartbeat = client.clientProperties.MAX_FAILED_HEARTBEAT_COUNT.getInteger();
         this.maxFailedHeartbeatCount = failedHeartbeat > 0 ? failedHeartbeat : Integer.parseInt(PROP_MAX_FAILED_HEARTBEAT_COUNT_DEFAULT);
 
+        this.pipeliningEnabled = client.clientProperties.PIPELINING_ENABLED.getBoolean();
+        int maxInFlight = client.clientProperties.MAX_IN_FLIGHT_INVOCATIONS.getInteger();
+        this.maxInFlightInvocations = maxInFlight > 0 ? maxInFlight : Integer.parseInt(PROP_MAX_IN_FLIGHT_INVOCATIONS_DEFAULT);
+
         this.smartRouting = networkConfig.isSmartRouting();
         this.executionService = client.getClientExecutionService();
         this.credentials = c;
@@ -497,6 +505,10 @@ public class ClientConnectionManagerImpl extends MembershipAdapter implements Cl
                 LOGGER.warning("No call for callId: " + callId + ", response: " + response);
                 return;
             }
+            if (future.getPartitionId() != ClientCallFuture.NO_PARTITION) {
+                ((ClientPartitionServiceImpl) client.getClientPartitionService())
+                        .countIfMisrouted(future.getPartitionId(), conn.getRemoteEndpoint());
+            }
             if (isError) {
                 response = getSerializationService().toObject(response);
             }
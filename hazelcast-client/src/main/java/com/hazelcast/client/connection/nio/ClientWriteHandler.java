@@ -28,12 +28,16 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ClientWriteHandler extends ClientAbstractSelectionHandler implements Runnable {
 
+    private static final int MAX_PIPELINED_WRITES = 16;
+
     private final Queue<SocketWritable> writeQueue = new ConcurrentLinkedQueue<SocketWritable>();
 
     private final AtomicBoolean informSelector = new AtomicBoolean(true);
 
     private final ByteBuffer buffer;
 
+    private final int maxWritesPerHandle;
+
     private boolean ready;
 
     private SocketWritable lastWritable;
@@ -43,8 +47,17 @@ public class ClientWriteHandler extends ClientAbstractSelectionHandler implement
 //    private boolean initialized = false;
 
     public ClientWriteHandler(ClientConnection connection, IOSelector ioSelector, int bufferSize) {
+        this(connection, ioSelector, bufferSize, false);
+    }
+
+    /**
+     * @param pipelining when true, up to {@link #MAX_PIPELINED_WRITES} buffers of coalesced requests
+     *                   are written per handle, as long as the socket accepts them, instead of a single one.
+     */
+    public ClientWriteHandler(ClientConnection connection, IOSelector ioSelector, int bufferSize, boolean pipelining) {
         super(connection, ioSelector);
         buffer = ByteBuffer.allocate(bufferSize);
+        maxWritesPerHandle = pipelining ? MAX_PIPELINED_WRITES : 1;
     }
 
     @Override
@@ -65,15 +78,18 @@ public class ClientWriteHandler extends ClientAbstractSelectionHandler implement
             return;
         }
         try {
-            while (buffer.hasRemaining() && lastWritable != null) {
-                boolean complete = lastWritable.writeTo(buffer);
-                if (complete) {
-                    lastWritable = poll();
-                } else {
+            for (int writes = 0; writes < maxWritesPerHandle; writes++) {
+                while (buffer.hasRemaining() && lastWritable != null) {
+                    boolean complete = lastWritable.writeTo(buffer);
+                    if (complete) {
+                        lastWritable = poll();
+                    } else {
+                        break;
+                    }
+                }
+                if (buffer.position() == 0) {
                     break;
                 }
-            }
-            if (buffer.position() > 0) {
                 buffer.flip();
                 try {
                     socketChannel.write(buffer);
@@ -83,9 +99,13 @@ public class ClientWriteHandler extends ClientAbstractSelectionHandler implement
                     return;
                 }
                 if (buffer.hasRemaining()) {
+                    // socket send buffer is full, continue once it is writable again
                     buffer.compact();
-                } else {
-                    buffer.clear();
+                    break;
+                }
+                buffer.clear();
+                if (lastWritable == null) {
+                    break;
                 }
             }
         } catch (Throwable t) {
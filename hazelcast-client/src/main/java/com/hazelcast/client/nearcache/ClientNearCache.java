@@ -32,23 +32,28 @@ import com.hazelcast.spi.impl.PortableEntryEvent;
 import com.hazelcast.util.Clock;
 import com.hazelcast.util.ExceptionUtil;
 
-import java.util.Comparator;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Near cache of the client. Like the member side near cache, it evicts the least recently or least frequently
+ * used record of a small sample for every new record once it is full. {@link InMemoryFormat#OFFHEAP} is not
+ * supported by the client, values are stored in {@link InMemoryFormat#BINARY} format instead.
+ *
  * @ali 7/18/13
  */
 public class ClientNearCache<K> {
 
 
     public static final Object NULL_OBJECT = new Object();
-    public static final int EVICTION_PERCENTAGE = 20;
+    public static final int EVICTION_SAMPLE_SIZE = 16;
+    static final int MAX_EVICTIONS_PER_PUT = 8;
     public static final int TTL_CLEANUP_INTERVAL_MILLS = 5000;
     String registrationId;
     final ClientNearCacheType cacheType;
@@ -66,17 +71,9 @@ public class ClientNearCache<K> {
     final ConcurrentMap<K, CacheRecord<K>> cache;
 
     final NearCacheStatsImpl clientNearCacheStats;
-    private final Comparator<CacheRecord<K>> comparator = new Comparator<CacheRecord<K>>() {
-        public int compare(CacheRecord<K> o1, CacheRecord<K> o2) {
-            if (EvictionPolicy.LRU.equals(evictionPolicy)) {
-                return ((Long) o1.lastAccessTime).compareTo((o2.lastAccessTime));
-            } else if (EvictionPolicy.LFU.equals(evictionPolicy)) {
-                return ((Integer) o1.hit.get()).compareTo((o2.hit.get()));
-            }
-
-            return 0;
-        }
-    };
+    final AtomicLong memoryCost = new AtomicLong();
+    // guarded by canEvict
+    private Iterator<CacheRecord<K>> evictionCursor;
 
 
     public ClientNearCache(String mapName, ClientNearCacheType cacheType,
@@ -84,9 +81,10 @@ public class ClientNearCache<K> {
         this.mapName = mapName;
         this.cacheType = cacheType;
         this.context = context;
-        maxSize = nearCacheConfig.getMaxSize();
+        maxSize = nearCacheConfig.getMaxSize() <= 0 ? Integer.MAX_VALUE : nearCacheConfig.getMaxSize();
         maxIdleMillis = nearCacheConfig.getMaxIdleSeconds() * 1000;
-        inMemoryFormat = nearCacheConfig.getInMemoryFormat();
+        inMemoryFormat = nearCacheConfig.getInMemoryFormat() == InMemoryFormat.OFFHEAP
+                ? InMemoryFormat.BINARY : nearCacheConfig.getInMemoryFormat();
         timeToLiveMillis = nearCacheConfig.getTimeToLiveSeconds() * 1000;
         invalidateOnChange = nearCacheConfig.isInvalidateOnChange();
         evictionPolicy = EvictionPolicy.valueOf(nearCacheConfig.getEvictionPolicy());
@@ -108,12 +106,12 @@ public class ClientNearCache<K> {
                 request = new MapAddEntryListenerRequest(mapName, false);
                 handler = new EventHandler<PortableEntryEvent>() {
                     public void handle(PortableEntryEvent event) {
-                        cache.remove(event.getKey());
+                        removeRecord(event.getKey());
                     }
 
                     @Override
                     public void onListenerRegister() {
-                        cache.clear();
+                        clear();
                     }
                 };
             } else {
@@ -138,7 +136,7 @@ public class ClientNearCache<K> {
             return;
         }
         if (evictionPolicy != EvictionPolicy.NONE && cache.size() >= maxSize) {
-            fireEvictCache();
+            evict();
         }
         Object value;
         if (object == null) {
@@ -146,36 +144,57 @@ public class ClientNearCache<K> {
         } else {
             value = inMemoryFormat.equals(InMemoryFormat.BINARY) ? context.getSerializationService().toData(object) : object;
         }
-        cache.put(key, new CacheRecord<K>(key, value));
+        CacheRecord<K> record = new CacheRecord<K>(key, value);
+        CacheRecord<K> oldRecord = cache.put(key, record);
+        memoryCost.addAndGet(record.getCost());
+        if (oldRecord != null) {
+            memoryCost.addAndGet(-oldRecord.getCost());
+        }
     }
 
-    private void fireEvictCache() {
-        if (canEvict.compareAndSet(true, false)) {
-            try {
-                context.getExecutionService().execute(new Runnable() {
-                    public void run() {
-                        try {
-                            TreeSet<CacheRecord<K>> records = new TreeSet<CacheRecord<K>>(comparator);
-                            records.addAll(cache.values());
-                            int evictSize = cache.size() * EVICTION_PERCENTAGE / 100;
-                            int i = 0;
-                            for (CacheRecord<K> record : records) {
-                                cache.remove(record.key);
-                                if (++i > evictSize) {
-                                    break;
-                                }
-                            }
-                        } finally {
-                            canEvict.set(true);
-                        }
-                    }
-                });
-            } catch (RejectedExecutionException e) {
-                canEvict.set(true);
-            } catch (Exception e) {
-                throw ExceptionUtil.rethrow(e);
+    private void evict() {
+        if (!canEvict.compareAndSet(true, false)) {
+            return;
+        }
+        try {
+            for (int i = 0; i < MAX_EVICTIONS_PER_PUT && cache.size() >= maxSize; i++) {
+                CacheRecord<K> record = selectEvictionCandidate();
+                if (record == null) {
+                    break;
+                }
+                if (cache.remove(record.key, record)) {
+                    memoryCost.addAndGet(-record.getCost());
+                    clientNearCacheStats.incrementEvictions();
+                }
+            }
+        } finally {
+            canEvict.set(true);
+        }
+    }
+
+    private CacheRecord<K> selectEvictionCandidate() {
+        CacheRecord<K> candidate = null;
+        boolean restarted = false;
+        int sampled = 0;
+        while (sampled < EVICTION_SAMPLE_SIZE) {
+            if (evictionCursor == null || !evictionCursor.hasNext()) {
+                if (restarted) {
+                    break;
+                }
+                evictionCursor = cache.values().iterator();
+                restarted = true;
+                continue;
+            }
+            CacheRecord<K> record = evictionCursor.next();
+            sampled++;
+            if (record.expired()) {
+                return record;
+            }
+            if (candidate == null || record.isEvictedBefore(candidate)) {
+                candidate = record;
             }
         }
+        return candidate;
     }
 
     private void fireTtlCleanup() {
@@ -190,8 +209,10 @@ public class ClientNearCache<K> {
                         try {
                             lastCleanup = Clock.currentTimeMillis();
                             for (Map.Entry<K, CacheRecord<K>> entry : cache.entrySet()) {
-                                if (entry.getValue().expired()) {
-                                    cache.remove(entry.getKey());
+                                CacheRecord<K> record = entry.getValue();
+                                if (record.expired() && cache.remove(entry.getKey(), record)) {
+                                    memoryCost.addAndGet(-record.getCost());
+                                    clientNearCacheStats.incrementExpirations();
                                 }
                             }
                         } finally {
@@ -208,7 +229,19 @@ public class ClientNearCache<K> {
     }
 
     public void invalidate(K key) {
-        cache.remove(key);
+        removeRecord(key);
+    }
+
+    private void removeRecord(Object key) {
+        CacheRecord<K> record = cache.remove(key);
+        if (record != null) {
+            memoryCost.addAndGet(-record.getCost());
+        }
+    }
+
+    public void clear() {
+        cache.clear();
+        memoryCost.set(0);
     }
 
     public Object get(K key) {
@@ -216,7 +249,10 @@ public class ClientNearCache<K> {
         CacheRecord<K> record = cache.get(key);
         if (record != null) {
             if (record.expired()) {
-                cache.remove(key);
+                if (cache.remove(key, record)) {
+                    memoryCost.addAndGet(-record.getCost());
+                    clientNearCacheStats.incrementExpirations();
+                }
                 clientNearCacheStats.incrementMisses();
                 return null;
             }
@@ -238,13 +274,8 @@ public class ClientNearCache<K> {
     }
 
     private NearCacheStatsImpl createNearCacheStats() {
-        long ownedEntryCount = cache.values().size();
-        long ownedEntryMemory = 0;
-        for (CacheRecord record : cache.values()) {
-            ownedEntryMemory += record.getCost();
-        }
-        clientNearCacheStats.setOwnedEntryCount(ownedEntryCount);
-        clientNearCacheStats.setOwnedEntryMemoryCost(ownedEntryMemory);
+        clientNearCacheStats.setOwnedEntryCount(cache.size());
+        clientNearCacheStats.setOwnedEntryMemoryCost(memoryCost.get());
         return clientNearCacheStats;
     }
 
@@ -258,7 +289,7 @@ public class ClientNearCache<K> {
             }
             ListenerUtil.stopListening(context, request, registrationId);
         }
-        cache.clear();
+        clear();
     }
 
 
@@ -308,5 +339,12 @@ public class ClientNearCache<K> {
                     || (timeToLiveMillis > 0 && time > creationTime + timeToLiveMillis);
         }
 
+        boolean isEvictedBefore(CacheRecord<K> other) {
+            if (EvictionPolicy.LFU.equals(evictionPolicy)) {
+                return hit.get() < other.hit.get();
+            }
+            return lastAccessTime < other.lastAccessTime;
+        }
+
     }
 }
@@ -16,11 +16,15 @@
 
 package com.hazelcast.client.proxy;
 
+import com.hazelcast.client.ClientRequest;
 import com.hazelcast.client.nearcache.ClientNearCache;
 import com.hazelcast.client.nearcache.ClientNearCacheType;
+import com.hazelcast.client.spi.ClientInvocationService;
+import com.hazelcast.client.spi.ClientPartitionService;
 import com.hazelcast.client.spi.ClientProxy;
 import com.hazelcast.client.spi.EventHandler;
 import com.hazelcast.client.spi.impl.ClientCallFuture;
+import com.hazelcast.client.util.ClientMergingFuture;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.core.EntryEvent;
 import com.hazelcast.core.EntryListener;
@@ -31,16 +35,19 @@ import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.ICompletableFuture;
 import com.hazelcast.core.IMap;
 import com.hazelcast.core.Member;
+import com.hazelcast.map.ChunkedQueryIterator;
 import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.MapEntrySet;
 import com.hazelcast.map.MapInterceptor;
 import com.hazelcast.map.MapKeySet;
 import com.hazelcast.map.MapValueCollection;
+import com.hazelcast.map.QueryChunk;
 import com.hazelcast.map.SimpleEntryView;
 import com.hazelcast.map.client.MapAddEntryListenerRequest;
 import com.hazelcast.map.client.MapAddIndexRequest;
 import com.hazelcast.map.client.MapAddInterceptorRequest;
 import com.hazelcast.map.client.MapClearRequest;
+import com.hazelcast.map.client.MapCloseQueryCursorRequest;
 import com.hazelcast.map.client.MapContainsKeyRequest;
 import com.hazelcast.map.client.MapContainsValueRequest;
 import com.hazelcast.map.client.MapDeleteRequest;
@@ -61,6 +68,7 @@ import com.hazelcast.map.client.MapPutAllRequest;
 import com.hazelcast.map.client.MapPutIfAbsentRequest;
 import com.hazelcast.map.client.MapPutRequest;
 import com.hazelcast.map.client.MapPutTransientRequest;
+import com.hazelcast.map.client.MapQueryChunkRequest;
 import com.hazelcast.map.client.MapQueryRequest;
 import com.hazelcast.map.client.MapRemoveEntryListenerRequest;
 import com.hazelcast.map.client.MapRemoveIfSameRequest;
@@ -87,6 +95,7 @@ import com.hazelcast.mapreduce.aggregation.Aggregation;
 import com.hazelcast.mapreduce.aggregation.Supplier;
 import com.hazelcast.monitor.LocalMapStats;
 import com.hazelcast.monitor.impl.LocalMapStatsImpl;
+import com.hazelcast.nio.Address;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.PagingPredicateAccessor;
@@ -529,28 +538,75 @@ public final class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V
 
     @Override
     public Map<K, V> getAll(Set<K> keys) {
-        initNearCache();
-        Set<Data> keySet = new HashSet(keys.size());
         Map<K, V> result = new HashMap<K, V>();
-        for (Object key : keys) {
-            keySet.add(toData(key));
+        Collection<ICompletableFuture> futures = invokeGetAll(keys, result);
+        try {
+            for (ICompletableFuture future : futures) {
+                MapEntrySet mapEntrySet = toObject(future.get());
+                putGetAllResponse(mapEntrySet, result);
+            }
+        } catch (Exception e) {
+            throw ExceptionUtil.rethrow(e);
         }
-        if (nearCache != null) {
-            final Iterator<Data> iterator = keySet.iterator();
-            while (iterator.hasNext()) {
-                Data key = iterator.next();
-                Object cached = nearCache.get(key);
+        return result;
+    }
+
+    /**
+     * Asynchronous version of {@link #getAll(java.util.Set)}.
+     * <p/>
+     * Keys are grouped by their partition owner and a single request is sent to
+     * each owner, all in parallel.
+     *
+     * @param keys keys to get
+     * @return a future returning the entries found for the given keys
+     */
+    public ICompletableFuture<Map<K, V>> getAllAsync(Set<K> keys) {
+        final Map<K, V> result = new HashMap<K, V>();
+        Collection<ICompletableFuture> futures = invokeGetAll(keys, result);
+        return new ClientMergingFuture<Map<K, V>>(futures, getContext().getExecutionService().getAsyncExecutor()) {
+            @Override
+            protected Map<K, V> merge(List<Object> responses) {
+                for (Object response : responses) {
+                    putGetAllResponse((MapEntrySet) response, result);
+                }
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Moves the near cached entries to the result and sends a {@link MapGetAllRequest}
+     * for the remaining keys to each of their owners.
+     */
+    private Collection<ICompletableFuture> invokeGetAll(Set<K> keys, Map<K, V> result) {
+        initNearCache();
+        Map<Address, Set<Data>> keysByOwner = new HashMap<Address, Set<Data>>();
+        for (Object key : keys) {
+            Data keyData = toData(key);
+            if (nearCache != null) {
+                Object cached = nearCache.get(keyData);
                 if (cached != null && !ClientNearCache.NULL_OBJECT.equals(cached)) {
-                    result.put((K) toObject(key), (V) cached);
-                    iterator.remove();
+                    result.put((K) key, (V) cached);
+                    continue;
                 }
             }
+            Address owner = getKeyOwner(keyData);
+            Set<Data> ownerKeys = keysByOwner.get(owner);
+            if (ownerKeys == null) {
+                ownerKeys = new HashSet<Data>();
+                keysByOwner.put(owner, ownerKeys);
+            }
+            ownerKeys.add(keyData);
         }
-        if (keys.isEmpty()) {
-            return result;
+        List<ICompletableFuture> futures = new ArrayList<ICompletableFuture>(keysByOwner.size());
+        for (Entry<Address, Set<Data>> entry : keysByOwner.entrySet()) {
+            MapGetAllRequest request = new MapGetAllRequest(name, entry.getValue());
+            futures.add(invokeOnOwner(request, entry.getKey()));
         }
-        MapGetAllRequest request = new MapGetAllRequest(name, keySet);
-        MapEntrySet mapEntrySet = invoke(request);
+        return futures;
+    }
+
+    private void putGetAllResponse(MapEntrySet mapEntrySet, Map<K, V> result) {
         Set<Entry<Data, Data>> entrySet = mapEntrySet.getEntrySet();
         for (Entry<Data, Data> dataEntry : entrySet) {
             final V value = (V) toObject(dataEntry.getValue());
@@ -560,7 +616,6 @@ public final class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V
                 nearCache.put(dataEntry.getKey(), value);
             }
         }
-        return result;
     }
 
     @Override
@@ -599,11 +654,6 @@ public final class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V
             pagingPredicate = (PagingPredicate) predicate;
             pagingPredicate.setIterationType(IterationType.KEY);
 
-            if (pagingPredicate.getPage() > 0 && pagingPredicate.getAnchor() == null) {
-                pagingPredicate.previousPage();
-                keySet(pagingPredicate);
-                pagingPredicate.nextPage();
-            }
         }
         MapQueryRequest request = new MapQueryRequest(name, predicate, IterationType.KEY);
         QueryResultSet result = invoke(request);
@@ -619,7 +669,7 @@ public final class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V
 
         final Comparator<Entry> comparator = SortingUtil.newComparator(pagingPredicate.getComparator(), IterationType.KEY);
         final SortedQueryResultSet sortedResult = new SortedQueryResultSet(comparator, IterationType.KEY,
-                pagingPredicate.getPageSize());
+                pagingPredicate.getFetchSize());
 
 
         final Iterator<Entry> iterator = result.rawIterator();
@@ -630,7 +680,7 @@ public final class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V
             sortedResult.add(new AbstractMap.SimpleImmutableEntry<K, V>(key, value));
         }
 
-        PagingPredicateAccessor.setPagingPredicateAnchor(pagingPredicate, sortedResult.last());
+        PagingPredicateAccessor.setPagingPredicateAnchors(pagingPredicate, sortedResult);
 
         return (Set<K>) sortedResult;
     }
@@ -642,11 +692,6 @@ public final class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V
             pagingPredicate = (PagingPredicate) predicate;
             pagingPredicate.setIterationType(IterationType.ENTRY);
 
-            if (pagingPredicate.getPage() > 0 && pagingPredicate.getAnchor() == null) {
-                pagingPredicate.previousPage();
-                entrySet(pagingPredicate);
-                pagingPredicate.nextPage();
-            }
         }
 
         MapQueryRequest request = new MapQueryRequest(name, predicate, IterationType.ENTRY);
@@ -656,7 +701,7 @@ public final class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V
             entrySet = new HashSet<Entry<K, V>>(result.size());
         } else {
             entrySet = new SortedQueryResultSet(pagingPredicate.getComparator(), IterationType.ENTRY,
-                    pagingPredicate.getPageSize());
+                    pagingPredicate.getFetchSize());
         }
         for (Object data : result) {
             AbstractMap.SimpleImmutableEntry<Data, Data> dataEntry = (AbstractMap.SimpleImmutableEntry<Data, Data>) data;
@@ -665,7 +710,7 @@ public final class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V
             entrySet.add(new AbstractMap.SimpleEntry<K, V>(key, value));
         }
         if (pagingPredicate != null) {
-            PagingPredicateAccessor.setPagingPredicateAnchor(pagingPredicate, ((SortedQueryResultSet) entrySet).last());
+            PagingPredicateAccessor.setPagingPredicateAnchors(pagingPredicate, (SortedQueryResultSet) entrySet);
         }
         return entrySet;
     }
@@ -677,11 +722,6 @@ public final class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V
             pagingPredicate = (PagingPredicate) predicate;
             pagingPredicate.setIterationType(IterationType.VALUE);
 
-            if (pagingPredicate.getPage() > 0 && pagingPredicate.getAnchor() == null) {
-                pagingPredicate.previousPage();
-                values(pagingPredicate);
-                pagingPredicate.nextPage();
-            }
         }
         MapQueryRequest request = new MapQueryRequest(name, predicate, IterationType.VALUE);
         QueryResultSet result = invoke(request);
@@ -705,14 +745,10 @@ public final class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V
         }
 
         Collections.sort(valueEntryList, SortingUtil.newComparator(pagingPredicate.getComparator(), IterationType.VALUE));
-        if (valueEntryList.size() > pagingPredicate.getPageSize()) {
-            valueEntryList = valueEntryList.subList(0, pagingPredicate.getPageSize());
+        if (valueEntryList.size() > pagingPredicate.getFetchSize()) {
+            valueEntryList = valueEntryList.subList(0, pagingPredicate.getFetchSize());
         }
-        Entry anchor = null;
-        if (valueEntryList.size() != 0) {
-            anchor = valueEntryList.get(valueEntryList.size() - 1);
-        }
-        PagingPredicateAccessor.setPagingPredicateAnchor(pagingPredicate, anchor);
+        valueEntryList = PagingPredicateAccessor.setPagingPredicateAnchors(pagingPredicate, valueEntryList);
 
         final ArrayList<V> values = new ArrayList<V>(valueEntryList.size());
         for (Entry<Object, V> objectVEntry : valueEntryList) {
@@ -721,6 +757,48 @@ public final class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V
         return values;
     }
 
+    @Override
+    public Iterator<Entry<K, V>> entryIterator(final Predicate predicate, final int fetchSize) {
+        ValidationUtil.isNotNull(predicate, "predicate");
+        if (predicate instanceof PagingPredicate) {
+            throw new IllegalArgumentException("PagingPredicate is not supported by entryIterator");
+        }
+        ValidationUtil.shouldBePositive(fetchSize, "fetchSize");
+        final ClientPartitionService partitionService = getContext().getPartitionService();
+        return new ChunkedQueryIterator<K, V>(partitionService.getPartitionCount()) {
+            @Override
+            protected QueryChunk fetch(int partitionId, String cursorId, int chunkSequence) {
+                MapQueryChunkRequest request = new MapQueryChunkRequest(name, predicate, cursorId, chunkSequence,
+                        partitionId, fetchSize);
+                final Address owner = partitionService.getPartitionOwner(partitionId);
+                if (owner != null) {
+                    return invoke(request, owner);
+                }
+                return invoke(request);
+            }
+
+            @Override
+            protected void close(int partitionId, String cursorId) {
+                MapCloseQueryCursorRequest request = new MapCloseQueryCursorRequest(name, cursorId, partitionId);
+                final Address owner = partitionService.getPartitionOwner(partitionId);
+                try {
+                    if (owner != null) {
+                        getContext().getInvocationService().invokeOnTarget(request, owner);
+                    } else {
+                        getContext().getInvocationService().invokeOnRandomTarget(request);
+                    }
+                } catch (Exception ignored) {
+                    // the cursor is dropped once idle
+                }
+            }
+
+            @Override
+            protected Object toObject(Data data) {
+                return ClientMapProxy.this.toObject(data);
+            }
+        };
+    }
+
     @Override
     public Set<K> localKeySet() {
         throw new UnsupportedOperationException("Locality is ambiguous for client!!!");
@@ -882,14 +960,74 @@ public final class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V
 
     @Override
     public void putAll(Map<? extends K, ? extends V> m) {
-        MapEntrySet entrySet = new MapEntrySet();
+        Collection<ICompletableFuture> futures = invokePutAll(m);
+        try {
+            for (ICompletableFuture future : futures) {
+                future.get();
+            }
+        } catch (Exception e) {
+            throw ExceptionUtil.rethrow(e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #putAll(java.util.Map)}.
+     * <p/>
+     * Entries are grouped by the partition owner of their keys and a single request
+     * is sent to each owner, all in parallel.
+     *
+     * @param m mappings to be stored in this map
+     * @return a future which completes once all the entries are stored
+     */
+    public ICompletableFuture<Void> putAllAsync(Map<? extends K, ? extends V> m) {
+        Collection<ICompletableFuture> futures = invokePutAll(m);
+        return new ClientMergingFuture<Void>(futures, getContext().getExecutionService().getAsyncExecutor()) {
+            @Override
+            protected Void merge(List<Object> responses) {
+                return null;
+            }
+        };
+    }
+
+    private Collection<ICompletableFuture> invokePutAll(Map<? extends K, ? extends V> m) {
+        Map<Address, MapEntrySet> entriesByOwner = new HashMap<Address, MapEntrySet>();
         for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
             final Data keyData = toData(entry.getKey());
             invalidateNearCache(keyData);
+            Address owner = getKeyOwner(keyData);
+            MapEntrySet entrySet = entriesByOwner.get(owner);
+            if (entrySet == null) {
+                entrySet = new MapEntrySet();
+                entriesByOwner.put(owner, entrySet);
+            }
             entrySet.add(new AbstractMap.SimpleImmutableEntry<Data, Data>(keyData, toData(entry.getValue())));
         }
-        MapPutAllRequest request = new MapPutAllRequest(name, entrySet);
-        invoke(request);
+        List<ICompletableFuture> futures = new ArrayList<ICompletableFuture>(entriesByOwner.size());
+        for (Entry<Address, MapEntrySet> entry : entriesByOwner.entrySet()) {
+            MapPutAllRequest request = new MapPutAllRequest(name, entry.getValue());
+            futures.add(invokeOnOwner(request, entry.getKey()));
+        }
+        return futures;
+    }
+
+    private Address getKeyOwner(Data key) {
+        ClientPartitionService partitionService = getContext().getPartitionService();
+        return partitionService.getPartitionOwner(partitionService.getPartitionId(key));
+    }
+
+    /**
+     * Sends the request to the given owner, or to a random member while the owner is not known yet.
+     */
+    private ICompletableFuture invokeOnOwner(ClientRequest request, Address owner) {
+        ClientInvocationService invocationService = getContext().getInvocationService();
+        try {
+            if (owner != null) {
+                return invocationService.invokeOnTarget(request, owner);
+            }
+            return invocationService.invokeOnRandomTarget(request);
+        } catch (Exception e) {
+            throw ExceptionUtil.rethrow(e);
+        }
     }
 
     @Override
@@ -47,6 +47,8 @@ import static com.hazelcast.client.config.ClientProperties.PROP_RETRY_WAIT_TIME_
 
 public class ClientCallFuture<V> implements ICompletableFuture<V>, Callback {
 
+    public static final int NO_PARTITION = -1;
+
     static final ILogger logger = Logger.getLogger(ClientCallFuture.class);
 
     private Object response;
@@ -61,6 +63,8 @@ public class ClientCallFuture<V> implements ICompletableFuture<V>, Callback {
 
     private final EventHandler handler;
 
+    private final int partitionId;
+
     public final int heartBeatInterval;
     public final int retryCount;
     public final int retryWaitTime;
@@ -72,6 +76,14 @@ public class ClientCallFuture<V> implements ICompletableFuture<V>, Callback {
     private List<ExecutionCallbackNode> callbackNodeList = new LinkedList<ExecutionCallbackNode>();
 
     public ClientCallFuture(HazelcastClient client, ClientRequest request, EventHandler handler) {
+        this(client, request, handler, NO_PARTITION);
+    }
+
+    /**
+     * @param partitionId partition the request operates on, used to route a resent request to
+     *                    the current owner of the partition, or {@link #NO_PARTITION}
+     */
+    public ClientCallFuture(HazelcastClient client, ClientRequest request, EventHandler handler, int partitionId) {
         int interval = client.clientProperties.HEARTBEAT_INTERVAL.getInteger();
         this.heartBeatInterval = interval > 0 ? interval : Integer.parseInt(PROP_HEARTBEAT_INTERVAL_DEFAULT);
 
@@ -87,6 +99,7 @@ public class ClientCallFuture<V> implements ICompletableFuture<V>, Callback {
         this.serializationService = client.getSerializationService();
         this.request = request;
         this.handler = handler;
+        this.partitionId = partitionId;
     }
 
     public boolean cancel(boolean mayInterruptIfRunning) {
@@ -227,6 +240,10 @@ public class ClientCallFuture<V> implements ICompletableFuture<V>, Callback {
         return handler;
     }
 
+    public int getPartitionId() {
+        return partitionId;
+    }
+
     public ClientConnection getConnection() {
         return connection;
     }
@@ -62,11 +62,12 @@ public final class ClientInvocationServiceImpl implements ClientInvocationServic
 
     public <T> ICompletableFuture<T> invokeOnKeyOwner(ClientRequest request, Object key) throws Exception {
         ClientPartitionServiceImpl partitionService = (ClientPartitionServiceImpl) client.getClientPartitionService();
-        final Address owner = partitionService.getPartitionOwner(partitionService.getPartitionId(key));
-        if (owner != null) {
-            return invokeOnTarget(request, owner);
-        }
-        return invokeOnRandomTarget(request);
+        final int partitionId = partitionService.getPartitionId(key);
+        final Address owner = partitionService.getPartitionOwner(partitionId);
+        final ClientConnection connection = connectionManager.tryToConnect(owner);
+        final ClientCallFuture future = new ClientCallFuture(client, request, null, partitionId);
+        sendInternal(future, connection);
+        return future;
     }
 
     public <T> ICompletableFuture<T> invokeOnRandomTarget(ClientRequest request, EventHandler handler) throws Exception {
@@ -95,8 +96,17 @@ public final class ClientInvocationServiceImpl implements ClientInvocationServic
         return doSend(request, connection, null);
     }
 
+    /**
+     * Sends the call again. A call for a partition goes to the current owner of the partition,
+     * which might have changed since the call was sent first; any other call goes to a random member.
+     */
     public Future reSend(ClientCallFuture future) throws Exception {
-        final ClientConnection connection = connectionManager.tryToConnect(null);
+        Address target = null;
+        final int partitionId = future.getPartitionId();
+        if (partitionId != ClientCallFuture.NO_PARTITION) {
+            target = client.getClientPartitionService().getPartitionOwner(partitionId);
+        }
+        final ClientConnection connection = connectionManager.tryToConnect(target);
         sendInternal(future, connection);
         return future;
     }
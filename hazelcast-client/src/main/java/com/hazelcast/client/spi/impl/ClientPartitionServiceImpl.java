@@ -17,8 +17,10 @@
 package com.hazelcast.client.spi.impl;
 
 import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.connection.nio.ClientConnection;
 import com.hazelcast.client.spi.ClientClusterService;
 import com.hazelcast.client.spi.ClientPartitionService;
+import com.hazelcast.client.spi.EventHandler;
 import com.hazelcast.core.HazelcastInstanceNotActiveException;
 import com.hazelcast.core.Member;
 import com.hazelcast.core.Partition;
@@ -27,15 +29,22 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.partition.client.AddPartitionListenerRequest;
+import com.hazelcast.partition.client.ClientPartitionTableEvent;
+import com.hazelcast.partition.client.GetPartitionTableRequest;
 import com.hazelcast.partition.client.GetPartitionsRequest;
 import com.hazelcast.partition.client.PartitionsResponse;
 
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author mdogan 5/16/13
@@ -45,6 +54,7 @@ public final class ClientPartitionServiceImpl implements ClientPartitionService
     private static final ILogger LOGGER = Logger.getLogger(ClientPartitionService.class);
     private static final long PERIOD = 10;
     private static final long INITIAL_DELAY = 10;
+    private static final int MAX_PENDING_DELTAS = 32;
 
     private final HazelcastClient client;
 
@@ -52,6 +62,21 @@ public final class ClientPartitionServiceImpl implements ClientPartitionService
 
     private final AtomicBoolean updating = new AtomicBoolean(false);
 
+    private final AtomicLong misroutedInvocationCount = new AtomicLong();
+
+    private final Object tableLock = new Object();
+
+    // uuid of the member whose partition table versions are followed, guarded by tableLock
+    private String tableSource;
+
+    // guarded by tableLock
+    private int tableVersion;
+
+    // deltas received out of order, guarded by tableLock
+    private final List<ClientPartitionTableEvent> pendingDeltas = new LinkedList<ClientPartitionTableEvent>();
+
+    private volatile ClientCallFuture listenerFuture;
+
     private volatile int partitionCount;
 
     public ClientPartitionServiceImpl(HazelcastClient client) {
@@ -60,7 +85,9 @@ public final class ClientPartitionServiceImpl implements ClientPartitionService
 
     public void start() {
         getInitialPartitions();
-        client.getClientExecutionService().scheduleWithFixedDelay(new RefreshTask(), INITIAL_DELAY, PERIOD, TimeUnit.SECONDS);
+        if (!listenPartitionTable()) {
+            client.getClientExecutionService().scheduleWithFixedDelay(new RefreshTask(), INITIAL_DELAY, PERIOD, TimeUnit.SECONDS);
+        }
     }
 
     public void refreshPartitions() {
@@ -70,13 +97,41 @@ public final class ClientPartitionServiceImpl implements ClientPartitionService
         }
     }
 
+    /**
+     * Registers for the partition table changes pushed by a member. Falls back to polling the
+     * partition table periodically if the member does not support it.
+     */
+    private boolean listenPartitionTable() {
+        try {
+            final ClientCallFuture future = (ClientCallFuture) client.getInvocationService()
+                    .invokeOnRandomTarget(new AddPartitionListenerRequest(), new PartitionTableEventHandler());
+            future.get();
+            listenerFuture = future;
+            return true;
+        } catch (Exception e) {
+            LOGGER.warning("Could not register for partition table changes, partition table will be polled instead", e);
+            return false;
+        }
+    }
+
+    /**
+     * Refreshes the partition table from the member pushing its changes, so that the refreshed version can
+     * be compared with the pushed ones. Polls the unversioned partition table of the master if changes are not
+     * pushed, which is supported by members without the partition listener as well.
+     */
     private class RefreshTask implements Runnable {
         public void run() {
             if (updating.compareAndSet(false, true)) {
                 try {
-                    final ClientClusterService clusterService = client.getClientClusterService();
-                    final Address master = clusterService.getMasterAddress();
-                    final PartitionsResponse response = getPartitionsFrom(master);
+                    final Address listenerTarget = getListenerTarget();
+                    if (listenerTarget != null) {
+                        final ClientPartitionTableEvent table = getPartitionTableFrom(listenerTarget);
+                        if (table != null) {
+                            processPartitionTableEvent(table);
+                        }
+                        return;
+                    }
+                    final PartitionsResponse response = getPartitionsFrom(client.getClientClusterService().getMasterAddress());
                     if (response != null) {
                         processPartitionResponse(response);
                     }
@@ -88,6 +143,17 @@ public final class ClientPartitionServiceImpl implements ClientPartitionService
         }
     }
 
+    private Address getListenerTarget() {
+        final ClientCallFuture future = listenerFuture;
+        if (future != null) {
+            final ClientConnection connection = future.getConnection();
+            if (connection != null && connection.live()) {
+                return connection.getRemoteEndpoint();
+            }
+        }
+        return null;
+    }
+
     private void getInitialPartitions() {
         final ClientClusterService clusterService = client.getClientClusterService();
         final Collection<MemberImpl> memberList = clusterService.getMemberList();
@@ -113,24 +179,144 @@ public final class ClientPartitionServiceImpl implements ClientPartitionService
         return null;
     }
 
+    private ClientPartitionTableEvent getPartitionTableFrom(Address address) {
+        try {
+            final Future<ClientPartitionTableEvent> future =
+                    client.getInvocationService().invokeOnTarget(new GetPartitionTableRequest(), address);
+            return client.getSerializationService().toObject(future.get());
+        } catch (Exception e) {
+            LOGGER.severe("Error while fetching cluster partition table!", e);
+        }
+        return null;
+    }
+
+    /**
+     * Applies a polled partition table. It carries no version, so the changes pushed later are only applied
+     * after the next full table of their member.
+     */
     private void processPartitionResponse(PartitionsResponse response) {
         final Address[] members = response.getMembers();
         final int[] ownerIndexes = response.getOwnerIndexes();
-        if (partitionCount == 0) {
-            partitionCount = ownerIndexes.length;
+        synchronized (tableLock) {
+            if (partitionCount == 0) {
+                partitionCount = ownerIndexes.length;
+            }
+            for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+                final int ownerIndex = ownerIndexes[partitionId];
+                if (ownerIndex > -1) {
+                    partitions.put(partitionId, members[ownerIndex]);
+                }
+            }
+            tableSource = null;
+            tableVersion = 0;
         }
-        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
-            final int ownerIndex = ownerIndexes[partitionId];
-            if (ownerIndex > -1) {
-                partitions.put(partitionId, members[ownerIndex]);
+    }
+
+    private void processPartitionTableEvent(ClientPartitionTableEvent event) {
+        boolean gap = false;
+        synchronized (tableLock) {
+            if (event.isFullTable()) {
+                if (!event.getMemberUuid().equals(tableSource) || event.getVersion() > tableVersion) {
+                    updatePartitions(event);
+                    tableSource = event.getMemberUuid();
+                    tableVersion = event.getVersion();
+                }
+            } else {
+                pendingDeltas.add(event);
+            }
+            applyPendingDeltas();
+            if (pendingDeltas.size() > MAX_PENDING_DELTAS) {
+                pendingDeltas.clear();
+                gap = true;
             }
         }
+        if (gap) {
+            LOGGER.warning("Missing partition table changes detected, refreshing partition table");
+            refreshPartitions();
+        }
+    }
+
+    /**
+     * Applies the deltas which continue the current version. Deltas of another member are kept
+     * until its full table arrives, the ones at or below the current version are dropped.
+     */
+    private void applyPendingDeltas() {
+        boolean applied;
+        do {
+            applied = false;
+            final Iterator<ClientPartitionTableEvent> iterator = pendingDeltas.iterator();
+            while (iterator.hasNext()) {
+                final ClientPartitionTableEvent delta = iterator.next();
+                if (!delta.getMemberUuid().equals(tableSource)) {
+                    continue;
+                }
+                if (delta.getVersion() <= tableVersion) {
+                    iterator.remove();
+                } else if (delta.getFromVersion() == tableVersion) {
+                    updatePartitions(delta);
+                    tableVersion = delta.getVersion();
+                    iterator.remove();
+                    applied = true;
+                }
+            }
+        } while (applied);
+    }
+
+    private void updatePartitions(ClientPartitionTableEvent event) {
+        final int[] partitionIds = event.getPartitionIds();
+        final Address[] owners = event.getOwners();
+        for (int i = 0; i < partitionIds.length; i++) {
+            if (owners[i] != null) {
+                partitions.put(partitionIds[i], owners[i]);
+            } else {
+                partitions.remove(partitionIds[i]);
+            }
+        }
+    }
+
+    /**
+     * Counts a response of a partition call as misrouted if it came from a member which is not
+     * the current owner of the partition.
+     */
+    public void countIfMisrouted(int partitionId, Address target) {
+        final Address owner = partitions.get(partitionId);
+        if (owner != null && !owner.equals(target)) {
+            misroutedInvocationCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return number of partition calls which were answered by a member other than the owner
+     * of the partition known when the response arrived
+     */
+    public long getMisroutedInvocationCount() {
+        return misroutedInvocationCount.get();
+    }
+
+    /**
+     * @return version of the partition table, local to the member publishing it
+     */
+    public int getPartitionTableVersion() {
+        synchronized (tableLock) {
+            return tableVersion;
+        }
     }
 
     public void stop() {
         partitions.clear();
     }
 
+    private final class PartitionTableEventHandler implements EventHandler<ClientPartitionTableEvent> {
+        @Override
+        public void handle(ClientPartitionTableEvent event) {
+            processPartitionTableEvent(event);
+        }
+
+        @Override
+        public void onListenerRegister() {
+        }
+    }
+
     @Override
     public Address getPartitionOwner(int partitionId) {
         return partitions.get(partitionId);
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.util;
+
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.util.Clock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A future which completes once all the given futures complete, with the value
+ * produced by {@link #merge(java.util.List)} from their responses.
+ * <p/>
+ * Used by proxies which fan a single call out to several members, e.g. one request
+ * per partition owner. The first failing future fails the merged future.
+ *
+ * @param <V> type of the merged value
+ */
+public abstract class ClientMergingFuture<V> implements ICompletableFuture<V> {
+
+    private final Executor asyncExecutor;
+    private final List<Object> responses;
+    private final List<ExecutionCallbackNode> callbackNodeList = new LinkedList<ExecutionCallbackNode>();
+    private int pending;
+    private Object response;
+    private boolean done;
+
+    protected ClientMergingFuture(Collection<? extends ICompletableFuture> futures, Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+        this.responses = new ArrayList<Object>(futures.size());
+        this.pending = futures.size();
+        if (pending == 0) {
+            complete();
+            return;
+        }
+        for (ICompletableFuture future : futures) {
+            future.andThen(new ExecutionCallback<Object>() {
+                public void onResponse(Object response) {
+                    onPartialResponse(response);
+                }
+
+                public void onFailure(Throwable t) {
+                    setResponse(t);
+                }
+            });
+        }
+    }
+
+    /**
+     * Merges the responses of all futures into the final value. Called once, after
+     * all futures completed successfully.
+     *
+     * @param responses deserialized responses, in completion order
+     * @return the merged value
+     */
+    protected abstract V merge(List<Object> responses);
+
+    private void onPartialResponse(Object partialResponse) {
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            responses.add(partialResponse);
+            if (--pending > 0) {
+                return;
+            }
+        }
+        complete();
+    }
+
+    private void complete() {
+        try {
+            setResponse(merge(responses));
+        } catch (Throwable t) {
+            setResponse(t);
+        }
+    }
+
+    private void setResponse(Object response) {
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            this.response = response;
+            this.done = true;
+            this.notifyAll();
+        }
+        for (ExecutionCallbackNode node : callbackNodeList) {
+            runAsynchronous(node.callback, node.executor);
+        }
+        callbackNodeList.clear();
+    }
+
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    public boolean isCancelled() {
+        return false;
+    }
+
+    public synchronized boolean isDone() {
+        return done;
+    }
+
+    public V get() throws InterruptedException, ExecutionException {
+        try {
+            return get(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ExecutionException(e);
+        }
+    }
+
+    public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        long waitMillis = unit.toMillis(timeout);
+        synchronized (this) {
+            while (!done && waitMillis > 0) {
+                long start = Clock.currentTimeMillis();
+                this.wait(waitMillis);
+                waitMillis -= Clock.currentTimeMillis() - start;
+            }
+            if (!done) {
+                throw new TimeoutException();
+            }
+        }
+        return resolveResponse();
+    }
+
+    private V resolveResponse() throws ExecutionException {
+        if (response instanceof ExecutionException) {
+            throw (ExecutionException) response;
+        }
+        if (response instanceof Error) {
+            throw (Error) response;
+        }
+        if (response instanceof Throwable) {
+            throw new ExecutionException((Throwable) response);
+        }
+        return (V) response;
+    }
+
+    public void andThen(ExecutionCallback<V> callback) {
+        andThen(callback, asyncExecutor);
+    }
+
+    public void andThen(ExecutionCallback<V> callback, Executor executor) {
+        synchronized (this) {
+            if (!done) {
+                callbackNodeList.add(new ExecutionCallbackNode(callback, executor));
+                return;
+            }
+        }
+        runAsynchronous(callback, executor);
+    }
+
+    private void runAsynchronous(final ExecutionCallback callback, Executor executor) {
+        executor.execute(new Runnable() {
+            public void run() {
+                try {
+                    callback.onResponse(resolveResponse());
+                } catch (Throwable t) {
+                    callback.onFailure(t);
+                }
+            }
+        });
+    }
+
+    private static final class ExecutionCallbackNode {
+
+        final ExecutionCallback callback;
+        final Executor executor;
+
+        ExecutionCallbackNode(ExecutionCallback callback, Executor executor) {
+            this.callback = callback;
+            this.executor = executor;
+        }
+    }
+}
@@ -343,16 +343,9 @@ public class ClientNearCacheTest {
             map.get(i);
         }
 
-        final int evictionSize = (int) (MAX_CACHE_SIZE * (ClientNearCache.EVICTION_PERCENTAGE / 100.0));
-        final int remainingSize = MAX_CACHE_SIZE - evictionSize;
-
-        HazelcastTestSupport.assertTrueEventually(new AssertTask() {
-            @Override
-            public void run() throws Exception {
-                final NearCacheStats stats = map.getLocalMapStats().getNearCacheStats();
-                assertEquals(remainingSize, stats.getOwnedEntryCount());
-            }
-        });
+        final NearCacheStats stats = map.getLocalMapStats().getNearCacheStats();
+        assertEquals(MAX_CACHE_SIZE, stats.getOwnedEntryCount());
+        assertEquals(1, stats.getEvictions());
     }
 
     @Test
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.config.ClientProperties;
+import com.hazelcast.core.EntryAdapter;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class ClientPipeliningTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 10000;
+
+    @After
+    @Before
+    public void cleanup() throws Exception {
+        HazelcastClient.shutdownAll();
+        Hazelcast.shutdownAll();
+    }
+
+    @Test
+    public void testAsyncCalls_whenInFlightInvocationsBounded() throws Exception {
+        Hazelcast.newHazelcastInstance();
+        Hazelcast.newHazelcastInstance();
+        final ClientConfig clientConfig = new ClientConfig();
+        clientConfig.setProperty(ClientProperties.PROP_PIPELINING_ENABLED, "true");
+        clientConfig.setProperty(ClientProperties.PROP_MAX_IN_FLIGHT_INVOCATIONS, "16");
+        final HazelcastInstance client = HazelcastClient.newHazelcastClient(clientConfig);
+        final IMap<Integer, Integer> map = client.getMap(randomMapName());
+
+        final CountDownLatch addedLatch = new CountDownLatch(ENTRY_COUNT);
+        map.addEntryListener(new EntryAdapter<Integer, Integer>() {
+            public void entryAdded(EntryEvent<Integer, Integer> event) {
+                addedLatch.countDown();
+            }
+        }, false);
+
+        final List<Future> futures = new ArrayList<Future>(ENTRY_COUNT);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            futures.add(map.putAsync(i, i));
+        }
+        for (Future future : futures) {
+            future.get();
+        }
+        assertOpenEventually(addedLatch);
+        assertEquals(ENTRY_COUNT, map.size());
+
+        final List<Future<Integer>> getFutures = new ArrayList<Future<Integer>>(ENTRY_COUNT);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            getFutures.add(map.getAsync(i));
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) getFutures.get(i).get());
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
@@ -86,6 +87,25 @@ public class ClientMapIssueTest {
 
     }
 
+    @Test
+    public void testGetAllPutAll_withMultipleMembers() {
+        Hazelcast.newHazelcastInstance();
+        Hazelcast.newHazelcastInstance();
+        Hazelcast.newHazelcastInstance();
+        final HazelcastInstance client = HazelcastClient.newHazelcastClient();
+        final IMap<Integer, Integer> map = client.getMap("map");
+
+        final Map<Integer, Integer> entries = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 1000; i++) {
+            entries.put(i, i);
+        }
+        map.putAll(entries);
+        assertEquals(1000, map.size());
+
+        final Map<Integer, Integer> result = map.getAll(entries.keySet());
+        assertEquals(entries, result);
+    }
+
     @Test
     public void testMapPagingEntries() {
         final HazelcastInstance instance1 = Hazelcast.newHazelcastInstance();
@@ -18,6 +18,7 @@ package com.hazelcast.client.map;
 
 import com.hazelcast.client.AuthenticationRequest;
 import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.proxy.ClientMapProxy;
 import com.hazelcast.config.Config;
 import com.hazelcast.config.MapStoreConfig;
 import com.hazelcast.core.EntryAdapter;
@@ -49,6 +50,7 @@ import java.io.Serializable;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
@@ -213,6 +215,28 @@ public class ClientMapTest {
         assertEquals(m2.get(3), 3);
     }
 
+    @Test
+    public void testGetAllAsyncPutAllAsync() throws Exception {
+        final ClientMapProxy<Integer, Integer> map = (ClientMapProxy<Integer, Integer>) createMap();
+        Map<Integer, Integer> mm = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 100; i++) {
+            mm.put(i, i);
+        }
+        map.putAllAsync(mm).get();
+        assertEquals(100, map.size());
+
+        Set<Integer> keys = new HashSet<Integer>();
+        for (int i = 90; i < 110; i++) {
+            keys.add(i);
+        }
+        Map<Integer, Integer> result = map.getAllAsync(keys).get();
+        assertEquals(10, result.size());
+        for (int i = 90; i < 100; i++) {
+            assertEquals(i, (int) result.get(i));
+        }
+        assertTrue(map.getAllAsync(new HashSet<Integer>()).get().isEmpty());
+    }
+
     @Test
     public void testAsyncGet() throws Exception {
         final IMap map = createMap();
@@ -475,6 +499,22 @@ public class ClientMapTest {
         assertEquals("value1", values.iterator().next());
     }
 
+    @Test
+    public void testEntryIterator() {
+        final IMap<Integer, Integer> map = createMap();
+        for (int i = 0; i < 500; i++) {
+            map.put(i, i);
+        }
+        final Set<Integer> keys = new HashSet<Integer>();
+        final Iterator<Map.Entry<Integer, Integer>> iterator = map.entryIterator(new SqlPredicate("this < 100"), 3);
+        while (iterator.hasNext()) {
+            final Map.Entry<Integer, Integer> entry = iterator.next();
+            assertEquals(entry.getKey(), entry.getValue());
+            assertTrue(keys.add(entry.getKey()));
+        }
+        assertEquals(100, keys.size());
+    }
+
     @Test
     public void testReplace() throws Exception {
         final IMap map = createMap();
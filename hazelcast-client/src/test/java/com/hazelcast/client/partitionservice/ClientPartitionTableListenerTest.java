@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.partitionservice;
+
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.Member;
+import com.hazelcast.core.Partition;
+import com.hazelcast.core.PartitionService;
+import com.hazelcast.partition.impl.ClientPartitionListenerService;
+import com.hazelcast.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class ClientPartitionTableListenerTest extends HazelcastTestSupport {
+
+    @Before
+    @After
+    public void cleanup() {
+        HazelcastClient.shutdownAll();
+        Hazelcast.shutdownAll();
+    }
+
+    @Test
+    public void testPartitionOwnersUpdated_afterMigration() {
+        final HazelcastInstance server1 = Hazelcast.newHazelcastInstance();
+        final HazelcastInstance client = HazelcastClient.newHazelcastClient();
+        final HazelcastInstance server2 = Hazelcast.newHazelcastInstance();
+
+        assertPartitionOwnersEventually(server1, client);
+
+        server2.shutdown();
+
+        assertPartitionOwnersEventually(server1, client);
+    }
+
+    @Test
+    public void testPartitionOwnersUpdated_whenListenerMemberLeaves() {
+        final HazelcastInstance server1 = Hazelcast.newHazelcastInstance();
+        final HazelcastInstance server2 = Hazelcast.newHazelcastInstance();
+        final HazelcastInstance client = HazelcastClient.newHazelcastClient();
+
+        server1.shutdown();
+
+        assertPartitionOwnersEventually(server2, client);
+
+        final HazelcastInstance server3 = Hazelcast.newHazelcastInstance();
+
+        assertPartitionOwnersEventually(server3, client);
+    }
+
+    @Test
+    public void testListenerRemoved_whenClientDisconnects() {
+        final HazelcastInstance server = Hazelcast.newHazelcastInstance();
+        final HazelcastInstance client = HazelcastClient.newHazelcastClient();
+        final InternalPartitionServiceImpl partitionService
+                = (InternalPartitionServiceImpl) getNode(server).getPartitionService();
+        final ClientPartitionListenerService listenerService = partitionService.getClientPartitionListenerService();
+        assertEquals(1, listenerService.getListenerCount());
+
+        client.shutdown();
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(0, listenerService.getListenerCount());
+            }
+        });
+    }
+
+    private void assertPartitionOwnersEventually(final HazelcastInstance server, final HazelcastInstance client) {
+        final PartitionService serverPartitionService = server.getPartitionService();
+        final PartitionService clientPartitionService = client.getPartitionService();
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                final Map<Integer, Member> clientOwners = new HashMap<Integer, Member>();
+                for (Partition partition : clientPartitionService.getPartitions()) {
+                    clientOwners.put(partition.getPartitionId(), partition.getOwner());
+                }
+                for (Partition partition : serverPartitionService.getPartitions()) {
+                    assertEquals(partition.getOwner(), clientOwners.get(partition.getPartitionId()));
+                }
+            }
+        }, 10);
+    }
+}
@@ -475,6 +475,11 @@ public class HazelcastConfigBeanDefinitionParser extends AbstractHazelcastBeanDe
                                 }
                             }
                             targetClusterConfigBuilder.addPropertyValue("endpoints", addresses);
+                        } else if ("batch-size".equals(childNodeName)
+                                || "batch-max-delay-millis".equals(childNodeName)
+                                || "queue-capacity".equals(childNodeName)) {
+                            targetClusterConfigBuilder
+                                    .addPropertyValue(xmlToJavaName(childNodeName), getTextContent(childNode));
                         }
                     }
                     targetClusters.add(childBeanDefinition);
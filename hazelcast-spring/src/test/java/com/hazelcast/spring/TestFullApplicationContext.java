@@ -388,6 +388,9 @@ public class TestFullApplicationContext {
         assertEquals(2, targetCfg.getEndpoints().size());
         assertEquals("10.2.1.1:5701", targetCfg.getEndpoints().get(0));
         assertEquals("10.2.1.2:5701", targetCfg.getEndpoints().get(1));
+        assertEquals(100, targetCfg.getBatchSize());
+        assertEquals(200, targetCfg.getBatchMaxDelayMillis());
+        assertEquals(5000, targetCfg.getQueueCapacity());
         assertEquals(wanReplication, wcfg.getTargetClusterConfigs().get(1).getReplicationImplObject());
     }
 
@@ -23,6 +23,7 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Connection;
 import com.hazelcast.nio.TcpIpConnection;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.partition.impl.InternalPartitionServiceImpl;
 import com.hazelcast.spi.EventService;
 import com.hazelcast.transaction.TransactionContext;
 import com.hazelcast.transaction.TransactionException;
@@ -176,6 +177,16 @@ public final class ClientEndpoint implements Client {
         });
     }
 
+    public void setPartitionListener(final String id) {
+        removeListenerActions.add(new Runnable() {
+            @Override
+            public void run() {
+                InternalPartitionServiceImpl partitionService = (InternalPartitionServiceImpl) clientEngine.getPartitionService();
+                partitionService.getClientPartitionListenerService().removeListener(id);
+            }
+        });
+    }
+
     public void clearAllListeners() {
         for (Runnable removeAction : removeListenerActions) {
             try {
@@ -20,6 +20,8 @@ import com.hazelcast.cluster.client.AddMembershipListenerRequest;
 import com.hazelcast.cluster.client.ClientPingRequest;
 import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.nio.serialization.PortableFactory;
+import com.hazelcast.partition.client.AddPartitionListenerRequest;
+import com.hazelcast.partition.client.GetPartitionTableRequest;
 import com.hazelcast.partition.client.GetPartitionsRequest;
 
 public class ClientPortableFactory implements PortableFactory {
@@ -51,6 +53,10 @@ public class ClientPortableFactory implements PortableFactory {
                 return new GetPartitionsRequest();
             case ClientPortableHook.REMOVE_LISTENER:
                 return new RemoveDistributedObjectListenerRequest();
+            case ClientPortableHook.PARTITION_LISTENER:
+                return new AddPartitionListenerRequest();
+            case ClientPortableHook.PARTITION_TABLE:
+                return new GetPartitionTableRequest();
             default:
                 return null;
         }
@@ -44,6 +44,8 @@ public class ClientPortableHook implements PortableHook {
     public static final int CLIENT_PING = 11;
     public static final int GET_PARTITIONS = 12;
     public static final int REMOVE_LISTENER = 13;
+    public static final int PARTITION_LISTENER = 14;
+    public static final int PARTITION_TABLE = 15;
 
     public int getFactoryId() {
         return ID;
@@ -192,6 +192,17 @@ public abstract class AbstractXmlConfigHelper {
         }
     }
 
+    protected long getLongValue(final String parameterName, final String value, final long defaultValue) {
+        try {
+            return Long.parseLong(value);
+        } catch (final Exception e) {
+            logger.info( parameterName + " parameter value, [" + value
+                    + "], is not a proper long. Default value, [" + defaultValue + "], will be used!");
+            logger.warning(e);
+            return defaultValue;
+        }
+    }
+
     protected String getAttribute(org.w3c.dom.Node node, String attName) {
         final Node attNode = node.getAttributes().getNamedItem(attName);
         if (attNode == null)
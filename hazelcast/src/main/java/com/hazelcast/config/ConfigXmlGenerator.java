@@ -101,7 +101,12 @@ public class ConfigXmlGenerator {
                 for (String ep : eps) {
                     xml.append("<address>").append(ep).append("</address>");
                 }
-                xml.append("</end-points>").append("</target-cluster>");
+                xml.append("</end-points>");
+                xml.append("<batch-size>").append(t.getBatchSize()).append("</batch-size>");
+                xml.append("<batch-max-delay-millis>").append(t.getBatchMaxDelayMillis())
+                        .append("</batch-max-delay-millis>");
+                xml.append("<queue-capacity>").append(t.getQueueCapacity()).append("</queue-capacity>");
+                xml.append("</target-cluster>");
             }
             xml.append("</wan-replication>");
         }
@@ -227,6 +232,7 @@ public class ConfigXmlGenerator {
             xml.append("<eviction-policy>").append(m.getEvictionPolicy()).append("</eviction-policy>");
             xml.append("<max-size policy=\"").append(m.getMaxSizeConfig().getMaxSizePolicy()).append("\">").append(m.getMaxSizeConfig().getSize()).append("</max-size>");
             xml.append("<eviction-percentage>").append(m.getEvictionPercentage()).append("</eviction-percentage>");
+            xml.append("<eviction-sample-count>").append(m.getEvictionSampleCount()).append("</eviction-sample-count>");
             xml.append("<merge-policy>").append(m.getMergePolicy()).append("</merge-policy>");
             xml.append("<read-backup-data>").append(m.isReadBackupData()).append("</read-backup-data>");
             xml.append("<statistics-enabled>").append(m.isStatisticsEnabled()).append("</statistics-enabled>");
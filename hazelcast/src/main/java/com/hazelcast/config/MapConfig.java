@@ -33,6 +33,8 @@ public class MapConfig {
     public final static int DEFAULT_EVICTION_PERCENTAGE = 25;
     public final static int MAX_EVICTION_PERCENTAGE = 100;
 
+    public final static int DEFAULT_EVICTION_SAMPLE_COUNT = 0;
+
     public final static int DEFAULT_TTL_SECONDS = 0;
     public final static int DEFAULT_MAX_IDLE_SECONDS = 0;
     public final static int DEFAULT_MAX_SIZE = Integer.MAX_VALUE;
@@ -48,6 +50,8 @@ public class MapConfig {
 
     private int evictionPercentage = DEFAULT_EVICTION_PERCENTAGE;
 
+    private int evictionSampleCount = DEFAULT_EVICTION_SAMPLE_COUNT;
+
     private int timeToLiveSeconds = DEFAULT_TTL_SECONDS;
 
     private int maxIdleSeconds = DEFAULT_MAX_IDLE_SECONDS;
@@ -96,6 +100,7 @@ public class MapConfig {
         this.backupCount = config.backupCount;
         this.asyncBackupCount = config.asyncBackupCount;
         this.evictionPercentage = config.evictionPercentage;
+        this.evictionSampleCount = config.evictionSampleCount;
         this.timeToLiveSeconds = config.timeToLiveSeconds;
         this.maxIdleSeconds = config.maxIdleSeconds;
         this.maxSizeConfig = config.maxSizeConfig != null ? new MaxSizeConfig(config.maxSizeConfig) : null;
@@ -148,7 +153,8 @@ public class MapConfig {
      * Possible values:
      * BINARY (default): keys and values will be stored as binary data
      * OBJECT : values will be stored in their object forms
-     * OFFHEAP : values will be stored in non-heap region of JVM
+     * OFFHEAP : values will be stored in non-heap region of JVM, limited per node by the
+     * <tt>hazelcast.elastic.memory.total.size</tt> property
      *
      * @param inMemoryFormat the record type to set
      * @throws IllegalArgumentException if inMemoryFormat is null.
@@ -245,6 +251,29 @@ public class MapConfig {
         return this;
     }
 
+    /**
+     * @return the evictionSampleCount
+     */
+    public int getEvictionSampleCount() {
+        return evictionSampleCount;
+    }
+
+    /**
+     * Number of records sampled per evicted record. When set to 0 (default) eviction sorts all records
+     * of a partition to find the ones to evict; a positive value evicts the best candidate out of the
+     * sampled records instead, which avoids sorting large partitions at the cost of accuracy.
+     *
+     * @param evictionSampleCount the evictionSampleCount to set
+     * @throws IllegalArgumentException if evictionSampleCount is negative.
+     */
+    public MapConfig setEvictionSampleCount(final int evictionSampleCount) {
+        if (evictionSampleCount < 0) {
+            throw new IllegalArgumentException("eviction sample count must be greater or equal than 0");
+        }
+        this.evictionSampleCount = evictionSampleCount;
+        return this;
+    }
+
     /**
      * @return the timeToLiveSeconds
      */
@@ -520,6 +549,7 @@ public class MapConfig {
         sb.append(", maxIdleSeconds=").append(maxIdleSeconds);
         sb.append(", evictionPolicy='").append(evictionPolicy).append('\'');
         sb.append(", evictionPercentage=").append(evictionPercentage);
+        sb.append(", evictionSampleCount=").append(evictionSampleCount);
         sb.append(", maxSizeConfig=").append(maxSizeConfig);
         sb.append(", readBackupData=").append(readBackupData);
         sb.append(", nearCacheConfig=").append(nearCacheConfig);
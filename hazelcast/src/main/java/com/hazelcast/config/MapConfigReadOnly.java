@@ -107,6 +107,10 @@ public class MapConfigReadOnly extends MapConfig {
         throw new UnsupportedOperationException("This config is read-only map: " + getName());
     }
 
+    public MapConfig setEvictionSampleCount(int evictionSampleCount) {
+        throw new UnsupportedOperationException("This config is read-only map: " + getName());
+    }
+
     public MapConfig setTimeToLiveSeconds(int timeToLiveSeconds) {
         throw new UnsupportedOperationException("This config is read-only map: " + getName());
     }
@@ -71,7 +71,8 @@ public class MapIndexConfig {
     }
 
     /**
-     * Sets the attribute that is going to be indexed.
+     * Sets the attribute that is going to be indexed. A comma separated list of attributes,
+     * e.g. <tt>"customerId, status"</tt>, declares a composite index on these attributes.
      *
      * @param attribute the attribute that is going to be indexed.
      * @return the updated MapIndexConfig.
@@ -20,11 +20,19 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class WanTargetClusterConfig {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final long DEFAULT_BATCH_MAX_DELAY_MILLIS = 1000;
+    public static final int DEFAULT_QUEUE_CAPACITY = 100000;
+
     String groupName = "dev";
     String groupPassword = "dev-pass";
     String replicationImpl;
     Object replicationImplObject;
     List<String> endpoints; // ip:port
+    int batchSize = DEFAULT_BATCH_SIZE;
+    long batchMaxDelayMillis = DEFAULT_BATCH_MAX_DELAY_MILLIS;
+    int queueCapacity = DEFAULT_QUEUE_CAPACITY;
 
     public String getGroupName() {
         return groupName;
@@ -79,6 +87,63 @@ public class WanTargetClusterConfig {
         return this;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the maximum number of events sent to the target cluster in a single batch.
+     * Only used by batching replication implementations.
+     *
+     * @param batchSize maximum number of events per batch
+     * @return this config
+     */
+    public WanTargetClusterConfig setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public long getBatchMaxDelayMillis() {
+        return batchMaxDelayMillis;
+    }
+
+    /**
+     * Sets the maximum time to wait for a batch to fill up before it is sent anyway.
+     * Only used by batching replication implementations.
+     *
+     * @param batchMaxDelayMillis maximum batching delay in milliseconds
+     * @return this config
+     */
+    public WanTargetClusterConfig setBatchMaxDelayMillis(long batchMaxDelayMillis) {
+        if (batchMaxDelayMillis < 0) {
+            throw new IllegalArgumentException("batchMaxDelayMillis cannot be negative");
+        }
+        this.batchMaxDelayMillis = batchMaxDelayMillis;
+        return this;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Sets the capacity of the queue of events waiting to be replicated. When the queue is full
+     * the oldest event is dropped.
+     *
+     * @param queueCapacity capacity of the replication event queue
+     * @return this config
+     */
+    public WanTargetClusterConfig setQueueCapacity(int queueCapacity) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        }
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
@@ -87,6 +152,9 @@ public class WanTargetClusterConfig {
         sb.append(", replicationImpl='").append(replicationImpl).append('\'');
         sb.append(", replicationImplObject=").append(replicationImplObject);
         sb.append(", endpoints=").append(endpoints);
+        sb.append(", batchSize=").append(batchSize);
+        sb.append(", batchMaxDelayMillis=").append(batchMaxDelayMillis);
+        sb.append(", queueCapacity=").append(queueCapacity);
         sb.append('}');
         return sb.toString();
     }
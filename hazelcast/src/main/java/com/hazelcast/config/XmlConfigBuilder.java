@@ -463,6 +463,15 @@ public class XmlConfigBuilder extends AbstractXmlConfigHelper implements ConfigB
                                 wanTarget.addEndpoint(addressStr);
                             }
                         }
+                    } else if ("batch-size".equals(targetChildName)) {
+                        wanTarget.setBatchSize(getIntegerValue("batch-size", getTextContent(targetChild),
+                                WanTargetClusterConfig.DEFAULT_BATCH_SIZE));
+                    } else if ("batch-max-delay-millis".equals(targetChildName)) {
+                        wanTarget.setBatchMaxDelayMillis(getLongValue("batch-max-delay-millis",
+                                getTextContent(targetChild), WanTargetClusterConfig.DEFAULT_BATCH_MAX_DELAY_MILLIS));
+                    } else if ("queue-capacity".equals(targetChildName)) {
+                        wanTarget.setQueueCapacity(getIntegerValue("queue-capacity", getTextContent(targetChild),
+                                WanTargetClusterConfig.DEFAULT_QUEUE_CAPACITY));
                     }
                 }
                 wanReplicationConfig.addTargetClusterConfig(wanTarget);
@@ -950,6 +959,9 @@ public class XmlConfigBuilder extends AbstractXmlConfigHelper implements ConfigB
             } else if ("eviction-percentage".equals(nodeName)) {
                 mapConfig.setEvictionPercentage(getIntegerValue("eviction-percentage", value,
                         MapConfig.DEFAULT_EVICTION_PERCENTAGE));
+            } else if ("eviction-sample-count".equals(nodeName)) {
+                mapConfig.setEvictionSampleCount(getIntegerValue("eviction-sample-count", value,
+                        MapConfig.DEFAULT_EVICTION_SAMPLE_COUNT));
             } else if ("time-to-live-seconds".equals(nodeName)) {
                 mapConfig.setTimeToLiveSeconds(getIntegerValue("time-to-live-seconds", value,
                         MapConfig.DEFAULT_TTL_SECONDS));
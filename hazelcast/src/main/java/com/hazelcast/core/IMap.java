@@ -25,6 +25,7 @@ import com.hazelcast.monitor.LocalMapStats;
 import com.hazelcast.query.Predicate;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
@@ -971,6 +972,28 @@ public interface IMap<K, V>
 
     Collection<V> values(Predicate predicate);
 
+    /**
+     * Queries the map based on the specified predicate and returns an iterator
+     * over the matching entries that pulls the results from the cluster in chunks.
+     * <p/>
+     * Unlike {@link #entrySet(Predicate)} the result is never materialized as a whole;
+     * partitions are scanned one after another and at most <tt>fetchSize</tt> entries
+     * are transferred and held at a time, so arbitrarily large results can be consumed
+     * with constant memory. The next chunk is only requested when the previous one
+     * has been consumed.
+     * <p/>
+     * <p><b>Warning:</b></p>
+     * The iteration is weakly consistent. Updates made while iterating may or may not be
+     * reflected and, if a partition migrates during the iteration, entries of that
+     * partition may be returned more than once. {@link com.hazelcast.query.PagingPredicate}
+     * is not supported and the iterator does not support removal.
+     *
+     * @param predicate query criteria
+     * @param fetchSize maximum number of entries fetched from a partition at once
+     * @return iterator over the matching entries
+     */
+    Iterator<Map.Entry<K, V>> entryIterator(Predicate predicate, int fetchSize);
+
     /**
      * Returns the locally owned set of keys.
      * <p/>
@@ -1036,8 +1059,15 @@ public interface IMap<K, V>
      * Index attribute should either have a getter method or be public.
      * You should also make sure to add the indexes before adding
      * entries to this map.
+     * <p/>
+     * A comma separated list of attributes creates a composite index, which is used for
+     * queries having equality conditions on a prefix of the attributes and, if the index is
+     * ordered, a range condition on the next attribute.
+     * <pre>
+     *   imap.addIndex("active, age", true); // used by "active = true AND age &gt; 30"
+     * </pre>
      *
-     * @param attribute attribute of value
+     * @param attribute attribute of value, or comma separated attributes for a composite index
      * @param ordered   <tt>true</tt> if index should be ordered,
      *                  <tt>false</tt> otherwise.
      */
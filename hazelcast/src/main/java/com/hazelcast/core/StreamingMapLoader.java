@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.core;
+
+/**
+ * A {@link MapLoader} which can stream its keys for the initial load of a map.
+ * <p/>
+ * For a regular MapLoader every member calls {@link #loadAllKeys()} and keeps all keys in memory until
+ * their partitions are loaded. When a MapLoader implements this interface, the keys are instead iterated
+ * once, by a single member, and sent in batches of <tt>hazelcast.map.load.chunk.size</tt> keys to the
+ * owners of their partitions. Every owner then loads the values of its keys with
+ * {@link #loadAll(java.util.Collection)} in parallel to the other owners.
+ * <p/>
+ * If the returned iterator implements {@link java.io.Closeable}, it is closed after the iteration.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public interface StreamingMapLoader<K, V> extends MapLoader<K, V> {
+
+    /**
+     * Returns all of the keys from the store, to be iterated only once.
+     *
+     * @return all the keys
+     */
+    Iterable<K> iterateAllKeys();
+}
@@ -20,6 +20,8 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.security.SecurityContext;
 import com.hazelcast.storage.DataRef;
 import com.hazelcast.storage.Storage;
+import com.hazelcast.storage.impl.OffHeapStorage;
+import com.hazelcast.util.MemorySize;
 import com.hazelcast.wan.WanReplicationService;
 import com.hazelcast.wan.impl.WanReplicationServiceImpl;
 
@@ -30,6 +32,7 @@ public class DefaultNodeInitializer implements NodeInitializer {
     protected Node node;
     protected String version;
     protected String build;
+    private OffHeapStorage offHeapStorage;
 
     @Override
     public void beforeInitialize(Node node) {
@@ -62,8 +65,16 @@ public class DefaultNodeInitializer implements NodeInitializer {
     }
 
     @Override
-    public Storage<DataRef> getOffHeapStorage() {
-        throw new UnsupportedOperationException("Offheap feature is only available on Hazelcast Enterprise Edition!");
+    public synchronized Storage<DataRef> getOffHeapStorage() {
+        if (offHeapStorage == null) {
+            GroupProperties groupProperties = node.getGroupProperties();
+            long totalSize = MemorySize.parse(groupProperties.ELASTIC_MEMORY_TOTAL_SIZE.getString());
+            int chunkSize = (int) MemorySize.parse(groupProperties.ELASTIC_MEMORY_CHUNK_SIZE.getString());
+            offHeapStorage = new OffHeapStorage(totalSize, chunkSize);
+            logger.info("Created off-heap storage with " + totalSize + " bytes limit and "
+                    + offHeapStorage.getChunkSize() + " bytes chunks.");
+        }
+        return offHeapStorage;
     }
 
     @Override
@@ -74,5 +85,11 @@ public class DefaultNodeInitializer implements NodeInitializer {
     @Override
     public void destroy() {
         logger.info("Destroying node initializer.");
+        synchronized (this) {
+            if (offHeapStorage != null) {
+                offHeapStorage.destroy();
+                offHeapStorage = null;
+            }
+        }
     }
 }
@@ -38,16 +38,53 @@ public class GroupProperties {
      */
     public static final String PROP_PARTITION_OPERATION_THREAD_COUNT = "hazelcast.operation.thread.count";
     public static final String PROP_GENERIC_OPERATION_THREAD_COUNT = "hazelcast.operation.generic.thread.count";
+    /**
+     * If enabled, generic operations are distributed over lock-free queues owned by the generic operation threads,
+     * and idle generic operation threads steal work from the others, instead of all of them sharing a single
+     * blocking queue. Disabled by default.
+     */
+    public static final String PROP_GENERIC_OPERATION_WORK_STEALING_ENABLED
+            = "hazelcast.operation.generic.work.stealing.enabled";
     public static final String PROP_EVENT_THREAD_COUNT = "hazelcast.event.thread.count";
     public static final String PROP_EVENT_QUEUE_CAPACITY = "hazelcast.event.queue.capacity";
     public static final String PROP_EVENT_QUEUE_TIMEOUT_MILLIS = "hazelcast.event.queue.timeout.millis";
+    /**
+     * The maximum number of events sent to another member in a single packet. The default of 1 disables batching.
+     */
+    public static final String PROP_EVENT_BATCH_SIZE = "hazelcast.event.batch.size";
+    /**
+     * The maximum time an event waits for its batch to fill up before the batch is sent anyway.
+     */
+    public static final String PROP_EVENT_BATCH_MAX_DELAY_MILLIS = "hazelcast.event.batch.max.delay.millis";
+    /**
+     * If enabled, publishers are slowed down instead of events being dropped when the event queues are full.
+     */
+    public static final String PROP_EVENT_BACKPRESSURE_ENABLED = "hazelcast.event.backpressure.enabled";
+    /**
+     * The maximum number of events sent to another member that it has not acknowledged yet, when back pressure
+     * is enabled.
+     */
+    public static final String PROP_EVENT_BACKPRESSURE_WINDOW = "hazelcast.event.backpressure.window";
+    /**
+     * The maximum time a partition operation thread waits for room to publish an event when back pressure is
+     * enabled. The event is dropped when it runs out, so a slow listener can't stall the partitions for long.
+     */
+    public static final String PROP_EVENT_BACKPRESSURE_MAX_WAIT_MILLIS = "hazelcast.event.backpressure.max.wait.millis";
     public static final String PROP_CONNECT_ALL_WAIT_SECONDS = "hazelcast.connect.all.wait.seconds";
     public static final String PROP_MEMCACHE_ENABLED = "hazelcast.memcache.enabled";
     public static final String PROP_REST_ENABLED = "hazelcast.rest.enabled";
     public static final String PROP_MAP_LOAD_CHUNK_SIZE = "hazelcast.map.load.chunk.size";
+    public static final String PROP_MAP_MIGRATION_CHUNK_SIZE = "hazelcast.map.migration.chunk.size";
     public static final String PROP_MERGE_FIRST_RUN_DELAY_SECONDS = "hazelcast.merge.first.run.delay.seconds";
     public static final String PROP_MERGE_NEXT_RUN_DELAY_SECONDS = "hazelcast.merge.next.run.delay.seconds";
     public static final String PROP_OPERATION_CALL_TIMEOUT_MILLIS = "hazelcast.operation.call.timeout.millis";
+    /**
+     * Operations running longer than this on an operation thread are logged, together with a sample of the
+     * stack trace of the executing thread. A value of 0 or less disables the slow operation detection.
+     */
+    public static final String PROP_SLOW_OPERATION_DETECTOR_THRESHOLD_MILLIS
+            = "hazelcast.slow.operation.detector.threshold.millis";
+    public static final String PROP_SLOW_OPERATION_DETECTOR_LOG_SIZE = "hazelcast.slow.operation.detector.log.size";
     public static final String PROP_SOCKET_BIND_ANY = "hazelcast.socket.bind.any";
     public static final String PROP_SOCKET_SERVER_BIND_ANY = "hazelcast.socket.server.bind.any";
     public static final String PROP_SOCKET_CLIENT_BIND_ANY = "hazelcast.socket.client.bind.any";
@@ -76,6 +113,7 @@ public class GroupProperties {
     public static final String PROP_INITIAL_WAIT_SECONDS = "hazelcast.initial.wait.seconds";
     public static final String PROP_MAP_REPLICA_WAIT_SECONDS_FOR_SCHEDULED_OPERATIONS
             = "hazelcast.map.replica.wait.seconds.for.scheduled.tasks";
+    public static final String PROP_QUERY_SERIALIZED_PREDICATES_ENABLED = "hazelcast.query.serialized.predicates.enabled";
     public static final String PROP_PARTITION_COUNT = "hazelcast.partition.count";
     public static final String PROP_LOGGING_TYPE = "hazelcast.logging.type";
     public static final String PROP_ENABLE_JMX = "hazelcast.jmx";
@@ -108,6 +146,7 @@ public class GroupProperties {
 
     public final GroupProperty PARTITION_OPERATION_THREAD_COUNT;
     public final GroupProperty GENERIC_OPERATION_THREAD_COUNT;
+    public final GroupProperty GENERIC_OPERATION_WORK_STEALING_ENABLED;
 
     public final GroupProperty EVENT_THREAD_COUNT;
 
@@ -121,6 +160,16 @@ public class GroupProperties {
 
     public final GroupProperty EVENT_QUEUE_TIMEOUT_MILLIS;
 
+    public final GroupProperty EVENT_BATCH_SIZE;
+
+    public final GroupProperty EVENT_BATCH_MAX_DELAY_MILLIS;
+
+    public final GroupProperty EVENT_BACKPRESSURE_ENABLED;
+
+    public final GroupProperty EVENT_BACKPRESSURE_WINDOW;
+
+    public final GroupProperty EVENT_BACKPRESSURE_MAX_WAIT_MILLIS;
+
     public final GroupProperty PREFER_IPv4_STACK;
 
     public final GroupProperty CONNECT_ALL_WAIT_SECONDS;
@@ -133,12 +182,18 @@ public class GroupProperties {
 
     public final GroupProperty MAP_LOAD_CHUNK_SIZE;
 
+    public final GroupProperty MAP_MIGRATION_CHUNK_SIZE;
+
     public final GroupProperty MERGE_FIRST_RUN_DELAY_SECONDS;
 
     public final GroupProperty MERGE_NEXT_RUN_DELAY_SECONDS;
 
     public final GroupProperty OPERATION_CALL_TIMEOUT_MILLIS;
 
+    public final GroupProperty SLOW_OPERATION_DETECTOR_THRESHOLD_MILLIS;
+
+    public final GroupProperty SLOW_OPERATION_DETECTOR_LOG_SIZE;
+
     public final GroupProperty SOCKET_SERVER_BIND_ANY;
 
     public final GroupProperty SOCKET_CLIENT_BIND_ANY;
@@ -189,6 +244,12 @@ public class GroupProperties {
 
     public final GroupProperty MAP_REPLICA_WAIT_SECONDS_FOR_SCHEDULED_TASKS;
 
+    /**
+     * Evaluates supported predicates directly on the serialized form of Portable values while scanning
+     * partitions, instead of deserializing every value.
+     */
+    public final GroupProperty QUERY_SERIALIZED_PREDICATES_ENABLED;
+
     public final GroupProperty PARTITION_COUNT;
 
     public final GroupProperty LOGGING_TYPE;
@@ -253,16 +314,27 @@ public class GroupProperties {
         //-1 means that the value is worked out dynamically.
         PARTITION_OPERATION_THREAD_COUNT = new GroupProperty(config, PROP_PARTITION_OPERATION_THREAD_COUNT, "-1");
         GENERIC_OPERATION_THREAD_COUNT = new GroupProperty(config, PROP_GENERIC_OPERATION_THREAD_COUNT, "-1");
+        GENERIC_OPERATION_WORK_STEALING_ENABLED
+                = new GroupProperty(config, PROP_GENERIC_OPERATION_WORK_STEALING_ENABLED, "false");
         EVENT_THREAD_COUNT = new GroupProperty(config, PROP_EVENT_THREAD_COUNT, "5");
         EVENT_QUEUE_CAPACITY = new GroupProperty(config, PROP_EVENT_QUEUE_CAPACITY, "1000000");
         EVENT_QUEUE_TIMEOUT_MILLIS = new GroupProperty(config, PROP_EVENT_QUEUE_TIMEOUT_MILLIS, "250");
+        EVENT_BATCH_SIZE = new GroupProperty(config, PROP_EVENT_BATCH_SIZE, "1");
+        EVENT_BATCH_MAX_DELAY_MILLIS = new GroupProperty(config, PROP_EVENT_BATCH_MAX_DELAY_MILLIS, "5");
+        EVENT_BACKPRESSURE_ENABLED = new GroupProperty(config, PROP_EVENT_BACKPRESSURE_ENABLED, "false");
+        EVENT_BACKPRESSURE_WINDOW = new GroupProperty(config, PROP_EVENT_BACKPRESSURE_WINDOW, "10000");
+        EVENT_BACKPRESSURE_MAX_WAIT_MILLIS = new GroupProperty(config, PROP_EVENT_BACKPRESSURE_MAX_WAIT_MILLIS, "5000");
         CONNECT_ALL_WAIT_SECONDS = new GroupProperty(config, PROP_CONNECT_ALL_WAIT_SECONDS, "120");
         MEMCACHE_ENABLED = new GroupProperty(config, PROP_MEMCACHE_ENABLED, "true");
         REST_ENABLED = new GroupProperty(config, PROP_REST_ENABLED, "true");
         MAP_LOAD_CHUNK_SIZE = new GroupProperty(config, PROP_MAP_LOAD_CHUNK_SIZE, "1000");
+        MAP_MIGRATION_CHUNK_SIZE = new GroupProperty(config, PROP_MAP_MIGRATION_CHUNK_SIZE, "1048576");
         MERGE_FIRST_RUN_DELAY_SECONDS = new GroupProperty(config, PROP_MERGE_FIRST_RUN_DELAY_SECONDS, "300");
         MERGE_NEXT_RUN_DELAY_SECONDS = new GroupProperty(config, PROP_MERGE_NEXT_RUN_DELAY_SECONDS, "120");
         OPERATION_CALL_TIMEOUT_MILLIS = new GroupProperty(config, PROP_OPERATION_CALL_TIMEOUT_MILLIS, "60000");
+        SLOW_OPERATION_DETECTOR_THRESHOLD_MILLIS
+                = new GroupProperty(config, PROP_SLOW_OPERATION_DETECTOR_THRESHOLD_MILLIS, "10000");
+        SLOW_OPERATION_DETECTOR_LOG_SIZE = new GroupProperty(config, PROP_SLOW_OPERATION_DETECTOR_LOG_SIZE, "100");
         final GroupProperty SOCKET_BIND_ANY = new GroupProperty(config, PROP_SOCKET_BIND_ANY, "true");
         SOCKET_SERVER_BIND_ANY = new GroupProperty(config, PROP_SOCKET_SERVER_BIND_ANY, SOCKET_BIND_ANY);
         SOCKET_CLIENT_BIND_ANY = new GroupProperty(config, PROP_SOCKET_CLIENT_BIND_ANY, SOCKET_BIND_ANY);
@@ -291,6 +363,7 @@ public class GroupProperties {
         INITIAL_WAIT_SECONDS = new GroupProperty(config, PROP_INITIAL_WAIT_SECONDS, "0");
         MAP_REPLICA_WAIT_SECONDS_FOR_SCHEDULED_TASKS
                 = new GroupProperty(config, PROP_MAP_REPLICA_WAIT_SECONDS_FOR_SCHEDULED_OPERATIONS, "10");
+        QUERY_SERIALIZED_PREDICATES_ENABLED = new GroupProperty(config, PROP_QUERY_SERIALIZED_PREDICATES_ENABLED, "true");
         PARTITION_COUNT = new GroupProperty(config, PROP_PARTITION_COUNT, "271");
         LOGGING_TYPE = new GroupProperty(config, PROP_LOGGING_TYPE, "jdk");
         ENABLE_JMX = new GroupProperty(config, PROP_ENABLE_JMX, "false");
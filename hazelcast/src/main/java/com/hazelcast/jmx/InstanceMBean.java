@@ -23,7 +23,9 @@ import com.hazelcast.core.Member;
 import com.hazelcast.instance.HazelcastInstanceImpl;
 import com.hazelcast.instance.Node;
 import com.hazelcast.spi.ExecutionService;
-import com.hazelcast.spi.OperationService;
+import com.hazelcast.spi.impl.InternalOperationService;
+import com.hazelcast.wan.WanReplicationService;
+import com.hazelcast.wan.impl.WanReplicationServiceImpl;
 
 import java.io.File;
 import java.net.URL;
@@ -53,6 +55,7 @@ public class InstanceMBean extends HazelcastMBean<HazelcastInstanceImpl> {
     private final ManagedExecutorServiceMBean queryExecutorMBean;
     private final ManagedExecutorServiceMBean ioExecutorMBean;
     private final PartitionServiceMBean partitionServiceMBean;
+    private final WanReplicationServiceMBean wanReplicationServiceMBean;
 
     protected InstanceMBean(HazelcastInstanceImpl hazelcastInstance, ManagementService managementService) {
         super(hazelcastInstance, managementService);
@@ -78,7 +81,7 @@ public class InstanceMBean extends HazelcastMBean<HazelcastInstanceImpl> {
         eventServiceMBean = new EventServiceMBean(hazelcastInstance, node.nodeEngine.getEventService(), service);
         register(eventServiceMBean);
 
-        OperationService operationService = node.nodeEngine.getOperationService();
+        InternalOperationService operationService = (InternalOperationService) node.nodeEngine.getOperationService();
         operationServiceMBean = new OperationServiceMBean(hazelcastInstance, operationService, service);
         register(operationServiceMBean);
 
@@ -91,6 +94,15 @@ public class InstanceMBean extends HazelcastMBean<HazelcastInstanceImpl> {
         clientEngineMBean = new ClientEngineMBean(hazelcastInstance, node.clientEngine, service);
         register(clientEngineMBean);
 
+        WanReplicationService wanReplicationService = node.nodeEngine.getWanReplicationService();
+        if (wanReplicationService instanceof WanReplicationServiceImpl) {
+            wanReplicationServiceMBean = new WanReplicationServiceMBean(hazelcastInstance,
+                    (WanReplicationServiceImpl) wanReplicationService, service);
+            register(wanReplicationServiceMBean);
+        } else {
+            wanReplicationServiceMBean = null;
+        }
+
         systemExecutorMBean = new ManagedExecutorServiceMBean(
                 hazelcastInstance, executionService.getExecutor(ExecutionService.SYSTEM_EXECUTOR), service);
         register(systemExecutorMBean);
@@ -168,6 +180,10 @@ public class InstanceMBean extends HazelcastMBean<HazelcastInstanceImpl> {
         return connectionManagerMBean;
     }
 
+    public WanReplicationServiceMBean getWanReplicationServiceMBean() {
+        return wanReplicationServiceMBean;
+    }
+
     public EventServiceMBean getEventServiceMBean() {
         return eventServiceMBean;
     }
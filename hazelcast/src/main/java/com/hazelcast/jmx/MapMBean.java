@@ -188,6 +188,90 @@ public class MapMBean extends HazelcastMBean<IMap> {
         return managedObject.getLocalMapStats().getMaxRemoveLatency();
     }
 
+    @ManagedAnnotation("localPutLatency99thPercentile")
+    @ManagedDescription("the latency in microseconds which 99% of the put operations completed within")
+    public long getLocalPutLatency99thPercentile() {
+        return managedObject.getLocalMapStats().getPutLatencyHistogram().getLatencyAtPercentile(99);
+    }
+
+    @ManagedAnnotation("localPutLatency999thPercentile")
+    @ManagedDescription("the latency in microseconds which 99.9% of the put operations completed within")
+    public long getLocalPutLatency999thPercentile() {
+        return managedObject.getLocalMapStats().getPutLatencyHistogram().getLatencyAtPercentile(99.9);
+    }
+
+    @ManagedAnnotation("localGetLatency99thPercentile")
+    @ManagedDescription("the latency in microseconds which 99% of the get operations completed within")
+    public long getLocalGetLatency99thPercentile() {
+        return managedObject.getLocalMapStats().getGetLatencyHistogram().getLatencyAtPercentile(99);
+    }
+
+    @ManagedAnnotation("localGetLatency999thPercentile")
+    @ManagedDescription("the latency in microseconds which 99.9% of the get operations completed within")
+    public long getLocalGetLatency999thPercentile() {
+        return managedObject.getLocalMapStats().getGetLatencyHistogram().getLatencyAtPercentile(99.9);
+    }
+
+    @ManagedAnnotation("localRemoveLatency99thPercentile")
+    @ManagedDescription("the latency in microseconds which 99% of the remove operations completed within")
+    public long getLocalRemoveLatency99thPercentile() {
+        return managedObject.getLocalMapStats().getRemoveLatencyHistogram().getLatencyAtPercentile(99);
+    }
+
+    @ManagedAnnotation("localRemoveLatency999thPercentile")
+    @ManagedDescription("the latency in microseconds which 99.9% of the remove operations completed within")
+    public long getLocalRemoveLatency999thPercentile() {
+        return managedObject.getLocalMapStats().getRemoveLatencyHistogram().getLatencyAtPercentile(99.9);
+    }
+
+    @ManagedAnnotation("localEvictionCount")
+    @ManagedDescription("number of entries evicted on this member because of max size")
+    public long getLocalEvictionCount(){
+        return managedObject.getLocalMapStats().getEvictionCount();
+    }
+
+    @ManagedAnnotation("localTotalEvictionTime")
+    @ManagedDescription("the total time spent evicting entries in milliseconds")
+    public long getLocalTotalEvictionTime(){
+        return managedObject.getLocalMapStats().getTotalEvictionTime();
+    }
+
+    @ManagedAnnotation("localQueryCount")
+    @ManagedDescription("number of queries executed on this member")
+    public long getLocalQueryCount(){
+        return managedObject.getLocalMapStats().getQueryCount();
+    }
+
+    @ManagedAnnotation("localIndexedQueryCount")
+    @ManagedDescription("number of queries answered by indexes on this member")
+    public long getLocalIndexedQueryCount(){
+        return managedObject.getLocalMapStats().getIndexedQueryCount();
+    }
+
+    @ManagedAnnotation("localQueryScannedEntryCount")
+    @ManagedDescription("number of entries scanned by queries on this member")
+    public long getLocalQueryScannedEntryCount(){
+        return managedObject.getLocalMapStats().getQueryScannedEntryCount();
+    }
+
+    @ManagedAnnotation("localTotalQueryTime")
+    @ManagedDescription("the total execution time of queries in milliseconds")
+    public long getLocalTotalQueryTime(){
+        return managedObject.getLocalMapStats().getTotalQueryTime();
+    }
+
+    @ManagedAnnotation("localInitialLoadKeyCount")
+    @ManagedDescription("number of keys streamed by this member during the initial load")
+    public long getLocalInitialLoadKeyCount(){
+        return managedObject.getLocalMapStats().getInitialLoadKeyCount();
+    }
+
+    @ManagedAnnotation("localInitialLoadedEntryCount")
+    @ManagedDescription("number of entries loaded on this member during the initial load")
+    public long getLocalInitialLoadedEntryCount(){
+        return managedObject.getLocalMapStats().getInitialLoadedEntryCount();
+    }
+
     @ManagedAnnotation("localEventOperationCount")
     @ManagedDescription("number of events received on this member")
     public long getLocalEventOperationCount(){
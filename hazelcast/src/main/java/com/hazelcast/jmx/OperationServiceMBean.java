@@ -17,16 +17,20 @@
 package com.hazelcast.jmx;
 
 import com.hazelcast.core.HazelcastInstance;
-import com.hazelcast.spi.OperationService;
+import com.hazelcast.spi.impl.InternalOperationService;
+import com.hazelcast.spi.impl.OperationTimingStats;
+import com.hazelcast.spi.impl.SlowOperationLog;
 
+import java.util.ArrayList;
 import java.util.Hashtable;
+import java.util.List;
 
 import static com.hazelcast.jmx.ManagementService.quote;
 
 @ManagedDescription("HazelcastInstance.OperationService")
-public class OperationServiceMBean extends HazelcastMBean<OperationService> {
+public class OperationServiceMBean extends HazelcastMBean<InternalOperationService> {
 
-    public OperationServiceMBean(HazelcastInstance hazelcastInstance, OperationService operationService,
+    public OperationServiceMBean(HazelcastInstance hazelcastInstance, InternalOperationService operationService,
                                  ManagementService service) {
         super(operationService, service);
 
@@ -73,4 +77,60 @@ public class OperationServiceMBean extends HazelcastMBean<OperationService> {
     public long getOperationThreadCount() {
         return managedObject.getPartitionOperationThreadCount();
     }
+
+    @ManagedAnnotation("partitionOperationThreadQueueSizes")
+    @ManagedDescription("The number of pending operations per partition operation thread")
+    public int[] getPartitionOperationThreadQueueSizes() {
+        return managedObject.getPartitionOperationThreadQueueSizes();
+    }
+
+    @ManagedAnnotation("partitionOperationThreadBusyTimes")
+    @ManagedDescription("The time in milliseconds each partition operation thread has spent executing operations")
+    public long[] getPartitionOperationThreadBusyTimes() {
+        return managedObject.getPartitionOperationThreadBusyTimes();
+    }
+
+    @ManagedAnnotation("genericWorkStealingEnabled")
+    @ManagedDescription("Whether the generic operation threads steal work from each other")
+    public boolean isGenericWorkStealingEnabled() {
+        return managedObject.isGenericWorkStealingEnabled();
+    }
+
+    @ManagedAnnotation("stolenGenericOperationCount")
+    @ManagedDescription("The number of generic operations stolen by an idle generic operation thread")
+    public long getStolenGenericOperationCount() {
+        return managedObject.getStolenGenericOperationCount();
+    }
+
+    @ManagedAnnotation("genericOperationQueueWaitTimeMean")
+    @ManagedDescription("The mean time in microseconds generic operations waited in the work queue")
+    public double getGenericOperationQueueWaitTimeMean() {
+        return managedObject.getGenericOperationQueueWaitTimes().getMeanLatency();
+    }
+
+    @ManagedAnnotation("genericOperationQueueWaitTime99thPercentile")
+    @ManagedDescription("The 99th percentile of the time in microseconds generic operations waited in the work queue")
+    public long getGenericOperationQueueWaitTime99thPercentile() {
+        return managedObject.getGenericOperationQueueWaitTimes().getLatencyAtPercentile(99);
+    }
+
+    @ManagedAnnotation("operationTimings")
+    @ManagedDescription("Execution count and times in microseconds per operation class")
+    public List<String> getOperationTimings() {
+        List<String> timings = new ArrayList<String>();
+        for (OperationTimingStats stats : managedObject.getOperationTimings()) {
+            timings.add(stats.toString());
+        }
+        return timings;
+    }
+
+    @ManagedAnnotation("slowOperations")
+    @ManagedDescription("The most recent operations that blocked an operation thread for too long")
+    public List<String> getSlowOperations() {
+        List<String> slowOperations = new ArrayList<String>();
+        for (SlowOperationLog log : managedObject.getSlowOperationLogs()) {
+            slowOperations.add(log + "\n" + log.getStackTrace());
+        }
+        return slowOperations;
+    }
 }
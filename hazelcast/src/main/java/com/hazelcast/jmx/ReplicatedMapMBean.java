@@ -167,6 +167,36 @@ public class ReplicatedMapMBean extends HazelcastMBean<ReplicatedMapProxy> {
         return managedObject.getReplicatedMapStats().getReplicationEventCount();
     }
 
+    @ManagedAnnotation("localSentReplicationEventCount")
+    @ManagedDescription("number of updates replicated to other members by this member")
+    public long getLocalSentReplicationEventCount(){
+        return managedObject.getReplicatedMapStats().getSentReplicationEventCount();
+    }
+
+    @ManagedAnnotation("localCoalescedReplicationEventCount")
+    @ManagedDescription("number of updates replaced by a later update of the same key before being replicated")
+    public long getLocalCoalescedReplicationEventCount(){
+        return managedObject.getReplicatedMapStats().getCoalescedReplicationEventCount();
+    }
+
+    @ManagedAnnotation("localPendingReplicationEventCount")
+    @ManagedDescription("number of updates waiting to be replicated")
+    public long getLocalPendingReplicationEventCount(){
+        return managedObject.getReplicatedMapStats().getPendingReplicationEventCount();
+    }
+
+    @ManagedAnnotation("localReplicationLagMean")
+    @ManagedDescription("the mean time in microseconds updates waited before being replicated")
+    public double getLocalReplicationLagMean(){
+        return managedObject.getReplicatedMapStats().getReplicationLagHistogram().getMeanLatency();
+    }
+
+    @ManagedAnnotation("localReplicationLag99thPercentile")
+    @ManagedDescription("the 99th percentile of the time in microseconds updates waited before being replicated")
+    public long getLocalReplicationLag99thPercentile(){
+        return managedObject.getReplicatedMapStats().getReplicationLagHistogram().getLatencyAtPercentile(99);
+    }
+
     @ManagedAnnotation("localOtherOperationCount")
     @ManagedDescription("the total number of other operations on this member")
     public long getLocalOtherOperationCount(){
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jmx;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.wan.impl.WanReplicationServiceImpl;
+
+import java.util.Hashtable;
+
+import static com.hazelcast.jmx.ManagementService.quote;
+
+@ManagedDescription("HazelcastInstance.WanReplicationService")
+public class WanReplicationServiceMBean extends HazelcastMBean<WanReplicationServiceImpl> {
+
+    public WanReplicationServiceMBean(HazelcastInstance hazelcastInstance, WanReplicationServiceImpl wanReplicationService,
+                                      ManagementService service) {
+        super(wanReplicationService, service);
+
+        Hashtable<String, String> properties = new Hashtable<String, String>(3);
+        properties.put("type", quote("HazelcastInstance.WanReplicationService"));
+        properties.put("name", quote(hazelcastInstance.getName()));
+        properties.put("instance", quote(hazelcastInstance.getName()));
+
+        setObjectName(properties);
+    }
+
+    @ManagedAnnotation("queueSize")
+    @ManagedDescription("The number of events waiting to be replicated")
+    public int getQueueSize() {
+        return managedObject.getQueueSize();
+    }
+
+    @ManagedAnnotation("inFlightBatchCount")
+    @ManagedDescription("The number of batches sent but not acknowledged yet")
+    public int getInFlightBatchCount() {
+        return managedObject.getInFlightBatchCount();
+    }
+
+    @ManagedAnnotation("droppedEventCount")
+    @ManagedDescription("The number of events dropped because the queue was full")
+    public long getDroppedEventCount() {
+        return managedObject.getDroppedEventCount();
+    }
+
+    @ManagedAnnotation("replicatedEventCount")
+    @ManagedDescription("The number of events acknowledged by the target clusters")
+    public long getReplicatedEventCount() {
+        return managedObject.getReplicatedEventCount();
+    }
+
+    @ManagedAnnotation("resentBatchCount")
+    @ManagedDescription("The number of batches resent after a failure or an acknowledgement timeout")
+    public long getResentBatchCount() {
+        return managedObject.getResentBatchCount();
+    }
+
+    @ManagedAnnotation("replicationLagMillis")
+    @ManagedDescription("The highest replication lag in milliseconds")
+    public long getReplicationLagMillis() {
+        return managedObject.getReplicationLagMillis();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.util.UuidUtil;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the entries of a map matching a predicate by pulling
+ * {@link QueryChunk}s partition by partition.
+ * <p/>
+ * Only one chunk is held and in flight at any time, so the memory used by the
+ * iteration is bounded by the fetch size regardless of the size of the result.
+ * Entries are deserialized lazily in {@link #next()}. The query cursor of a partition is
+ * closed as soon as its last chunk has been received; cursors of abandoned iterations are
+ * dropped by their members once idle.
+ * <p/>
+ * The iteration is weakly consistent: entries added or removed while iterating may
+ * or may not be returned and, if a partition migrates in the middle of its iteration,
+ * its scan starts over on the new owner so some entries may be returned twice.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public abstract class ChunkedQueryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+
+    private final String cursorId = UuidUtil.buildRandomUuidString();
+    private final int partitionCount;
+    private int partitionId = -1;
+    private int chunkSequence;
+    private QueryChunk chunk;
+    private int index;
+
+    protected ChunkedQueryIterator(int partitionCount) {
+        this.partitionCount = partitionCount;
+    }
+
+    /**
+     * Fetches the next chunk of the given partition for the given cursor. Chunks of a partition are
+     * numbered from 0; fetching the same sequence number again returns the same chunk.
+     */
+    protected abstract QueryChunk fetch(int partitionId, String cursorId, int chunkSequence);
+
+    /**
+     * Closes the cursor of the given partition after its last chunk has been fetched. Failures are ignored;
+     * the member drops the cursor later once it has been idle for long enough.
+     */
+    protected abstract void close(int partitionId, String cursorId);
+
+    protected abstract Object toObject(Data data);
+
+    public boolean hasNext() {
+        while (chunk == null || index >= chunk.size()) {
+            if (chunk == null || chunk.isLast()) {
+                if (partitionId + 1 >= partitionCount) {
+                    return false;
+                }
+                partitionId++;
+                chunkSequence = 0;
+            }
+            chunk = fetch(partitionId, cursorId, chunkSequence++);
+            index = 0;
+            if (chunk.isLast()) {
+                close(partitionId, cursorId);
+            }
+        }
+        return true;
+    }
+
+    public Map.Entry<K, V> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final K key = (K) toObject(chunk.getKey(index));
+        final V value = (V) toObject(chunk.getValue(index));
+        index++;
+        return new AbstractMap.SimpleImmutableEntry<K, V>(key, value);
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
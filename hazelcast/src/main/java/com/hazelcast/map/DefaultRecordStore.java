@@ -21,8 +21,10 @@ import com.hazelcast.concurrent.lock.LockStore;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.core.EntryView;
+import com.hazelcast.core.HazelcastException;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.eviction.EvictionHelper;
+import com.hazelcast.map.eviction.EvictionPool;
 import com.hazelcast.map.merge.MapMergePolicy;
 import com.hazelcast.map.operation.PutAllOperation;
 import com.hazelcast.map.record.Record;
@@ -50,6 +52,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -82,8 +85,24 @@ public class DefaultRecordStore implements RecordStore {
     private final ILogger logger;
     private final SizeEstimator sizeEstimator;
     private final AtomicBoolean loaded = new AtomicBoolean(false);
+    /**
+     * Progress of the key stream of a {@link com.hazelcast.core.StreamingMapLoader}, guarded by keyLoadLock:
+     * id of the current stream, key batches loaded so far, the total number of batches once the stream
+     * has ended and the batches whose values are being loaded.
+     */
+    private final Object keyLoadLock = new Object();
+    private long keyStreamId;
+    private int loadedKeyBatchCount;
+    private int totalKeyBatchCount = -1;
+    private final Set<List<Data>> pendingKeyBatches = Collections.newSetFromMap(new IdentityHashMap<List<Data>, Boolean>());
+    private volatile HazelcastException keyLoadFailure;
+    private final AtomicBoolean keyLoadRestarted = new AtomicBoolean();
     private final WriteBehindQueue<DelayedEntry> writeBehindQueue;
     private long lastEvictionTime;
+    /**
+     * Eviction candidates kept between eviction cycles, used by sampling eviction.
+     */
+    private EvictionPool evictionPool;
     /**
      * If there is no clean-up caused by puts after some time,
      * count a number of gets and start eviction.
@@ -126,10 +145,23 @@ public class DefaultRecordStore implements RecordStore {
 
     public void checkIfLoaded() {
         if (mapContainer.getStore() != null && !loaded.get()) {
+            checkKeyLoadFailure();
             throw ExceptionUtil.rethrow(new RetryableHazelcastException("Map is not ready!!!"));
         }
     }
 
+    @Override
+    public void checkKeyLoadFailure() {
+        final HazelcastException failure = keyLoadFailure;
+        if (failure != null) {
+            // the failure is reported until a new stream arrives, which is triggered once per failure
+            if (keyLoadRestarted.compareAndSet(false, true)) {
+                mapContainer.triggerKeyStreaming();
+            }
+            throw failure;
+        }
+    }
+
     public String getName() {
         return name;
     }
@@ -208,6 +240,9 @@ public class DefaultRecordStore implements RecordStore {
             }
         }
         clearRecordsMap(Collections.<Data, Record>emptyMap());
+        if (evictionPool != null) {
+            evictionPool.clear();
+        }
         resetSizeEstimator();
         resetAccessSequenceNumber();
     }
@@ -949,6 +984,13 @@ public class DefaultRecordStore implements RecordStore {
             loadOccurred.set(true);
             return;
         }
+        if (mapContainer.getStore().isStreamingMapLoader()) {
+            // keys are streamed to the partitions, loaded flag is set once all batches are loaded
+            if (partitionId == mapContainer.getKeyLoaderPartitionId()) {
+                mapContainer.streamInitialKeys(false);
+            }
+            return;
+        }
         final Map<Data, Object> loadedKeys = mapContainer.getInitialKeys();
         if (loadedKeys == null || loadedKeys.isEmpty()) {
             loadOccurred.set(true);
@@ -984,16 +1026,131 @@ public class DefaultRecordStore implements RecordStore {
         }
         try {
             final AtomicInteger checkIfMapLoaded = new AtomicInteger(chunks.size());
+            final Runnable chunkLoaded = new Runnable() {
+                @Override
+                public void run() {
+                    if (checkIfMapLoaded.decrementAndGet() == 0) {
+                        loaded.set(true);
+                    }
+                }
+            };
             ExecutionService executionService = nodeEngine.getExecutionService();
             Map<Data, Object> chunkedKeys;
             while ((chunkedKeys = chunks.poll()) != null) {
-                executionService.submit("hz:map-load", new MapLoadAllTask(chunkedKeys, checkIfMapLoaded));
+                executionService.submit("hz:map-load", new MapLoadAllTask(chunkedKeys, chunkLoaded));
             }
         } catch (Throwable t) {
             throw ExceptionUtil.rethrow(t);
         }
     }
 
+    @Override
+    public void loadKeyBatch(final long streamId, final List<Data> keys, int totalBatchCount) {
+        synchronized (keyLoadLock) {
+            if (loaded.get() || streamId < keyStreamId) {
+                // partition is loaded already or keys are from a stream that has been restarted
+                return;
+            }
+            if (streamId > keyStreamId) {
+                resetKeyLoad(streamId);
+            }
+            if (totalBatchCount >= 0) {
+                totalKeyBatchCount = totalBatchCount;
+            }
+            if (keys.isEmpty()) {
+                loadedKeyBatchCount++;
+                checkKeyBatchesLoaded();
+                return;
+            }
+            pendingKeyBatches.add(keys);
+        }
+        submitKeyBatch(streamId, keys);
+    }
+
+    private void submitKeyBatch(final long streamId, final List<Data> keys) {
+        final Map<Data, Object> keyMap = new HashMap<Data, Object>(keys.size());
+        for (Data key : keys) {
+            keyMap.put(key, mapService.toObject(key));
+        }
+        final Runnable batchLoaded = new Runnable() {
+            @Override
+            public void run() {
+                synchronized (keyLoadLock) {
+                    if (streamId == keyStreamId && pendingKeyBatches.remove(keys)) {
+                        loadedKeyBatchCount++;
+                        checkKeyBatchesLoaded();
+                    }
+                }
+            }
+        };
+        mapService.getNodeEngine().getExecutionService().submit("hz:map-load", new MapLoadAllTask(keyMap, batchLoaded) {
+            @Override
+            void onFailure(Throwable t) {
+                keyLoadFailed(streamId, t.toString());
+            }
+        });
+    }
+
+    private void checkKeyBatchesLoaded() {
+        if (loadedKeyBatchCount == totalKeyBatchCount) {
+            loaded.set(true);
+        }
+    }
+
+    private void resetKeyLoad(long streamId) {
+        keyStreamId = streamId;
+        loadedKeyBatchCount = 0;
+        totalKeyBatchCount = -1;
+        pendingKeyBatches.clear();
+        keyLoadFailure = null;
+    }
+
+    @Override
+    public void keyLoadFailed(long streamId, String failure) {
+        synchronized (keyLoadLock) {
+            if (loaded.get() || streamId < keyStreamId) {
+                return;
+            }
+            resetKeyLoad(streamId);
+            logger.finest("Initial load of map '" + name + "' failed on partition " + partitionId + ": " + failure);
+            keyLoadRestarted.set(false);
+            keyLoadFailure = new HazelcastException("Initial load of map '" + name + "' failed: " + failure);
+        }
+    }
+
+    @Override
+    public KeyLoadState getKeyLoadState() {
+        synchronized (keyLoadLock) {
+            if (loaded.get() || keyStreamId == 0) {
+                return null;
+            }
+            final HazelcastException failure = keyLoadFailure;
+            return new KeyLoadState(keyStreamId, loadedKeyBatchCount, totalKeyBatchCount,
+                    new ArrayList<List<Data>>(pendingKeyBatches), failure != null ? failure.getMessage() : null);
+        }
+    }
+
+    @Override
+    public void setKeyLoadState(KeyLoadState state) {
+        final List<List<Data>> pendingBatches;
+        synchronized (keyLoadLock) {
+            resetKeyLoad(state.getStreamId());
+            loadedKeyBatchCount = state.getLoadedBatchCount();
+            totalKeyBatchCount = state.getTotalBatchCount();
+            if (state.getFailure() != null) {
+                keyLoadRestarted.set(false);
+                keyLoadFailure = new HazelcastException(state.getFailure());
+            }
+            pendingBatches = state.getPendingBatches();
+            pendingKeyBatches.addAll(pendingBatches);
+            checkKeyBatchesLoaded();
+        }
+        // batches that were being loaded by the previous owner are loaded again
+        for (List<Data> batch : pendingBatches) {
+            submitKeyBatch(state.getStreamId(), batch);
+        }
+    }
+
     /**
      * TODO make checkEvictable fast by carrying threshold logic to partition.
      * This cleanup adds some latency to write operations.
@@ -1197,6 +1354,14 @@ public class DefaultRecordStore implements RecordStore {
         return sizeEstimator;
     }
 
+    @Override
+    public EvictionPool getEvictionPool() {
+        if (evictionPool == null) {
+            evictionPool = new EvictionPool();
+        }
+        return evictionPool;
+    }
+
     private void updateTtl(Record record, long ttlInMillis) {
         if (ttlInMillis < 0L) {
             return;
@@ -1247,13 +1412,13 @@ public class DefaultRecordStore implements RecordStore {
         }
     }
 
-    private final class MapLoadAllTask implements Runnable {
+    private class MapLoadAllTask implements Runnable {
         private Map<Data, Object> keys;
-        private AtomicInteger checkIfMapLoaded;
+        private Runnable loadedCallback;
 
-        private MapLoadAllTask(Map<Data, Object> keys, AtomicInteger checkIfMapLoaded) {
+        MapLoadAllTask(Map<Data, Object> keys, Runnable loadedCallback) {
             this.keys = keys;
-            this.checkIfMapLoaded = checkIfMapLoaded;
+            this.loadedCallback = loadedCallback;
         }
 
         public void run() {
@@ -1261,9 +1426,7 @@ public class DefaultRecordStore implements RecordStore {
             try {
                 Map values = mapContainer.getStore().loadAll(keys.values());
                 if (values == null || values.isEmpty()) {
-                    if (checkIfMapLoaded.decrementAndGet() == 0) {
-                        loaded.set(true);
-                    }
+                    loadedCallback.run();
                     return;
                 }
 
@@ -1276,13 +1439,16 @@ public class DefaultRecordStore implements RecordStore {
                         entrySet.add(dataKey, dataValue);
                     }
                 }
+                mapService.getLocalMapStatsImpl(name).incrementInitialLoadedEntries(entrySet.getEntrySet().size());
                 PutAllOperation operation = new PutAllOperation(name, entrySet, true);
                 operation.setNodeEngine(nodeEngine);
                 operation.setResponseHandler(new ResponseHandler() {
                     @Override
                     public void sendResponse(Object obj) {
-                        if (checkIfMapLoaded.decrementAndGet() == 0) {
-                            loaded.set(true);
+                        if (obj instanceof Throwable) {
+                            onFailure((Throwable) obj);
+                        } else {
+                            loadedCallback.run();
                         }
                     }
 
@@ -1296,8 +1462,12 @@ public class DefaultRecordStore implements RecordStore {
                 operation.setServiceName(MapService.SERVICE_NAME);
                 nodeEngine.getOperationService().executeOperation(operation);
             } catch (Exception e) {
-                logger.warning("Exception while load all task:" + e.toString());
+                onFailure(e);
             }
         }
+
+        void onFailure(Throwable t) {
+            logger.warning("Exception while load all task:" + t.toString());
+        }
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.DataSerializable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress of a partition in the initial load of a {@link com.hazelcast.core.StreamingMapLoader},
+ * migrated together with the records so the new owner can finish a load that is not complete yet.
+ * Key batches that were received but not loaded yet are carried along and loaded again by the new owner.
+ */
+public class KeyLoadState implements DataSerializable {
+
+    private long streamId;
+    private int loadedBatchCount;
+    private int totalBatchCount;
+    private List<List<Data>> pendingBatches;
+    private String failure;
+
+    public KeyLoadState() {
+    }
+
+    public KeyLoadState(long streamId, int loadedBatchCount, int totalBatchCount,
+                        List<List<Data>> pendingBatches, String failure) {
+        this.streamId = streamId;
+        this.loadedBatchCount = loadedBatchCount;
+        this.totalBatchCount = totalBatchCount;
+        this.pendingBatches = pendingBatches;
+        this.failure = failure;
+    }
+
+    public long getStreamId() {
+        return streamId;
+    }
+
+    public int getLoadedBatchCount() {
+        return loadedBatchCount;
+    }
+
+    public int getTotalBatchCount() {
+        return totalBatchCount;
+    }
+
+    public List<List<Data>> getPendingBatches() {
+        return pendingBatches;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeLong(streamId);
+        out.writeInt(loadedBatchCount);
+        out.writeInt(totalBatchCount);
+        out.writeUTF(failure);
+        out.writeInt(pendingBatches.size());
+        for (List<Data> batch : pendingBatches) {
+            out.writeInt(batch.size());
+            for (Data key : batch) {
+                key.writeData(out);
+            }
+        }
+    }
+
+    public void readData(ObjectDataInput in) throws IOException {
+        streamId = in.readLong();
+        loadedBatchCount = in.readInt();
+        totalBatchCount = in.readInt();
+        failure = in.readUTF();
+        int batchCount = in.readInt();
+        pendingBatches = new ArrayList<List<Data>>(batchCount);
+        for (int i = 0; i < batchCount; i++) {
+            int size = in.readInt();
+            List<Data> batch = new ArrayList<Data>(size);
+            for (int k = 0; k < size; k++) {
+                Data key = new Data();
+                key.readData(in);
+                batch.add(key);
+            }
+            pendingBatches.add(batch);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import com.hazelcast.map.eviction.ReachabilityHandlerChain;
 import com.hazelcast.map.eviction.ReachabilityHandlers;
 import com.hazelcast.map.merge.MapMergePolicy;
 import com.hazelcast.map.operation.ClearExpiredOperation;
+import com.hazelcast.map.operation.StreamInitialKeysOperation;
 import com.hazelcast.map.record.DataRecordFactory;
 import com.hazelcast.map.record.ObjectRecordFactory;
 import com.hazelcast.map.record.OffHeapRecordFactory;
@@ -77,6 +78,12 @@ public class MapContainer {
     private WanReplicationPublisher wanReplicationPublisher;
     private MapMergePolicy wanMergePolicy;
     private final boolean evictionEnabled;
+    /**
+     * Whether this member has started streaming the keys of a {@link com.hazelcast.core.StreamingMapLoader}, which is
+     * reset when streaming fails, and whether it is streaming them right now; guarded by this.
+     */
+    private boolean keyStreamingStarted;
+    private boolean keyStreamingRunning;
 
     public MapContainer(final String name, final MapConfig mapConfig, final MapService mapService) {
         this.name = name;
@@ -281,6 +288,10 @@ public class MapContainer {
 
     public void loadInitialKeys() {
         initialKeys.clear();
+        if (storeWrapper.isStreamingMapLoader()) {
+            triggerKeyStreaming();
+            return;
+        }
         Set keys = storeWrapper.loadAllKeys();
         if (keys == null || keys.isEmpty()) {
             return;
@@ -298,6 +309,62 @@ public class MapContainer {
         }, 20, TimeUnit.MINUTES);
     }
 
+    /**
+     * Makes sure the owner of the key loader partition streams the keys, see {@link #streamInitialKeys(boolean)}.
+     * Used for the initial load and to restart a failed load; a stream which is running is not restarted.
+     */
+    public void triggerKeyStreaming() {
+        triggerKeyStreaming(false);
+    }
+
+    /**
+     * @param restart whether to stream the keys again even if the owner of the key loader partition has
+     *                streamed them successfully already
+     */
+    void triggerKeyStreaming(final boolean restart) {
+        final NodeEngine nodeEngine = mapService.getNodeEngine();
+        nodeEngine.getExecutionService().execute("hz:map-load", new Runnable() {
+            @Override
+            public void run() {
+                final Operation operation = new StreamInitialKeysOperation(name, restart);
+                nodeEngine.getOperationService()
+                        .invokeOnPartition(MapService.SERVICE_NAME, operation, getKeyLoaderPartitionId());
+            }
+        });
+    }
+
+    /**
+     * Partition whose owner streams the keys of a {@link com.hazelcast.core.StreamingMapLoader}.
+     */
+    public int getKeyLoaderPartitionId() {
+        return mapService.getNodeEngine().getPartitionService().getPartitionId(name);
+    }
+
+    /**
+     * Starts streaming the keys of a {@link com.hazelcast.core.StreamingMapLoader} to their partitions,
+     * unless this member is streaming them already or, unless restarting, has streamed them successfully.
+     */
+    public synchronized void streamInitialKeys(boolean restart) {
+        if (keyStreamingRunning || (keyStreamingStarted && !restart)) {
+            return;
+        }
+        keyStreamingStarted = true;
+        keyStreamingRunning = true;
+        mapService.getNodeEngine().getExecutionService()
+                .execute("hz:map-load", new MapKeyLoader(this, mapService));
+    }
+
+    /**
+     * Called when streaming the keys has ended; after a failure a later {@link #triggerKeyStreaming()}
+     * starts it again.
+     */
+    synchronized void keyStreamingFinished(boolean failed) {
+        keyStreamingRunning = false;
+        if (failed) {
+            keyStreamingStarted = false;
+        }
+    }
+
     public void shutDownMapStoreScheduledExecutor() {
         writeBehindQueueManager.stop();
     }
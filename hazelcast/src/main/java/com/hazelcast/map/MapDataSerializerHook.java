@@ -53,8 +53,9 @@ public final class MapDataSerializerHook implements DataSerializerHook {
     public static final int MAP_STATS = 12;
     public static final int QUERY_RESULT_ENTRY = 13;
     public static final int QUERY_RESULT_SET = 14;
+    public static final int QUERY_CHUNK = 15;
 
-    private static final int LEN = QUERY_RESULT_SET + 1;
+    private static final int LEN = QUERY_CHUNK + 1;
 
     public int getFactoryId() {
         return F_ID;
@@ -124,6 +125,11 @@ public final class MapDataSerializerHook implements DataSerializerHook {
                 return new QueryResultSet();
             }
         };
+        constructors[QUERY_CHUNK] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new QueryChunk();
+            }
+        };
 
         return new ArrayDataSerializableFactory(constructors);
     }
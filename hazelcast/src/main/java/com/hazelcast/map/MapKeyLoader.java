@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.operation.LoadKeyBatchOperation;
+import com.hazelcast.monitor.impl.LocalMapStatsImpl;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.partition.InternalPartitionService;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.OperationService;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.nio.IOUtil.closeResource;
+
+/**
+ * Streams the keys of a {@link com.hazelcast.core.StreamingMapLoader} to the owners of their partitions.
+ * <p/>
+ * Keys are grouped per partition and sent in batches of <tt>hazelcast.map.load.chunk.size</tt> keys as soon
+ * as a batch is full, so only one pending batch per partition is kept in memory. After the last key every
+ * partition receives its remaining keys together with the total number of batches sent to it, which lets
+ * the partition mark itself as loaded once all of its batches are loaded.
+ * <p/>
+ * Every run streams the keys under a new stream id. If streaming fails, all partitions are notified of the
+ * failure, which they report to callers, and the next operation on a failed partition restarts the stream.
+ * If the streaming member leaves, the members waiting for keys restart the stream on the new owner of the
+ * key loader partition, see {@link MapService#memberRemoved(com.hazelcast.spi.MembershipServiceEvent)}.
+ */
+final class MapKeyLoader implements Runnable {
+
+    private static final int MAX_IN_FLIGHT_BATCHES = 32;
+    private static final int PROGRESS_LOG_INTERVAL = 100000;
+
+    private final MapContainer mapContainer;
+    private final MapService mapService;
+    private final String name;
+    private final ILogger logger;
+    private final LinkedList<Future> inFlightBatches = new LinkedList<Future>();
+    private long streamId;
+
+    MapKeyLoader(MapContainer mapContainer, MapService mapService) {
+        this.mapContainer = mapContainer;
+        this.mapService = mapService;
+        this.name = mapContainer.getName();
+        this.logger = mapService.getNodeEngine().getLogger(MapKeyLoader.class);
+    }
+
+    @Override
+    public void run() {
+        final NodeEngine nodeEngine = mapService.getNodeEngine();
+        final InternalPartitionService partitionService = nodeEngine.getPartitionService();
+        final int partitionCount = partitionService.getPartitionCount();
+        final int batchSize = nodeEngine.getGroupProperties().MAP_LOAD_CHUNK_SIZE.getInteger();
+        final PartitioningStrategy partitioningStrategy = mapContainer.getPartitioningStrategy();
+        final List<Data>[] batches = new List[partitionCount];
+        final int[] batchCounts = new int[partitionCount];
+        final long start = System.currentTimeMillis();
+        final LocalMapStatsImpl localMapStats = mapService.getLocalMapStatsImpl(name);
+        streamId = nodeEngine.getClusterService().getClusterTime();
+        long keyCount = 0;
+        Iterator iterator = null;
+        try {
+            final Iterable keys = mapContainer.getStore().iterateAllKeys();
+            iterator = keys != null ? keys.iterator() : null;
+            while (iterator != null && iterator.hasNext()) {
+                final Data key = mapService.toData(iterator.next(), partitioningStrategy);
+                final int partitionId = partitionService.getPartitionId(key);
+                List<Data> batch = batches[partitionId];
+                if (batch == null) {
+                    batch = new ArrayList<Data>(batchSize);
+                    batches[partitionId] = batch;
+                }
+                batch.add(key);
+                if (batch.size() >= batchSize) {
+                    send(partitionId, batch, -1);
+                    batchCounts[partitionId]++;
+                    batches[partitionId] = null;
+                }
+                localMapStats.incrementInitialLoadKeys(1);
+                if (++keyCount % PROGRESS_LOG_INTERVAL == 0) {
+                    logger.info("Streamed " + keyCount + " keys of map '" + name + "' for initial load");
+                }
+            }
+            for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+                final List<Data> batch = batches[partitionId];
+                send(partitionId, batch != null ? batch : new ArrayList<Data>(0), batchCounts[partitionId] + 1);
+            }
+            while (!inFlightBatches.isEmpty()) {
+                inFlightBatches.removeFirst().get();
+            }
+            mapContainer.keyStreamingFinished(false);
+            logger.info("Streamed " + keyCount + " keys of map '" + name + "' for initial load in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        } catch (Throwable t) {
+            logger.warning("Initial key load of map '" + name + "' failed after " + keyCount + " keys", t);
+            notifyFailure(partitionCount, t);
+        } finally {
+            if (iterator instanceof Closeable) {
+                closeResource((Closeable) iterator);
+            }
+        }
+    }
+
+    private void send(int partitionId, List<Data> keys, int totalBatchCount) throws Exception {
+        if (inFlightBatches.size() >= MAX_IN_FLIGHT_BATCHES) {
+            inFlightBatches.removeFirst().get();
+        }
+        final OperationService operationService = mapService.getNodeEngine().getOperationService();
+        final LoadKeyBatchOperation operation = new LoadKeyBatchOperation(name, streamId, keys, totalBatchCount);
+        inFlightBatches.add(operationService.invokeOnPartition(MapService.SERVICE_NAME, operation, partitionId));
+    }
+
+    private void notifyFailure(int partitionCount, Throwable cause) {
+        inFlightBatches.clear();
+        // a restarted stream gets a newer id, so it is not affected by the notifications below
+        mapContainer.keyStreamingFinished(true);
+        final OperationService operationService = mapService.getNodeEngine().getOperationService();
+        final List<Future> futures = new ArrayList<Future>(partitionCount);
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            final LoadKeyBatchOperation operation = new LoadKeyBatchOperation(name, streamId, cause.toString());
+            futures.add(operationService.invokeOnPartition(MapService.SERVICE_NAME, operation, partitionId));
+        }
+        for (Future future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                logger.finest("Could not notify partition of failed initial load of map '" + name + "'", e);
+            }
+        }
+    }
+}
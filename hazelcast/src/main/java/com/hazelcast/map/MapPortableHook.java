@@ -70,6 +70,8 @@ public class MapPortableHook implements PortableHook {
     public static final int EXECUTE_WITH_PREDICATE = 43;
     public static final int REMOVE_ENTRY_LISTENER = 44;
     public static final int EXECUTE_ON_KEYS = 45;
+    public static final int QUERY_CHUNK = 46;
+    public static final int CLOSE_QUERY_CURSOR = 47;
 
     public int getFactoryId() {
         return F_ID;
@@ -77,7 +79,7 @@ public class MapPortableHook implements PortableHook {
 
     public PortableFactory createFactory() {
         return new PortableFactory() {
-            final ConstructorFunction<Integer, Portable> constructors[] = new ConstructorFunction[EXECUTE_ON_KEYS + 1];
+            final ConstructorFunction<Integer, Portable> constructors[] = new ConstructorFunction[CLOSE_QUERY_CURSOR + 1];
             {
                 constructors[GET] = new ConstructorFunction<Integer, Portable>() {
                     public Portable createNew(Integer arg) {
@@ -324,6 +326,16 @@ public class MapPortableHook implements PortableHook {
                         return new MapRemoveEntryListenerRequest();
                     }
                 };
+                constructors[QUERY_CHUNK] = new ConstructorFunction<Integer, Portable>() {
+                    public Portable createNew(Integer arg) {
+                        return new MapQueryChunkRequest();
+                    }
+                };
+                constructors[CLOSE_QUERY_CURSOR] = new ConstructorFunction<Integer, Portable>() {
+                    public Portable createNew(Integer arg) {
+                        return new MapCloseQueryCursorRequest();
+                    }
+                };
 
 
             }
@@ -61,12 +61,17 @@ import com.hazelcast.partition.MigrationEndpoint;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.IndexService;
+import com.hazelcast.query.impl.PortableMatcher;
+import com.hazelcast.query.impl.PortablePredicateEvaluator;
 import com.hazelcast.query.impl.QueryEntry;
 import com.hazelcast.query.impl.QueryResultEntryImpl;
 import com.hazelcast.spi.EventFilter;
 import com.hazelcast.spi.EventPublishingService;
 import com.hazelcast.spi.EventRegistration;
 import com.hazelcast.spi.ManagedService;
+import com.hazelcast.spi.MemberAttributeServiceEvent;
+import com.hazelcast.spi.MembershipAwareService;
+import com.hazelcast.spi.MembershipServiceEvent;
 import com.hazelcast.spi.MigrationAwareService;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.ObjectNamespace;
@@ -83,16 +88,14 @@ import com.hazelcast.transaction.impl.TransactionSupport;
 import com.hazelcast.util.ConcurrencyUtil;
 import com.hazelcast.util.ConstructorFunction;
 import com.hazelcast.util.ExceptionUtil;
-import com.hazelcast.util.SortingUtil;
+import com.hazelcast.util.PagingEntryCollector;
 import com.hazelcast.wan.WanReplicationEvent;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -101,6 +104,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 
@@ -109,17 +113,23 @@ import java.util.logging.Level;
  */
 public class MapService implements ManagedService, MigrationAwareService,
         TransactionalService, RemoteService, EventPublishingService<EventData, EntryListener>,
-        PostJoinAwareService, SplitBrainHandlerService, ReplicationSupportingService {
+        PostJoinAwareService, SplitBrainHandlerService, ReplicationSupportingService, MembershipAwareService {
     /**
      * Service name.
      */
     public static final String SERVICE_NAME = "hz:impl:mapService";
+    /**
+     * The maximum number of paging cursors kept by this member over all partitions.
+     */
+    static final int MAX_PAGING_CURSORS = 10000;
+
     private final ILogger logger;
     private final NodeEngine nodeEngine;
     private final PartitionContainer[] partitionContainers;
     private final ConcurrentMap<String, MapContainer> mapContainers = new ConcurrentHashMap<String, MapContainer>();
     private final ConcurrentMap<String, NearCache> nearCacheMap = new ConcurrentHashMap<String, NearCache>();
     private final AtomicReference<List<Integer>> ownedPartitions;
+    private final AtomicInteger pagingCursorCount = new AtomicInteger();
     private final Map<String, MapMergePolicy> mergePolicyMap;
     // we added following latency to be sure the ongoing migration is completed if the owner of
     // the record could not complete task before migration
@@ -153,6 +163,13 @@ public class MapService implements ManagedService, MigrationAwareService,
         for (int i = 0; i < partitionCount; i++) {
             partitionContainers[i] = new PartitionContainer(this, i);
         }
+        nodeEngine.getExecutionService().scheduleAtFixedRate(new Runnable() {
+            public void run() {
+                for (PartitionContainer container : partitionContainers) {
+                    container.evictIdleQueryCursors();
+                }
+            }
+        }, 1, 1, TimeUnit.MINUTES);
         final LockService lockService = nodeEngine.getSharedService(LockService.SERVICE_NAME);
         if (lockService != null) {
             lockService.registerLockStoreConstructor(SERVICE_NAME, new ConstructorFunction<ObjectNamespace, LockStoreInfo>() {
@@ -360,6 +377,27 @@ public class MapService implements ManagedService, MigrationAwareService,
         return partitionContainers[partitionId];
     }
 
+    /**
+     * Takes one of the {@link #MAX_PAGING_CURSORS} paging cursors of this member.
+     *
+     * @return <tt>false</tt> if all of them are taken
+     */
+    boolean tryAcquirePagingCursor() {
+        while (true) {
+            final int count = pagingCursorCount.get();
+            if (count >= MAX_PAGING_CURSORS) {
+                return false;
+            }
+            if (pagingCursorCount.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void releasePagingCursor() {
+        pagingCursorCount.decrementAndGet();
+    }
+
     public RecordStore getRecordStore(int partitionId, String mapName) {
         return getPartitionContainer(partitionId).getRecordStore(mapName);
     }
@@ -424,6 +462,39 @@ public class MapService implements ManagedService, MigrationAwareService,
         }
     }
 
+    @Override
+    public void memberAdded(MembershipServiceEvent event) {
+    }
+
+    /**
+     * Restarts the key stream of the maps whose initial load has not completed on this member yet, unless it is
+     * still running on the owner of their key loader partition; the member which has left may have been streaming
+     * the keys, in which case the owned partitions of this member would never receive their remaining keys.
+     */
+    @Override
+    public void memberRemoved(MembershipServiceEvent event) {
+        for (MapContainer mapContainer : mapContainers.values()) {
+            final MapStoreWrapper store = mapContainer.getStore();
+            if (store != null && store.isStreamingMapLoader() && !isInitialLoadCompleted(mapContainer.getName())) {
+                mapContainer.triggerKeyStreaming(true);
+            }
+        }
+    }
+
+    @Override
+    public void memberAttributeChanged(MemberAttributeServiceEvent event) {
+    }
+
+    private boolean isInitialLoadCompleted(String mapName) {
+        for (Integer partitionId : getOwnedPartitions()) {
+            final RecordStore recordStore = partitionContainers[partitionId].getExistingRecordStore(mapName);
+            if (recordStore == null || !recordStore.isLoaded()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void rollbackMigration(PartitionMigrationEvent event) {
         if (event.getMigrationEndpoint() == MigrationEndpoint.DESTINATION) {
@@ -439,6 +510,8 @@ public class MapService implements ManagedService, MigrationAwareService,
                 mapPartition.clearPartition();
             }
             container.getMaps().clear();
+            container.clearQueryCursors();
+            container.clearMigrationChunks();
         }
     }
 
@@ -900,40 +973,44 @@ public class MapService implements ManagedService, MigrationAwareService,
 
     public QueryResult queryOnPartition(String mapName, Predicate predicate, int partitionId) {
         final QueryResult result = new QueryResult();
-        List<QueryEntry> list = new LinkedList<QueryEntry>();
         PartitionContainer container = getPartitionContainer(partitionId);
         RecordStore recordStore = container.getRecordStore(mapName);
         Map<Data, Record> records = recordStore.getReadonlyRecordMap();
         SerializationService serializationService = nodeEngine.getSerializationService();
         final PagingPredicate pagingPredicate = predicate instanceof PagingPredicate ? (PagingPredicate) predicate : null;
-        Comparator<Map.Entry> wrapperComparator = SortingUtil.newComparator(pagingPredicate);
+        final PagingEntryCollector<QueryEntry> pagingMatches = pagingPredicate != null
+                ? new PagingEntryCollector<QueryEntry>(pagingPredicate) : null;
+        final PortablePredicateEvaluator evaluator = pagingPredicate == null
+                && nodeEngine.getGroupProperties().QUERY_SERIALIZED_PREDICATES_ENABLED.getBoolean()
+                ? PortablePredicateEvaluator.create(predicate, serializationService) : null;
         for (Record record : records.values()) {
             Data key = record.getKey();
             Object value = record.getValue();
             if (value == null) {
                 continue;
             }
+            final PortableMatcher matcher = evaluator != null && value instanceof Data
+                    ? evaluator.getMatcher((Data) value) : null;
+            if (matcher != null) {
+                if (matcher.matches(((Data) value).getBuffer())) {
+                    result.add(new QueryResultEntryImpl(key, key, (Data) value));
+                }
+                continue;
+            }
             QueryEntry queryEntry = new QueryEntry(serializationService, key, key, value);
             if (predicate.apply(queryEntry)) {
-                if (pagingPredicate != null) {
-                    Map.Entry anchor = pagingPredicate.getAnchor();
-                    if (anchor != null &&
-                            SortingUtil.compare(pagingPredicate.getComparator(), pagingPredicate.getIterationType(), anchor, queryEntry) >= 0) {
-                        continue;
-                    }
+                if (pagingMatches != null) {
+                    pagingMatches.add(queryEntry);
+                } else {
+                    result.add(new QueryResultEntryImpl(key, key, queryEntry.getValueData()));
                 }
-                list.add(queryEntry);
             }
         }
-        if (pagingPredicate != null) {
-            Collections.sort(list, wrapperComparator);
-            if (list.size() > pagingPredicate.getPageSize()) {
-                list = list.subList(0, pagingPredicate.getPageSize());
+        if (pagingMatches != null) {
+            for (QueryEntry entry : pagingMatches.toSortedList()) {
+                result.add(new QueryResultEntryImpl(entry.getKeyData(), entry.getKeyData(), entry.getValueData()));
             }
         }
-        for (QueryEntry entry : list) {
-            result.add(new QueryResultEntryImpl(entry.getKeyData(), entry.getKeyData(), entry.getValueData()));
-        }
         return result;
     }
 
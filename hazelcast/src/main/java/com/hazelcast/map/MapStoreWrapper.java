@@ -20,6 +20,7 @@ import com.hazelcast.core.MapLoader;
 import com.hazelcast.core.MapLoaderLifecycleSupport;
 import com.hazelcast.core.MapStore;
 import com.hazelcast.core.PostProcessingMapStore;
+import com.hazelcast.core.StreamingMapLoader;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -117,6 +118,13 @@ public class MapStoreWrapper implements MapStore {
         return null;
     }
 
+    public Iterable iterateAllKeys() {
+        if (isMapLoader() && enabled.get()) {
+            return ((StreamingMapLoader) mapLoader).iterateAllKeys();
+        }
+        return null;
+    }
+
     public Object load(Object key) {
         if (isMapLoader() && enabled.get()) {
             return mapLoader.load(key);
@@ -138,6 +146,10 @@ public class MapStoreWrapper implements MapStore {
         return impl;
     }
 
+    public boolean isStreamingMapLoader() {
+        return isMapLoader() && mapLoader instanceof StreamingMapLoader;
+    }
+
     public boolean isPostProcessingMapStore() {
         return isMapStore() && mapStore instanceof PostProcessingMapStore;
     }
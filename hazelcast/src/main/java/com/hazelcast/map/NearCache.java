@@ -22,30 +22,43 @@ import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.monitor.impl.NearCacheStatsImpl;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.storage.DataRef;
+import com.hazelcast.storage.OffHeapOutOfMemoryException;
+import com.hazelcast.storage.Storage;
 import com.hazelcast.util.Clock;
 import com.hazelcast.util.ExceptionUtil;
 
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * NearCache.
+ * <p/>
+ * When the near cache is full, a record is evicted for every new one on the putting thread. The record to evict is
+ * the least recently or least frequently used one of a small sample, taken by a cursor which walks over the cache,
+ * so no copy of the cache is needed. With {@link InMemoryFormat#OFFHEAP} the values are kept in the off-heap
+ * storage of the node.
  */
 public class NearCache {
     /**
      * Used when caching nonexistent values.
      */
     public static final Object NULL_OBJECT = new Object();
-    private static final int HUNDRED_PERCENT = 100;
-    private static final int EVICTION_PERCENTAGE = 20;
+    /**
+     * Number of records compared to select the one to evict.
+     */
+    static final int EVICTION_SAMPLE_SIZE = 16;
+    // limits the work done by a single put when the cache has grown over its max size by concurrent puts
+    private static final int MAX_EVICTIONS_PER_PUT = 8;
     private static final int CLEANUP_INTERVAL = 5000;
     private final int maxSize;
     private volatile long lastCleanup;
@@ -60,6 +73,10 @@ public class NearCache {
     private final ConcurrentMap<Data, CacheRecord> cache;
     private final MapContainer mapContainer;
     private final NearCacheStatsImpl nearCacheStats;
+    private final Storage<DataRef> offHeapStorage;
+    private final AtomicLong memoryCost = new AtomicLong();
+    // guarded by canEvict
+    private Iterator<CacheRecord> evictionCursor;
 
     /**
      * @param mapName
@@ -81,6 +98,7 @@ public class NearCache {
         canEvict = new AtomicBoolean(true);
         nearCacheStats = new NearCacheStatsImpl();
         lastCleanup = Clock.currentTimeMillis();
+        offHeapStorage = inMemoryFormat == InMemoryFormat.OFFHEAP ? nodeEngine.getOffHeapStorage() : null;
     }
 
     /**
@@ -102,21 +120,32 @@ public class NearCache {
             }
         }
         if (evictionPolicy != EvictionPolicy.NONE && cache.size() >= maxSize) {
-            fireEvictCache();
+            evict();
         }
         final Object value;
         if (data == null) {
             value = NULL_OBJECT;
+        } else if (offHeapStorage != null) {
+            try {
+                value = offHeapStorage.put(key.getPartitionHash(), data);
+            } catch (OffHeapOutOfMemoryException e) {
+                // the value is not cached, the map entries in the same storage are more important
+                invalidate(key);
+                return data;
+            }
         } else {
             value = inMemoryFormat.equals(InMemoryFormat.OBJECT) ? mapService.toObject(data) : data;
         }
         final CacheRecord record = new CacheRecord(key, value);
-        cache.put(key, record);
-        updateSizeEstimator(calculateCost(record));
+        final CacheRecord oldRecord = cache.put(key, record);
+        onRecordAdded(record);
+        if (oldRecord != null) {
+            onRecordRemoved(oldRecord);
+        }
         if (NULL_OBJECT.equals(value)) {
             return null;
         } else {
-            return value;
+            return offHeapStorage != null ? data : value;
         }
     }
 
@@ -125,46 +154,58 @@ public class NearCache {
     }
 
     private NearCacheStatsImpl createNearCacheStats() {
-        long ownedEntryCount = 0;
-        long ownedEntryMemoryCost = 0;
-        for (CacheRecord record : cache.values()) {
-            ownedEntryCount++;
-            ownedEntryMemoryCost += record.getCost();
-        }
-        nearCacheStats.setOwnedEntryCount(ownedEntryCount);
-        nearCacheStats.setOwnedEntryMemoryCost(ownedEntryMemoryCost);
+        nearCacheStats.setOwnedEntryCount(cache.size());
+        nearCacheStats.setOwnedEntryMemoryCost(memoryCost.get());
         return nearCacheStats;
     }
 
-    private void fireEvictCache() {
-        if (canEvict.compareAndSet(true, false)) {
-            try {
-                nodeEngine.getExecutionService().execute("hz:near-cache", new Runnable() {
-                    public void run() {
-                        try {
-                            TreeSet<CacheRecord> records = new TreeSet<CacheRecord>(cache.values());
-                            int evictSize = cache.size() * EVICTION_PERCENTAGE / HUNDRED_PERCENT;
-                            int i = 0;
-                            for (CacheRecord record : records) {
-                                cache.remove(record.key);
-                                updateSizeEstimator(-calculateCost(record));
-                                if (++i > evictSize) {
-                                    break;
-                                }
-                            }
-                        } finally {
-                            canEvict.set(true);
-                        }
-                    }
-                });
-            } catch (RejectedExecutionException e) {
-                canEvict.set(true);
-            } catch (Exception e) {
-                throw ExceptionUtil.rethrow(e);
+    private void evict() {
+        if (!canEvict.compareAndSet(true, false)) {
+            // another thread is evicting; the cache may grow a little over its max size until the next put
+            return;
+        }
+        try {
+            for (int i = 0; i < MAX_EVICTIONS_PER_PUT && cache.size() >= maxSize; i++) {
+                CacheRecord record = selectEvictionCandidate();
+                if (record == null) {
+                    break;
+                }
+                if (cache.remove(record.key, record)) {
+                    onRecordRemoved(record);
+                    nearCacheStats.incrementEvictions();
+                }
             }
+        } finally {
+            canEvict.set(true);
         }
     }
 
+    private CacheRecord selectEvictionCandidate() {
+        CacheRecord candidate = null;
+        boolean restarted = false;
+        int sampled = 0;
+        while (sampled < EVICTION_SAMPLE_SIZE) {
+            if (evictionCursor == null || !evictionCursor.hasNext()) {
+                if (restarted) {
+                    // the cache is smaller than the sample
+                    break;
+                }
+                evictionCursor = cache.values().iterator();
+                restarted = true;
+                continue;
+            }
+            CacheRecord record = evictionCursor.next();
+            sampled++;
+            if (record.expired()) {
+                return record;
+            }
+            if (candidate == null || record.isEvictedBefore(candidate)) {
+                candidate = record;
+            }
+        }
+        return candidate;
+    }
+
     private void fireTtlCleanup() {
         if (Clock.currentTimeMillis() < (lastCleanup + CLEANUP_INTERVAL)) {
             return;
@@ -182,7 +223,8 @@ public class NearCache {
                                     final CacheRecord record = cache.remove(key);
                                     //if a mapping exists.
                                     if (record != null) {
-                                        updateSizeEstimator(-calculateCost(record));
+                                        onRecordRemoved(record);
+                                        nearCacheStats.incrementExpirations();
                                     }
                                 }
                             }
@@ -204,13 +246,21 @@ public class NearCache {
         CacheRecord record = cache.get(key);
         if (record != null) {
             if (record.expired()) {
-                cache.remove(key);
-                updateSizeEstimator(-calculateCost(record));
+                if (cache.remove(key, record)) {
+                    onRecordRemoved(record);
+                    nearCacheStats.incrementExpirations();
+                }
+                nearCacheStats.incrementMisses();
+                return null;
+            }
+            Object value = record.getValue();
+            if (value == null) {
+                // off-heap value has been released by a concurrent invalidation
                 nearCacheStats.incrementMisses();
                 return null;
             }
             record.access();
-            return record.value;
+            return value;
         } else {
             nearCacheStats.incrementMisses();
             return null;
@@ -221,7 +271,7 @@ public class NearCache {
         final CacheRecord record = cache.remove(key);
         // if a mapping exists for the key.
         if (record != null) {
-            updateSizeEstimator(-calculateCost(record));
+            onRecordRemoved(record);
         }
     }
 
@@ -239,7 +289,13 @@ public class NearCache {
     }
 
     public void clear() {
+        if (offHeapStorage != null) {
+            for (Data key : cache.keySet()) {
+                invalidate(key);
+            }
+        }
         cache.clear();
+        memoryCost.set(0);
         resetSizeEstimator();
     }
 
@@ -250,7 +306,7 @@ public class NearCache {
     /**
      * CacheRecord.
      */
-    public class CacheRecord implements Comparable<CacheRecord> {
+    public class CacheRecord {
         final Data key;
         final Object value;
         final long creationTime;
@@ -278,40 +334,30 @@ public class NearCache {
                     || (timeToLiveMillis > 0 && time > creationTime + timeToLiveMillis);
         }
 
-        public int compareTo(CacheRecord o) {
-            if (EvictionPolicy.LRU.equals(evictionPolicy)) {
-                return ((Long) this.lastAccessTime).compareTo((o.lastAccessTime));
-            } else if (EvictionPolicy.LFU.equals(evictionPolicy)) {
-                return ((Integer) this.hit.get()).compareTo((o.hit.get()));
-            }
-            return 0;
-        }
-
-        public boolean equals(Object o) {
-            if (o != null && o instanceof CacheRecord) {
-                return this.compareTo((CacheRecord) o) == 0;
+        boolean isEvictedBefore(CacheRecord other) {
+            if (EvictionPolicy.LFU.equals(evictionPolicy)) {
+                return hit.get() < other.hit.get();
             }
-            return false;
-        }
-
-        // If you don't think instances of this class will ever be inserted into a HashMap/HashTable,
-        // the recommended hashCode implementation to use is:
-        public int hashCode() {
-            assert false : "hashCode not designed";
-            // any arbitrary constant will do.
-            return 42;
+            return lastAccessTime < other.lastAccessTime;
         }
 
+        /**
+         * @return heap cost of this record in bytes, 0 if the value is not stored in binary form.
+         */
         public long getCost() {
             // todo find object size  if not a Data instance.
-            if (!(value instanceof Data)) {
+            final long valueCost;
+            if (value instanceof Data) {
+                valueCost = ((Data) value).getHeapCost();
+            } else if (value instanceof DataRef) {
+                valueCost = ((DataRef) value).heapCost();
+            } else {
                 return 0;
             }
             final int numberOfLongs = 2;
             final int numberOfIntegers = 3;
-            // value is Data
             return key.getHeapCost()
-                    + ((Data) value).getHeapCost()
+                    + valueCost
                     + numberOfLongs * (Long.SIZE / Byte.SIZE)
                     // sizeof atomic integer
                     + (Integer.SIZE / Byte.SIZE)
@@ -319,13 +365,48 @@ public class NearCache {
                     + numberOfIntegers * (Integer.SIZE / Byte.SIZE);
         }
 
+        /**
+         * @return number of off-heap bytes used by the value of this record.
+         */
+        public long getOffHeapCost() {
+            return value instanceof DataRef ? ((DataRef) value).size() : 0;
+        }
+
         public Data getKey() {
             return key;
         }
 
+        /**
+         * @return the cached value, a copy of it if it is stored off-heap; or null if the off-heap copy
+         * has already been released.
+         */
         public Object getValue() {
+            if (value instanceof DataRef) {
+                try {
+                    return offHeapStorage.get(key.getPartitionHash(), (DataRef) value);
+                } catch (IllegalStateException e) {
+                    return null;
+                }
+            }
             return value;
         }
+
+        void release() {
+            if (value instanceof DataRef) {
+                offHeapStorage.remove(key.getPartitionHash(), (DataRef) value);
+            }
+        }
+    }
+
+    private void onRecordAdded(CacheRecord record) {
+        memoryCost.addAndGet(record.getCost() + record.getOffHeapCost());
+        updateSizeEstimator(calculateCost(record));
+    }
+
+    private void onRecordRemoved(CacheRecord record) {
+        record.release();
+        memoryCost.addAndGet(-(record.getCost() + record.getOffHeapCost()));
+        updateSizeEstimator(-calculateCost(record));
     }
 
     private void resetSizeEstimator() {
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.map.record.Record;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.SerializationService;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.util.IterationType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server side cursor of a {@link PagingPredicate} over a single partition, kept by the
+ * {@link PartitionContainer} like the cursors of chunked queries.
+ * <p/>
+ * A partition scan collects the matches following the anchor of the requested page for several pages
+ * ahead. Following pages are served from these buffered matches, without scanning the partition again,
+ * as long as the anchor only moves forward and enough matches are buffered. Otherwise the partition is
+ * scanned again and the cursor is replaced.
+ * <p/>
+ * Only the records of the matches are buffered, not deserialized entries; the entries of a page are
+ * created again when the page is served. A buffered record is checked before it is returned; an updated
+ * or removed entry invalidates the cursor. Entries inserted after the scan are only seen once the cursor
+ * is refilled, so paging over a cursor is weakly consistent, like the chunked query iteration.
+ */
+public final class PagingCursor {
+
+    private final IterationType iterationType;
+    private final List<Record> records;
+    private final List<Object> values;
+    private final boolean complete;
+    private Map.Entry anchor;
+
+    /**
+     * @param pagingPredicate predicate whose nearest anchor the matches follow
+     * @param records         records of the matches following the anchor, in paging order
+     * @param complete        <tt>true</tt> if the records are all the matches following the anchor
+     */
+    public PagingCursor(PagingPredicate pagingPredicate, List<Record> records, boolean complete) {
+        this.iterationType = pagingPredicate.getIterationType();
+        this.anchor = pagingPredicate.getNearestAnchorEntry();
+        this.records = records;
+        this.values = new ArrayList<Object>(records.size());
+        for (Record record : records) {
+            values.add(record.getValue());
+        }
+        this.complete = complete;
+    }
+
+    /**
+     * Returns the first {@link PagingPredicate#getFetchSize()} matches following the nearest anchor of the
+     * given predicate, or <tt>null</tt> if they can not be served from this cursor.
+     *
+     * @param pagingPredicate predicate of the next page
+     * @param comparator      paging order
+     * @param recordMap       current records of the partition
+     * @param ss              serialization service the entries are created with
+     */
+    public List<QueryEntry> next(PagingPredicate pagingPredicate, Comparator<Map.Entry> comparator,
+                                 Map<Data, Record> recordMap, SerializationService ss) {
+        final Map.Entry nextAnchor = pagingPredicate.getNearestAnchorEntry();
+        if (pagingPredicate.getIterationType() != iterationType
+                || (anchor != null && (nextAnchor == null || comparator.compare(anchor, nextAnchor) > 0))) {
+            return null;
+        }
+        int start = 0;
+        while (nextAnchor != null && start < records.size()
+                && comparator.compare(nextAnchor, newEntry(ss, start)) >= 0) {
+            start++;
+        }
+        records.subList(0, start).clear();
+        values.subList(0, start).clear();
+        anchor = nextAnchor;
+        final int fetchSize = pagingPredicate.getFetchSize();
+        if (records.size() < fetchSize && !complete) {
+            return null;
+        }
+        final int size = Math.min(fetchSize, records.size());
+        final List<QueryEntry> entries = new ArrayList<QueryEntry>(size);
+        for (int i = 0; i < size; i++) {
+            final Record record = records.get(i);
+            if (recordMap.get(record.getKey()) != record || record.getValue() != values.get(i)) {
+                return null;
+            }
+            entries.add(newEntry(ss, i));
+        }
+        return entries;
+    }
+
+    private QueryEntry newEntry(SerializationService ss, int index) {
+        final Data key = records.get(index).getKey();
+        return new QueryEntry(ss, key, key, values.get(index));
+    }
+}
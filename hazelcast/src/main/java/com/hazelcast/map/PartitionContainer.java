@@ -17,18 +17,50 @@
 package com.hazelcast.map;
 
 import com.hazelcast.concurrent.lock.LockService;
+import com.hazelcast.map.operation.MapMigrationChunkOperation;
+import com.hazelcast.map.record.Record;
 import com.hazelcast.spi.DefaultObjectNamespace;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.util.ConcurrencyUtil;
 import com.hazelcast.util.ConstructorFunction;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class PartitionContainer {
+
+    /**
+     * Query cursors not advanced for this long are considered abandoned and are dropped,
+     * see {@link #evictIdleQueryCursors()}.
+     */
+    private static final long QUERY_CURSOR_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * The maximum number of query cursors open on a partition at the same time.
+     */
+    private static final int MAX_QUERY_CURSORS = 1000;
+
+    /**
+     * The maximum number of paging cursors kept on a partition at the same time, see also
+     * {@link MapService#MAX_PAGING_CURSORS}.
+     */
+    private static final int MAX_PAGING_CURSORS = 100;
+
     private final MapService mapService;
     private final int partitionId;
     private final ConcurrentMap<String, RecordStore> maps = new ConcurrentHashMap<String, RecordStore>(1000);
+    private final ConcurrentMap<String, QueryCursor> queryCursors = new ConcurrentHashMap<String, QueryCursor>();
+    private final AtomicInteger pagingCursorCount = new AtomicInteger();
+    // record chunks of an incoming migration, applied when the migration operation of their stream runs
+    private final List<MapMigrationChunkOperation> migrationChunks = new ArrayList<MapMigrationChunkOperation>();
+    private String migrationStreamId;
 
     public PartitionContainer(final MapService mapService, final int partitionId) {
         this.mapService = mapService;
@@ -62,7 +94,192 @@ public class PartitionContainer {
         return maps.get(mapName);
     }
 
+    /**
+     * Returns the record iterator of the given query cursor, opening a new one
+     * over the records of the map if the cursor is not known on this partition.
+     * <p/>
+     * Cursors are only touched from the partition thread, so the returned iterator
+     * must be advanced from the partition thread as well.
+     *
+     * @throws IllegalStateException if {@link #MAX_QUERY_CURSORS} cursors are open on this partition already
+     */
+    public Iterator<Record> getOrOpenQueryCursor(String mapName, String cursorId) {
+        final long now = System.currentTimeMillis();
+        QueryCursor cursor = queryCursors.get(cursorId);
+        if (cursor == null || cursor.iterator == null || !cursor.mapName.equals(mapName)) {
+            evictIdleQueryCursors(now);
+            if (queryCursors.size() >= MAX_QUERY_CURSORS) {
+                throw new IllegalStateException("Too many open query cursors on partition " + partitionId
+                        + ", the maximum is " + MAX_QUERY_CURSORS);
+            }
+            final RecordStore recordStore = getRecordStore(mapName);
+            cursor = new QueryCursor(mapName, recordStore.getReadonlyRecordMap().values().iterator(), null);
+            putQueryCursor(cursorId, cursor);
+        }
+        cursor.lastAccessTime = now;
+        return cursor.iterator;
+    }
+
+    /**
+     * Returns the paging cursor of the given paging query on this partition, or <tt>null</tt> if there is none.
+     * Like query cursors, paging cursors are only touched from the partition thread.
+     */
+    public PagingCursor getPagingCursor(String mapName, String cursorId) {
+        final QueryCursor cursor = queryCursors.get(cursorId);
+        if (cursor == null || cursor.pagingCursor == null || !cursor.mapName.equals(mapName)) {
+            return null;
+        }
+        cursor.lastAccessTime = System.currentTimeMillis();
+        return cursor.pagingCursor;
+    }
+
+    /**
+     * Keeps the paging cursor of the given paging query on this partition, replacing its previous one.
+     * The cursor is not kept if this partition or the member has too many paging cursors already;
+     * the following pages then scan the partition again.
+     *
+     * @return <tt>true</tt> if the cursor is kept
+     */
+    public boolean putPagingCursor(String mapName, String cursorId, PagingCursor pagingCursor) {
+        final long now = System.currentTimeMillis();
+        evictIdleQueryCursors(now);
+        final QueryCursor previous = queryCursors.get(cursorId);
+        if (previous != null) {
+            removeQueryCursor(cursorId, previous);
+        }
+        if (pagingCursorCount.get() >= MAX_PAGING_CURSORS || !mapService.tryAcquirePagingCursor()) {
+            return false;
+        }
+        pagingCursorCount.incrementAndGet();
+        final QueryCursor cursor = new QueryCursor(mapName, null, pagingCursor);
+        cursor.lastAccessTime = now;
+        putQueryCursor(cursorId, cursor);
+        return true;
+    }
+
+    /**
+     * Returns the chunk last returned for the given query cursor if it was returned for the given
+     * sequence number, so a retried request gets the same chunk instead of advancing the cursor again.
+     */
+    public QueryChunk getReturnedQueryChunk(String mapName, String cursorId, int chunkSequence) {
+        final QueryCursor cursor = queryCursors.get(cursorId);
+        if (cursor == null || !cursor.mapName.equals(mapName) || cursor.lastChunk == null
+                || cursor.lastChunkSequence != chunkSequence) {
+            return null;
+        }
+        cursor.lastAccessTime = System.currentTimeMillis();
+        return cursor.lastChunk;
+    }
+
+    /**
+     * Remembers the chunk returned for the given sequence number of a query cursor. The cursor is kept
+     * after its last chunk, until the iterator closes it, so the last chunk can be returned again as well.
+     */
+    public void setReturnedQueryChunk(String cursorId, int chunkSequence, QueryChunk chunk) {
+        final QueryCursor cursor = queryCursors.get(cursorId);
+        if (cursor != null) {
+            cursor.lastChunkSequence = chunkSequence;
+            cursor.lastChunk = chunk;
+        }
+    }
+
+    /**
+     * Stages a chunk of migrated records. The first chunk of a new migration stream drops the chunks
+     * left behind by an earlier, failed migration of the partition.
+     */
+    public synchronized void stageMigrationChunk(String streamId, MapMigrationChunkOperation chunk) {
+        if (!streamId.equals(migrationStreamId)) {
+            migrationChunks.clear();
+            migrationStreamId = streamId;
+        }
+        migrationChunks.add(chunk);
+    }
+
+    /**
+     * Removes and returns the staged chunks of the given migration stream.
+     */
+    public synchronized List<MapMigrationChunkOperation> removeMigrationChunks(String streamId) {
+        if (!streamId.equals(migrationStreamId)) {
+            return Collections.emptyList();
+        }
+        final List<MapMigrationChunkOperation> chunks = new ArrayList<MapMigrationChunkOperation>(migrationChunks);
+        clearMigrationChunks();
+        return chunks;
+    }
+
+    public synchronized void discardMigrationChunks(String streamId) {
+        if (streamId.equals(migrationStreamId)) {
+            clearMigrationChunks();
+        }
+    }
+
+    synchronized void clearMigrationChunks() {
+        migrationChunks.clear();
+        migrationStreamId = null;
+    }
+
+    /**
+     * Closes a query cursor once its iterator has received the last chunk.
+     */
+    public void closeQueryCursor(String mapName, String cursorId) {
+        final QueryCursor cursor = queryCursors.get(cursorId);
+        if (cursor != null && cursor.mapName.equals(mapName)) {
+            removeQueryCursor(cursorId, cursor);
+        }
+    }
+
+    /**
+     * Drops the cursors of abandoned queries. Called periodically by the {@link MapService}, not only from the
+     * partition thread; that is safe since an idle cursor is not in use.
+     */
+    void evictIdleQueryCursors() {
+        evictIdleQueryCursors(System.currentTimeMillis());
+    }
+
+    void clearQueryCursors() {
+        for (Map.Entry<String, QueryCursor> entry : queryCursors.entrySet()) {
+            removeQueryCursor(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void evictIdleQueryCursors(long now) {
+        for (Map.Entry<String, QueryCursor> entry : queryCursors.entrySet()) {
+            if (now - entry.getValue().lastAccessTime > QUERY_CURSOR_IDLE_TIMEOUT_MILLIS) {
+                removeQueryCursor(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void putQueryCursor(String cursorId, QueryCursor cursor) {
+        final QueryCursor previous = queryCursors.put(cursorId, cursor);
+        if (previous != null) {
+            onQueryCursorRemoved(previous);
+        }
+    }
+
+    /**
+     * Removes a cursor and returns its paging cursor permits; cursors may be removed by the partition
+     * thread and the periodic eviction at the same time, only the one removing it releases them.
+     */
+    private void removeQueryCursor(String cursorId, QueryCursor cursor) {
+        if (queryCursors.remove(cursorId, cursor)) {
+            onQueryCursorRemoved(cursor);
+        }
+    }
+
+    private void onQueryCursorRemoved(QueryCursor cursor) {
+        if (cursor.pagingCursor != null) {
+            pagingCursorCount.decrementAndGet();
+            mapService.releasePagingCursor();
+        }
+    }
+
     void destroyMap(String name) {
+        for (Map.Entry<String, QueryCursor> entry : queryCursors.entrySet()) {
+            if (entry.getValue().mapName.equals(name)) {
+                removeQueryCursor(entry.getKey(), entry.getValue());
+            }
+        }
         RecordStore recordStore = maps.remove(name);
         if (recordStore != null) {
             recordStore.clearPartition();
@@ -85,7 +302,25 @@ public class PartitionContainer {
             recordStore.clearPartition();
         }
         maps.clear();
+        clearQueryCursors();
+        clearMigrationChunks();
     }
 
+    /**
+     * Either the record iterator of a chunked query or the cursor of a paging query.
+     */
+    private static final class QueryCursor {
+        final String mapName;
+        final Iterator<Record> iterator;
+        final PagingCursor pagingCursor;
+        int lastChunkSequence;
+        QueryChunk lastChunk;
+        volatile long lastAccessTime;
 
+        QueryCursor(String mapName, Iterator<Record> iterator, PagingCursor pagingCursor) {
+            this.mapName = mapName;
+            this.iterator = iterator;
+            this.pagingCursor = pagingCursor;
+        }
+    }
 }
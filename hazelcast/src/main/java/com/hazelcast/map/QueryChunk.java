@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A bounded slice of the entries of a single partition matching a query,
+ * returned by one step of a chunked query iteration.
+ * <p/>
+ * {@link #isLast()} is set once the partition has been scanned completely.
+ * A chunk may be empty while not being the last one, when the scan budget
+ * of the step has been used up without finding matching entries.
+ */
+public final class QueryChunk implements IdentifiedDataSerializable {
+
+    private List<Data> keys;
+    private List<Data> values;
+    private boolean last;
+
+    public QueryChunk() {
+    }
+
+    public QueryChunk(int expectedSize) {
+        keys = new ArrayList<Data>(expectedSize);
+        values = new ArrayList<Data>(expectedSize);
+    }
+
+    public void add(Data key, Data value) {
+        keys.add(key);
+        values.add(value);
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    public Data getKey(int index) {
+        return keys.get(index);
+    }
+
+    public Data getValue(int index) {
+        return values.get(index);
+    }
+
+    public boolean isLast() {
+        return last;
+    }
+
+    public void setLast(boolean last) {
+        this.last = last;
+    }
+
+    public int getFactoryId() {
+        return MapDataSerializerHook.F_ID;
+    }
+
+    public int getId() {
+        return MapDataSerializerHook.QUERY_CHUNK;
+    }
+
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeBoolean(last);
+        int size = keys.size();
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            keys.get(i).writeData(out);
+            values.get(i).writeData(out);
+        }
+    }
+
+    public void readData(ObjectDataInput in) throws IOException {
+        last = in.readBoolean();
+        int size = in.readInt();
+        keys = new ArrayList<Data>(size);
+        values = new ArrayList<Data>(size);
+        for (int i = 0; i < size; i++) {
+            Data key = new Data();
+            key.readData(in);
+            Data value = new Data();
+            value.readData(in);
+            keys.add(key);
+            values.add(value);
+        }
+    }
+}
@@ -27,8 +27,21 @@ import java.util.*;
 
 public class QueryResult implements DataSerializable {
 
+    private static final float LOAD_FACTOR = 0.75f;
+
     private List<Integer> partitionIds;
-    private final Set<QueryResultEntry> result = new LinkedHashSet<QueryResultEntry>();
+    private final Set<QueryResultEntry> result;
+
+    public QueryResult() {
+        result = new LinkedHashSet<QueryResultEntry>();
+    }
+
+    /**
+     * Creates a result sized for the given number of entries.
+     */
+    public QueryResult(int expectedSize) {
+        result = new LinkedHashSet<QueryResultEntry>((int) (expectedSize / LOAD_FACTOR) + 1);
+    }
 
     public List<Integer> getPartitionIds() {
         return partitionIds;
@@ -17,6 +17,7 @@
 package com.hazelcast.map;
 
 import com.hazelcast.core.EntryView;
+import com.hazelcast.map.eviction.EvictionPool;
 import com.hazelcast.map.merge.MapMergePolicy;
 import com.hazelcast.map.record.Record;
 import com.hazelcast.map.writebehind.DelayedEntry;
@@ -124,12 +125,46 @@ public interface RecordStore {
 
     SizeEstimator getSizeEstimator();
 
+    EvictionPool getEvictionPool();
+
     boolean isLoaded();
 
     void checkIfLoaded();
 
     void setLoaded(boolean loaded);
 
+    /**
+     * Loads the values of a batch of keys streamed by a {@link com.hazelcast.core.StreamingMapLoader}.
+     * Batches of a newer stream discard the progress of an older one, batches of an older stream are ignored.
+     *
+     * @param streamId        id of the key stream, increasing with every restart of the stream
+     * @param keys            keys of this partition to be loaded
+     * @param totalBatchCount number of batches streamed to this partition, or a negative value if more
+     *                        batches will follow
+     */
+    void loadKeyBatch(long streamId, List<Data> keys, int totalBatchCount);
+
+    /**
+     * Marks the initial load of this partition as failed, so operations on it fail with the cause
+     * and restart the key stream instead of waiting for it.
+     *
+     * @param streamId id of the failed key stream
+     * @param failure  description of the failure
+     */
+    void keyLoadFailed(long streamId, String failure);
+
+    /**
+     * Throws the failure of the initial load of this partition, if it failed.
+     */
+    void checkKeyLoadFailure();
+
+    /**
+     * @return progress of an unfinished streaming initial load, or <tt>null</tt> if there is none
+     */
+    KeyLoadState getKeyLoadState();
+
+    void setKeyLoadState(KeyLoadState state);
+
     void clear();
 
     boolean isEmpty();
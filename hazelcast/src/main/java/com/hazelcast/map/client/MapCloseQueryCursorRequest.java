@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.map.client;
+
+import com.hazelcast.client.PartitionClientRequest;
+import com.hazelcast.client.SecureRequest;
+import com.hazelcast.map.MapPortableHook;
+import com.hazelcast.map.MapService;
+import com.hazelcast.map.operation.CloseQueryCursorOperation;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+import com.hazelcast.security.permission.ActionConstants;
+import com.hazelcast.security.permission.MapPermission;
+import com.hazelcast.spi.Operation;
+
+import java.io.IOException;
+import java.security.Permission;
+
+/**
+ * Closes the query cursor of a chunked query iteration on one partition, see {@link MapQueryChunkRequest}.
+ */
+public class MapCloseQueryCursorRequest extends PartitionClientRequest implements Portable, SecureRequest {
+
+    private String name;
+    private String cursorId;
+    private int partitionId;
+
+    public MapCloseQueryCursorRequest() {
+    }
+
+    public MapCloseQueryCursorRequest(String name, String cursorId, int partitionId) {
+        this.name = name;
+        this.cursorId = cursorId;
+        this.partitionId = partitionId;
+    }
+
+    @Override
+    protected Operation prepareOperation() {
+        return new CloseQueryCursorOperation(name, cursorId);
+    }
+
+    @Override
+    protected int getPartition() {
+        return partitionId;
+    }
+
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return MapPortableHook.F_ID;
+    }
+
+    public int getClassId() {
+        return MapPortableHook.CLOSE_QUERY_CURSOR;
+    }
+
+    public void write(PortableWriter writer) throws IOException {
+        writer.writeUTF("n", name);
+        writer.writeUTF("c", cursorId);
+        writer.writeInt("p", partitionId);
+    }
+
+    public void read(PortableReader reader) throws IOException {
+        name = reader.readUTF("n");
+        cursorId = reader.readUTF("c");
+        partitionId = reader.readInt("p");
+    }
+
+    public Permission getRequiredPermission() {
+        return new MapPermission(name, ActionConstants.ACTION_READ);
+    }
+}
@@ -16,7 +16,7 @@
 
 package com.hazelcast.map.client;
 
-import com.hazelcast.client.AllPartitionsClientRequest;
+import com.hazelcast.client.MultiPartitionClientRequest;
 import com.hazelcast.client.RetryableRequest;
 import com.hazelcast.client.SecureRequest;
 import com.hazelcast.map.*;
@@ -27,17 +27,19 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.nio.serialization.PortableReader;
 import com.hazelcast.nio.serialization.PortableWriter;
+import com.hazelcast.partition.InternalPartitionService;
 import com.hazelcast.security.permission.ActionConstants;
 import com.hazelcast.security.permission.MapPermission;
 import com.hazelcast.spi.OperationFactory;
 
 import java.io.IOException;
 import java.security.Permission;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-public class MapGetAllRequest extends AllPartitionsClientRequest implements Portable, RetryableRequest, SecureRequest {
+public class MapGetAllRequest extends MultiPartitionClientRequest implements Portable, RetryableRequest, SecureRequest {
 
     protected String name;
     private Set<Data> keys = new HashSet<Data>();
@@ -77,6 +79,16 @@ public class MapGetAllRequest extends AllPartitionsClientRequest implements Port
         return resultSet;
     }
 
+    @Override
+    public Collection<Integer> getPartitions() {
+        InternalPartitionService partitionService = getClientEngine().getPartitionService();
+        Set<Integer> partitionIds = new HashSet<Integer>();
+        for (Data key : keys) {
+            partitionIds.add(partitionService.getPartitionId(key));
+        }
+        return partitionIds;
+    }
+
     public String getServiceName() {
         return MapService.SERVICE_NAME;
     }
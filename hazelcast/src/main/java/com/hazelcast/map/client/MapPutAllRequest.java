@@ -16,7 +16,7 @@
 
 package com.hazelcast.map.client;
 
-import com.hazelcast.client.AllPartitionsClientRequest;
+import com.hazelcast.client.MultiPartitionClientRequest;
 import com.hazelcast.client.SecureRequest;
 import com.hazelcast.map.MapEntrySet;
 import com.hazelcast.map.MapPortableHook;
@@ -24,9 +24,11 @@ import com.hazelcast.map.MapService;
 import com.hazelcast.map.operation.MapPutAllOperationFactory;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.nio.serialization.PortableReader;
 import com.hazelcast.nio.serialization.PortableWriter;
+import com.hazelcast.partition.InternalPartitionService;
 import com.hazelcast.security.permission.ActionConstants;
 import com.hazelcast.security.permission.MapPermission;
 import com.hazelcast.spi.OperationFactory;
@@ -34,9 +36,12 @@ import com.hazelcast.util.ExceptionUtil;
 
 import java.io.IOException;
 import java.security.Permission;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
-public class MapPutAllRequest extends AllPartitionsClientRequest implements Portable, SecureRequest {
+public class MapPutAllRequest extends MultiPartitionClientRequest implements Portable, SecureRequest {
 
     protected String name;
     private MapEntrySet entrySet;
@@ -74,6 +79,16 @@ public class MapPutAllRequest extends AllPartitionsClientRequest implements Port
         return null;
     }
 
+    @Override
+    public Collection<Integer> getPartitions() {
+        InternalPartitionService partitionService = getClientEngine().getPartitionService();
+        Set<Integer> partitionIds = new HashSet<Integer>();
+        for (Map.Entry<Data, Data> entry : entrySet.getEntrySet()) {
+            partitionIds.add(partitionService.getPartitionId(entry.getKey()));
+        }
+        return partitionIds;
+    }
+
     public String getServiceName() {
         return MapService.SERVICE_NAME;
     }
@@ -77,12 +77,12 @@ public class MapPutRequest extends KeyBasedClientRequest implements Portable, Se
 
     @Override
     protected void beforeProcess() {
-        startTime = System.currentTimeMillis();
+        startTime = System.nanoTime();
     }
 
     @Override
     protected void afterResponse() {
-        final long latency = System.currentTimeMillis() - startTime;
+        final long latency = System.nanoTime() - startTime;
         final MapService mapService = getService();
         MapContainer mapContainer = mapService.getMapContainer(name);
         if (mapContainer.getMapConfig().isStatisticsEnabled()) {
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.client;
+
+import com.hazelcast.client.PartitionClientRequest;
+import com.hazelcast.client.SecureRequest;
+import com.hazelcast.map.MapPortableHook;
+import com.hazelcast.map.MapService;
+import com.hazelcast.map.operation.QueryChunkOperation;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.security.permission.ActionConstants;
+import com.hazelcast.security.permission.MapPermission;
+import com.hazelcast.spi.Operation;
+
+import java.io.IOException;
+import java.security.Permission;
+
+/**
+ * Fetches the next chunk of a chunked query iteration over one partition.
+ * <p/>
+ * Safe to retry: the chunk sequence number lets the partition return the same chunk again
+ * instead of advancing its cursor twice.
+ */
+public class MapQueryChunkRequest extends PartitionClientRequest implements Portable, SecureRequest {
+
+    private String name;
+    private Predicate predicate;
+    private String cursorId;
+    private int chunkSequence;
+    private int partitionId;
+    private int fetchSize;
+
+    public MapQueryChunkRequest() {
+    }
+
+    public MapQueryChunkRequest(String name, Predicate predicate, String cursorId, int chunkSequence,
+                                int partitionId, int fetchSize) {
+        this.name = name;
+        this.predicate = predicate;
+        this.cursorId = cursorId;
+        this.chunkSequence = chunkSequence;
+        this.partitionId = partitionId;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    protected Operation prepareOperation() {
+        return new QueryChunkOperation(name, predicate, cursorId, chunkSequence, fetchSize);
+    }
+
+    @Override
+    protected int getPartition() {
+        return partitionId;
+    }
+
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return MapPortableHook.F_ID;
+    }
+
+    public int getClassId() {
+        return MapPortableHook.QUERY_CHUNK;
+    }
+
+    public void write(PortableWriter writer) throws IOException {
+        writer.writeUTF("n", name);
+        writer.writeUTF("c", cursorId);
+        writer.writeInt("s", chunkSequence);
+        writer.writeInt("p", partitionId);
+        writer.writeInt("f", fetchSize);
+        final ObjectDataOutput out = writer.getRawDataOutput();
+        out.writeObject(predicate);
+    }
+
+    public void read(PortableReader reader) throws IOException {
+        name = reader.readUTF("n");
+        cursorId = reader.readUTF("c");
+        chunkSequence = reader.readInt("s");
+        partitionId = reader.readInt("p");
+        fetchSize = reader.readInt("f");
+        final ObjectDataInput in = reader.getRawDataInput();
+        predicate = in.readObject();
+    }
+
+    public Permission getRequiredPermission() {
+        return new MapPermission(name, ActionConstants.ACTION_READ);
+    }
+}
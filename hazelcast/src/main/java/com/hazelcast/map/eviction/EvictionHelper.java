@@ -77,12 +77,31 @@ public final class EvictionHelper {
         if (evictableSize < 1) {
             return;
         }
+        final long start = System.nanoTime();
+        final int evictedRecordCount;
+        if (mapConfig.getEvictionSampleCount() > 0) {
+            evictedRecordCount = evictBySampling(recordStore, evictableSize, mapConfig, mapService);
+        } else {
+            evictedRecordCount = evictBySorting(recordStore, evictableSize, mapConfig, mapService);
+        }
+        if (mapConfig.isStatisticsEnabled()) {
+            mapService.getLocalMapStatsImpl(mapConfig.getName())
+                    .incrementEvictions(evictedRecordCount, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Evicts the records having an eviction criteria smaller than the criteria of
+     * the <tt>evictableSize</tt>th record, found by sorting the criteria of all records.
+     */
+    private static int evictBySorting(final RecordStore recordStore, final int evictableSize,
+                                      final MapConfig mapConfig, final MapService mapService) {
         final MapConfig.EvictionPolicy evictionPolicy = mapConfig.getEvictionPolicy();
         final Map<Data, Record> entries = recordStore.getReadonlyRecordMap();
         final int size = entries.size();
         // size have a tendency to change to here so check again.
         if (entries.isEmpty()) {
-            return;
+            return 0;
         }
         // criteria is a long value, like last access times or hits,
         // used for calculating LFU or LRU.
@@ -97,7 +116,7 @@ public final class EvictionHelper {
             }
         }
         if (criterias.length == 0) {
-            return;
+            return 0;
         }
         // just in case there may be unassigned indexes in criterias array due to size variances
         // assign them to Long.MAX_VALUE so when sorting asc they will locate
@@ -115,25 +134,59 @@ public final class EvictionHelper {
         for (final Map.Entry<Data, Record> entry : entries.entrySet()) {
             final Record record = entry.getValue();
             final long value = getEvictionCriteriaValue(record, evictionPolicy);
-            if (value <= criteriaValue) {
-                final Data tmpKey = record.getKey();
-                final Object tmpValue = record.getValue();
-                if (evictIfNotLocked(tmpKey, recordStore)) {
-                    evictedRecordCounter++;
-                    final String mapName = mapConfig.getName();
-                    mapService.interceptAfterRemove(mapName, value);
-                    if (mapService.isNearCacheAndInvalidationEnabled(mapName)) {
-                        mapService.invalidateAllNearCaches(mapName, tmpKey);
-                    }
-                    fireEvent(tmpKey, tmpValue, mapName, mapService);
-                }
+            if (value <= criteriaValue && evictRecord(record, recordStore, mapConfig, mapService)) {
+                evictedRecordCounter++;
             }
             if (evictedRecordCounter >= evictableSize) {
                 break;
             }
         }
+        return evictedRecordCounter;
+    }
+
+    /**
+     * Evicts records one by one, each time taking the best candidate of the record store's
+     * {@link EvictionPool} after feeding it with a new sample.
+     */
+    private static int evictBySampling(final RecordStore recordStore, final int evictableSize,
+                                       final MapConfig mapConfig, final MapService mapService) {
+        final Map<Data, Record> entries = recordStore.getReadonlyRecordMap();
+        final EvictionPool pool = recordStore.getEvictionPool();
+        final int sampleCount = mapConfig.getEvictionSampleCount();
+        // locked records are skipped, give up if the pool keeps offering them.
+        final int maxSkipped = evictableSize + EvictionPool.POOL_SIZE;
+        int evictedRecordCounter = 0;
+        int skipped = 0;
+        while (evictedRecordCounter < evictableSize && skipped < maxSkipped && !entries.isEmpty()) {
+            pool.sample(entries, sampleCount);
+            final Record record = pool.poll(entries);
+            if (record == null) {
+                break;
+            }
+            if (evictRecord(record, recordStore, mapConfig, mapService)) {
+                evictedRecordCounter++;
+            } else {
+                skipped++;
+            }
+        }
+        return evictedRecordCounter;
     }
 
+    private static boolean evictRecord(final Record record, final RecordStore recordStore,
+                                       final MapConfig mapConfig, final MapService mapService) {
+        final Data tmpKey = record.getKey();
+        final Object tmpValue = record.getValue();
+        if (!evictIfNotLocked(tmpKey, recordStore)) {
+            return false;
+        }
+        final String mapName = mapConfig.getName();
+        mapService.interceptAfterRemove(mapName, tmpValue);
+        if (mapService.isNearCacheAndInvalidationEnabled(mapName)) {
+            mapService.invalidateAllNearCaches(mapName, tmpKey);
+        }
+        fireEvent(tmpKey, tmpValue, mapName, mapService);
+        return true;
+    }
 
     public static void fireEvent(Data key, Object value, String mapName, MapService mapService) {
         final NodeEngine nodeEngine = mapService.getNodeEngine();
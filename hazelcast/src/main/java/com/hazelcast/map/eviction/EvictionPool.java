@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.eviction;
+
+import com.hazelcast.map.record.Record;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Eviction candidates of a single record store, kept between eviction cycles.
+ * <p/>
+ * Instead of sorting the whole partition, each sampling round looks at the next <tt>sampleCount</tt>
+ * records and keeps the ones with the smallest eviction criteria in a small sorted pool. Records are sampled
+ * through a cursor continuing where the previous round stopped, so consecutive rounds see different records
+ * and a long living pool converges to the globally best candidates.
+ * <p/>
+ * Not thread-safe; only used by the partition thread owning the record store.
+ */
+public final class EvictionPool {
+
+    /**
+     * Number of candidates kept in the pool.
+     */
+    public static final int POOL_SIZE = 16;
+
+    private final Record[] candidates = new Record[POOL_SIZE];
+    private final long[] criteria = new long[POOL_SIZE];
+    private int size;
+    private Iterator<Record> cursor;
+
+    /**
+     * Feeds next <tt>sampleCount</tt> records of the store into the pool.
+     */
+    void sample(Map<Data, Record> records, int sampleCount) {
+        if (cursor == null) {
+            cursor = records.values().iterator();
+        }
+        boolean restarted = false;
+        for (int i = 0; i < sampleCount; i++) {
+            if (!cursor.hasNext()) {
+                if (restarted) {
+                    // fewer records than samples
+                    return;
+                }
+                cursor = records.values().iterator();
+                restarted = true;
+                if (!cursor.hasNext()) {
+                    return;
+                }
+            }
+            Record record = cursor.next();
+            offer(record, record.getEvictionCriteriaNumber());
+        }
+    }
+
+    /**
+     * Removes and returns the best candidate which is still in the store and has not been accessed
+     * since it was sampled; stale candidates are dropped.
+     *
+     * @return best candidate or null if the pool is empty
+     */
+    Record poll(Map<Data, Record> records) {
+        while (size > 0) {
+            Record record = candidates[0];
+            long value = criteria[0];
+            removeAt(0);
+            if (records.get(record.getKey()) == record && record.getEvictionCriteriaNumber() == value) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            candidates[i] = null;
+        }
+        size = 0;
+        cursor = null;
+    }
+
+    private void offer(Record record, long value) {
+        for (int i = 0; i < size; i++) {
+            if (candidates[i] == record) {
+                if (criteria[i] == value) {
+                    return;
+                }
+                removeAt(i);
+                break;
+            }
+        }
+        if (size == POOL_SIZE && value >= criteria[size - 1]) {
+            return;
+        }
+        int index = size == POOL_SIZE ? size - 1 : size;
+        while (index > 0 && criteria[index - 1] > value) {
+            candidates[index] = candidates[index - 1];
+            criteria[index] = criteria[index - 1];
+            index--;
+        }
+        candidates[index] = record;
+        criteria[index] = value;
+        if (size < POOL_SIZE) {
+            size++;
+        }
+    }
+
+    private void removeAt(int index) {
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(candidates, index + 1, candidates, index, moved);
+            System.arraycopy(criteria, index + 1, criteria, index, moved);
+        }
+        size--;
+        candidates[size] = null;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.map.operation;
+
+import com.hazelcast.map.PartitionContainer;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.PartitionAwareOperation;
+
+import java.io.IOException;
+
+/**
+ * Closes the query cursor of a chunked query iteration on one partition, after the caller has received
+ * the last {@link com.hazelcast.map.QueryChunk} of the partition.
+ */
+public class CloseQueryCursorOperation extends AbstractMapOperation implements PartitionAwareOperation {
+
+    private String cursorId;
+
+    public CloseQueryCursorOperation(String name, String cursorId) {
+        super(name);
+        this.cursorId = cursorId;
+    }
+
+    public CloseQueryCursorOperation() {
+    }
+
+    public void run() {
+        final PartitionContainer container = mapService.getPartitionContainer(getPartitionId());
+        container.closeQueryCursor(name, cursorId);
+    }
+
+    @Override
+    public Object getResponse() {
+        return true;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeUTF(cursorId);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        cursorId = in.readUTF();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.operation;
+
+import com.hazelcast.map.MapService;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.partition.MigrationCycleOperation;
+import com.hazelcast.spi.AbstractOperation;
+import com.hazelcast.spi.PartitionAwareOperation;
+
+import java.io.IOException;
+
+/**
+ * Discards the {@link MapMigrationChunkOperation}s staged on the destination of a failed migration.
+ * Chunks of another migration stream are kept, so a late discard doesn't affect a retried migration.
+ */
+public class DiscardMigrationChunksOperation extends AbstractOperation
+        implements PartitionAwareOperation, MigrationCycleOperation {
+
+    private String streamId;
+
+    public DiscardMigrationChunksOperation() {
+    }
+
+    public DiscardMigrationChunksOperation(String streamId) {
+        this.streamId = streamId;
+    }
+
+    @Override
+    public void run() throws Exception {
+        final MapService mapService = getService();
+        mapService.getPartitionContainer(getPartitionId()).discardMigrationChunks(streamId);
+    }
+
+    @Override
+    public boolean validatesTarget() {
+        return false;
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeUTF(streamId);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        streamId = in.readUTF();
+    }
+}
@@ -62,7 +62,7 @@ public class EntryOperation extends LockAwareOperation implements BackupAwareOpe
     }
 
     public void run() {
-        final long start = System.currentTimeMillis();
+        final long start = System.nanoTime();
         oldValue = recordStore.getMapEntry(dataKey).getValue();
         final LocalMapStatsImpl mapStats = mapService.getLocalMapStatsImpl(name);
         final Object valueBeforeProcess = mapService.toObject(oldValue);
@@ -161,6 +161,6 @@ public class EntryOperation extends LockAwareOperation implements BackupAwareOpe
     }
 
     private long getLatencyFrom(long begin) {
-        return Clock.currentTimeMillis() - begin;
+        return System.nanoTime() - begin;
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.operation;
+
+import com.hazelcast.map.RecordStore;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.PartitionAwareOperation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Carries a batch of keys streamed by a {@link com.hazelcast.core.StreamingMapLoader} to the owner
+ * of their partition, which then loads their values. If the stream fails, the same operation without
+ * keys carries the failure, so the partition reports it instead of waiting for the load to finish.
+ */
+public class LoadKeyBatchOperation extends AbstractMapOperation implements PartitionAwareOperation {
+
+    private long streamId;
+    private List<Data> keys;
+    private int totalBatchCount;
+    private String failure;
+
+    public LoadKeyBatchOperation(String name, long streamId, List<Data> keys, int totalBatchCount) {
+        super(name);
+        this.streamId = streamId;
+        this.keys = keys;
+        this.totalBatchCount = totalBatchCount;
+    }
+
+    public LoadKeyBatchOperation(String name, long streamId, String failure) {
+        super(name);
+        this.streamId = streamId;
+        this.keys = Collections.emptyList();
+        this.totalBatchCount = -1;
+        this.failure = failure;
+    }
+
+    public LoadKeyBatchOperation() {
+    }
+
+    public void run() {
+        RecordStore recordStore = mapService.getRecordStore(getPartitionId(), name);
+        if (failure != null) {
+            recordStore.keyLoadFailed(streamId, failure);
+        } else {
+            recordStore.loadKeyBatch(streamId, keys, totalBatchCount);
+        }
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeLong(streamId);
+        out.writeUTF(failure);
+        out.writeInt(totalBatchCount);
+        out.writeInt(keys.size());
+        for (Data key : keys) {
+            key.writeData(out);
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        streamId = in.readLong();
+        failure = in.readUTF();
+        totalBatchCount = in.readInt();
+        int size = in.readInt();
+        keys = new ArrayList<Data>(size);
+        for (int i = 0; i < size; i++) {
+            Data key = new Data();
+            key.readData(in);
+            keys.add(key);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.operation;
+
+import com.hazelcast.core.MemberLeftException;
+import com.hazelcast.map.AggregationResult;
+import com.hazelcast.mapreduce.aggregation.Supplier;
+import com.hazelcast.mapreduce.aggregation.impl.AttributeSupplier;
+import com.hazelcast.mapreduce.aggregation.impl.PredicateSupplier;
+import com.hazelcast.mapreduce.aggregation.impl.PrimitiveAccumulator;
+import com.hazelcast.monitor.impl.LocalMapStatsImpl;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.IndexImpl;
+import com.hazelcast.query.impl.IndexService;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.spi.ExceptionAction;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.OperationAccessor;
+import com.hazelcast.spi.OperationService;
+import com.hazelcast.spi.exception.TargetNotMemberException;
+import com.hazelcast.util.ExceptionUtil;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Aggregates all partitions owned by a member. Each partition is aggregated on its own partition
+ * thread by a {@link PartitionAggregationOperation}; the partial results are merged into a single
+ * accumulator, so only one small partial result per member is sent back to the caller.
+ * <p/>
+ * If an index can be used, the partitions are not scanned: count, minimum and maximum of an indexed
+ * attribute are answered by the index and predicates are evaluated by the indexes, as done by queries.
+ */
+public class MapAggregationOperation extends AbstractMapOperation {
+
+    private Supplier supplier;
+    private PrimitiveAccumulator accumulator;
+    private transient AggregationResult result;
+
+    public MapAggregationOperation() {
+    }
+
+    public MapAggregationOperation(String name, Supplier supplier, PrimitiveAccumulator accumulator) {
+        super(name);
+        this.supplier = supplier;
+        this.accumulator = accumulator;
+    }
+
+    @Override
+    public void run() throws Exception {
+        List<Integer> initialPartitions = mapService.getOwnedPartitions();
+        PrimitiveAccumulator aggregated = null;
+        // like queries, indexes are not used while partitions are migrating
+        if (!getNodeEngine().getPartitionService().hasOnGoingMigration()) {
+            aggregated = aggregateOnIndex();
+        }
+        if (aggregated == null) {
+            aggregated = runOnPartitionThreads(initialPartitions);
+        }
+        result = new AggregationResult(aggregated);
+        List<Integer> finalPartitions = mapService.getOwnedPartitions();
+        if (initialPartitions.equals(finalPartitions)) {
+            result.setPartitionIds(finalPartitions);
+        }
+        if (mapContainer.getMapConfig().isStatisticsEnabled()) {
+            LocalMapStatsImpl localMapStats = mapService.getLocalMapStatsImpl(name);
+            localMapStats.incrementOtherOperations();
+        }
+    }
+
+    /**
+     * Answers count, minimum and maximum of an indexed attribute from the index itself and pushes
+     * the predicate of a predicate supplier into the indexes, so only matching entries are visited.
+     *
+     * @return the aggregated accumulator or null if the aggregation can not use an index
+     */
+    private PrimitiveAccumulator aggregateOnIndex() {
+        IndexService indexService = mapContainer.getIndexService();
+        if (!indexService.hasIndex()) {
+            return null;
+        }
+        if (supplier instanceof AttributeSupplier) {
+            String attributeName = ((AttributeSupplier) supplier).getAttributeName();
+            Index index = new QueryContext(indexService).getIndex(attributeName);
+            return index instanceof IndexImpl ? aggregateIndexValues((IndexImpl) index) : null;
+        }
+        if (supplier instanceof PredicateSupplier) {
+            PredicateSupplier predicateSupplier = (PredicateSupplier) supplier;
+            Set<QueryableEntry> entries = indexService.query(predicateSupplier.getPredicate());
+            if (entries == null) {
+                return null;
+            }
+            PrimitiveAccumulator aggregated = accumulator.newInstance();
+            Supplier chainedSupplier = predicateSupplier.getChainedSupplier();
+            if (chainedSupplier == null && aggregated.getOperation() == PrimitiveAccumulator.COUNT) {
+                aggregated.accumulate(null, entries.size());
+                return aggregated;
+            }
+            for (QueryableEntry entry : entries) {
+                Object supplied = chainedSupplier != null ? chainedSupplier.apply(entry) : entry.getValue();
+                if (supplied != null) {
+                    aggregated.accumulate(supplied);
+                }
+            }
+            return aggregated;
+        }
+        return null;
+    }
+
+    private PrimitiveAccumulator aggregateIndexValues(IndexImpl index) {
+        PrimitiveAccumulator aggregated = accumulator.newInstance();
+        switch (aggregated.getOperation()) {
+            case PrimitiveAccumulator.COUNT:
+                aggregated.accumulate(null, index.getValueCount());
+                return aggregated;
+            case PrimitiveAccumulator.MIN:
+            case PrimitiveAccumulator.MAX:
+                Comparable value = index.getBoundaryValue(aggregated.getOperation() == PrimitiveAccumulator.MAX);
+                if (value == null) {
+                    return null;
+                }
+                if (value != IndexImpl.NULL) {
+                    aggregated.accumulate(value, 1);
+                }
+                return aggregated;
+            default:
+                return null;
+        }
+    }
+
+    private PrimitiveAccumulator runOnPartitionThreads(List<Integer> partitions) throws Exception {
+        final NodeEngine nodeEngine = getNodeEngine();
+        final OperationService operationService = nodeEngine.getOperationService();
+        final int partitionCount = partitions.size();
+        final Object[] responses = new Object[partitionCount];
+        final CountDownLatch latch = new CountDownLatch(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            PartitionAggregationOperation op = new PartitionAggregationOperation(name, supplier,
+                    accumulator.newInstance());
+            op.setValidateTarget(false);
+            op.setNodeEngine(nodeEngine)
+                    .setPartitionId(partitions.get(i))
+                    .setResponseHandler(new QueryOperation.PartitionResponseHandler(responses, i, latch))
+                    .setServiceName(getServiceName())
+                    .setService(getService())
+                    .setCallerUuid(getCallerUuid());
+            OperationAccessor.setCallerAddress(op, getCallerAddress());
+            operationService.executeOperation(op);
+        }
+        QueryOperation.awaitPartitionResponses(this, name, latch);
+
+        PrimitiveAccumulator merged = accumulator.newInstance();
+        for (Object response : responses) {
+            if (response instanceof Throwable) {
+                throw ExceptionUtil.rethrow((Throwable) response);
+            }
+            merged.merge((PrimitiveAccumulator) response);
+        }
+        return merged;
+    }
+
+    @Override
+    public ExceptionAction onException(Throwable throwable) {
+        if (throwable instanceof MemberLeftException) {
+            return ExceptionAction.THROW_EXCEPTION;
+        }
+        if (throwable instanceof TargetNotMemberException) {
+            return ExceptionAction.THROW_EXCEPTION;
+        }
+        return super.onException(throwable);
+    }
+
+    @Override
+    public Object getResponse() {
+        return result;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeObject(supplier);
+        out.writeObject(accumulator);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        supplier = in.readObject();
+        accumulator = in.readObject();
+    }
+}
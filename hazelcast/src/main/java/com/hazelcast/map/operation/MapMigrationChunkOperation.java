@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.operation;
+
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.map.MapService;
+import com.hazelcast.map.PartitionContainer;
+import com.hazelcast.map.RecordStore;
+import com.hazelcast.map.record.Record;
+import com.hazelcast.map.record.RecordReplicationInfo;
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.IOUtil;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.partition.MigrationCycleOperation;
+import com.hazelcast.spi.AbstractOperation;
+import com.hazelcast.spi.PartitionAwareOperation;
+
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+import static com.hazelcast.nio.IOUtil.closeResource;
+
+/**
+ * Carries a bounded chunk of the records of a single map during partition migration.
+ * <p/>
+ * Chunks are sent by the migration source before the {@link MapReplicationOperation} itself,
+ * see {@link MapReplicationOperation#nextChunk()}. The records are kept in serialized form together with
+ * a CRC32 checksum which is verified on the destination.
+ * <p/>
+ * The destination does not apply the records right away but stages the chunk in its {@link PartitionContainer}.
+ * The staged chunks are applied by the {@link MapReplicationOperation} of the same migration stream, so the
+ * records of a migration which fails before the migration operation runs never become visible.
+ */
+public class MapMigrationChunkOperation extends AbstractOperation
+        implements PartitionAwareOperation, MigrationCycleOperation {
+
+    private String name;
+    private String streamId;
+    private int recordCount;
+    private boolean compressed;
+    private long checksum;
+    private byte[] chunkData;
+
+    public MapMigrationChunkOperation() {
+    }
+
+    public MapMigrationChunkOperation(String name, String streamId, int recordCount, byte[] data, boolean compress)
+            throws IOException {
+        this.name = name;
+        this.streamId = streamId;
+        this.recordCount = recordCount;
+        // an empty chunk is never compressed, IOUtil.compress does not handle empty input
+        this.compressed = compress && recordCount > 0;
+        this.checksum = checksum(data);
+        this.chunkData = compressed ? IOUtil.compress(data) : data;
+    }
+
+    static long checksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        return crc.getValue();
+    }
+
+    @Override
+    public void run() throws Exception {
+        final byte[] data = compressed ? IOUtil.decompress(chunkData) : chunkData;
+        if (checksum(data) != checksum) {
+            throw new HazelcastException("Checksum mismatch in migration chunk of map '" + name
+                    + "' for partition " + getPartitionId());
+        }
+        chunkData = data;
+        compressed = false;
+        final MapService mapService = getService();
+        mapService.getPartitionContainer(getPartitionId()).stageMigrationChunk(streamId, this);
+    }
+
+    /**
+     * Puts the records of this staged chunk into the record store of its map.
+     */
+    void applyRecords(MapService mapService, int partitionId) throws IOException {
+        final RecordStore recordStore = mapService.getRecordStore(partitionId, name);
+        final BufferObjectDataInput in = mapService.getSerializationService().createObjectDataInput(chunkData);
+        try {
+            for (int i = 0; i < recordCount; i++) {
+                RecordReplicationInfo recordReplicationInfo = new RecordReplicationInfo();
+                recordReplicationInfo.readData(in);
+                Data key = recordReplicationInfo.getKey();
+                Record newRecord = mapService.createRecord(name, key, recordReplicationInfo.getValue(), -1);
+                mapService.applyRecordInfo(newRecord, recordReplicationInfo);
+                recordStore.putForReplication(key, newRecord);
+            }
+        } finally {
+            closeResource(in);
+        }
+    }
+
+    @Override
+    public boolean validatesTarget() {
+        return false;
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeUTF(name);
+        out.writeUTF(streamId);
+        out.writeInt(recordCount);
+        out.writeBoolean(compressed);
+        out.writeLong(checksum);
+        out.writeInt(chunkData.length);
+        out.write(chunkData);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        name = in.readUTF();
+        streamId = in.readUTF();
+        recordCount = in.readInt();
+        compressed = in.readBoolean();
+        checksum = in.readLong();
+        chunkData = new byte[in.readInt()];
+        in.readFully(chunkData);
+    }
+
+    @Override
+    public String toString() {
+        return "MapMigrationChunkOperation{name='" + name + "', partitionId=" + getPartitionId()
+                + ", recordCount=" + recordCount + '}';
+    }
+}
@@ -17,6 +17,8 @@
 package com.hazelcast.map.operation;
 
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.map.KeyLoadState;
 import com.hazelcast.map.MapContainer;
 import com.hazelcast.map.MapService;
 import com.hazelcast.map.PartitionContainer;
@@ -25,37 +27,58 @@ import com.hazelcast.map.record.Record;
 import com.hazelcast.map.record.RecordReplicationInfo;
 import com.hazelcast.map.writebehind.DelayedEntry;
 import com.hazelcast.map.writebehind.WriteBehindQueue;
+import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.IOUtil;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.partition.ChunkedReplicationOperation;
 import com.hazelcast.spi.AbstractOperation;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.util.UuidUtil;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
+
+import static com.hazelcast.nio.IOUtil.closeResource;
 
 /**
  * @author mdogan 7/24/12
  */
-public class MapReplicationOperation extends AbstractOperation {
+public class MapReplicationOperation extends AbstractOperation implements ChunkedReplicationOperation {
+
+    private static final int CHUNK_BUFFER_SIZE = 32 * 1024;
 
-    private Map<String, Set<RecordReplicationInfo>> data;
+    private Map<String, List<RecordReplicationInfo>> data;
     private Map<String, Boolean> mapInitialLoadInfo;
+    private Map<String, KeyLoadState> keyLoadStates;
     private Map<String, List<DelayedEntry>> delayedEntries;
 
+    private MapService mapService;
+    private List<RecordStore> recordStores;
+    private boolean chunked;
+    private String chunkStreamId;
+    private int chunkCount;
+    private int chunkStoreIndex;
+    private Iterator<Record> chunkIterator;
+
     public MapReplicationOperation() {
     }
 
     public MapReplicationOperation(MapService mapService, PartitionContainer container, int partitionId, int replicaIndex) {
         this.setPartitionId(partitionId).setReplicaIndex(replicaIndex);
-        data = new HashMap<String, Set<RecordReplicationInfo>>(container.getMaps().size());
+        this.mapService = mapService;
+        recordStores = new ArrayList<RecordStore>(container.getMaps().size());
         mapInitialLoadInfo = new HashMap<String, Boolean>(container.getMaps().size());
+        keyLoadStates = new HashMap<String, KeyLoadState>();
         for (Entry<String, RecordStore> entry : container.getMaps().entrySet()) {
             RecordStore recordStore = entry.getValue();
             MapContainer mapContainer = recordStore.getMapContainer();
@@ -67,20 +90,68 @@ public class MapReplicationOperation extends AbstractOperation {
             // adding if initial data is loaded for the only maps that has mapstore behind
             if (mapContainer.getStore() != null) {
                 mapInitialLoadInfo.put(name, replicaIndex > 0 || recordStore.isLoaded());
+                // the owner of a partition whose keys are still streamed continues the load
+                final KeyLoadState keyLoadState = replicaIndex == 0 ? recordStore.getKeyLoadState() : null;
+                if (keyLoadState != null) {
+                    keyLoadStates.put(name, keyLoadState);
+                }
             }
-            // now prepare data to migrate records
-            Set<RecordReplicationInfo> recordSet = new HashSet<RecordReplicationInfo>();
-            for (Entry<Data, Record> recordEntry : recordStore.getReadonlyRecordMap().entrySet()) {
-                Record record = recordEntry.getValue();
-                RecordReplicationInfo recordReplicationInfo;
-                recordReplicationInfo = mapService.createRecordReplicationInfo(record);
-                recordSet.add(recordReplicationInfo);
-            }
-            data.put(name, recordSet);
+            // records are not copied here, they are written directly from the record store or chunked
+            recordStores.add(recordStore);
         }
         readDelayedEntries(container);
     }
 
+    /**
+     * Returns the next chunk of at most {@link com.hazelcast.instance.GroupProperties#MAP_MIGRATION_CHUNK_SIZE}
+     * bytes of records of a single map. Records are read from the record stores while the partition is
+     * migrating, so they are not modified by partition operations in the meantime.
+     */
+    @Override
+    public Operation nextChunk() {
+        final boolean first = !chunked;
+        if (first) {
+            chunked = true;
+            chunkStreamId = UuidUtil.buildRandomUuidString();
+        }
+        final NodeEngine nodeEngine = mapService.getNodeEngine();
+        final int chunkSize = nodeEngine.getGroupProperties().MAP_MIGRATION_CHUNK_SIZE.getInteger();
+        final boolean compress = nodeEngine.getGroupProperties().PARTITION_MIGRATION_ZIP_ENABLED.getBoolean();
+        while (chunkStoreIndex < recordStores.size()) {
+            final RecordStore recordStore = recordStores.get(chunkStoreIndex);
+            if (chunkIterator == null) {
+                chunkIterator = recordStore.getReadonlyRecordMap().values().iterator();
+            }
+            final BufferObjectDataOutput out = nodeEngine.getSerializationService().createObjectDataOutput(CHUNK_BUFFER_SIZE);
+            try {
+                int recordCount = 0;
+                while (out.position() < chunkSize && chunkIterator.hasNext()) {
+                    mapService.createRecordReplicationInfo(chunkIterator.next()).writeData(out);
+                    recordCount++;
+                }
+                if (!chunkIterator.hasNext()) {
+                    chunkIterator = null;
+                    chunkStoreIndex++;
+                }
+                if (recordCount > 0 || (first && chunkStoreIndex == recordStores.size())) {
+                    chunkCount++;
+                    return new MapMigrationChunkOperation(recordStore.getName(), chunkStreamId, recordCount,
+                            out.toByteArray(), compress);
+                }
+            } catch (IOException e) {
+                throw new HazelcastSerializationException(e);
+            } finally {
+                closeResource(out);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Operation discardChunks() {
+        return chunked ? new DiscardMigrationChunksOperation(chunkStreamId) : null;
+    }
+
     private void readDelayedEntries(PartitionContainer container) {
         delayedEntries = new HashMap<String, List<DelayedEntry>>(container.getMaps().size());
         for (Entry<String, RecordStore> entry : container.getMaps().entrySet()) {
@@ -93,11 +164,14 @@ public class MapReplicationOperation extends AbstractOperation {
         }
     }
 
-    public void run() {
+    public void run() throws Exception {
         MapService mapService = getService();
+        if (chunked) {
+            applyMigrationChunks(mapService);
+        }
         if (data != null) {
-            for (Entry<String, Set<RecordReplicationInfo>> dataEntry : data.entrySet()) {
-                Set<RecordReplicationInfo> recordReplicationInfos = dataEntry.getValue();
+            for (Entry<String, List<RecordReplicationInfo>> dataEntry : data.entrySet()) {
+                List<RecordReplicationInfo> recordReplicationInfos = dataEntry.getValue();
                 final String mapName = dataEntry.getKey();
                 RecordStore recordStore = mapService.getRecordStore(getPartitionId(), mapName);
                 for (RecordReplicationInfo recordReplicationInfo : recordReplicationInfos) {
@@ -115,6 +189,12 @@ public class MapReplicationOperation extends AbstractOperation {
                 recordStore.setLoaded(entry.getValue());
             }
         }
+        if (keyLoadStates != null) {
+            for (Entry<String, KeyLoadState> entry : keyLoadStates.entrySet()) {
+                RecordStore recordStore = mapService.getRecordStore(getPartitionId(), entry.getKey());
+                recordStore.setKeyLoadState(entry.getValue());
+            }
+        }
         for (Entry<String, List<DelayedEntry>> entry : delayedEntries.entrySet()) {
             final RecordStore recordStore = mapService.getRecordStore(getPartitionId(), entry.getKey());
             final List<DelayedEntry> replicatedEntries = entry.getValue();
@@ -123,19 +203,36 @@ public class MapReplicationOperation extends AbstractOperation {
         }
     }
 
+    private void applyMigrationChunks(MapService mapService) throws IOException {
+        final PartitionContainer container = mapService.getPartitionContainer(getPartitionId());
+        final List<MapMigrationChunkOperation> chunks = container.removeMigrationChunks(chunkStreamId);
+        if (chunks.size() != chunkCount) {
+            throw new HazelcastException("Received " + chunks.size() + " of " + chunkCount
+                    + " migration chunks of partition " + getPartitionId());
+        }
+        for (MapMigrationChunkOperation chunk : chunks) {
+            chunk.applyRecords(mapService, getPartitionId());
+        }
+    }
+
     public String getServiceName() {
         return MapService.SERVICE_NAME;
     }
 
     protected void readInternal(final ObjectDataInput in) throws IOException {
+        chunked = in.readBoolean();
+        if (chunked) {
+            chunkStreamId = in.readUTF();
+            chunkCount = in.readInt();
+        }
         int size = in.readInt();
-        data = new HashMap<String, Set<RecordReplicationInfo>>(size);
+        data = new HashMap<String, List<RecordReplicationInfo>>(size);
         for (int i = 0; i < size; i++) {
             String name = in.readUTF();
-            int mapSize = in.readInt();
-            Set<RecordReplicationInfo> recordReplicationInfos = new HashSet<RecordReplicationInfo>(mapSize);
-            for (int j = 0; j < mapSize; j++) {
-                RecordReplicationInfo recordReplicationInfo = in.readObject();
+            List<RecordReplicationInfo> recordReplicationInfos = new ArrayList<RecordReplicationInfo>();
+            while (in.readBoolean()) {
+                RecordReplicationInfo recordReplicationInfo = new RecordReplicationInfo();
+                recordReplicationInfo.readData(in);
                 recordReplicationInfos.add(recordReplicationInfo);
             }
             data.put(name, recordReplicationInfos);
@@ -148,6 +245,14 @@ public class MapReplicationOperation extends AbstractOperation {
             mapInitialLoadInfo.put(name, loaded);
         }
         size = in.readInt();
+        keyLoadStates = new HashMap<String, KeyLoadState>(size);
+        for (int i = 0; i < size; i++) {
+            String name = in.readUTF();
+            KeyLoadState keyLoadState = new KeyLoadState();
+            keyLoadState.readData(in);
+            keyLoadStates.put(name, keyLoadState);
+        }
+        size = in.readInt();
         delayedEntries = new HashMap<String, List<DelayedEntry>>(size);
         for (int i = 0; i < size; i++) {
             final String mapName = in.readUTF();
@@ -167,21 +272,32 @@ public class MapReplicationOperation extends AbstractOperation {
     }
 
     protected void writeInternal(final ObjectDataOutput out) throws IOException {
-        out.writeInt(data.size());
-        for (Entry<String, Set<RecordReplicationInfo>> mapEntry : data.entrySet()) {
-            out.writeUTF(mapEntry.getKey());
-            Set<RecordReplicationInfo> recordReplicationInfos = mapEntry.getValue();
-            out.writeInt(recordReplicationInfos.size());
-            for (RecordReplicationInfo recordReplicationInfo : recordReplicationInfos) {
-                out.writeObject(recordReplicationInfo);
+        // records which were handed out as chunks are not written again
+        final List<RecordStore> stores = chunked ? Collections.<RecordStore>emptyList() : recordStores;
+        out.writeBoolean(chunked);
+        if (chunked) {
+            out.writeUTF(chunkStreamId);
+            out.writeInt(chunkCount);
+        }
+        out.writeInt(stores.size());
+        for (RecordStore recordStore : stores) {
+            out.writeUTF(recordStore.getName());
+            for (Record record : recordStore.getReadonlyRecordMap().values()) {
+                out.writeBoolean(true);
+                mapService.createRecordReplicationInfo(record).writeData(out);
             }
+            out.writeBoolean(false);
         }
         out.writeInt(mapInitialLoadInfo.size());
         for (Entry<String, Boolean> entry : mapInitialLoadInfo.entrySet()) {
             out.writeUTF(entry.getKey());
             out.writeBoolean(entry.getValue());
         }
-        final MapService mapService = getService();
+        out.writeInt(keyLoadStates.size());
+        for (Entry<String, KeyLoadState> entry : keyLoadStates.entrySet()) {
+            out.writeUTF(entry.getKey());
+            entry.getValue().writeData(out);
+        }
         out.writeInt(delayedEntries.size());
         for (Entry<String, List<DelayedEntry>> entry : delayedEntries.entrySet()) {
             out.writeUTF(entry.getKey());
@@ -199,7 +315,7 @@ public class MapReplicationOperation extends AbstractOperation {
     }
 
     public boolean isEmpty() {
-        return data == null || data.isEmpty();
+        return recordStores == null || recordStores.isEmpty();
     }
 
 }
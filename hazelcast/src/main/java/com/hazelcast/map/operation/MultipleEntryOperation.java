@@ -64,7 +64,7 @@ public class MultipleEntryOperation extends AbstractMapOperation
         for (Data key : keys) {
             if (partitionService.getPartitionId(key) != getPartitionId())
                 continue;
-            long start = System.currentTimeMillis();
+            long start = System.nanoTime();
             Object objectKey = mapService.toObject(key);
             final Map.Entry<Data, Object> mapEntry = recordStore.getMapEntry(key);
             final Object valueBeforeProcess = mapEntry.getValue();
@@ -186,7 +186,7 @@ public class MultipleEntryOperation extends AbstractMapOperation
     }
 
     private long getLatencyFrom(long begin) {
-        return Clock.currentTimeMillis() - begin;
+        return System.nanoTime() - begin;
     }
 
 
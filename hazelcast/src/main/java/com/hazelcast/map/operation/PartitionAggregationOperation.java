@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.operation;
+
+import com.hazelcast.map.RecordStore;
+import com.hazelcast.map.record.Record;
+import com.hazelcast.mapreduce.aggregation.Supplier;
+import com.hazelcast.mapreduce.aggregation.impl.PrimitiveAccumulator;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.SerializationService;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.spi.PartitionAwareOperation;
+
+import java.io.IOException;
+
+/**
+ * Aggregates the records of a single partition on its partition operation thread.
+ * <p/>
+ * The records are supplied as {@link QueryEntry}s, so values are only deserialized if the supplier
+ * asks for them; Portable attributes are read from the serialized form. Executed locally by the
+ * {@link MapAggregationOperation} without validating the partition ownership, or invoked on the
+ * partition owner for the partitions a member could not aggregate.
+ */
+public class PartitionAggregationOperation extends AbstractMapOperation implements PartitionAwareOperation {
+
+    private Supplier supplier;
+    private PrimitiveAccumulator accumulator;
+
+    public PartitionAggregationOperation() {
+    }
+
+    public PartitionAggregationOperation(String name, Supplier supplier, PrimitiveAccumulator accumulator) {
+        super(name);
+        this.supplier = supplier;
+        this.accumulator = accumulator;
+    }
+
+    @Override
+    public void run() throws Exception {
+        final SerializationService ss = getNodeEngine().getSerializationService();
+        final RecordStore recordStore = mapService.getPartitionContainer(getPartitionId()).getRecordStore(name);
+        for (Record record : recordStore.getReadonlyRecordMap().values()) {
+            final Data key = record.getKey();
+            Object value = record.getCachedValue();
+            if (value == Record.NOT_CACHED || value == null) {
+                value = record.getValue();
+            }
+            if (value == null) {
+                continue;
+            }
+            Object supplied = supplier.apply(new QueryEntry(ss, key, key, value));
+            if (supplied != null) {
+                accumulator.accumulate(supplied);
+            }
+        }
+    }
+
+    @Override
+    public Object getResponse() {
+        return accumulator;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeObject(supplier);
+        out.writeObject(accumulator);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        supplier = in.readObject();
+        accumulator = in.readObject();
+    }
+}
@@ -34,6 +34,9 @@ public class PartitionCheckIfLoadedOperation extends AbstractMapOperation implem
     public void run() {
         RecordStore recordStore = mapService.getRecordStore(getPartitionId(), name);
         isFinished = recordStore.isLoaded();
+        if (!isFinished) {
+            recordStore.checkKeyLoadFailure();
+        }
     }
 
     @Override
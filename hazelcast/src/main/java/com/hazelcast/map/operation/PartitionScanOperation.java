@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.operation;
+
+import com.hazelcast.map.MapService;
+import com.hazelcast.map.PagingCursor;
+import com.hazelcast.map.PartitionContainer;
+import com.hazelcast.map.RecordStore;
+import com.hazelcast.map.record.Record;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.SerializationService;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.PortableMatcher;
+import com.hazelcast.query.impl.PortablePredicateEvaluator;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryResultEntryImpl;
+import com.hazelcast.spi.AbstractOperation;
+import com.hazelcast.spi.PartitionAwareOperation;
+import com.hazelcast.spi.ReadonlyOperation;
+import com.hazelcast.util.PagingEntryCollector;
+import com.hazelcast.util.SortingUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scans the records of a single partition for a {@link QueryOperation}. It is executed on the
+ * partition operation thread, so the scan never races with updates of the partition.
+ * <p/>
+ * Portable values are matched on their serialized form when the predicate supports it, see
+ * {@link PortablePredicateEvaluator}.
+ * <p/>
+ * Only executed locally, never serialized. Ownership of the partition is not validated and the scan
+ * also runs while the partition is migrating; the query operation reports the partitions it has scanned
+ * only if ownership did not change meanwhile.
+ */
+final class PartitionScanOperation extends AbstractOperation implements PartitionAwareOperation, ReadonlyOperation {
+
+    /**
+     * Pages collected by a paging scan beyond the requested ones, served to the following pages by the
+     * {@link PagingCursor} of the partition.
+     */
+    private static final int PAGING_PREFETCH_PAGES = 4;
+
+    private final String name;
+    private final Predicate predicate;
+    private final PagingPredicate pagingPredicate;
+
+    private List results;
+    private int scannedEntryCount;
+
+    PartitionScanOperation(String name, Predicate predicate, PagingPredicate pagingPredicate) {
+        this.name = name;
+        this.predicate = predicate;
+        this.pagingPredicate = pagingPredicate;
+    }
+
+    @Override
+    public void run() throws Exception {
+        final MapService mapService = getService();
+        final SerializationService ss = getNodeEngine().getSerializationService();
+        final PartitionContainer container = mapService.getPartitionContainer(getPartitionId());
+        final RecordStore recordStore = container.getRecordStore(name);
+        final boolean pagingCursor = pagingPredicate != null && pagingPredicate.getCursorId() != null;
+        if (pagingCursor && nextPageFromCursor(container, recordStore)) {
+            return;
+        }
+        final int pagingLimit = pagingPredicate != null ? getPagingLimit() : 0;
+        final PagingEntryCollector<QueryEntry> pagingMatches = pagingPredicate != null
+                ? new PagingEntryCollector<QueryEntry>(pagingPredicate, pagingLimit) : null;
+        final List<QueryResultEntryImpl> matches = new ArrayList<QueryResultEntryImpl>();
+        final PortablePredicateEvaluator evaluator = pagingPredicate == null
+                && getNodeEngine().getGroupProperties().QUERY_SERIALIZED_PREDICATES_ENABLED.getBoolean()
+                ? PortablePredicateEvaluator.create(predicate, ss) : null;
+        for (Record record : recordStore.getReadonlyRecordMap().values()) {
+            scannedEntryCount++;
+            final Data key = record.getKey();
+            if (evaluator != null) {
+                final Object recordValue = record.getValue();
+                final PortableMatcher matcher = recordValue instanceof Data
+                        ? evaluator.getMatcher((Data) recordValue) : null;
+                if (matcher != null) {
+                    if (matcher.matches(((Data) recordValue).getBuffer())) {
+                        matches.add(new QueryResultEntryImpl(key, key, (Data) recordValue));
+                    }
+                    continue;
+                }
+            }
+            Object value = record.getCachedValue();
+            if (value == Record.NOT_CACHED) {
+                value = record.getValue();
+                if (value != null && value instanceof Data) {
+                    value = ss.toObject(value);
+                }
+            } else {
+                value = ss.toObject(record.getValue());
+                record.setCachedValue(value);
+            }
+            if (value == null) {
+                continue;
+            }
+            final QueryEntry queryEntry = new QueryEntry(ss, key, key, value);
+            if (predicate.apply(queryEntry)) {
+                if (pagingPredicate == null) {
+                    matches.add(new QueryResultEntryImpl(key, key, queryEntry.getValueData()));
+                    continue;
+                }
+                pagingMatches.add(queryEntry);
+            }
+        }
+        if (pagingPredicate == null) {
+            results = matches;
+            return;
+        }
+        // paging results are merged and sorted again by the query operation, keep the entries
+        final List<QueryEntry> sortedMatches = pagingMatches.toSortedList();
+        if (pagingCursor) {
+            openPagingCursor(container, recordStore, sortedMatches, sortedMatches.size() < pagingLimit);
+        }
+        final int fetchSize = pagingPredicate.getFetchSize();
+        results = sortedMatches.size() > fetchSize ? new ArrayList<QueryEntry>(sortedMatches.subList(0, fetchSize))
+                : sortedMatches;
+    }
+
+    /**
+     * Serves the requested entries from the paging cursor of this partition, if it can.
+     */
+    private boolean nextPageFromCursor(PartitionContainer container, RecordStore recordStore) {
+        final PagingCursor cursor = container.getPagingCursor(name, pagingPredicate.getCursorId());
+        if (cursor == null) {
+            return false;
+        }
+        final List<QueryEntry> entries = cursor.next(pagingPredicate, SortingUtil.newComparator(pagingPredicate),
+                recordStore.getReadonlyRecordMap(), getNodeEngine().getSerializationService());
+        if (entries == null) {
+            return false;
+        }
+        results = entries;
+        return true;
+    }
+
+    /**
+     * Keeps the records of the matches of a scan for the following pages, unless the partition or this
+     * member has too many paging cursors already.
+     */
+    private void openPagingCursor(PartitionContainer container, RecordStore recordStore,
+                                  List<QueryEntry> sortedMatches, boolean complete) {
+        final Map<Data, Record> recordMap = recordStore.getReadonlyRecordMap();
+        final List<Record> records = new ArrayList<Record>(sortedMatches.size());
+        for (QueryEntry entry : sortedMatches) {
+            records.add(recordMap.get(entry.getKeyData()));
+        }
+        container.putPagingCursor(name, pagingPredicate.getCursorId(),
+                new PagingCursor(pagingPredicate, records, complete));
+    }
+
+    /**
+     * Number of matches a scan collects: the requested entries plus a few pages ahead for the cursor.
+     */
+    private int getPagingLimit() {
+        final long limit = pagingPredicate.getFetchSize() + (long) PAGING_PREFETCH_PAGES * pagingPredicate.getPageSize();
+        return (int) Math.min(Integer.MAX_VALUE, limit);
+    }
+
+    @Override
+    public Object getResponse() {
+        return this;
+    }
+
+    @Override
+    public boolean validatesTarget() {
+        return false;
+    }
+
+    /**
+     * Matching entries; {@link QueryEntry}s for paging queries, {@link QueryResultEntryImpl}s otherwise.
+     */
+    List getResults() {
+        return results;
+    }
+
+    int getScannedEntryCount() {
+        return scannedEntryCount;
+    }
+}
@@ -72,7 +72,7 @@ public class PartitionWideEntryOperation extends AbstractMapOperation
         final LocalMapStatsImpl mapStats = mapService.getLocalMapStatsImpl(name);
         final Map<Data, Record> records = recordStore.getReadonlyRecordMap();
         for (final Map.Entry<Data, Record> recordEntry : records.entrySet()) {
-            final long start = System.currentTimeMillis();
+            final long start = System.nanoTime();
             final Data dataKey = recordEntry.getKey();
             final Record record = recordEntry.getValue();
             final Object valueBeforeProcess = record.getValue();
@@ -188,7 +188,7 @@ public class PartitionWideEntryOperation extends AbstractMapOperation
     }
 
     private long getLatencyFrom(long begin) {
-        return Clock.currentTimeMillis() - begin;
+        return System.nanoTime() - begin;
     }
 
 }
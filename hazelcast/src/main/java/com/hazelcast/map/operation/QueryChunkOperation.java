@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.operation;
+
+import com.hazelcast.map.PartitionContainer;
+import com.hazelcast.map.QueryChunk;
+import com.hazelcast.map.record.Record;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.SerializationService;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.spi.PartitionAwareOperation;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Advances a query cursor over one partition and returns the next
+ * {@link QueryChunk} of at most {@code fetchSize} matching entries.
+ * <p/>
+ * The cursor is kept on the partition container between invocations, so a caller
+ * pulls one chunk at a time and the memory held for an iteration is bounded by the
+ * fetch size on both sides. A single step scans at most
+ * {@code fetchSize * SCAN_BUDGET_FACTOR} records to bound the time it occupies the
+ * partition thread for selective predicates.
+ * <p/>
+ * Chunks of a partition are requested with consecutive sequence numbers. The last returned chunk
+ * is kept with the cursor and returned again for a retried request with the same sequence number,
+ * so retries neither skip nor repeat entries. Once the caller has received the last chunk it closes
+ * the cursor with a {@link CloseQueryCursorOperation}.
+ */
+public class QueryChunkOperation extends AbstractMapOperation implements PartitionAwareOperation {
+
+    private static final int SCAN_BUDGET_FACTOR = 16;
+
+    private Predicate predicate;
+    private String cursorId;
+    private int chunkSequence;
+    private int fetchSize;
+    private transient QueryChunk chunk;
+
+    public QueryChunkOperation(String name, Predicate predicate, String cursorId, int chunkSequence, int fetchSize) {
+        super(name);
+        this.predicate = predicate;
+        this.cursorId = cursorId;
+        this.chunkSequence = chunkSequence;
+        this.fetchSize = fetchSize;
+    }
+
+    public QueryChunkOperation() {
+    }
+
+    public void run() {
+        final PartitionContainer container = mapService.getPartitionContainer(getPartitionId());
+        chunk = container.getReturnedQueryChunk(name, cursorId, chunkSequence);
+        if (chunk != null) {
+            return;
+        }
+        final Iterator<Record> records = container.getOrOpenQueryCursor(name, cursorId);
+        final SerializationService serializationService = getNodeEngine().getSerializationService();
+        chunk = new QueryChunk(fetchSize);
+        int budget = fetchSize * SCAN_BUDGET_FACTOR;
+        while (chunk.size() < fetchSize && budget-- > 0 && records.hasNext()) {
+            final Record record = records.next();
+            final Data key = record.getKey();
+            final Object value = record.getValue();
+            if (value == null) {
+                continue;
+            }
+            final QueryEntry queryEntry = new QueryEntry(serializationService, key, key, value);
+            if (predicate == null || predicate.apply(queryEntry)) {
+                chunk.add(key, queryEntry.getValueData());
+            }
+        }
+        chunk.setLast(!records.hasNext());
+        container.setReturnedQueryChunk(cursorId, chunkSequence, chunk);
+    }
+
+    @Override
+    public Object getResponse() {
+        return chunk;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeObject(predicate);
+        out.writeUTF(cursorId);
+        out.writeInt(chunkSequence);
+        out.writeInt(fetchSize);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        predicate = in.readObject();
+        cursorId = in.readUTF();
+        chunkSequence = in.readInt();
+        fetchSize = in.readInt();
+    }
+}
@@ -17,39 +17,33 @@
 package com.hazelcast.map.operation;
 
 import com.hazelcast.core.MemberLeftException;
+import com.hazelcast.core.OperationTimeoutException;
 import com.hazelcast.map.MapService;
-import com.hazelcast.map.PartitionContainer;
 import com.hazelcast.map.QueryResult;
-import com.hazelcast.map.RecordStore;
-import com.hazelcast.map.record.Record;
+import com.hazelcast.monitor.impl.LocalMapStatsImpl;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
-import com.hazelcast.nio.serialization.Data;
-import com.hazelcast.nio.serialization.SerializationService;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.IndexService;
-import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryResultEntry;
 import com.hazelcast.query.impl.QueryResultEntryImpl;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.spi.ExceptionAction;
-import com.hazelcast.spi.ExecutionService;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.OperationAccessor;
+import com.hazelcast.spi.OperationService;
+import com.hazelcast.spi.ResponseHandler;
 import com.hazelcast.spi.exception.TargetNotMemberException;
-import com.hazelcast.util.SortingUtil;
+import com.hazelcast.util.ExceptionUtil;
+import com.hazelcast.util.PagingEntryCollector;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class QueryOperation extends AbstractMapOperation {
 
@@ -69,6 +63,7 @@ public class QueryOperation extends AbstractMapOperation {
     }
 
     public void run() throws Exception {
+        final long start = System.nanoTime();
         List<Integer> initialPartitions = mapService.getOwnedPartitions();
         IndexService indexService = mapService.getMapContainer(name).getIndexService();
         Set<QueryableEntry> entries = null;
@@ -76,65 +71,83 @@ public class QueryOperation extends AbstractMapOperation {
         if (!getNodeEngine().getPartitionService().hasOnGoingMigration()) {
             entries = indexService.query(predicate);
         }
-        result = new QueryResult();
-        if (entries != null) {
+        final boolean indexed = entries != null;
+        long scannedEntryCount = 0;
+        if (indexed) {
+            result = new QueryResult();
             for (QueryableEntry entry : entries) {
                 result.add(new QueryResultEntryImpl(entry.getKeyData(), entry.getKeyData(), entry.getValueData()));
             }
         } else {
-            // run in parallel
-            if (pagingPredicate != null) {
-                runParallelForPaging(initialPartitions);
-            } else {
-                runParallel(initialPartitions);
-            }
+            scannedEntryCount = runOnPartitionThreads(initialPartitions);
         }
         List<Integer> finalPartitions = mapService.getOwnedPartitions();
         if (initialPartitions.equals(finalPartitions)) {
             result.setPartitionIds(finalPartitions);
         }
         if (mapContainer.getMapConfig().isStatisticsEnabled()) {
-            ((MapService) getService()).getLocalMapStatsImpl(name).incrementOtherOperations();
+            LocalMapStatsImpl localMapStats = ((MapService) getService()).getLocalMapStatsImpl(name);
+            localMapStats.incrementOtherOperations();
+            localMapStats.incrementQueries(indexed, scannedEntryCount, System.nanoTime() - start);
         }
     }
 
-    protected void runParallel(final List<Integer> initialPartitions) throws InterruptedException, ExecutionException {
-        final SerializationService ss = getNodeEngine().getSerializationService();
-        final ExecutorService executor = getNodeEngine().getExecutionService().getExecutor(ExecutionService.QUERY_EXECUTOR);
-        final List<Future<Collection<QueryableEntry>>> lsFutures = new ArrayList<Future<Collection<QueryableEntry>>>(initialPartitions.size());
-        for (final Integer partition : initialPartitions) {
-            Future<Collection<QueryableEntry>> f = executor.submit(new PartitionCallable(ss, partition, null));
-            lsFutures.add(f);
-        }
-        for (Future<Collection<QueryableEntry>> future : lsFutures) {
-            final Collection<QueryableEntry> collection = future.get();
-            if (collection != null) {
-                for (QueryableEntry entry : collection) {
-                    result.add(new QueryResultEntryImpl(entry.getKeyData(), entry.getKeyData(), entry.getValueData()));
+    /**
+     * Scans each partition on its own partition thread and merges the partial results.
+     *
+     * @return number of scanned entries
+     */
+    private long runOnPartitionThreads(List<Integer> partitions) throws Exception {
+        final NodeEngine nodeEngine = getNodeEngine();
+        final OperationService operationService = nodeEngine.getOperationService();
+        final int partitionCount = partitions.size();
+        final Object[] responses = new Object[partitionCount];
+        final CountDownLatch latch = new CountDownLatch(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            Operation op = new PartitionScanOperation(name, predicate, pagingPredicate);
+            op.setNodeEngine(nodeEngine)
+                    .setPartitionId(partitions.get(i))
+                    .setResponseHandler(new PartitionResponseHandler(responses, i, latch))
+                    .setServiceName(getServiceName())
+                    .setService(getService())
+                    .setCallerUuid(getCallerUuid());
+            OperationAccessor.setCallerAddress(op, getCallerAddress());
+            operationService.executeOperation(op);
+        }
+        awaitPartitionResponses(this, name, latch);
+
+        long scannedEntryCount = 0;
+        int resultSize = 0;
+        for (Object response : responses) {
+            if (response instanceof Throwable) {
+                throw ExceptionUtil.rethrow((Throwable) response);
+            }
+            PartitionScanOperation partitionOperation = (PartitionScanOperation) response;
+            scannedEntryCount += partitionOperation.getScannedEntryCount();
+            resultSize += partitionOperation.getResults().size();
+        }
+        if (pagingPredicate != null) {
+            mergePagingResults(responses);
+        } else {
+            result = new QueryResult(resultSize);
+            for (Object response : responses) {
+                for (Object entry : ((PartitionScanOperation) response).getResults()) {
+                    result.add((QueryResultEntry) entry);
                 }
             }
         }
+        return scannedEntryCount;
     }
 
-    protected void runParallelForPaging(List<Integer> initialPartitions) throws InterruptedException, ExecutionException {
-        final SerializationService ss = getNodeEngine().getSerializationService();
-        final ExecutorService executor = getNodeEngine().getExecutionService().getExecutor(ExecutionService.QUERY_EXECUTOR);
-        final List<Future<Collection<QueryableEntry>>> lsFutures = new ArrayList<Future<Collection<QueryableEntry>>>(initialPartitions.size());
-
-        final Comparator<Map.Entry> wrapperComparator = SortingUtil.newComparator(pagingPredicate);
-        for (final Integer partition : initialPartitions) {
-            Future<Collection<QueryableEntry>> f = executor.submit(new PartitionCallable(ss, partition, wrapperComparator));
-            lsFutures.add(f);
-        }
-        List<QueryableEntry> toMerge = new LinkedList<QueryableEntry>();
-        for (Future<Collection<QueryableEntry>> future : lsFutures) {
-            final Collection<QueryableEntry> collection = future.get();
-            toMerge.addAll(collection);
-        }
-        Collections.sort(toMerge, wrapperComparator);
-        if (toMerge.size() > pagingPredicate.getPageSize()) {
-            toMerge = toMerge.subList(0, pagingPredicate.getPageSize());
+    private void mergePagingResults(Object[] responses) {
+        PagingEntryCollector<QueryableEntry> collector = new PagingEntryCollector<QueryableEntry>(pagingPredicate);
+        for (Object response : responses) {
+            for (Object entry : ((PartitionScanOperation) response).getResults()) {
+                collector.add((QueryableEntry) entry);
+            }
         }
+        List<QueryableEntry> toMerge = collector.toSortedList();
+        result = new QueryResult(toMerge.size());
         for (QueryableEntry entry : toMerge) {
             result.add(new QueryResultEntryImpl(entry.getKeyData(), entry.getKeyData(), entry.getValueData()));
         }
@@ -169,59 +182,41 @@ public class QueryOperation extends AbstractMapOperation {
         }
     }
 
-    private class PartitionCallable implements Callable<Collection<QueryableEntry>> {
-
-        int partition;
-        SerializationService ss;
-        Comparator<Map.Entry> wrapperComparator;
-
-
-        private PartitionCallable(SerializationService ss, int partition, Comparator<Map.Entry> wrapperComparator) {
-            this.ss = ss;
-            this.partition = partition;
-            this.wrapperComparator = wrapperComparator;
-        }
-
-        public Collection<QueryableEntry> call() throws Exception {
-            final PartitionContainer container = mapService.getPartitionContainer(partition);
-            final RecordStore recordStore = container.getRecordStore(name);
-            LinkedList<QueryableEntry> partitionResult = new LinkedList<QueryableEntry>();
-            for (Record record : recordStore.getReadonlyRecordMap().values()) {
-                final Data key = record.getKey();
-                Object value = record.getCachedValue();
-                if (value == Record.NOT_CACHED) {
-                    value = record.getValue();
-                    if (value != null && value instanceof Data) {
-                        value = ss.toObject(value);
-                    }
-                } else {
-                    value = ss.toObject(record.getValue());
-                    record.setCachedValue(value);
-                }
-                if (value == null) {
-                    continue;
-                }
-                final QueryEntry queryEntry = new QueryEntry(ss, key, key, value);
-                if (predicate.apply(queryEntry)) {
-                    if (pagingPredicate != null) {
-                        Map.Entry anchor = pagingPredicate.getAnchor();
-                        final Comparator comparator = pagingPredicate.getComparator();
-                        if (anchor != null &&
-                                SortingUtil.compare(comparator, pagingPredicate.getIterationType(), anchor, queryEntry) >= 0) {
-                            continue;
-                        }
-                    }
-                    partitionResult.add(queryEntry);
-                }
-            }
-            if (pagingPredicate != null) {
-                Collections.sort(partitionResult, wrapperComparator);
-                if (partitionResult.size() > pagingPredicate.getPageSize()) {
-                    return partitionResult.subList(0, pagingPredicate.getPageSize());
-                }
-            }
-            return partitionResult;
+    /**
+     * Waits for the responses of the partition operations started by the given operation, at most for its
+     * call timeout, so a stuck partition thread fails the operation instead of blocking its thread forever.
+     */
+    static void awaitPartitionResponses(Operation op, String name, CountDownLatch latch) throws InterruptedException {
+        final long timeout = op.getCallTimeout();
+        if (!latch.await(timeout, TimeUnit.MILLISECONDS)) {
+            throw new OperationTimeoutException(op.getClass().getSimpleName() + " on map '" + name + "' got no response from "
+                    + latch.getCount() + " partitions in " + timeout + " ms");
         }
     }
 
+    /**
+     * Collects the response of an operation executed locally on a partition thread.
+     */
+    static final class PartitionResponseHandler implements ResponseHandler {
+        private final Object[] responses;
+        private final int index;
+        private final CountDownLatch latch;
+
+        PartitionResponseHandler(Object[] responses, int index, CountDownLatch latch) {
+            this.responses = responses;
+            this.index = index;
+            this.latch = latch;
+        }
+
+        @Override
+        public void sendResponse(Object obj) {
+            responses[index] = obj;
+            latch.countDown();
+        }
+
+        @Override
+        public boolean isLocal() {
+            return true;
+        }
+    }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.operation;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.PartitionAwareOperation;
+
+import java.io.IOException;
+
+/**
+ * Runs on the owner of the key loader partition of a map and starts streaming the keys of its
+ * {@link com.hazelcast.core.StreamingMapLoader}, unless they are being streamed already or, unless restarting,
+ * have been streamed successfully by this member.
+ */
+public class StreamInitialKeysOperation extends AbstractMapOperation implements PartitionAwareOperation {
+
+    private boolean restart;
+
+    public StreamInitialKeysOperation(String name, boolean restart) {
+        super(name);
+        this.restart = restart;
+    }
+
+    public StreamInitialKeysOperation() {
+    }
+
+    public void run() {
+        // creating the record store of the key loader partition starts the stream on the first call
+        mapService.getRecordStore(getPartitionId(), name);
+        mapContainer.streamInitialKeys(restart);
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeBoolean(restart);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        restart = in.readBoolean();
+    }
+}
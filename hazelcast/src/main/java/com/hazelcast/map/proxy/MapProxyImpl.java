@@ -17,10 +17,14 @@
 package com.hazelcast.map.proxy;
 
 import com.hazelcast.core.*;
+import com.hazelcast.map.ChunkedQueryIterator;
 import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.MapInterceptor;
 import com.hazelcast.map.MapService;
+import com.hazelcast.map.QueryChunk;
 import com.hazelcast.map.SimpleEntryView;
+import com.hazelcast.map.operation.CloseQueryCursorOperation;
+import com.hazelcast.map.operation.QueryChunkOperation;
 import com.hazelcast.mapreduce.Collator;
 import com.hazelcast.mapreduce.Combiner;
 import com.hazelcast.mapreduce.CombinerFactory;
@@ -33,11 +37,15 @@ import com.hazelcast.mapreduce.ReducerFactory;
 import com.hazelcast.mapreduce.ReducingSubmittableJob;
 import com.hazelcast.mapreduce.aggregation.Aggregation;
 import com.hazelcast.mapreduce.aggregation.Supplier;
+import com.hazelcast.mapreduce.aggregation.impl.AccumulatorFactory;
+import com.hazelcast.mapreduce.aggregation.impl.PrimitiveAccumulator;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.spi.InitializingObject;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.Operation;
+import com.hazelcast.util.ExceptionUtil;
 import com.hazelcast.util.IterationType;
 import com.hazelcast.util.ValidationUtil;
 import com.hazelcast.util.executor.DelegatingFuture;
@@ -561,6 +569,43 @@ public class MapProxyImpl<K, V> extends MapProxySupport implements IMap<K, V>, I
         return query(predicate, IterationType.VALUE, false);
     }
 
+    @Override
+    public Iterator<Entry<K, V>> entryIterator(final Predicate predicate, final int fetchSize) {
+        if (predicate == null) {
+            throw new NullPointerException("Predicate should not be null!");
+        }
+        if (predicate instanceof PagingPredicate) {
+            throw new IllegalArgumentException("PagingPredicate is not supported by entryIterator");
+        }
+        shouldBePositive(fetchSize, "fetchSize");
+        final NodeEngine nodeEngine = getNodeEngine();
+        return new ChunkedQueryIterator<K, V>(nodeEngine.getPartitionService().getPartitionCount()) {
+            @Override
+            protected QueryChunk fetch(int partitionId, String cursorId, int chunkSequence) {
+                final QueryChunkOperation operation = new QueryChunkOperation(name, predicate, cursorId, chunkSequence,
+                        fetchSize);
+                try {
+                    final Future<QueryChunk> future = nodeEngine.getOperationService()
+                            .invokeOnPartition(SERVICE_NAME, operation, partitionId);
+                    return future.get();
+                } catch (Throwable t) {
+                    throw ExceptionUtil.rethrow(t);
+                }
+            }
+
+            @Override
+            protected void close(int partitionId, String cursorId) {
+                nodeEngine.getOperationService().invokeOnPartition(SERVICE_NAME,
+                        new CloseQueryCursorOperation(name, cursorId), partitionId);
+            }
+
+            @Override
+            protected Object toObject(Data data) {
+                return getService().toObject(data);
+            }
+        };
+    }
+
     @Override
     public Set<K> localKeySet() {
         final Set<Data> dataSet = localKeySetInternal();
@@ -627,6 +672,13 @@ public class MapProxyImpl<K, V> extends MapProxySupport implements IMap<K, V>, I
     public <SuppliedValue, Result> Result aggregate(Supplier<K, V, SuppliedValue> supplier,
                                                     Aggregation<K, SuppliedValue, Result> aggregation) {
 
+        if (aggregation instanceof AccumulatorFactory) {
+            // predefined aggregations are computed on the partitions, without a MapReduce job
+            PrimitiveAccumulator accumulator = ((AccumulatorFactory) aggregation).newAccumulator();
+            if (accumulator != null) {
+                return (Result) aggregateOnPartitions(supplier, accumulator);
+            }
+        }
         HazelcastInstance hazelcastInstance = getNodeEngine().getHazelcastInstance();
         JobTracker jobTracker = hazelcastInstance.getJobTracker("hz::aggregation-map-" + getName());
         return aggregate(supplier, aggregation, jobTracker);
@@ -28,8 +28,10 @@ import com.hazelcast.core.HazelcastInstanceAware;
 import com.hazelcast.core.ICompletableFuture;
 import com.hazelcast.core.IMap;
 import com.hazelcast.core.Member;
+import com.hazelcast.core.MemberLeftException;
 import com.hazelcast.core.PartitioningStrategy;
 import com.hazelcast.instance.MemberImpl;
+import com.hazelcast.map.AggregationResult;
 import com.hazelcast.map.EntryEventFilter;
 import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.MapEntrySet;
@@ -53,6 +55,7 @@ import com.hazelcast.map.operation.EvictOperation;
 import com.hazelcast.map.operation.GetEntryViewOperation;
 import com.hazelcast.map.operation.GetOperation;
 import com.hazelcast.map.operation.KeyBasedMapOperation;
+import com.hazelcast.map.operation.MapAggregationOperation;
 import com.hazelcast.map.operation.MapEntrySetOperation;
 import com.hazelcast.map.operation.MapFlushOperation;
 import com.hazelcast.map.operation.MapGetAllOperationFactory;
@@ -60,6 +63,7 @@ import com.hazelcast.map.operation.MapIsEmptyOperation;
 import com.hazelcast.map.operation.MapKeySetOperation;
 import com.hazelcast.map.operation.MapValuesOperation;
 import com.hazelcast.map.operation.MultipleEntryOperationFactory;
+import com.hazelcast.map.operation.PartitionAggregationOperation;
 import com.hazelcast.map.operation.PartitionCheckIfLoadedOperationFactory;
 import com.hazelcast.map.operation.PartitionWideEntryOperationFactory;
 import com.hazelcast.map.operation.PartitionWideEntryWithPredicateOperationFactory;
@@ -78,6 +82,8 @@ import com.hazelcast.map.operation.SetOperation;
 import com.hazelcast.map.operation.SizeOperationFactory;
 import com.hazelcast.map.operation.TryPutOperation;
 import com.hazelcast.map.operation.TryRemoveOperation;
+import com.hazelcast.mapreduce.aggregation.Supplier;
+import com.hazelcast.mapreduce.aggregation.impl.PrimitiveAccumulator;
 import com.hazelcast.monitor.LocalMapStats;
 import com.hazelcast.monitor.impl.LocalMapStatsImpl;
 import com.hazelcast.nio.ClassLoaderUtil;
@@ -99,6 +105,7 @@ import com.hazelcast.spi.InternalCompletableFuture;
 import com.hazelcast.spi.InvocationBuilder;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.OperationService;
+import com.hazelcast.spi.exception.TargetNotMemberException;
 import com.hazelcast.spi.impl.BinaryOperationFactory;
 import com.hazelcast.util.ExceptionUtil;
 import com.hazelcast.util.IterationType;
@@ -118,6 +125,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
@@ -325,18 +333,18 @@ abstract class MapProxySupport extends AbstractDistributedObject<MapService> imp
             Object o;
             OperationService operationService = nodeEngine.getOperationService();
             if (mapConfig.isStatisticsEnabled()) {
-                long time = System.currentTimeMillis();
+                long time = System.nanoTime();
                 f = operationService
                         .createInvocationBuilder(SERVICE_NAME, operation, partitionId)
                         .setResultDeserialized(false)
                         .invoke();
                 o = f.get();
                 if (operation instanceof BasePutOperation)
-                    localMapStats.incrementPuts(System.currentTimeMillis() - time);
+                    localMapStats.incrementPuts(System.nanoTime() - time);
                 else if (operation instanceof BaseRemoveOperation)
-                    localMapStats.incrementRemoves(System.currentTimeMillis() - time);
+                    localMapStats.incrementRemoves(System.nanoTime() - time);
                 else if (operation instanceof GetOperation)
-                    localMapStats.incrementGets(System.currentTimeMillis() - time);
+                    localMapStats.incrementGets(System.nanoTime() - time);
 
             } else {
                 f = operationService.createInvocationBuilder(SERVICE_NAME, operation, partitionId)
@@ -969,17 +977,12 @@ abstract class MapProxySupport extends AbstractDistributedObject<MapService> imp
         if (predicate instanceof PagingPredicate) {
             pagingPredicate = (PagingPredicate) predicate;
             pagingPredicate.setIterationType(iterationType);
-            if (pagingPredicate.getPage() > 0 && pagingPredicate.getAnchor() == null) {
-                pagingPredicate.previousPage();
-                query(pagingPredicate, iterationType, dataResult);
-                pagingPredicate.nextPage();
-            }
         }
         Set result;
         if (pagingPredicate == null) {
             result = new QueryResultSet(ss, iterationType, dataResult);
         } else {
-            result = new SortedQueryResultSet(pagingPredicate.getComparator(), iterationType, pagingPredicate.getPageSize());
+            result = new SortedQueryResultSet(pagingPredicate.getComparator(), iterationType, pagingPredicate.getFetchSize());
         }
 
         List<Integer> returnedPartitionIds = new ArrayList<Integer>();
@@ -1004,7 +1007,7 @@ abstract class MapProxySupport extends AbstractDistributedObject<MapService> imp
 
             if (returnedPartitionIds.size() == partitionIds.size()) {
                 if (pagingPredicate != null) {
-                    PagingPredicateAccessor.setPagingPredicateAnchor(pagingPredicate, ((SortedQueryResultSet) result).last());
+                    PagingPredicateAccessor.setPagingPredicateAnchors(pagingPredicate, (SortedQueryResultSet) result);
                 }
                 return result;
             }
@@ -1040,10 +1043,82 @@ abstract class MapProxySupport extends AbstractDistributedObject<MapService> imp
         } catch (Throwable t) {
             throw ExceptionUtil.rethrow(t);
         }
+        if (pagingPredicate != null) {
+            PagingPredicateAccessor.setPagingPredicateAnchors(pagingPredicate, (SortedQueryResultSet) result);
+        }
         return result;
     }
 
 
+    /**
+     * Aggregates the map on the partition threads of all members, each member returns a single merged
+     * accumulator. Partitions which are not reported by any member (e.g. because of a migration) are
+     * aggregated again one by one on their owners.
+     */
+    protected Object aggregateOnPartitions(Supplier supplier, PrimitiveAccumulator accumulator) {
+        final NodeEngine nodeEngine = getNodeEngine();
+        OperationService operationService = nodeEngine.getOperationService();
+        Collection<MemberImpl> members = nodeEngine.getClusterService().getMemberList();
+        int partitionCount = nodeEngine.getPartitionService().getPartitionCount();
+        // a member gives up on its partition aggregations after one call timeout
+        long timeoutMillis = 2 * nodeEngine.getGroupProperties().OPERATION_CALL_TIMEOUT_MILLIS.getLong();
+        Set<Integer> plist = new HashSet<Integer>(partitionCount);
+        PrimitiveAccumulator result = accumulator.newInstance();
+        List<Integer> missingList = new ArrayList<Integer>();
+        List<Future> flist = new ArrayList<Future>();
+        for (MemberImpl member : members) {
+            Future future = operationService.invokeOnTarget(SERVICE_NAME,
+                    new MapAggregationOperation(name, supplier, accumulator), member.getAddress());
+            flist.add(future);
+        }
+        for (Future future : flist) {
+            AggregationResult aggregationResult = getAggregationResult(future, timeoutMillis);
+            if (aggregationResult != null && aggregationResult.getPartitionIds() != null) {
+                plist.addAll(aggregationResult.getPartitionIds());
+                result.merge(aggregationResult.getAccumulator());
+            }
+        }
+        for (int i = 0; i < partitionCount; i++) {
+            if (!plist.contains(i)) {
+                missingList.add(i);
+            }
+        }
+
+        try {
+            List<Future> futures = new ArrayList<Future>(missingList.size());
+            for (Integer pid : missingList) {
+                PartitionAggregationOperation operation = new PartitionAggregationOperation(name, supplier,
+                        accumulator.newInstance());
+                futures.add(operationService.invokeOnPartition(SERVICE_NAME, operation, pid));
+            }
+            for (Future future : futures) {
+                result.merge((PrimitiveAccumulator) future.get(timeoutMillis, TimeUnit.MILLISECONDS));
+            }
+        } catch (Throwable t) {
+            throw ExceptionUtil.rethrow(t);
+        }
+        return result.getResult();
+    }
+
+    /**
+     * Returns the result of the aggregation on a member, or <tt>null</tt> if the member has left the cluster;
+     * the partitions of that member are aggregated one by one then. Any other failure is rethrown.
+     */
+    private AggregationResult getAggregationResult(Future future, long timeoutMillis) {
+        try {
+            return (AggregationResult) future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (MemberLeftException e) {
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MemberLeftException || e.getCause() instanceof TargetNotMemberException) {
+                return null;
+            }
+            throw ExceptionUtil.rethrow(e);
+        } catch (Throwable t) {
+            throw ExceptionUtil.rethrow(t);
+        }
+    }
+
     protected Set query(final Predicate predicate, final IterationType iterationType, final boolean dataResult) {
 
         final NodeEngine nodeEngine = getNodeEngine();
@@ -1056,17 +1131,12 @@ abstract class MapProxySupport extends AbstractDistributedObject<MapService> imp
         if (predicate instanceof PagingPredicate) {
             pagingPredicate = (PagingPredicate) predicate;
             pagingPredicate.setIterationType(iterationType);
-            if (pagingPredicate.getPage() > 0 && pagingPredicate.getAnchor() == null) {
-                pagingPredicate.previousPage();
-                query(pagingPredicate, iterationType, dataResult);
-                pagingPredicate.nextPage();
-            }
         }
         Set result;
         if (pagingPredicate == null) {
             result = new QueryResultSet(ss, iterationType, dataResult);
         } else {
-            result = new SortedQueryResultSet(pagingPredicate.getComparator(), iterationType, pagingPredicate.getPageSize());
+            result = new SortedQueryResultSet(pagingPredicate.getComparator(), iterationType, pagingPredicate.getFetchSize());
         }
         List<Integer> missingList = new ArrayList<Integer>();
         try {
@@ -1096,7 +1166,7 @@ abstract class MapProxySupport extends AbstractDistributedObject<MapService> imp
             }
             if (plist.size() == partitionCount) {
                 if (pagingPredicate != null) {
-                    PagingPredicateAccessor.setPagingPredicateAnchor(pagingPredicate, ((SortedQueryResultSet) result).last());
+                    PagingPredicateAccessor.setPagingPredicateAnchors(pagingPredicate, (SortedQueryResultSet) result);
                 }
                 return result;
             }
@@ -1143,7 +1213,7 @@ abstract class MapProxySupport extends AbstractDistributedObject<MapService> imp
             throw ExceptionUtil.rethrow(t);
         }
         if (pagingPredicate != null) {
-            PagingPredicateAccessor.setPagingPredicateAnchor(pagingPredicate, ((SortedQueryResultSet) result).last());
+            PagingPredicateAccessor.setPagingPredicateAnchors(pagingPredicate, (SortedQueryResultSet) result);
         }
         return result;
     }
@@ -54,10 +54,10 @@ class OffHeapRecordWithStats extends AbstractRecordWithStats<Data> {
     }
 
     public void setValue(Data value) {
+        // allocate first, so the old value survives if the storage is out of memory
+        DataRef newValueRef = value != null ? storage.put(key.getPartitionHash(), value) : null;
         invalidate();
-        if (value != null) {
-            valueRef = storage.put(key.getPartitionHash(), value);
-        }
+        valueRef = newValueRef;
     }
 
     public void invalidate() {
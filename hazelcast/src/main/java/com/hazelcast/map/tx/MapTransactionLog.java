@@ -25,13 +25,14 @@ import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.transaction.TransactionException;
 import com.hazelcast.transaction.impl.KeyAwareTransactionLog;
+import com.hazelcast.transaction.impl.PartitionAwareTransactionLog;
 import com.hazelcast.util.ExceptionUtil;
 import com.hazelcast.util.ThreadUtil;
 
 import java.io.IOException;
 import java.util.concurrent.Future;
 
-public class MapTransactionLog implements KeyAwareTransactionLog {
+public class MapTransactionLog implements KeyAwareTransactionLog, PartitionAwareTransactionLog {
 
     String name;
     Data key;
@@ -54,38 +55,57 @@ public class MapTransactionLog implements KeyAwareTransactionLog {
 
     @Override
     public Future prepare(NodeEngine nodeEngine) throws TransactionException {
-        TxnPrepareOperation operation = new TxnPrepareOperation(name, key, ownerUuid);
-        operation.setThreadId(threadId);
+        return invoke(nodeEngine, createPrepareOperation());
+    }
+
+    @Override
+    public Future commit(NodeEngine nodeEngine) {
+        return invoke(nodeEngine, createCommitOperation());
+    }
+
+    public Future rollback(NodeEngine nodeEngine) {
+        return invoke(nodeEngine, createRollbackOperation());
+    }
+
+    private Future invoke(NodeEngine nodeEngine, Operation operation) {
         try {
-            int partitionId = nodeEngine.getPartitionService().getPartitionId(key);
-            return nodeEngine.getOperationService().invokeOnPartition(MapService.SERVICE_NAME, operation, partitionId);
+            return nodeEngine.getOperationService().invokeOnPartition(MapService.SERVICE_NAME, operation,
+                    getPartitionId(nodeEngine));
         } catch (Throwable t) {
             throw ExceptionUtil.rethrow(t);
         }
     }
 
     @Override
-    public Future commit(NodeEngine nodeEngine) {
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    public int getPartitionId(NodeEngine nodeEngine) {
+        return nodeEngine.getPartitionService().getPartitionId(key);
+    }
+
+    @Override
+    public Operation createPrepareOperation() {
+        TxnPrepareOperation operation = new TxnPrepareOperation(name, key, ownerUuid);
+        operation.setThreadId(threadId);
+        return operation;
+    }
+
+    @Override
+    public Operation createCommitOperation() {
         MapTxnOperation txnOp = (MapTxnOperation) op;
         txnOp.setThreadId(threadId);
         txnOp.setOwnerUuid(ownerUuid);
-        try {
-            int partitionId = nodeEngine.getPartitionService().getPartitionId(key);
-            return nodeEngine.getOperationService().invokeOnPartition(MapService.SERVICE_NAME, op, partitionId);
-        } catch (Throwable t) {
-            throw ExceptionUtil.rethrow(t);
-        }
+        return op;
     }
 
-    public Future rollback(NodeEngine nodeEngine) {
-        int partitionId = nodeEngine.getPartitionService().getPartitionId(key);
+    @Override
+    public Operation createRollbackOperation() {
         TxnRollbackOperation operation = new TxnRollbackOperation(name, key, ownerUuid);
         operation.setThreadId(threadId);
-        try {
-            return nodeEngine.getOperationService().invokeOnPartition(MapService.SERVICE_NAME, operation, partitionId);
-        } catch (Throwable t) {
-            throw ExceptionUtil.rethrow(t);
-        }
+        return operation;
     }
 
     @Override
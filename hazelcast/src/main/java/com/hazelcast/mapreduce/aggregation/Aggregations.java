@@ -20,6 +20,7 @@ import com.hazelcast.mapreduce.Collator;
 import com.hazelcast.mapreduce.CombinerFactory;
 import com.hazelcast.mapreduce.Mapper;
 import com.hazelcast.mapreduce.ReducerFactory;
+import com.hazelcast.mapreduce.aggregation.impl.AccumulatorFactory;
 import com.hazelcast.mapreduce.aggregation.impl.AggType;
 import com.hazelcast.mapreduce.aggregation.impl.BigDecimalAvgAggregation;
 import com.hazelcast.mapreduce.aggregation.impl.BigDecimalMaxAggregation;
@@ -45,6 +46,7 @@ import com.hazelcast.mapreduce.aggregation.impl.LongAvgAggregation;
 import com.hazelcast.mapreduce.aggregation.impl.LongMaxAggregation;
 import com.hazelcast.mapreduce.aggregation.impl.LongMinAggregation;
 import com.hazelcast.mapreduce.aggregation.impl.LongSumAggregation;
+import com.hazelcast.mapreduce.aggregation.impl.PrimitiveAccumulator;
 import com.hazelcast.spi.annotation.Beta;
 
 import java.math.BigDecimal;
@@ -374,7 +376,7 @@ public final class Aggregations {
      * @param <Result>   the result value type
      */
     private static final class AggregationAdapter<Key, Supplied, Result>
-            implements Aggregation<Key, Supplied, Result> {
+            implements Aggregation<Key, Supplied, Result>, AccumulatorFactory {
 
         private final AggType internalAggregationType;
 
@@ -401,5 +403,13 @@ public final class Aggregations {
         public ReducerFactory getReducerFactory() {
             return internalAggregationType.getReducerFactory();
         }
+
+        @Override
+        public PrimitiveAccumulator newAccumulator() {
+            if (internalAggregationType instanceof AccumulatorFactory) {
+                return ((AccumulatorFactory) internalAggregationType).newAccumulator();
+            }
+            return null;
+        }
     }
 }
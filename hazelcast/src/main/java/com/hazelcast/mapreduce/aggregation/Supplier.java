@@ -18,6 +18,7 @@ package com.hazelcast.mapreduce.aggregation;
 
 import com.hazelcast.mapreduce.KeyPredicate;
 import com.hazelcast.mapreduce.aggregation.impl.AcceptAllSupplier;
+import com.hazelcast.mapreduce.aggregation.impl.AttributeSupplier;
 import com.hazelcast.mapreduce.aggregation.impl.KeyPredicateSupplier;
 import com.hazelcast.mapreduce.aggregation.impl.PredicateSupplier;
 import com.hazelcast.query.Predicate;
@@ -176,4 +177,23 @@ public abstract class Supplier<KeyIn, ValueIn, ValueOut>
 
         return new KeyPredicateSupplier<KeyIn, ValueIn, ValueOut>(keyPredicate, chainedSupplier);
     }
+
+    /**
+     * The predefined Supplier selects the given attribute of all values, using the same attribute
+     * syntax as {@link com.hazelcast.query.Predicate}s (e.g. <pre>"age"</pre>, <pre>"address.city"</pre>
+     * or <pre>"__key"</pre>). The type of the attribute needs to match the expected value type of
+     * the aggregation; values with a null attribute are ignored.<br/>
+     * Attributes of {@link com.hazelcast.nio.serialization.Portable} values of
+     * {@link com.hazelcast.core.IMap}s are read without deserializing the values.
+     *
+     * @param attributeName the name of the attribute to select
+     * @param <KeyIn>       the input key type
+     * @param <ValueIn>     the input value type
+     * @param <ValueOut>    the supplied value type
+     * @return the selected attribute of all values from the underlying data structure
+     * @since 3.3
+     */
+    public static <KeyIn, ValueIn, ValueOut> Supplier<KeyIn, ValueIn, ValueOut> fromAttribute(String attributeName) {
+        return new AttributeSupplier<KeyIn, ValueIn, ValueOut>(attributeName);
+    }
 }
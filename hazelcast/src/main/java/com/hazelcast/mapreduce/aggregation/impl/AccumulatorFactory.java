@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.mapreduce.aggregation.impl;
+
+/**
+ * Implemented by aggregations which can be computed by a {@link PrimitiveAccumulator} directly
+ * on the partitions, without running a MapReduce job.
+ */
+public interface AccumulatorFactory {
+
+    /**
+     * Creates a new, empty accumulator.
+     *
+     * @return the accumulator or null if the aggregation can not be computed by an accumulator
+     */
+    PrimitiveAccumulator newAccumulator();
+}
@@ -88,8 +88,10 @@ public class AggregationsDataSerializerHook
     public static final int KEY_PREDICATE_SUPPLIER = 51;
     public static final int PREDICATE_SUPPLIER = 52;
     public static final int AVG_TUPLE = 53;
+    public static final int PRIMITIVE_ACCUMULATOR = 54;
+    public static final int ATTRIBUTE_SUPPLIER = 55;
 
-    private static final int LEN = AVG_TUPLE + 1;
+    private static final int LEN = ATTRIBUTE_SUPPLIER + 1;
 
     @Override
     public int getFactoryId() {
@@ -129,6 +131,18 @@ public class AggregationsDataSerializerHook
                 return new AvgTuple();
             }
         };
+        constructors[PRIMITIVE_ACCUMULATOR] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            @Override
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new PrimitiveAccumulator();
+            }
+        };
+        constructors[ATTRIBUTE_SUPPLIER] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            @Override
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new AttributeSupplier();
+            }
+        };
         constructors[BIG_DECIMAL_AVG_COMBINER_FACTORY] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
             @Override
             public IdentifiedDataSerializable createNew(Integer arg) {
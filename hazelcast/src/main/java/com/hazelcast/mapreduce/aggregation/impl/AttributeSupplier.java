@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.mapreduce.aggregation.impl;
+
+import com.hazelcast.mapreduce.aggregation.Supplier;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.QueryException;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.ReflectionHelper;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The default supplier for selecting a single attribute of the input values, using the same
+ * attribute names as {@link com.hazelcast.query.Predicate}s.<br/>
+ * If the entry is supplied in its serialized form (as by the partition local aggregation of
+ * {@link com.hazelcast.core.IMap}s), attributes of {@link com.hazelcast.nio.serialization.Portable}
+ * values are read straight from the serialized data without deserializing the value.
+ *
+ * @param <KeyIn>    the input key type
+ * @param <ValueIn>  the input value type
+ * @param <ValueOut> the output value type
+ */
+public class AttributeSupplier<KeyIn, ValueIn, ValueOut>
+        extends Supplier<KeyIn, ValueIn, ValueOut>
+        implements IdentifiedDataSerializable {
+
+    private String attributeName;
+
+    AttributeSupplier() {
+    }
+
+    public AttributeSupplier(String attributeName) {
+        this.attributeName = attributeName;
+    }
+
+    @Override
+    public ValueOut apply(Map.Entry<KeyIn, ValueIn> entry) {
+        if (entry instanceof QueryableEntry) {
+            return (ValueOut) ((QueryableEntry) entry).getAttribute(attributeName);
+        }
+        try {
+            return (ValueOut) ReflectionHelper.extractValue(entry, attributeName);
+        } catch (QueryException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new QueryException(e);
+        }
+    }
+
+    public String getAttributeName() {
+        return attributeName;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return AggregationsDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getId() {
+        return AggregationsDataSerializerHook.ATTRIBUTE_SUPPLIER;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out)
+            throws IOException {
+
+        out.writeUTF(attributeName);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in)
+            throws IOException {
+
+        attributeName = in.readUTF();
+    }
+}
@@ -33,7 +33,8 @@ import java.util.Map;
  * @param <Value> the value input type
  */
 public class CountAggregation<Key, Value>
-        implements AggType<Key, Value, Key, Object, Long, Long, Long> {
+        implements AggType<Key, Value, Key, Object, Long, Long, Long>,
+                   AccumulatorFactory {
 
     @Override
     public Collator<Map.Entry<Key, Long>, Long> getCollator() {
@@ -49,6 +50,11 @@ public class CountAggregation<Key, Value>
         };
     }
 
+    @Override
+    public PrimitiveAccumulator newAccumulator() {
+        return new PrimitiveAccumulator(PrimitiveAccumulator.LONG, PrimitiveAccumulator.COUNT);
+    }
+
     @Override
     public Mapper<Key, Value, Key, Object> getMapper(Supplier<Key, Value, Object> supplier) {
         return new SupplierConsumingMapper<Key, Value, Object>(supplier);
@@ -33,7 +33,8 @@ import java.util.Map;
  * @param <Value> the input value type
  */
 public class DoubleAvgAggregation<Key, Value>
-        implements AggType<Key, Value, Key, Double, AvgTuple<Long, Double>, AvgTuple<Long, Double>, Double> {
+        implements AggType<Key, Value, Key, Double, AvgTuple<Long, Double>, AvgTuple<Long, Double>, Double>,
+                   AccumulatorFactory {
 
     @Override
     public Collator<Map.Entry<Key, AvgTuple<Long, Double>>, Double> getCollator() {
@@ -52,6 +53,11 @@ public class DoubleAvgAggregation<Key, Value>
         };
     }
 
+    @Override
+    public PrimitiveAccumulator newAccumulator() {
+        return new PrimitiveAccumulator(PrimitiveAccumulator.DOUBLE, PrimitiveAccumulator.AVG);
+    }
+
     @Override
     public Mapper<Key, Value, Key, Double> getMapper(Supplier<Key, Value, Double> supplier) {
         return new SupplierConsumingMapper<Key, Value, Double>(supplier);
@@ -33,7 +33,8 @@ import java.util.Map;
  * @param <Value> the input value type
  */
 public class IntegerAvgAggregation<Key, Value>
-        implements AggType<Key, Value, Key, Integer, AvgTuple<Integer, Integer>, AvgTuple<Integer, Integer>, Integer> {
+        implements AggType<Key, Value, Key, Integer, AvgTuple<Integer, Integer>, AvgTuple<Integer, Integer>, Integer>,
+                   AccumulatorFactory {
 
     @Override
     public Collator<Map.Entry<Key, AvgTuple<Integer, Integer>>, Integer> getCollator() {
@@ -52,6 +53,11 @@ public class IntegerAvgAggregation<Key, Value>
         };
     }
 
+    @Override
+    public PrimitiveAccumulator newAccumulator() {
+        return new PrimitiveAccumulator(PrimitiveAccumulator.INTEGER, PrimitiveAccumulator.AVG);
+    }
+
     @Override
     public Mapper<Key, Value, Key, Integer> getMapper(Supplier<Key, Value, Integer> supplier) {
         return new SupplierConsumingMapper<Key, Value, Integer>(supplier);
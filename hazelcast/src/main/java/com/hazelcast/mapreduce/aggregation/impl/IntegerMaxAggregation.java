@@ -33,7 +33,8 @@ import java.util.Map;
  * @param <Value> the input value type
  */
 public class IntegerMaxAggregation<Key, Value>
-        implements AggType<Key, Value, Key, Integer, Integer, Integer, Integer> {
+        implements AggType<Key, Value, Key, Integer, Integer, Integer, Integer>,
+                   AccumulatorFactory {
 
     @Override
     public Collator<Map.Entry<Key, Integer>, Integer> getCollator() {
@@ -52,6 +53,11 @@ public class IntegerMaxAggregation<Key, Value>
         };
     }
 
+    @Override
+    public PrimitiveAccumulator newAccumulator() {
+        return new PrimitiveAccumulator(PrimitiveAccumulator.INTEGER, PrimitiveAccumulator.MAX);
+    }
+
     @Override
     public Mapper<Key, Value, Key, Integer> getMapper(Supplier<Key, Value, Integer> supplier) {
         return new SupplierConsumingMapper<Key, Value, Integer>(supplier);
@@ -56,8 +56,8 @@ public class KeyPredicateSupplier<KeyIn, ValueIn, ValueOut>
     @Override
     public ValueOut apply(Map.Entry<KeyIn, ValueIn> entry) {
         if (keyPredicate.evaluate(entry.getKey())) {
-            ValueIn value = entry.getValue();
-            return chainedSupplier != null ? chainedSupplier.apply(entry) : (ValueOut) value;
+            // the chained supplier might not need the (deserialized) value at all
+            return chainedSupplier != null ? chainedSupplier.apply(entry) : (ValueOut) entry.getValue();
         }
         return null;
     }
@@ -33,7 +33,8 @@ import java.util.Map;
  * @param <Value> the input value type
  */
 public class LongAvgAggregation<Key, Value>
-        implements AggType<Key, Value, Key, Long, AvgTuple<Long, Long>, AvgTuple<Long, Long>, Long> {
+        implements AggType<Key, Value, Key, Long, AvgTuple<Long, Long>, AvgTuple<Long, Long>, Long>,
+                   AccumulatorFactory {
 
     @Override
     public Collator<Map.Entry<Key, AvgTuple<Long, Long>>, Long> getCollator() {
@@ -52,6 +53,11 @@ public class LongAvgAggregation<Key, Value>
         };
     }
 
+    @Override
+    public PrimitiveAccumulator newAccumulator() {
+        return new PrimitiveAccumulator(PrimitiveAccumulator.LONG, PrimitiveAccumulator.AVG);
+    }
+
     @Override
     public Mapper<Key, Value, Key, Long> getMapper(Supplier<Key, Value, Long> supplier) {
         return new SupplierConsumingMapper<Key, Value, Long>(supplier);
@@ -33,14 +33,15 @@ import java.util.Map;
  * @param <Value> the input value type
  */
 public class LongMaxAggregation<Key, Value>
-        implements AggType<Key, Value, Key, Long, Long, Long, Long> {
+        implements AggType<Key, Value, Key, Long, Long, Long, Long>,
+                   AccumulatorFactory {
 
     @Override
     public Collator<Map.Entry<Key, Long>, Long> getCollator() {
         return new Collator<Map.Entry<Key, Long>, Long>() {
             @Override
             public Long collate(Iterable<Map.Entry<Key, Long>> values) {
-                long max = Integer.MIN_VALUE;
+                long max = Long.MIN_VALUE;
                 for (Map.Entry<Key, Long> entry : values) {
                     long value = entry.getValue();
                     if (value > max) {
@@ -52,6 +53,11 @@ public class LongMaxAggregation<Key, Value>
         };
     }
 
+    @Override
+    public PrimitiveAccumulator newAccumulator() {
+        return new PrimitiveAccumulator(PrimitiveAccumulator.LONG, PrimitiveAccumulator.MAX);
+    }
+
     @Override
     public Mapper<Key, Value, Key, Long> getMapper(Supplier<Key, Value, Long> supplier) {
         return new SupplierConsumingMapper<Key, Value, Long>(supplier);
@@ -33,7 +33,8 @@ import java.util.Map;
  * @param <Value> the input value type
  */
 public class LongMinAggregation<Key, Value>
-        implements AggType<Key, Value, Key, Long, Long, Long, Long> {
+        implements AggType<Key, Value, Key, Long, Long, Long, Long>,
+                   AccumulatorFactory {
 
     @Override
     public Collator<Map.Entry<Key, Long>, Long> getCollator() {
@@ -52,6 +53,11 @@ public class LongMinAggregation<Key, Value>
         };
     }
 
+    @Override
+    public PrimitiveAccumulator newAccumulator() {
+        return new PrimitiveAccumulator(PrimitiveAccumulator.LONG, PrimitiveAccumulator.MIN);
+    }
+
     @Override
     public Mapper<Key, Value, Key, Long> getMapper(Supplier<Key, Value, Long> supplier) {
         return new SupplierConsumingMapper<Key, Value, Long>(supplier);
@@ -33,7 +33,8 @@ import java.util.Map;
  * @param <Value> the input value type
  */
 public class LongSumAggregation<Key, Value>
-        implements AggType<Key, Value, Key, Long, Long, Long, Long> {
+        implements AggType<Key, Value, Key, Long, Long, Long, Long>,
+                   AccumulatorFactory {
 
     @Override
     public Collator<Map.Entry<Key, Long>, Long> getCollator() {
@@ -49,6 +50,11 @@ public class LongSumAggregation<Key, Value>
         };
     }
 
+    @Override
+    public PrimitiveAccumulator newAccumulator() {
+        return new PrimitiveAccumulator(PrimitiveAccumulator.LONG, PrimitiveAccumulator.SUM);
+    }
+
     @Override
     public Mapper<Key, Value, Key, Long> getMapper(Supplier<Key, Value, Long> supplier) {
         return new SupplierConsumingMapper<Key, Value, Long>(supplier);
@@ -56,14 +56,20 @@ public class PredicateSupplier<KeyIn, ValueIn, ValueOut>
     @Override
     public ValueOut apply(Map.Entry<KeyIn, ValueIn> entry) {
         if (predicate.apply(entry)) {
-            ValueIn value = entry.getValue();
-            if (value != null) {
-                return chainedSupplier != null ? chainedSupplier.apply(entry) : (ValueOut) value;
-            }
+            // the chained supplier might not need the (deserialized) value at all
+            return chainedSupplier != null ? chainedSupplier.apply(entry) : (ValueOut) entry.getValue();
         }
         return null;
     }
 
+    public Predicate<KeyIn, ValueIn> getPredicate() {
+        return predicate;
+    }
+
+    public Supplier<KeyIn, ValueIn, ValueOut> getChainedSupplier() {
+        return chainedSupplier;
+    }
+
     @Override
     public int getFactoryId() {
         return AggregationsDataSerializerHook.F_ID;
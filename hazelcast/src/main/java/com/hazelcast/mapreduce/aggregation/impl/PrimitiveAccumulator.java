@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.mapreduce.aggregation.impl;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import java.io.IOException;
+
+/**
+ * Internal accumulator for the predefined count, sum, average, minimum and maximum aggregations
+ * of integer, long and double values. It is used to aggregate map entries directly on the partition
+ * threads; each member sends back one merged accumulator instead of running a full MapReduce job.
+ * <p/>
+ * The results equal the results of the collators of the corresponding aggregations, including the
+ * results for empty inputs and integer overflows.
+ */
+public final class PrimitiveAccumulator
+        implements IdentifiedDataSerializable {
+
+    public static final int INTEGER = 0;
+    public static final int LONG = 1;
+    public static final int DOUBLE = 2;
+
+    public static final int COUNT = 0;
+    public static final int SUM = 1;
+    public static final int AVG = 2;
+    public static final int MIN = 3;
+    public static final int MAX = 4;
+
+    private int type;
+    private int operation;
+    private long count;
+    private long longValue;
+    private double doubleValue;
+
+    PrimitiveAccumulator() {
+    }
+
+    public PrimitiveAccumulator(int type, int operation) {
+        this.type = type;
+        this.operation = operation;
+        if (operation == MIN) {
+            longValue = type == INTEGER ? Integer.MAX_VALUE : Long.MAX_VALUE;
+            doubleValue = Double.MAX_VALUE;
+        } else if (operation == MAX) {
+            longValue = type == INTEGER ? Integer.MIN_VALUE : Long.MIN_VALUE;
+            doubleValue = -Double.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Creates a new, empty accumulator of the same type and operation.
+     */
+    public PrimitiveAccumulator newInstance() {
+        return new PrimitiveAccumulator(type, operation);
+    }
+
+    /**
+     * Accumulates a supplied, non null value.
+     */
+    public void accumulate(Object value) {
+        count++;
+        if (operation == COUNT) {
+            return;
+        }
+        if (type == DOUBLE) {
+            accumulate(((Number) value).doubleValue());
+        } else {
+            accumulate(((Number) value).longValue());
+        }
+    }
+
+    /**
+     * Accumulates a value occurring the given number of times without supplying each occurrence,
+     * e.g. the count of an index or its smallest value. Only supported by count, minimum and
+     * maximum accumulators; the value is ignored when counting.
+     */
+    public void accumulate(Object value, long occurrences) {
+        if (operation != COUNT && operation != MIN && operation != MAX) {
+            throw new UnsupportedOperationException("Occurrences can not be accumulated by operation " + operation);
+        }
+        if (occurrences <= 0) {
+            return;
+        }
+        count += occurrences - 1;
+        accumulate(value);
+    }
+
+    private void accumulate(long value) {
+        switch (operation) {
+            case SUM:
+            case AVG:
+                longValue += value;
+                break;
+            case MIN:
+                if (value < longValue) {
+                    longValue = value;
+                }
+                break;
+            case MAX:
+                if (value > longValue) {
+                    longValue = value;
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation: " + operation);
+        }
+    }
+
+    private void accumulate(double value) {
+        switch (operation) {
+            case SUM:
+            case AVG:
+                doubleValue += value;
+                break;
+            case MIN:
+                if (value < doubleValue) {
+                    doubleValue = value;
+                }
+                break;
+            case MAX:
+                if (value > doubleValue) {
+                    doubleValue = value;
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation: " + operation);
+        }
+    }
+
+    /**
+     * Merges the partial result of another accumulator of the same type and operation into this one.
+     */
+    public void merge(PrimitiveAccumulator other) {
+        if (other.count == 0) {
+            return;
+        }
+        count += other.count;
+        if (operation == COUNT) {
+            return;
+        }
+        if (type == DOUBLE) {
+            accumulate(other.doubleValue);
+        } else {
+            accumulate(other.longValue);
+        }
+    }
+
+    public int getOperation() {
+        return operation;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the result as the boxed type of the aggregation result.
+     */
+    public Object getResult() {
+        if (operation == COUNT) {
+            return count;
+        }
+        if (operation == AVG) {
+            switch (type) {
+                case INTEGER:
+                    // the MapReduce based aggregation sums amount and count as int values
+                    return (int) ((double) (int) longValue / (int) count);
+                case LONG:
+                    return (long) ((double) longValue / count);
+                default:
+                    return doubleValue / count;
+            }
+        }
+        switch (type) {
+            case INTEGER:
+                return (int) longValue;
+            case LONG:
+                return longValue;
+            default:
+                return doubleValue;
+        }
+    }
+
+    @Override
+    public int getFactoryId() {
+        return AggregationsDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getId() {
+        return AggregationsDataSerializerHook.PRIMITIVE_ACCUMULATOR;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out)
+            throws IOException {
+
+        out.writeByte(type);
+        out.writeByte(operation);
+        out.writeLong(count);
+        if (type == DOUBLE) {
+            out.writeDouble(doubleValue);
+        } else {
+            out.writeLong(longValue);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in)
+            throws IOException {
+
+        type = in.readByte();
+        operation = in.readByte();
+        count = in.readLong();
+        if (type == DOUBLE) {
+            doubleValue = in.readDouble();
+        } else {
+            longValue = in.readLong();
+        }
+    }
+}
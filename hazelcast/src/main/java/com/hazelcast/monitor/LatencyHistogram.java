@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.monitor;
+
+import com.hazelcast.nio.serialization.DataSerializable;
+
+/**
+ * Latency distribution of an operation. Latencies are in microseconds.
+ * <p/>
+ * Values are recorded into buckets of fixed relative width, so the percentiles
+ * are approximate: the reported value is the highest value of the bucket the percentile falls into.
+ */
+public interface LatencyHistogram extends DataSerializable {
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the number of recorded latencies
+     */
+    long getCount();
+
+    /**
+     * Returns the sum of the recorded latencies in microseconds.
+     *
+     * @return the sum of the recorded latencies
+     */
+    long getTotalLatency();
+
+    /**
+     * Returns the maximum recorded latency in microseconds.
+     *
+     * @return the maximum recorded latency
+     */
+    long getMaxLatency();
+
+    /**
+     * Returns the mean of the recorded latencies in microseconds.
+     *
+     * @return the mean latency, 0 if nothing is recorded
+     */
+    double getMeanLatency();
+
+    /**
+     * Returns the latency in microseconds which the given percentage of the recorded latencies
+     * are less than or equal to, e.g. <tt>getLatencyAtPercentile(99.9)</tt> for the p999 latency.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return the latency at the percentile, 0 if nothing is recorded
+     */
+    long getLatencyAtPercentile(double percentile);
+}
@@ -60,5 +60,19 @@ public interface LocalExecutorStats extends LocalInstanceStats {
      */
     long getTotalExecutionLatency();
 
+    /**
+     * Returns the distribution of the start latencies of operations started, in microseconds
+     * with millisecond resolution
+     *
+     * @return the start latency histogram
+     */
+    LatencyHistogram getStartLatencyHistogram();
 
+    /**
+     * Returns the distribution of the execution times of operations finished, in microseconds
+     * with millisecond resolution
+     *
+     * @return the execution time histogram
+     */
+    LatencyHistogram getExecutionLatencyHistogram();
 }
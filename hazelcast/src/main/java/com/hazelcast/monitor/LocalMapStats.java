@@ -169,6 +169,85 @@ public interface LocalMapStats extends LocalInstanceStats {
      */
     long getMaxRemoveLatency();
 
+    /**
+     * Returns the latency distribution of put operations in microseconds.
+     *
+     * @return the latency histogram of put operations
+     */
+    LatencyHistogram getPutLatencyHistogram();
+
+    /**
+     * Returns the latency distribution of get operations in microseconds.
+     *
+     * @return the latency histogram of get operations
+     */
+    LatencyHistogram getGetLatencyHistogram();
+
+    /**
+     * Returns the latency distribution of remove operations in microseconds.
+     *
+     * @return the latency histogram of remove operations
+     */
+    LatencyHistogram getRemoveLatencyHistogram();
+
+    /**
+     * Returns the number of entries evicted because the map reached its max size.
+     *
+     * @return number of evicted entries
+     */
+    long getEvictionCount();
+
+    /**
+     * Returns the total time spent evicting entries, in milliseconds.
+     * To get the average cost per entry, divide to number of evictions.
+     *
+     * @return total eviction time
+     */
+    long getTotalEvictionTime();
+
+    /**
+     * Returns the number of queries executed on this member.
+     *
+     * @return number of queries
+     */
+    long getQueryCount();
+
+    /**
+     * Returns the number of queries answered by indexes, without scanning the entries.
+     *
+     * @return number of indexed queries
+     */
+    long getIndexedQueryCount();
+
+    /**
+     * Returns the total number of entries scanned by queries not answered by indexes.
+     *
+     * @return number of scanned entries
+     */
+    long getQueryScannedEntryCount();
+
+    /**
+     * Returns the total execution time of queries on this member, in milliseconds.
+     *
+     * @return total query time
+     */
+    long getTotalQueryTime();
+
+    /**
+     * Returns the number of keys this member has streamed to the partitions during the initial load
+     * from a {@link com.hazelcast.core.StreamingMapLoader}.
+     *
+     * @return number of streamed keys
+     */
+    long getInitialLoadKeyCount();
+
+    /**
+     * Returns the number of entries loaded into the partitions of this member during the initial load.
+     *
+     * @return number of loaded entries
+     */
+    long getInitialLoadedEntryCount();
+
     /**
      * Returns the number of Events Received
      *
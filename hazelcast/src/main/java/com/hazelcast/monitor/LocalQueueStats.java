@@ -106,4 +106,20 @@ public interface LocalQueueStats extends LocalInstanceStats {
      * @return number of event operations
      */
     long getEventOperationCount();
+
+    /**
+     * Returns the latency distribution of offer operations called on this member in microseconds,
+     * including the time spent waiting for space in the queue.
+     *
+     * @return the latency histogram of offer operations
+     */
+    LatencyHistogram getOfferLatencyHistogram();
+
+    /**
+     * Returns the latency distribution of poll operations called on this member in microseconds,
+     * including the time spent waiting for an item.
+     *
+     * @return the latency histogram of poll operations
+     */
+    LatencyHistogram getPollLatencyHistogram();
 }
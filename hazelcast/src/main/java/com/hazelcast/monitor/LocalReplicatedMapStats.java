@@ -20,4 +20,34 @@ public interface LocalReplicatedMapStats extends LocalMapStats {
 
     long getReplicationEventCount();
 
+    /**
+     * Returns the number of updates this member replicated to the other members. Updates of the same key
+     * coalesced during the replication delay are counted once.
+     *
+     * @return number of replicated updates
+     */
+    long getSentReplicationEventCount();
+
+    /**
+     * Returns the number of updates which were not replicated since a later update of the same key replaced them
+     * during the replication delay.
+     *
+     * @return number of coalesced updates
+     */
+    long getCoalescedReplicationEventCount();
+
+    /**
+     * Returns the number of updates waiting for the replication delay to pass.
+     *
+     * @return number of pending updates
+     */
+    long getPendingReplicationEventCount();
+
+    /**
+     * Returns the histogram of the time updates waited before being replicated, in microseconds.
+     *
+     * @return replication lag histogram
+     */
+    LatencyHistogram getReplicationLagHistogram();
+
 }
@@ -39,5 +39,10 @@ public interface LocalTopicStats extends LocalInstanceStats {
      */
     long getReceiveOperationCount();
 
-
+    /**
+     * Returns the latency distribution of publishing messages on this member in microseconds.
+     *
+     * @return the latency histogram of publishes
+     */
+    LatencyHistogram getPublishLatencyHistogram();
 }
@@ -43,4 +43,18 @@ public interface NearCacheStats extends LocalInstanceStats {
      * @return hit/miss ratio.
      */
     double getRatio();
+
+    /**
+     * Returns the number of entries evicted from this cache because it was full.
+     *
+     * @return number of evictions.
+     */
+    long getEvictions();
+
+    /**
+     * Returns the number of entries removed from this cache because they expired.
+     *
+     * @return number of expirations.
+     */
+    long getExpirations();
 }
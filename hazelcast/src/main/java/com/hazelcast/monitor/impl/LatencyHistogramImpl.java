@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.monitor.impl;
+
+import com.hazelcast.monitor.LatencyHistogram;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Fixed size, lock-free latency histogram with log-linear buckets, in the style of HdrHistogram.
+ * <p/>
+ * Latencies below {@value #SUB_BUCKET_COUNT} microseconds are recorded exactly, larger ones into buckets
+ * of at most 1/{@value #SUB_BUCKET_HALF_COUNT} relative width. Latencies above {@link #MAX_LATENCY}
+ * microseconds (a bit more than an hour) are recorded as {@link #MAX_LATENCY}.
+ * <p/>
+ * Histograms of the same operation on different members can be merged with {@link #add(LatencyHistogramImpl)}.
+ */
+public class LatencyHistogramImpl implements LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 6;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+    static final long MAX_LATENCY = (1L << 32) - 1;
+    static final int BUCKET_COUNT = bucketIndex(MAX_LATENCY) + 1;
+
+    private static final double HUNDRED = 100d;
+
+    private static final AtomicLongFieldUpdater<LatencyHistogramImpl> COUNT_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(LatencyHistogramImpl.class, "count");
+    private static final AtomicLongFieldUpdater<LatencyHistogramImpl> TOTAL_LATENCY_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(LatencyHistogramImpl.class, "totalLatency");
+    private static final AtomicLongFieldUpdater<LatencyHistogramImpl> MAX_LATENCY_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(LatencyHistogramImpl.class, "maxLatency");
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    // These fields are only accessed through the updaters
+    private volatile long count;
+    private volatile long totalLatency;
+    private volatile long maxLatency;
+
+    /**
+     * Records a latency given in microseconds.
+     */
+    public void record(long latency) {
+        final long value = Math.min(Math.max(latency, 0), MAX_LATENCY);
+        buckets.incrementAndGet(bucketIndex(value));
+        COUNT_UPDATER.incrementAndGet(this);
+        TOTAL_LATENCY_UPDATER.addAndGet(this, value);
+        updateMax(value);
+    }
+
+    /**
+     * Records a latency given in nanoseconds.
+     */
+    public void recordNanos(long latencyNanos) {
+        record(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+    }
+
+    /**
+     * Adds the latencies recorded by the given histogram to this one.
+     */
+    public void add(LatencyHistogramImpl other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            final long bucketCount = other.buckets.get(i);
+            if (bucketCount > 0) {
+                buckets.addAndGet(i, bucketCount);
+            }
+        }
+        COUNT_UPDATER.addAndGet(this, other.count);
+        TOTAL_LATENCY_UPDATER.addAndGet(this, other.totalLatency);
+        updateMax(other.maxLatency);
+    }
+
+    private void updateMax(long value) {
+        for (; ; ) {
+            final long max = maxLatency;
+            if (value <= max || MAX_LATENCY_UPDATER.compareAndSet(this, max, value)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public long getTotalLatency() {
+        return totalLatency;
+    }
+
+    @Override
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    @Override
+    public double getMeanLatency() {
+        final long c = count;
+        return c == 0 ? 0 : (double) totalLatency / c;
+    }
+
+    @Override
+    public long getLatencyAtPercentile(double percentile) {
+        final long total = count;
+        if (total == 0) {
+            return 0;
+        }
+        final double p = Math.min(Math.max(percentile, 0), HUNDRED);
+        final long target = Math.max(1, (long) Math.ceil(p / HUNDRED * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(highestValue(i), maxLatency);
+            }
+        }
+        return maxLatency;
+    }
+
+    static int bucketIndex(long value) {
+        final int shift = Math.max(0, Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return (shift << (SUB_BUCKET_BITS - 1)) + (int) (value >>> shift);
+    }
+
+    static long highestValue(int bucketIndex) {
+        final int shift = bucketIndex < SUB_BUCKET_COUNT ? 0 : (bucketIndex >>> (SUB_BUCKET_BITS - 1)) - 1;
+        final long subBucket = bucketIndex - (shift << (SUB_BUCKET_BITS - 1));
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        // buckets may be updated concurrently, so the non-empty ones are collected first
+        final int[] indexes = new int[BUCKET_COUNT];
+        final long[] counts = new long[BUCKET_COUNT];
+        int size = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            final long bucketCount = buckets.get(i);
+            if (bucketCount > 0) {
+                indexes[size] = i;
+                counts[size++] = bucketCount;
+            }
+        }
+        out.writeLong(count);
+        out.writeLong(totalLatency);
+        out.writeLong(maxLatency);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeInt(indexes[i]);
+            out.writeLong(counts[i]);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        COUNT_UPDATER.set(this, in.readLong());
+        TOTAL_LATENCY_UPDATER.set(this, in.readLong());
+        MAX_LATENCY_UPDATER.set(this, in.readLong());
+        final int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            buckets.set(in.readInt(), in.readLong());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{"
+                + "count=" + count
+                + ", mean=" + getMeanLatency()
+                + ", p50=" + getLatencyAtPercentile(50)
+                + ", p99=" + getLatencyAtPercentile(99)
+                + ", p999=" + getLatencyAtPercentile(99.9)
+                + ", max=" + maxLatency
+                + '}';
+    }
+}
@@ -22,6 +22,7 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.util.Clock;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 public class LocalExecutorStatsImpl
@@ -50,6 +51,9 @@ public class LocalExecutorStatsImpl
     private volatile long totalStartLatency;
     private volatile long totalExecutionTime;
 
+    private final LatencyHistogramImpl startLatencies = new LatencyHistogramImpl();
+    private final LatencyHistogramImpl executionLatencies = new LatencyHistogramImpl();
+
     public LocalExecutorStatsImpl() {
         creationTime = Clock.currentTimeMillis();
     }
@@ -60,12 +64,14 @@ public class LocalExecutorStatsImpl
 
     public void startExecution(long elapsed) {
         TOTAL_START_LATENCY_UPDATER.addAndGet(this, elapsed);
+        startLatencies.record(TimeUnit.MILLISECONDS.toMicros(elapsed));
         STARTED_UPDATER.incrementAndGet(this);
         PENDING_UPDATER.decrementAndGet(this);
     }
 
     public void finishExecution(long elapsed) {
         TOTAL_EXECUTION_TIME_UPDATER.addAndGet(this, elapsed);
+        executionLatencies.record(TimeUnit.MILLISECONDS.toMicros(elapsed));
         COMPLETED_UPDATER.incrementAndGet(this);
     }
 
@@ -112,6 +118,16 @@ public class LocalExecutorStatsImpl
         return totalExecutionTime;
     }
 
+    @Override
+    public LatencyHistogramImpl getStartLatencyHistogram() {
+        return startLatencies;
+    }
+
+    @Override
+    public LatencyHistogramImpl getExecutionLatencyHistogram() {
+        return executionLatencies;
+    }
+
     @Override
     public void writeData(ObjectDataOutput out)
             throws IOException {
@@ -121,6 +137,8 @@ public class LocalExecutorStatsImpl
         out.writeLong(totalStartLatency);
         out.writeLong(completed);
         out.writeLong(totalExecutionTime);
+        startLatencies.writeData(out);
+        executionLatencies.writeData(out);
     }
 
     @Override
@@ -132,5 +150,7 @@ public class LocalExecutorStatsImpl
         TOTAL_START_LATENCY_UPDATER.set(this, in.readLong());
         COMPLETED_UPDATER.set(this, in.readLong());
         TOTAL_EXECUTION_TIME_UPDATER.set(this, in.readLong());
+        startLatencies.readData(in);
+        executionLatencies.readData(in);
     }
 }
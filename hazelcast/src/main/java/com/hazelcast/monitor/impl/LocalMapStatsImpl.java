@@ -24,6 +24,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.util.Clock;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 public class LocalMapStatsImpl
@@ -45,18 +46,22 @@ public class LocalMapStatsImpl
             .newUpdater(LocalMapStatsImpl.class, "putCount");
     private static final AtomicLongFieldUpdater<LocalMapStatsImpl> REMOVE_COUNT_UPDATER = AtomicLongFieldUpdater
             .newUpdater(LocalMapStatsImpl.class, "removeCount");
-    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> TOTAL_GET_LATENCIES_UPDATER = AtomicLongFieldUpdater
-            .newUpdater(LocalMapStatsImpl.class, "totalGetLatencies");
-    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> TOTAL_PUT_LATENCIES_UPDATER = AtomicLongFieldUpdater
-            .newUpdater(LocalMapStatsImpl.class, "totalPutLatencies");
-    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> TOTAL_REMOVE_LATENCIES_UPDATER = AtomicLongFieldUpdater
-            .newUpdater(LocalMapStatsImpl.class, "totalRemoveLatencies");
-    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> MAX_GET_LATENCY_UPDATER = AtomicLongFieldUpdater
-            .newUpdater(LocalMapStatsImpl.class, "maxGetLatency");
-    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> MAX_PUT_LATENCY_UPDATER = AtomicLongFieldUpdater
-            .newUpdater(LocalMapStatsImpl.class, "maxPutLatency");
-    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> MAX_REMOVE_LATENCY_UPDATER = AtomicLongFieldUpdater
-            .newUpdater(LocalMapStatsImpl.class, "maxRemoveLatency");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> EVICTION_COUNT_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(LocalMapStatsImpl.class, "evictionCount");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> TOTAL_EVICTION_NANOS_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(LocalMapStatsImpl.class, "totalEvictionNanos");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> QUERY_COUNT_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(LocalMapStatsImpl.class, "queryCount");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> INDEXED_QUERY_COUNT_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(LocalMapStatsImpl.class, "indexedQueryCount");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> QUERY_SCANNED_ENTRY_COUNT_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(LocalMapStatsImpl.class, "queryScannedEntryCount");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> TOTAL_QUERY_NANOS_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(LocalMapStatsImpl.class, "totalQueryNanos");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> INITIAL_LOAD_KEY_COUNT_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(LocalMapStatsImpl.class, "initialLoadKeyCount");
+    private static final AtomicLongFieldUpdater<LocalMapStatsImpl> INITIAL_LOADED_ENTRY_COUNT_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(LocalMapStatsImpl.class, "initialLoadedEntryCount");
 
     // These fields are only accessed through the updaters
     private volatile long lastAccessTime;
@@ -67,12 +72,18 @@ public class LocalMapStatsImpl
     private volatile long getCount;
     private volatile long putCount;
     private volatile long removeCount;
-    private volatile long totalGetLatencies;
-    private volatile long totalPutLatencies;
-    private volatile long totalRemoveLatencies;
-    private volatile long maxGetLatency;
-    private volatile long maxPutLatency;
-    private volatile long maxRemoveLatency;
+    private volatile long evictionCount;
+    private volatile long totalEvictionNanos;
+    private volatile long queryCount;
+    private volatile long indexedQueryCount;
+    private volatile long queryScannedEntryCount;
+    private volatile long totalQueryNanos;
+    private volatile long initialLoadKeyCount;
+    private volatile long initialLoadedEntryCount;
+
+    private final LatencyHistogramImpl getLatencies = new LatencyHistogramImpl();
+    private final LatencyHistogramImpl putLatencies = new LatencyHistogramImpl();
+    private final LatencyHistogramImpl removeLatencies = new LatencyHistogramImpl();
 
     private long ownedEntryCount;
     private long backupEntryCount;
@@ -110,13 +121,18 @@ public class LocalMapStatsImpl
         out.writeLong(creationTime);
         out.writeLong(lockedEntryCount);
         out.writeLong(dirtyEntryCount);
-        out.writeLong(totalGetLatencies);
-        out.writeLong(totalPutLatencies);
-        out.writeLong(totalRemoveLatencies);
-        out.writeLong(maxGetLatency);
-        out.writeLong(maxPutLatency);
-        out.writeLong(maxRemoveLatency);
+        getLatencies.writeData(out);
+        putLatencies.writeData(out);
+        removeLatencies.writeData(out);
         out.writeLong(heapCost);
+        out.writeLong(evictionCount);
+        out.writeLong(totalEvictionNanos);
+        out.writeLong(queryCount);
+        out.writeLong(indexedQueryCount);
+        out.writeLong(queryScannedEntryCount);
+        out.writeLong(totalQueryNanos);
+        out.writeLong(initialLoadKeyCount);
+        out.writeLong(initialLoadedEntryCount);
         boolean hasNearCache = nearCacheStats != null;
         out.writeBoolean(hasNearCache);
         if (hasNearCache) {
@@ -143,13 +159,18 @@ public class LocalMapStatsImpl
         creationTime = in.readLong();
         lockedEntryCount = in.readLong();
         dirtyEntryCount = in.readLong();
-        TOTAL_GET_LATENCIES_UPDATER.set(this, in.readLong());
-        TOTAL_PUT_LATENCIES_UPDATER.set(this, in.readLong());
-        TOTAL_REMOVE_LATENCIES_UPDATER.set(this, in.readLong());
-        MAX_GET_LATENCY_UPDATER.set(this, in.readLong());
-        MAX_PUT_LATENCY_UPDATER.set(this, in.readLong());
-        MAX_REMOVE_LATENCY_UPDATER.set(this, in.readLong());
+        getLatencies.readData(in);
+        putLatencies.readData(in);
+        removeLatencies.readData(in);
         heapCost = in.readLong();
+        EVICTION_COUNT_UPDATER.set(this, in.readLong());
+        TOTAL_EVICTION_NANOS_UPDATER.set(this, in.readLong());
+        QUERY_COUNT_UPDATER.set(this, in.readLong());
+        INDEXED_QUERY_COUNT_UPDATER.set(this, in.readLong());
+        QUERY_SCANNED_ENTRY_COUNT_UPDATER.set(this, in.readLong());
+        TOTAL_QUERY_NANOS_UPDATER.set(this, in.readLong());
+        INITIAL_LOAD_KEY_COUNT_UPDATER.set(this, in.readLong());
+        INITIAL_LOADED_ENTRY_COUNT_UPDATER.set(this, in.readLong());
         boolean hasNearCache = in.readBoolean();
         if (hasNearCache) {
             nearCacheStats = new NearCacheStatsImpl();
@@ -262,10 +283,9 @@ public class LocalMapStatsImpl
         return putCount;
     }
 
-    public void incrementPuts(long latency) {
+    public void incrementPuts(long latencyNanos) {
         PUT_COUNT_UPDATER.incrementAndGet(this);
-        TOTAL_PUT_LATENCIES_UPDATER.addAndGet(this, latency);
-        MAX_PUT_LATENCY_UPDATER.set(this, Math.max(maxPutLatency, latency));
+        putLatencies.recordNanos(latencyNanos);
     }
 
     @Override
@@ -273,10 +293,9 @@ public class LocalMapStatsImpl
         return getCount;
     }
 
-    public void incrementGets(long latency) {
+    public void incrementGets(long latencyNanos) {
         GET_COUNT_UPDATER.incrementAndGet(this);
-        TOTAL_GET_LATENCIES_UPDATER.addAndGet(this, latency);
-        MAX_GET_LATENCY_UPDATER.set(this, Math.max(maxGetLatency, latency));
+        getLatencies.recordNanos(latencyNanos);
     }
 
     @Override
@@ -284,40 +303,116 @@ public class LocalMapStatsImpl
         return removeCount;
     }
 
-    public void incrementRemoves(long latency) {
+    public void incrementRemoves(long latencyNanos) {
         REMOVE_COUNT_UPDATER.incrementAndGet(this);
-        TOTAL_REMOVE_LATENCIES_UPDATER.addAndGet(this, latency);
-        MAX_REMOVE_LATENCY_UPDATER.set(this, Math.max(maxRemoveLatency, latency));
+        removeLatencies.recordNanos(latencyNanos);
     }
 
     @Override
     public long getTotalPutLatency() {
-        return totalPutLatencies;
+        return TimeUnit.MICROSECONDS.toMillis(putLatencies.getTotalLatency());
     }
 
     @Override
     public long getTotalGetLatency() {
-        return totalGetLatencies;
+        return TimeUnit.MICROSECONDS.toMillis(getLatencies.getTotalLatency());
     }
 
     @Override
     public long getTotalRemoveLatency() {
-        return totalRemoveLatencies;
+        return TimeUnit.MICROSECONDS.toMillis(removeLatencies.getTotalLatency());
     }
 
     @Override
     public long getMaxPutLatency() {
-        return maxPutLatency;
+        return TimeUnit.MICROSECONDS.toMillis(putLatencies.getMaxLatency());
     }
 
     @Override
     public long getMaxGetLatency() {
-        return maxGetLatency;
+        return TimeUnit.MICROSECONDS.toMillis(getLatencies.getMaxLatency());
     }
 
     @Override
     public long getMaxRemoveLatency() {
-        return maxRemoveLatency;
+        return TimeUnit.MICROSECONDS.toMillis(removeLatencies.getMaxLatency());
+    }
+
+    @Override
+    public LatencyHistogramImpl getPutLatencyHistogram() {
+        return putLatencies;
+    }
+
+    @Override
+    public LatencyHistogramImpl getGetLatencyHistogram() {
+        return getLatencies;
+    }
+
+    @Override
+    public LatencyHistogramImpl getRemoveLatencyHistogram() {
+        return removeLatencies;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public long getTotalEvictionTime() {
+        return TimeUnit.NANOSECONDS.toMillis(totalEvictionNanos);
+    }
+
+    public void incrementEvictions(int evicted, long elapsedNanos) {
+        EVICTION_COUNT_UPDATER.addAndGet(this, evicted);
+        TOTAL_EVICTION_NANOS_UPDATER.addAndGet(this, elapsedNanos);
+    }
+
+    @Override
+    public long getQueryCount() {
+        return queryCount;
+    }
+
+    @Override
+    public long getIndexedQueryCount() {
+        return indexedQueryCount;
+    }
+
+    @Override
+    public long getQueryScannedEntryCount() {
+        return queryScannedEntryCount;
+    }
+
+    @Override
+    public long getTotalQueryTime() {
+        return TimeUnit.NANOSECONDS.toMillis(totalQueryNanos);
+    }
+
+    public void incrementQueries(boolean indexed, long scannedEntries, long elapsedNanos) {
+        QUERY_COUNT_UPDATER.incrementAndGet(this);
+        if (indexed) {
+            INDEXED_QUERY_COUNT_UPDATER.incrementAndGet(this);
+        }
+        QUERY_SCANNED_ENTRY_COUNT_UPDATER.addAndGet(this, scannedEntries);
+        TOTAL_QUERY_NANOS_UPDATER.addAndGet(this, elapsedNanos);
+    }
+
+    @Override
+    public long getInitialLoadKeyCount() {
+        return initialLoadKeyCount;
+    }
+
+    @Override
+    public long getInitialLoadedEntryCount() {
+        return initialLoadedEntryCount;
+    }
+
+    public void incrementInitialLoadKeys(int keyCount) {
+        INITIAL_LOAD_KEY_COUNT_UPDATER.addAndGet(this, keyCount);
+    }
+
+    public void incrementInitialLoadedEntries(int entryCount) {
+        INITIAL_LOADED_ENTRY_COUNT_UPDATER.addAndGet(this, entryCount);
     }
 
     @Override
@@ -377,9 +472,9 @@ public class LocalMapStatsImpl
                 + ", getCount=" + getCount
                 + ", putCount=" + putCount
                 + ", removeCount=" + removeCount
-                + ", totalGetLatencies=" + totalGetLatencies
-                + ", totalPutLatencies=" + totalPutLatencies
-                + ", totalRemoveLatencies=" + totalRemoveLatencies
+                + ", getLatencies=" + getLatencies
+                + ", putLatencies=" + putLatencies
+                + ", removeLatencies=" + removeLatencies
                 + ", ownedEntryCount=" + ownedEntryCount
                 + ", backupEntryCount=" + backupEntryCount
                 + ", backupCount=" + backupCount
@@ -389,6 +484,14 @@ public class LocalMapStatsImpl
                 + ", lockedEntryCount=" + lockedEntryCount
                 + ", dirtyEntryCount=" + dirtyEntryCount
                 + ", heapCost=" + heapCost
+                + ", evictionCount=" + evictionCount
+                + ", totalEvictionNanos=" + totalEvictionNanos
+                + ", queryCount=" + queryCount
+                + ", indexedQueryCount=" + indexedQueryCount
+                + ", queryScannedEntryCount=" + queryScannedEntryCount
+                + ", totalQueryNanos=" + totalQueryNanos
+                + ", initialLoadKeyCount=" + initialLoadKeyCount
+                + ", initialLoadedEntryCount=" + initialLoadedEntryCount
                 + '}';
     }
 }
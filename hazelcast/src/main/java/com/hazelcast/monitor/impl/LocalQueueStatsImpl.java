@@ -55,6 +55,9 @@ public class LocalQueueStatsImpl
     private volatile long numberOfOtherOperations;
     private volatile long numberOfEvents;
 
+    private final LatencyHistogramImpl offerLatencies = new LatencyHistogramImpl();
+    private final LatencyHistogramImpl pollLatencies = new LatencyHistogramImpl();
+
     public LocalQueueStatsImpl() {
         creationTime = Clock.currentTimeMillis();
     }
@@ -74,6 +77,8 @@ public class LocalQueueStatsImpl
         out.writeLong(numberOfEmptyPolls);
         out.writeLong(numberOfOtherOperations);
         out.writeLong(numberOfEvents);
+        offerLatencies.writeData(out);
+        pollLatencies.writeData(out);
     }
 
     @Override
@@ -91,6 +96,8 @@ public class LocalQueueStatsImpl
         NUMBER_OF_EMPTY_POLLS_UPDATER.set(this, in.readLong());
         NUMBER_OF_OTHER_OPERATIONS_UPDATER.set(this, in.readLong());
         NUMBER_OF_EVENTS_UPDATER.set(this, in.readLong());
+        offerLatencies.readData(in);
+        pollLatencies.readData(in);
     }
 
     @Override
@@ -200,4 +207,22 @@ public class LocalQueueStatsImpl
     public long getEventOperationCount() {
         return numberOfEvents;
     }
+
+    public void recordOfferLatency(long latencyNanos) {
+        offerLatencies.recordNanos(latencyNanos);
+    }
+
+    public void recordPollLatency(long latencyNanos) {
+        pollLatencies.recordNanos(latencyNanos);
+    }
+
+    @Override
+    public LatencyHistogramImpl getOfferLatencyHistogram() {
+        return offerLatencies;
+    }
+
+    @Override
+    public LatencyHistogramImpl getPollLatencyHistogram() {
+        return pollLatencies;
+    }
 }
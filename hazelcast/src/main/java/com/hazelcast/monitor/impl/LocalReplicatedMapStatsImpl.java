@@ -24,6 +24,7 @@ import com.hazelcast.replicatedmap.operation.ReplicatedMapDataSerializerHook;
 import com.hazelcast.util.Clock;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 /**
@@ -46,24 +47,16 @@ public class LocalReplicatedMapStatsImpl
             .newUpdater(LocalReplicatedMapStatsImpl.class, "numberOfEvents");
     private static final AtomicLongFieldUpdater<LocalReplicatedMapStatsImpl> NUMBER_OF_REPLICATION_EVENTS_UPDATER = AtomicLongFieldUpdater
             .newUpdater(LocalReplicatedMapStatsImpl.class, "numberOfReplicationEvents");
+    private static final AtomicLongFieldUpdater<LocalReplicatedMapStatsImpl> SENT_REPLICATION_EVENTS_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(LocalReplicatedMapStatsImpl.class, "sentReplicationEvents");
+    private static final AtomicLongFieldUpdater<LocalReplicatedMapStatsImpl> COALESCED_REPLICATION_EVENTS_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(LocalReplicatedMapStatsImpl.class, "coalescedReplicationEvents");
     private static final AtomicLongFieldUpdater<LocalReplicatedMapStatsImpl> GET_COUNT_UPDATER = AtomicLongFieldUpdater
             .newUpdater(LocalReplicatedMapStatsImpl.class, "getCount");
     private static final AtomicLongFieldUpdater<LocalReplicatedMapStatsImpl> PUT_COUNT_UPDATER = AtomicLongFieldUpdater
             .newUpdater(LocalReplicatedMapStatsImpl.class, "putCount");
     private static final AtomicLongFieldUpdater<LocalReplicatedMapStatsImpl> REMOVE_COUNT_UPDATER = AtomicLongFieldUpdater
             .newUpdater(LocalReplicatedMapStatsImpl.class, "removeCount");
-    private static final AtomicLongFieldUpdater<LocalReplicatedMapStatsImpl> TOTAL_GET_LATENCIES_UPDATER = AtomicLongFieldUpdater
-            .newUpdater(LocalReplicatedMapStatsImpl.class, "totalGetLatencies");
-    private static final AtomicLongFieldUpdater<LocalReplicatedMapStatsImpl> TOTAL_PUT_LATENCIES_UPDATER = AtomicLongFieldUpdater
-            .newUpdater(LocalReplicatedMapStatsImpl.class, "totalPutLatencies");
-    private static final AtomicLongFieldUpdater<LocalReplicatedMapStatsImpl> TOTAL_REMOVE_LATENCIES_UPDATER = AtomicLongFieldUpdater
-            .newUpdater(LocalReplicatedMapStatsImpl.class, "totalRemoveLatencies");
-    private static final AtomicLongFieldUpdater<LocalReplicatedMapStatsImpl> MAX_GET_LATENCY_UPDATER = AtomicLongFieldUpdater
-            .newUpdater(LocalReplicatedMapStatsImpl.class, "maxGetLatency");
-    private static final AtomicLongFieldUpdater<LocalReplicatedMapStatsImpl> MAX_PUT_LATENCY_UPDATER = AtomicLongFieldUpdater
-            .newUpdater(LocalReplicatedMapStatsImpl.class, "maxPutLatency");
-    private static final AtomicLongFieldUpdater<LocalReplicatedMapStatsImpl> MAX_REMOVE_LATENCY_UPDATER = AtomicLongFieldUpdater
-            .newUpdater(LocalReplicatedMapStatsImpl.class, "maxRemoveLatency");
     //CHECKSTYLE:ON
 
     // These fields are only accessed through the updaters
@@ -73,15 +66,18 @@ public class LocalReplicatedMapStatsImpl
     private volatile long numberOfOtherOperations;
     private volatile long numberOfEvents;
     private volatile long numberOfReplicationEvents;
+    private volatile long sentReplicationEvents;
+    private volatile long coalescedReplicationEvents;
     private volatile long getCount;
     private volatile long putCount;
     private volatile long removeCount;
-    private volatile long totalGetLatencies;
-    private volatile long totalPutLatencies;
-    private volatile long totalRemoveLatencies;
-    private volatile long maxGetLatency;
-    private volatile long maxPutLatency;
-    private volatile long maxRemoveLatency;
+
+    private final LatencyHistogramImpl getLatencies = new LatencyHistogramImpl();
+    private final LatencyHistogramImpl putLatencies = new LatencyHistogramImpl();
+    private final LatencyHistogramImpl removeLatencies = new LatencyHistogramImpl();
+    private final LatencyHistogramImpl replicationLags = new LatencyHistogramImpl();
+
+    private volatile long pendingReplicationEvents;
 
     private long ownedEntryCount;
     private long creationTime;
@@ -104,12 +100,13 @@ public class LocalReplicatedMapStatsImpl
         out.writeLong(hits);
         out.writeLong(ownedEntryCount);
         out.writeLong(creationTime);
-        out.writeLong(totalGetLatencies);
-        out.writeLong(totalPutLatencies);
-        out.writeLong(totalRemoveLatencies);
-        out.writeLong(maxGetLatency);
-        out.writeLong(maxPutLatency);
-        out.writeLong(maxRemoveLatency);
+        getLatencies.writeData(out);
+        putLatencies.writeData(out);
+        removeLatencies.writeData(out);
+        out.writeLong(sentReplicationEvents);
+        out.writeLong(coalescedReplicationEvents);
+        out.writeLong(pendingReplicationEvents);
+        replicationLags.writeData(out);
     }
 
     @Override
@@ -126,12 +123,13 @@ public class LocalReplicatedMapStatsImpl
         HITS_UPDATER.set(this, in.readLong());
         ownedEntryCount = in.readLong();
         creationTime = in.readLong();
-        TOTAL_GET_LATENCIES_UPDATER.set(this, in.readLong());
-        TOTAL_PUT_LATENCIES_UPDATER.set(this, in.readLong());
-        TOTAL_REMOVE_LATENCIES_UPDATER.set(this, in.readLong());
-        MAX_GET_LATENCY_UPDATER.set(this, in.readLong());
-        MAX_PUT_LATENCY_UPDATER.set(this, in.readLong());
-        MAX_REMOVE_LATENCY_UPDATER.set(this, in.readLong());
+        getLatencies.readData(in);
+        putLatencies.readData(in);
+        removeLatencies.readData(in);
+        SENT_REPLICATION_EVENTS_UPDATER.set(this, in.readLong());
+        COALESCED_REPLICATION_EVENTS_UPDATER.set(this, in.readLong());
+        pendingReplicationEvents = in.readLong();
+        replicationLags.readData(in);
     }
 
     @Override
@@ -238,10 +236,9 @@ public class LocalReplicatedMapStatsImpl
         return putCount;
     }
 
-    public void incrementPuts(long latency) {
+    public void incrementPuts(long latencyNanos) {
         PUT_COUNT_UPDATER.incrementAndGet(this);
-        TOTAL_PUT_LATENCIES_UPDATER.addAndGet(this, latency);
-        MAX_PUT_LATENCY_UPDATER.set(this, Math.max(maxPutLatency, latency));
+        putLatencies.recordNanos(latencyNanos);
     }
 
     @Override
@@ -249,10 +246,9 @@ public class LocalReplicatedMapStatsImpl
         return getCount;
     }
 
-    public void incrementGets(long latency) {
+    public void incrementGets(long latencyNanos) {
         GET_COUNT_UPDATER.incrementAndGet(this);
-        TOTAL_GET_LATENCIES_UPDATER.addAndGet(this, latency);
-        MAX_GET_LATENCY_UPDATER.set(this, Math.max(maxGetLatency, latency));
+        getLatencies.recordNanos(latencyNanos);
     }
 
     @Override
@@ -260,40 +256,54 @@ public class LocalReplicatedMapStatsImpl
         return removeCount;
     }
 
-    public void incrementRemoves(long latency) {
+    public void incrementRemoves(long latencyNanos) {
         REMOVE_COUNT_UPDATER.incrementAndGet(this);
-        TOTAL_REMOVE_LATENCIES_UPDATER.addAndGet(this, latency);
-        MAX_REMOVE_LATENCY_UPDATER.set(this, Math.max(maxRemoveLatency, latency));
+        removeLatencies.recordNanos(latencyNanos);
     }
 
     @Override
     public long getTotalPutLatency() {
-        return totalPutLatencies;
+        return TimeUnit.MICROSECONDS.toMillis(putLatencies.getTotalLatency());
     }
 
     @Override
     public long getTotalGetLatency() {
-        return totalGetLatencies;
+        return TimeUnit.MICROSECONDS.toMillis(getLatencies.getTotalLatency());
     }
 
     @Override
     public long getTotalRemoveLatency() {
-        return totalRemoveLatencies;
+        return TimeUnit.MICROSECONDS.toMillis(removeLatencies.getTotalLatency());
     }
 
     @Override
     public long getMaxPutLatency() {
-        return maxPutLatency;
+        return TimeUnit.MICROSECONDS.toMillis(putLatencies.getMaxLatency());
     }
 
     @Override
     public long getMaxGetLatency() {
-        return maxGetLatency;
+        return TimeUnit.MICROSECONDS.toMillis(getLatencies.getMaxLatency());
     }
 
     @Override
     public long getMaxRemoveLatency() {
-        return maxRemoveLatency;
+        return TimeUnit.MICROSECONDS.toMillis(removeLatencies.getMaxLatency());
+    }
+
+    @Override
+    public LatencyHistogramImpl getPutLatencyHistogram() {
+        return putLatencies;
+    }
+
+    @Override
+    public LatencyHistogramImpl getGetLatencyHistogram() {
+        return getLatencies;
+    }
+
+    @Override
+    public LatencyHistogramImpl getRemoveLatencyHistogram() {
+        return removeLatencies;
     }
 
     @Override
@@ -323,6 +333,84 @@ public class LocalReplicatedMapStatsImpl
         NUMBER_OF_REPLICATION_EVENTS_UPDATER.incrementAndGet(this);
     }
 
+    @Override
+    public long getSentReplicationEventCount() {
+        return sentReplicationEvents;
+    }
+
+    public void incrementSentReplicationEvents(int count) {
+        SENT_REPLICATION_EVENTS_UPDATER.addAndGet(this, count);
+    }
+
+    @Override
+    public long getCoalescedReplicationEventCount() {
+        return coalescedReplicationEvents;
+    }
+
+    public void incrementCoalescedReplicationEvents() {
+        COALESCED_REPLICATION_EVENTS_UPDATER.incrementAndGet(this);
+    }
+
+    @Override
+    public long getPendingReplicationEventCount() {
+        return pendingReplicationEvents;
+    }
+
+    public void setPendingReplicationEventCount(long pendingReplicationEvents) {
+        this.pendingReplicationEvents = pendingReplicationEvents;
+    }
+
+    @Override
+    public LatencyHistogramImpl getReplicationLagHistogram() {
+        return replicationLags;
+    }
+
+    public void recordReplicationLag(long lagNanos) {
+        replicationLags.recordNanos(lagNanos);
+    }
+
+    // Replicated map has no max size eviction and no queries, so the following are always zero
+
+    @Override
+    public long getEvictionCount() {
+        return 0;
+    }
+
+    @Override
+    public long getTotalEvictionTime() {
+        return 0;
+    }
+
+    @Override
+    public long getQueryCount() {
+        return 0;
+    }
+
+    @Override
+    public long getIndexedQueryCount() {
+        return 0;
+    }
+
+    @Override
+    public long getQueryScannedEntryCount() {
+        return 0;
+    }
+
+    @Override
+    public long getTotalQueryTime() {
+        return 0;
+    }
+
+    @Override
+    public long getInitialLoadKeyCount() {
+        return 0;
+    }
+
+    @Override
+    public long getInitialLoadedEntryCount() {
+        return 0;
+    }
+
     //todo: unused
     public void setHeapCost(long heapCost) {
     }
@@ -340,9 +428,11 @@ public class LocalReplicatedMapStatsImpl
     public String toString() {
         return "LocalReplicatedMapStatsImpl{" + "lastAccessTime=" + lastAccessTime + ", lastUpdateTime=" + lastUpdateTime
                 + ", hits=" + hits + ", numberOfOtherOperations=" + numberOfOtherOperations + ", numberOfEvents=" + numberOfEvents
-                + ", numberOfReplicationEvents=" + numberOfReplicationEvents + ", getCount=" + getCount + ", putCount=" + putCount
-                + ", removeCount=" + removeCount + ", totalGetLatencies=" + totalGetLatencies + ", totalPutLatencies="
-                + totalPutLatencies + ", totalRemoveLatencies=" + totalRemoveLatencies + ", ownedEntryCount=" + ownedEntryCount
+                + ", numberOfReplicationEvents=" + numberOfReplicationEvents + ", sentReplicationEvents=" + sentReplicationEvents
+                + ", coalescedReplicationEvents=" + coalescedReplicationEvents + ", pendingReplicationEvents="
+                + pendingReplicationEvents + ", replicationLags=" + replicationLags + ", getCount=" + getCount + ", putCount=" + putCount
+                + ", removeCount=" + removeCount + ", getLatencies=" + getLatencies + ", putLatencies="
+                + putLatencies + ", removeLatencies=" + removeLatencies + ", ownedEntryCount=" + ownedEntryCount
                 + ", creationTime=" + creationTime + '}';
     }
 
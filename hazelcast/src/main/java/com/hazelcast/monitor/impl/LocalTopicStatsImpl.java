@@ -38,6 +38,8 @@ public class LocalTopicStatsImpl
     private volatile long totalPublishes;
     private volatile long totalReceivedMessages;
 
+    private final LatencyHistogramImpl publishLatencies = new LatencyHistogramImpl();
+
     public LocalTopicStatsImpl() {
         creationTime = Clock.currentTimeMillis();
     }
@@ -48,6 +50,7 @@ public class LocalTopicStatsImpl
         out.writeLong(creationTime);
         out.writeLong(totalPublishes);
         out.writeLong(totalReceivedMessages);
+        publishLatencies.writeData(out);
     }
 
     @Override
@@ -56,6 +59,7 @@ public class LocalTopicStatsImpl
         creationTime = in.readLong();
         TOTAL_PUBLISHES_UPDATER.set(this, in.readLong());
         TOTAL_RECEIVED_MESSAGES_UPDATER.set(this, in.readLong());
+        publishLatencies.readData(in);
     }
 
     @Override
@@ -81,4 +85,12 @@ public class LocalTopicStatsImpl
         TOTAL_RECEIVED_MESSAGES_UPDATER.incrementAndGet(this);
     }
 
+    public void recordPublishLatency(long latencyNanos) {
+        publishLatencies.recordNanos(latencyNanos);
+    }
+
+    @Override
+    public LatencyHistogramImpl getPublishLatencyHistogram() {
+        return publishLatencies;
+    }
 }
@@ -15,6 +15,10 @@ public class NearCacheStatsImpl
             .newUpdater(NearCacheStatsImpl.class, "hits");
     private static final AtomicLongFieldUpdater<NearCacheStatsImpl> MISSES_UPDATER = AtomicLongFieldUpdater
             .newUpdater(NearCacheStatsImpl.class, "misses");
+    private static final AtomicLongFieldUpdater<NearCacheStatsImpl> EVICTIONS_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(NearCacheStatsImpl.class, "evictions");
+    private static final AtomicLongFieldUpdater<NearCacheStatsImpl> EXPIRATIONS_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(NearCacheStatsImpl.class, "expirations");
 
     private long ownedEntryCount;
     private long ownedEntryMemoryCost;
@@ -23,6 +27,8 @@ public class NearCacheStatsImpl
     // These fields are only accessed through the updaters
     private volatile long hits;
     private volatile long misses;
+    private volatile long evictions;
+    private volatile long expirations;
 
     public NearCacheStatsImpl() {
         this.creationTime = Clock.currentTimeMillis();
@@ -79,6 +85,24 @@ public class NearCacheStatsImpl
         HITS_UPDATER.incrementAndGet(this);
     }
 
+    @Override
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void incrementEvictions() {
+        EVICTIONS_UPDATER.incrementAndGet(this);
+    }
+
+    @Override
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public void incrementExpirations() {
+        EXPIRATIONS_UPDATER.incrementAndGet(this);
+    }
+
     @Override
     public void writeData(ObjectDataOutput out)
             throws IOException {
@@ -86,6 +110,8 @@ public class NearCacheStatsImpl
         out.writeLong(ownedEntryMemoryCost);
         out.writeLong(hits);
         out.writeLong(misses);
+        out.writeLong(evictions);
+        out.writeLong(expirations);
     }
 
     @Override
@@ -95,6 +121,8 @@ public class NearCacheStatsImpl
         this.ownedEntryMemoryCost = in.readLong();
         HITS_UPDATER.set(this, in.readLong());
         MISSES_UPDATER.set(this, in.readLong());
+        EVICTIONS_UPDATER.set(this, in.readLong());
+        EXPIRATIONS_UPDATER.set(this, in.readLong());
     }
 
     @Override
@@ -106,6 +134,8 @@ public class NearCacheStatsImpl
                 + ", hits=" + hits
                 + ", misses=" + misses
                 + ", ratio=" + getRatio()
+                + ", evictions=" + evictions
+                + ", expirations=" + expirations
                 + '}';
     }
 
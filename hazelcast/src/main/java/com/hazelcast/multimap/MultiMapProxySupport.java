@@ -294,17 +294,17 @@ public abstract class MultiMapProxySupport extends AbstractDistributedObject<Mul
             Future f;
             Object o;
             if (config.isStatisticsEnabled()) {
-                long time = System.currentTimeMillis();
+                long time = System.nanoTime();
                 f = nodeEngine.getOperationService()
                         .invokeOnPartition(MultiMapService.SERVICE_NAME, operation, partitionId);
                 o = f.get();
                 if (operation instanceof PutOperation) {
                     //TODO @ali should we remove statics from operations ?
-                    getService().getLocalMultiMapStatsImpl(name).incrementPuts(System.currentTimeMillis() - time);
+                    getService().getLocalMultiMapStatsImpl(name).incrementPuts(System.nanoTime() - time);
                 } else if (operation instanceof RemoveOperation || operation instanceof RemoveAllOperation) {
-                    getService().getLocalMultiMapStatsImpl(name).incrementRemoves(System.currentTimeMillis() - time);
+                    getService().getLocalMultiMapStatsImpl(name).incrementRemoves(System.nanoTime() - time);
                 } else if (operation instanceof GetAllOperation) {
-                    getService().getLocalMultiMapStatsImpl(name).incrementGets(System.currentTimeMillis() - time);
+                    getService().getLocalMultiMapStatsImpl(name).incrementGets(System.nanoTime() - time);
                 }
             } else {
                 f = nodeEngine.getOperationService()
@@ -24,6 +24,7 @@ import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.OperationService;
 import com.hazelcast.transaction.impl.KeyAwareTransactionLog;
+import com.hazelcast.transaction.impl.PartitionAwareTransactionLog;
 import com.hazelcast.util.ExceptionUtil;
 import java.io.IOException;
 import java.util.Collection;
@@ -32,7 +33,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.Future;
 
-public class MultiMapTransactionLog implements KeyAwareTransactionLog {
+public class MultiMapTransactionLog implements KeyAwareTransactionLog, PartitionAwareTransactionLog {
 
     String name;
     final List<Operation> opList = new LinkedList<Operation>();
@@ -53,38 +54,46 @@ public class MultiMapTransactionLog implements KeyAwareTransactionLog {
     }
 
     public Future prepare(NodeEngine nodeEngine) {
-        TxnPrepareOperation operation = new TxnPrepareOperation(name, key, ttl, threadId);
-        try {
-            int partitionId = nodeEngine.getPartitionService().getPartitionId(key);
-            final OperationService operationService = nodeEngine.getOperationService();
-            return operationService.invokeOnPartition(MultiMapService.SERVICE_NAME, operation, partitionId);
-        } catch (Throwable t) {
-            throw ExceptionUtil.rethrow(t);
-        }
+        return invoke(nodeEngine, createPrepareOperation());
     }
 
     public Future commit(NodeEngine nodeEngine) {
-        TxnCommitOperation operation = new TxnCommitOperation(name, key, threadId, txVersion, opList);
-        try {
-            int partitionId = nodeEngine.getPartitionService().getPartitionId(key);
-            final OperationService operationService = nodeEngine.getOperationService();
-            return operationService.invokeOnPartition(MultiMapService.SERVICE_NAME, operation, partitionId);
-        } catch (Throwable t) {
-            throw ExceptionUtil.rethrow(t);
-        }
+        return invoke(nodeEngine, createCommitOperation());
     }
 
     public Future rollback(NodeEngine nodeEngine) {
-        TxnRollbackOperation operation = new TxnRollbackOperation(name, key, threadId);
+        return invoke(nodeEngine, createRollbackOperation());
+    }
+
+    private Future invoke(NodeEngine nodeEngine, Operation operation) {
         try {
-            int partitionId = nodeEngine.getPartitionService().getPartitionId(key);
             final OperationService operationService = nodeEngine.getOperationService();
-            return operationService.invokeOnPartition(MultiMapService.SERVICE_NAME, operation, partitionId);
+            return operationService.invokeOnPartition(MultiMapService.SERVICE_NAME, operation, getPartitionId(nodeEngine));
         } catch (Throwable t) {
             throw ExceptionUtil.rethrow(t);
         }
     }
 
+    public String getServiceName() {
+        return MultiMapService.SERVICE_NAME;
+    }
+
+    public int getPartitionId(NodeEngine nodeEngine) {
+        return nodeEngine.getPartitionService().getPartitionId(key);
+    }
+
+    public Operation createPrepareOperation() {
+        return new TxnPrepareOperation(name, key, ttl, threadId);
+    }
+
+    public Operation createCommitOperation() {
+        return new TxnCommitOperation(name, key, threadId, txVersion, opList);
+    }
+
+    public Operation createRollbackOperation() {
+        return new TxnRollbackOperation(name, key, threadId);
+    }
+
     public void writeData(ObjectDataOutput out) throws IOException {
         out.writeUTF(name);
         out.writeInt(opList.size());
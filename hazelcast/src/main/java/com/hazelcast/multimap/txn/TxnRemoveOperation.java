@@ -28,7 +28,6 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.BackupAwareOperation;
 import com.hazelcast.spi.Operation;
-import com.hazelcast.util.Clock;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Iterator;
@@ -49,7 +48,7 @@ public class TxnRemoveOperation extends MultiMapKeyBasedOperation implements Bac
     }
 
     public void run() throws Exception {
-        begin = Clock.currentTimeMillis();
+        begin = System.nanoTime();
         MultiMapContainer container = getOrCreateContainer();
         MultiMapWrapper wrapper = container.getMultiMapWrapper(dataKey);
         response = true;
@@ -71,7 +70,7 @@ public class TxnRemoveOperation extends MultiMapKeyBasedOperation implements Bac
     }
 
     public void afterRun() throws Exception {
-        long elapsed = Math.max(0, Clock.currentTimeMillis() - begin);
+        long elapsed = Math.max(0, System.nanoTime() - begin);
         final MultiMapService service = getService();
         service.getLocalMultiMapStatsImpl(name).incrementRemoves(elapsed);
         if (Boolean.TRUE.equals(response)) {
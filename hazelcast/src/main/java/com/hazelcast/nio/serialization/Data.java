@@ -44,6 +44,14 @@ public final class Data implements IdentifiedDataSerializable {
         this.buffer = bytes;
     }
 
+    @edu.umd.cs.findbugs.annotations.SuppressWarnings("EI_EXPOSE_REP2")
+    public Data(int type, byte[] bytes, int partitionHash, ClassDefinition classDefinition) {
+        this.type = type;
+        this.buffer = bytes;
+        this.partitionHash = partitionHash;
+        this.classDefinition = classDefinition;
+    }
+
     public void postConstruct(PortableContext context) {
         if (classDefinition != null && classDefinition instanceof BinaryClassDefinitionProxy) {
             try {
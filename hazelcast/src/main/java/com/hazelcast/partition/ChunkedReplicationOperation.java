@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.partition;
+
+import com.hazelcast.spi.Operation;
+
+/**
+ * Implemented by replication operations which can transfer the bulk of their data as a stream of
+ * bounded chunks during partition migration, instead of carrying all of it themselves.
+ * <p/>
+ * The migration source sends every chunk to the destination, with a bounded number of chunks in flight,
+ * before it sends the migration operation. Once the first chunk has been requested the replication
+ * operation no longer carries the chunked data. If chunks are never requested, for example during
+ * backup replica synchronization, the operation carries all of its data as usual.
+ */
+public interface ChunkedReplicationOperation {
+
+    /**
+     * Returns the next chunk of data to be run on the migration destination.
+     *
+     * @return the next chunk operation, or <tt>null</tt> if all data has been chunked already
+     */
+    Operation nextChunk();
+
+    /**
+     * Returns the operation to run on the migration destination when the migration fails after chunks have
+     * been sent, so the destination drops the chunks it has received.
+     *
+     * @return the discard operation, or <tt>null</tt> if no chunk has been requested
+     */
+    Operation discardChunks();
+}
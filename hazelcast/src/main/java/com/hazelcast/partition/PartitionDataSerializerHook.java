@@ -20,6 +20,7 @@ import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.DataSerializerHook;
 import com.hazelcast.nio.serialization.FactoryIdHelper;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.partition.client.ClientPartitionTableEvent;
 import com.hazelcast.partition.client.PartitionsResponse;
 
 public final class PartitionDataSerializerHook implements DataSerializerHook {
@@ -27,6 +28,7 @@ public final class PartitionDataSerializerHook implements DataSerializerHook {
     public static final int F_ID = FactoryIdHelper.getFactoryId(FactoryIdHelper.PARTITION_DS_FACTORY, -2);
 
     public static final int PARTITIONS = 2;
+    public static final int PARTITION_TABLE_EVENT = 3;
 
     @Override
     public int getFactoryId() {
@@ -41,6 +43,8 @@ public final class PartitionDataSerializerHook implements DataSerializerHook {
                 switch (typeId) {
                     case PARTITIONS:
                         return new PartitionsResponse();
+                    case PARTITION_TABLE_EVENT:
+                        return new ClientPartitionTableEvent();
                     default:
                         return null;
                 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.partition.client;
+
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.partition.PartitionDataSerializerHook;
+
+import java.io.IOException;
+
+/**
+ * Partition owner changes pushed to clients which registered a partition listener.
+ * <p/>
+ * Versions are local to the publishing member, identified by {@link #getMemberUuid()}.
+ * A delta moves the partition table from {@link #getFromVersion()} to {@link #getVersion()};
+ * a full table has no from-version and lists the owners of all partitions.
+ */
+//This is an internal structure, so doesn't matter if we expose arrays.
+@edu.umd.cs.findbugs.annotations.SuppressWarnings("EI_EXPOSE_REP")
+public final class ClientPartitionTableEvent implements IdentifiedDataSerializable {
+
+    public static final int FULL_TABLE = -1;
+
+    private String memberUuid;
+    private int fromVersion;
+    private int version;
+    private int[] partitionIds;
+    private Address[] owners;
+
+    public ClientPartitionTableEvent() {
+    }
+
+    public ClientPartitionTableEvent(String memberUuid, int fromVersion, int version,
+                                     int[] partitionIds, Address[] owners) {
+        this.memberUuid = memberUuid;
+        this.fromVersion = fromVersion;
+        this.version = version;
+        this.partitionIds = partitionIds;
+        this.owners = owners;
+    }
+
+    public String getMemberUuid() {
+        return memberUuid;
+    }
+
+    public int getFromVersion() {
+        return fromVersion;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public boolean isFullTable() {
+        return fromVersion == FULL_TABLE;
+    }
+
+    public int[] getPartitionIds() {
+        return partitionIds;
+    }
+
+    /**
+     * @return owners of the partitions returned by {@link #getPartitionIds()}, an owner is null
+     * while the partition is not assigned yet
+     */
+    public Address[] getOwners() {
+        return owners;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return PartitionDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getId() {
+        return PartitionDataSerializerHook.PARTITION_TABLE_EVENT;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeUTF(memberUuid);
+        out.writeInt(fromVersion);
+        out.writeInt(version);
+        out.writeInt(partitionIds.length);
+        for (int i = 0; i < partitionIds.length; i++) {
+            out.writeInt(partitionIds[i]);
+            Address owner = owners[i];
+            out.writeBoolean(owner != null);
+            if (owner != null) {
+                owner.writeData(out);
+            }
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        memberUuid = in.readUTF();
+        fromVersion = in.readInt();
+        version = in.readInt();
+        int len = in.readInt();
+        partitionIds = new int[len];
+        owners = new Address[len];
+        for (int i = 0; i < len; i++) {
+            partitionIds[i] = in.readInt();
+            if (in.readBoolean()) {
+                Address owner = new Address();
+                owner.readData(in);
+                owners[i] = owner;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ClientPartitionTableEvent{memberUuid=" + memberUuid + ", fromVersion=" + fromVersion
+                + ", version=" + version + ", changes=" + partitionIds.length + '}';
+    }
+}
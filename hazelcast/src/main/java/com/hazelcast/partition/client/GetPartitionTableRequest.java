@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.partition.client;
+
+import com.hazelcast.client.CallableClientRequest;
+import com.hazelcast.client.ClientPortableHook;
+import com.hazelcast.client.RetryableRequest;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.partition.InternalPartitionService;
+import com.hazelcast.partition.impl.InternalPartitionServiceImpl;
+
+import java.security.Permission;
+
+/**
+ * Returns the full partition table of the member it is sent to as a {@link ClientPartitionTableEvent},
+ * so that its version can be compared with the changes pushed by that member.
+ * Clients only send it to members they registered a partition listener on.
+ */
+public final class GetPartitionTableRequest extends CallableClientRequest implements Portable, RetryableRequest {
+
+    @Override
+    public Object call() throws Exception {
+        InternalPartitionServiceImpl service = getService();
+        service.firstArrangement();
+        return service.getClientPartitionListenerService().createPartitionTable();
+    }
+
+    @Override
+    public String getServiceName() {
+        return InternalPartitionService.SERVICE_NAME;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return ClientPortableHook.ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return ClientPortableHook.PARTITION_TABLE;
+    }
+
+    @Override
+    public Permission getRequiredPermission() {
+        return null;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.partition.impl;
+
+import com.hazelcast.client.ClientEndpoint;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Address;
+import com.hazelcast.partition.InternalPartition;
+import com.hazelcast.partition.client.ClientPartitionTableEvent;
+import com.hazelcast.spi.ExecutionService;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.util.UuidUtil;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes partition owner changes of this member's partition table to the clients which
+ * registered a partition listener on this member.
+ * <p/>
+ * Owner changes are coalesced: the first change schedules a publish on the async executor,
+ * which sends a single versioned delta with all the changes since the previous one.
+ */
+public final class ClientPartitionListenerService {
+
+    private final NodeEngine nodeEngine;
+    private final InternalPartition[] partitions;
+    private final ILogger logger;
+
+    private final ConcurrentMap<String, ClientListener> listeners = new ConcurrentHashMap<String, ClientListener>();
+    private final AtomicBoolean publishScheduled = new AtomicBoolean();
+    private final Runnable publishTask = new PublishTask();
+
+    // guarded by this
+    private final Address[] owners;
+    // guarded by this
+    private int version;
+
+    ClientPartitionListenerService(NodeEngine nodeEngine, InternalPartition[] partitions, ILogger logger) {
+        this.nodeEngine = nodeEngine;
+        this.partitions = partitions;
+        this.logger = logger;
+        this.owners = new Address[partitions.length];
+    }
+
+    /**
+     * Registers a client listener. The current partition table is sent to the listener right away,
+     * followed by the deltas of the later changes.
+     *
+     * @return the registration id
+     */
+    public String addListener(ClientEndpoint endpoint, int callId) {
+        String registrationId = UuidUtil.buildRandomUuidString();
+        ClientListener listener = new ClientListener(endpoint, callId);
+        listeners.put(registrationId, listener);
+        listener.send(createPartitionTable());
+        return registrationId;
+    }
+
+    /**
+     * Removes a client listener, called when the client disconnects.
+     *
+     * @return true if the listener was registered
+     */
+    public boolean removeListener(String registrationId) {
+        return listeners.remove(registrationId) != null;
+    }
+
+    public int getListenerCount() {
+        return listeners.size();
+    }
+
+    /**
+     * Returns the full partition table together with its version. Changes which were not
+     * published yet are published first, so that the table and the version are consistent.
+     */
+    public ClientPartitionTableEvent createPartitionTable() {
+        ClientPartitionTableEvent delta;
+        ClientPartitionTableEvent table;
+        synchronized (this) {
+            delta = collectChanges();
+            int[] partitionIds = new int[owners.length];
+            for (int partitionId = 0; partitionId < partitionIds.length; partitionId++) {
+                partitionIds[partitionId] = partitionId;
+            }
+            table = new ClientPartitionTableEvent(getMemberUuid(), ClientPartitionTableEvent.FULL_TABLE, version,
+                    partitionIds, owners.clone());
+        }
+        if (delta != null) {
+            publish(delta);
+        }
+        return table;
+    }
+
+    void onPartitionOwnerChanged() {
+        if (publishScheduled.compareAndSet(false, true)) {
+            try {
+                nodeEngine.getExecutionService().execute(ExecutionService.ASYNC_EXECUTOR, publishTask);
+            } catch (RejectedExecutionException e) {
+                publishScheduled.set(false);
+                logger.finest("Could not publish partition table changes to clients", e);
+            }
+        }
+    }
+
+    // must be called under the lock of this
+    private ClientPartitionTableEvent collectChanges() {
+        List<Integer> changedPartitions = new ArrayList<Integer>();
+        for (int partitionId = 0; partitionId < partitions.length; partitionId++) {
+            Address owner = partitions[partitionId].getOwnerOrNull();
+            Address previousOwner = owners[partitionId];
+            if (owner == null ? previousOwner != null : !owner.equals(previousOwner)) {
+                owners[partitionId] = owner;
+                changedPartitions.add(partitionId);
+            }
+        }
+        if (changedPartitions.isEmpty()) {
+            return null;
+        }
+        int[] partitionIds = new int[changedPartitions.size()];
+        Address[] changedOwners = new Address[partitionIds.length];
+        for (int i = 0; i < partitionIds.length; i++) {
+            partitionIds[i] = changedPartitions.get(i);
+            changedOwners[i] = owners[partitionIds[i]];
+        }
+        int fromVersion = version++;
+        return new ClientPartitionTableEvent(getMemberUuid(), fromVersion, version, partitionIds, changedOwners);
+    }
+
+    private void publish(ClientPartitionTableEvent event) {
+        Iterator<ClientListener> iterator = listeners.values().iterator();
+        while (iterator.hasNext()) {
+            ClientListener listener = iterator.next();
+            if (!listener.endpoint.live()) {
+                iterator.remove();
+                continue;
+            }
+            listener.send(event);
+        }
+    }
+
+    private String getMemberUuid() {
+        return nodeEngine.getLocalMember().getUuid();
+    }
+
+    private final class PublishTask implements Runnable {
+        @Override
+        public void run() {
+            publishScheduled.set(false);
+            ClientPartitionTableEvent delta;
+            synchronized (ClientPartitionListenerService.this) {
+                delta = collectChanges();
+            }
+            if (delta != null) {
+                publish(delta);
+            }
+        }
+    }
+
+    private static final class ClientListener {
+        final ClientEndpoint endpoint;
+        final int callId;
+
+        ClientListener(ClientEndpoint endpoint, int callId) {
+            this.endpoint = endpoint;
+            this.callId = callId;
+        }
+
+        void send(ClientPartitionTableEvent event) {
+            endpoint.sendEvent(event, callId);
+        }
+    }
+}
@@ -104,6 +104,8 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
     private final PartitionServiceProxy proxy;
     private final Lock lock = new ReentrantLock();
     private final AtomicInteger stateVersion = new AtomicInteger();
+
+    private final ClientPartitionListenerService clientPartitionListenerService;
     private final BlockingQueue<Runnable> migrationQueue = new LinkedBlockingQueue<Runnable>();
     private final AtomicBoolean migrationActive = new AtomicBoolean(true);
     private final AtomicLong lastRepartitionTime = new AtomicLong();
@@ -137,6 +139,7 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
         for (int i = 0; i < replicaVersions.length; i++) {
             replicaVersions[i] = new PartitionReplicaVersions(i);
         }
+        clientPartitionListenerService = new ClientPartitionListenerService(nodeEngine, partitions, logger);
 
         memberGroupFactory = MemberGroupFactoryFactory.newMemberGroupFactory(node.getConfig().getPartitionGroupConfig());
         partitionStateGenerator = new PartitionStateGeneratorImpl();
@@ -995,6 +998,10 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
         return partitionCount;
     }
 
+    public ClientPartitionListenerService getClientPartitionListenerService() {
+        return clientPartitionListenerService;
+    }
+
     // called in operation threads
     // Caution: Returning version array without copying for performance reasons. Callers must not modify this array!
     @Override
@@ -1560,6 +1567,9 @@ public class InternalPartitionServiceImpl implements InternalPartitionService, M
             if (partitionService.node.isMaster()) {
                 partitionService.stateVersion.incrementAndGet();
             }
+            if (replicaIndex == 0) {
+                partitionService.clientPartitionListenerService.onPartitionOwnerChanged();
+            }
         }
 
         private void logOwnerOfPartitionIsRemoved(PartitionReplicaChangeEvent event) {
@@ -24,6 +24,7 @@ import com.hazelcast.nio.Address;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.IOUtil;
 import com.hazelcast.nio.serialization.SerializationService;
+import com.hazelcast.partition.ChunkedReplicationOperation;
 import com.hazelcast.partition.InternalPartition;
 import com.hazelcast.partition.InternalPartitionService;
 import com.hazelcast.partition.MigrationEndpoint;
@@ -57,6 +58,7 @@ import static com.hazelcast.nio.IOUtil.closeResource;
 public final class MigrationRequestOperation extends BaseMigrationOperation {
 
     public static final int TRY_PAUSE_MILLIS = 1000;
+    private static final int MAX_IN_FLIGHT_CHUNKS = 2;
     private boolean returnResponse = true;
 
     public MigrationRequestOperation() {
@@ -252,6 +254,7 @@ public final class MigrationRequestOperation extends BaseMigrationOperation {
         public void run() {
             NodeEngine nodeEngine = getNodeEngine();
             try {
+                sendChunks();
                 byte[] data = getTaskData();
                 MigrationOperation operation = new MigrationOperation(
                         migrationInfo, replicaVersions, data, compress);
@@ -265,11 +268,36 @@ public final class MigrationRequestOperation extends BaseMigrationOperation {
                 migrationInfo.doneProcessing();
                 responseHandler.sendResponse(result);
             } catch (Throwable e) {
+                discardChunks();
                 responseHandler.sendResponse(Boolean.FALSE);
                 logThrowable(e);
             }
         }
 
+        /**
+         * Lets the destination drop the chunks it has staged, in case the migration operation did not apply them.
+         */
+        private void discardChunks() {
+            for (Operation task : tasks) {
+                if (!(task instanceof ChunkedReplicationOperation)) {
+                    continue;
+                }
+                Operation discard = ((ChunkedReplicationOperation) task).discardChunks();
+                if (discard == null) {
+                    continue;
+                }
+                discard.setPartitionId(migrationInfo.getPartitionId());
+                try {
+                    getNodeEngine().getOperationService()
+                            .createInvocationBuilder(task.getServiceName(), discard, destination)
+                            .setTryPauseMillis(TRY_PAUSE_MILLIS)
+                            .invoke();
+                } catch (Exception e) {
+                    getLogger().finest("Could not discard migration chunks on " + destination, e);
+                }
+            }
+        }
+
         private void logThrowable(Throwable e) {
             if (e instanceof ExecutionException) {
                 e = e.getCause() != null ? e.getCause() : e;
@@ -283,6 +311,42 @@ public final class MigrationRequestOperation extends BaseMigrationOperation {
                     || !getNodeEngine().isActive() ? Level.INFO : Level.WARNING;
         }
 
+        /**
+         * Streams the data of chunked replication operations to the destination, waiting for acknowledgements
+         * so that at most {@link #MAX_IN_FLIGHT_CHUNKS} chunks are in flight. The destination stages the chunks
+         * until the migration operation applies them. The first chunk is acknowledged before the next one is sent,
+         * since it replaces the chunks staged by an earlier attempt.
+         */
+        private void sendChunks() throws Exception {
+            LinkedList<Future> inFlightChunks = new LinkedList<Future>();
+            boolean first = true;
+            for (Operation task : tasks) {
+                if (!(task instanceof ChunkedReplicationOperation)) {
+                    continue;
+                }
+                Operation chunk;
+                while ((chunk = ((ChunkedReplicationOperation) task).nextChunk()) != null) {
+                    if (inFlightChunks.size() >= MAX_IN_FLIGHT_CHUNKS) {
+                        inFlightChunks.removeFirst().get(timeout, TimeUnit.SECONDS);
+                    }
+                    chunk.setPartitionId(migrationInfo.getPartitionId());
+                    Future future = getNodeEngine().getOperationService()
+                            .createInvocationBuilder(task.getServiceName(), chunk, destination)
+                            .setTryPauseMillis(TRY_PAUSE_MILLIS)
+                            .invoke();
+                    if (first) {
+                        future.get(timeout, TimeUnit.SECONDS);
+                        first = false;
+                    } else {
+                        inFlightChunks.add(future);
+                    }
+                }
+            }
+            for (Future future : inFlightChunks) {
+                future.get(timeout, TimeUnit.SECONDS);
+            }
+        }
+
         private byte[] getTaskData() throws IOException {
             try {
                 for (Operation task : tasks) {
@@ -22,15 +22,14 @@ import com.hazelcast.nio.serialization.DataSerializable;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.util.IterationType;
-import com.hazelcast.util.SortingUtil;
+import com.hazelcast.util.PagingEntryCollector;
+import com.hazelcast.util.UuidUtil;
 
 import java.io.IOException;
 import java.util.AbstractMap;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -55,6 +54,8 @@ public class PagingPredicate implements IndexAwarePredicate, DataSerializable {
 
     private IterationType iterationType;
 
+    private String cursorId;
+
 
     /**
      * Used for serialization internally
@@ -75,6 +76,7 @@ public class PagingPredicate implements IndexAwarePredicate, DataSerializable {
             throw new IllegalArgumentException("pageSize should be greater than 0 !!!");
         }
         this.pageSize = pageSize;
+        this.cursorId = UuidUtil.buildRandomUuidString();
     }
 
     /**
@@ -143,20 +145,11 @@ public class PagingPredicate implements IndexAwarePredicate, DataSerializable {
             if (set == null) {
                 return null;
             }
-            List<QueryableEntry> list = new LinkedList<QueryableEntry>();
-            Map.Entry anchor = getAnchor();
+            PagingEntryCollector<QueryableEntry> collector = new PagingEntryCollector<QueryableEntry>(this);
             for (QueryableEntry entry : set) {
-                if (anchor != null && SortingUtil.compare(comparator, iterationType, anchor, entry) >= 0) {
-                    continue;
-                }
-                list.add(entry);
-            }
-
-            Collections.sort(list, SortingUtil.newComparator(this));
-            if (list.size() > pageSize) {
-                list = list.subList(0, pageSize);
+                collector.add(entry);
             }
-            return new LinkedHashSet<QueryableEntry>(list);
+            return new LinkedHashSet<QueryableEntry>(collector.toSortedList());
         }
         return null;
     }
@@ -204,6 +197,33 @@ public class PagingPredicate implements IndexAwarePredicate, DataSerializable {
         anchorMap.put(page + 1, anchor);
     }
 
+    /**
+     * Records the anchors of all pages covered by a query result. The result holds the first
+     * {@link #getFetchSize()} entries following the {@link #getNearestAnchorEntry() nearest anchor}
+     * in paging order, so every page up to the current one can be anchored at once.
+     * If the current page turns out to be empty, the page is set back as {@link #setAnchor(Map.Entry)} does.
+     *
+     * @param sortedEntries result entries in paging order
+     * @return number of leading entries of the result belonging to pages before the current one
+     */
+    int setAnchors(List<? extends Map.Entry> sortedEntries) {
+        final int anchorPage = getNearestAnchorPage();
+        final int size = sortedEntries.size();
+        for (int p = anchorPage; p <= page; p++) {
+            final int start = (p - anchorPage) * pageSize;
+            if (start >= size) {
+                break;
+            }
+            final int end = Math.min(size, start + pageSize);
+            anchorMap.put(p + 1, sortedEntries.get(end - 1));
+        }
+        final int skipped = (page - anchorPage) * pageSize;
+        if (skipped >= size) {
+            previousPage();
+        }
+        return skipped;
+    }
+
     /**
      * resets for reuse
      */
@@ -211,6 +231,7 @@ public class PagingPredicate implements IndexAwarePredicate, DataSerializable {
         iterationType = null;
         anchorMap.clear();
         page = 0;
+        cursorId = UuidUtil.buildRandomUuidString();
     }
 
     /**
@@ -253,10 +274,50 @@ public class PagingPredicate implements IndexAwarePredicate, DataSerializable {
         return comparator;
     }
 
+    /**
+     * Returns the id of the cursors members keep for this query, so following pages are served without
+     * scanning the partitions again. A new id is assigned on {@link #reset()}.
+     *
+     * @return cursor id
+     */
+    public String getCursorId() {
+        return cursorId;
+    }
+
     public Map.Entry getAnchor() {
         return anchorMap.get(page);
     }
 
+    /**
+     * Returns the anchor of the closest page, at or before the current page, whose anchor is known.
+     * Queries resume right after this entry instead of recomputing the preceding pages.
+     *
+     * @return nearest anchor or <tt>null</tt> if the query starts from the first entry
+     */
+    public Map.Entry getNearestAnchorEntry() {
+        return anchorMap.get(getNearestAnchorPage());
+    }
+
+    /**
+     * Returns the number of entries following the {@link #getNearestAnchorEntry() nearest anchor}
+     * needed to serve the current page; that is a single page when the anchor of the current page is known.
+     *
+     * @return number of leading entries each member has to return
+     */
+    public int getFetchSize() {
+        final long fetchSize = (long) (page - getNearestAnchorPage() + 1) * pageSize;
+        return (int) Math.min(Integer.MAX_VALUE, fetchSize);
+    }
+
+    private int getNearestAnchorPage() {
+        for (int p = page; p > 0; p--) {
+            if (anchorMap.containsKey(p)) {
+                return p;
+            }
+        }
+        return 0;
+    }
+
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
         out.writeObject(predicate);
@@ -264,10 +325,15 @@ public class PagingPredicate implements IndexAwarePredicate, DataSerializable {
         out.writeInt(page);
         out.writeInt(pageSize);
         out.writeUTF(iterationType.name());
-        out.writeInt(anchorMap.size());
-        for (Map.Entry<Integer, Map.Entry> entry : anchorMap.entrySet()) {
-            out.writeInt(entry.getKey());
-            final Map.Entry anchorEntry = entry.getValue();
+        out.writeUTF(cursorId);
+        // members only need the nearest anchor to resume the query, not the whole anchor history
+        final int anchorPage = getNearestAnchorPage();
+        final Map.Entry anchorEntry = anchorMap.get(anchorPage);
+        if (anchorEntry == null) {
+            out.writeInt(0);
+        } else {
+            out.writeInt(1);
+            out.writeInt(anchorPage);
             out.writeObject(anchorEntry.getKey());
             out.writeObject(anchorEntry.getValue());
         }
@@ -280,6 +346,7 @@ public class PagingPredicate implements IndexAwarePredicate, DataSerializable {
         page = in.readInt();
         pageSize = in.readInt();
         iterationType = IterationType.valueOf(in.readUTF());
+        cursorId = in.readUTF();
         int size = in.readInt();
         for (int i = 0; i < size; i++) {
             final int key = in.readInt();
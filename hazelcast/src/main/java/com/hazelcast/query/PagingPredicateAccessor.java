@@ -16,6 +16,9 @@
 
 package com.hazelcast.query;
 
+import com.hazelcast.util.SortedQueryResultSet;
+
+import java.util.List;
 import java.util.Map;
 
 public final class PagingPredicateAccessor {
@@ -26,4 +29,22 @@ public final class PagingPredicateAccessor {
     public static void setPagingPredicateAnchor(PagingPredicate predicate, Map.Entry anchor) {
         predicate.setAnchor(anchor);
     }
+
+    /**
+     * Sets the anchors of all pages covered by the given query result and removes the entries
+     * of the preceding pages from it, leaving only the current page.
+     */
+    public static void setPagingPredicateAnchors(PagingPredicate predicate, SortedQueryResultSet resultSet) {
+        final int skipped = predicate.setAnchors(resultSet.getEntries());
+        resultSet.removeFirst(skipped);
+    }
+
+    /**
+     * Sets the anchors of all pages covered by the given sorted query result and returns the current page.
+     */
+    public static <E extends Map.Entry> List<E> setPagingPredicateAnchors(PagingPredicate predicate,
+                                                                         List<E> sortedEntries) {
+        final int skipped = predicate.setAnchors(sortedEntries);
+        return sortedEntries.subList(Math.min(skipped, sortedEntries.size()), sortedEntries.size());
+    }
 }
@@ -18,19 +18,28 @@ package com.hazelcast.query;
 
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.ClassDefinition;
 import com.hazelcast.nio.serialization.DataSerializable;
 import com.hazelcast.nio.serialization.HazelcastSerializationException;
 import com.hazelcast.query.impl.AndResultSet;
 import com.hazelcast.query.impl.AttributeType;
 import com.hazelcast.query.impl.ComparisonType;
+import com.hazelcast.query.impl.CompositeIndexImpl;
 import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.IndexImpl;
 import com.hazelcast.query.impl.OrResultSet;
+import com.hazelcast.query.impl.PortableAwarePredicate;
+import com.hazelcast.query.impl.PortableMatcher;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryException;
 import com.hazelcast.query.impl.QueryableEntry;
 
 import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -48,6 +57,21 @@ public final class Predicates {
     private Predicates() {
     }
 
+    private static PortableMatcher[] createPortableMatchers(Predicate[] predicates, ClassDefinition classDefinition,
+                                                            ByteOrder byteOrder) {
+        final PortableMatcher[] matchers = new PortableMatcher[predicates.length];
+        for (int i = 0; i < predicates.length; i++) {
+            if (!(predicates[i] instanceof PortableAwarePredicate)) {
+                return null;
+            }
+            matchers[i] = ((PortableAwarePredicate) predicates[i]).createPortableMatcher(classDefinition, byteOrder);
+            if (matchers[i] == null) {
+                return null;
+            }
+        }
+        return matchers;
+    }
+
     public static Predicate instanceOf(final Class klass) {
         return new InstanceOfPredicate(klass);
     }
@@ -117,7 +141,7 @@ public final class Predicates {
         return new InPredicate(attribute, values);
     }
 
-    public static class BetweenPredicate extends AbstractPredicate {
+    public static class BetweenPredicate extends AbstractPredicate implements PortableAwarePredicate {
         private Comparable to;
         private Comparable from;
 
@@ -144,6 +168,14 @@ public final class Predicates {
             return entryValue.compareTo(fromConvertedValue) >= 0 && entryValue.compareTo(toConvertedValue) <= 0;
         }
 
+        @Override
+        public PortableMatcher createPortableMatcher(ClassDefinition classDefinition, ByteOrder byteOrder) {
+            if (getClass() != BetweenPredicate.class) {
+                return null;
+            }
+            return PortableMatcher.between(classDefinition, byteOrder, attribute, from, to);
+        }
+
         @Override
         public Set<QueryableEntry> filter(QueryContext queryContext) {
             Index index = getIndex(queryContext);
@@ -170,7 +202,7 @@ public final class Predicates {
         }
     }
 
-    public static class NotPredicate implements Predicate, DataSerializable {
+    public static class NotPredicate implements PortableAwarePredicate, DataSerializable {
         private Predicate predicate;
 
         public NotPredicate(Predicate predicate) {
@@ -185,6 +217,14 @@ public final class Predicates {
             return !predicate.apply(mapEntry);
         }
 
+        @Override
+        public PortableMatcher createPortableMatcher(ClassDefinition classDefinition, ByteOrder byteOrder) {
+            if (getClass() != NotPredicate.class || !(predicate instanceof PortableAwarePredicate)) {
+                return null;
+            }
+            return PortableMatcher.not(((PortableAwarePredicate) predicate).createPortableMatcher(classDefinition, byteOrder));
+        }
+
         @Override
         public void writeData(ObjectDataOutput out) throws IOException {
             out.writeObject(predicate);
@@ -201,7 +241,7 @@ public final class Predicates {
         }
     }
 
-    public static class InPredicate extends AbstractPredicate {
+    public static class InPredicate extends AbstractPredicate implements PortableAwarePredicate {
         private Comparable[] values;
         private volatile Set<Comparable> convertedInValues;
 
@@ -230,6 +270,14 @@ public final class Predicates {
             return set.contains(entryValue);
         }
 
+        @Override
+        public PortableMatcher createPortableMatcher(ClassDefinition classDefinition, ByteOrder byteOrder) {
+            if (getClass() != InPredicate.class) {
+                return null;
+            }
+            return PortableMatcher.in(classDefinition, byteOrder, attribute, values);
+        }
+
         @Override
         public Set<QueryableEntry> filter(QueryContext queryContext) {
             Index index = getIndex(queryContext);
@@ -419,7 +467,7 @@ public final class Predicates {
         }
     }
 
-    public static class AndPredicate implements IndexAwarePredicate, DataSerializable {
+    public static class AndPredicate implements IndexAwarePredicate, PortableAwarePredicate, DataSerializable {
 
         protected Predicate[] predicates;
 
@@ -435,7 +483,13 @@ public final class Predicates {
             Set<QueryableEntry> smallestIndexedResult = null;
             List<Set<QueryableEntry>> otherIndexedResults = new LinkedList<Set<QueryableEntry>>();
             List<Predicate> lsNoIndexPredicates = null;
-            for (Predicate predicate : predicates) {
+            Collection<Predicate> predicatesToFilter = Arrays.asList(predicates);
+            CompositeIndexPlan plan = CompositeIndexPlan.create(queryContext, this);
+            if (plan != null) {
+                smallestIndexedResult = plan.filter();
+                predicatesToFilter = plan.getRemainingPredicates();
+            }
+            for (Predicate predicate : predicatesToFilter) {
                 boolean indexed = false;
                 if (predicate instanceof IndexAwarePredicate) {
                     IndexAwarePredicate iap = (IndexAwarePredicate) predicate;
@@ -480,7 +534,7 @@ public final class Predicates {
                     }
                 }
             }
-            return false;
+            return CompositeIndexPlan.create(queryContext, this) != null;
         }
 
         @Override
@@ -493,6 +547,15 @@ public final class Predicates {
             return true;
         }
 
+        @Override
+        public PortableMatcher createPortableMatcher(ClassDefinition classDefinition, ByteOrder byteOrder) {
+            if (getClass() != AndPredicate.class) {
+                return null;
+            }
+            final PortableMatcher[] matchers = createPortableMatchers(predicates, classDefinition, byteOrder);
+            return matchers != null ? PortableMatcher.and(matchers) : null;
+        }
+
         @Override
         public String toString() {
             final StringBuilder sb = new StringBuilder();
@@ -526,7 +589,7 @@ public final class Predicates {
         }
     }
 
-    public static class OrPredicate implements IndexAwarePredicate, DataSerializable {
+    public static class OrPredicate implements IndexAwarePredicate, PortableAwarePredicate, DataSerializable {
 
         private Predicate[] predicates;
 
@@ -581,6 +644,15 @@ public final class Predicates {
             return false;
         }
 
+        @Override
+        public PortableMatcher createPortableMatcher(ClassDefinition classDefinition, ByteOrder byteOrder) {
+            if (getClass() != OrPredicate.class) {
+                return null;
+            }
+            final PortableMatcher[] matchers = createPortableMatchers(predicates, classDefinition, byteOrder);
+            return matchers != null ? PortableMatcher.or(matchers) : null;
+        }
+
 
         @Override
         public void writeData(ObjectDataOutput out) throws IOException {
@@ -639,6 +711,14 @@ public final class Predicates {
             return equal && result == 0 || (less ? (result < 0) : (result > 0));
         }
 
+        @Override
+        public PortableMatcher createPortableMatcher(ClassDefinition classDefinition, ByteOrder byteOrder) {
+            if (getClass() != GreaterLessPredicate.class) {
+                return null;
+            }
+            return PortableMatcher.compare(classDefinition, byteOrder, attribute, value, equal, less);
+        }
+
         @Override
         public Set<QueryableEntry> filter(QueryContext queryContext) {
             Index index = getIndex(queryContext);
@@ -691,6 +771,14 @@ public final class Predicates {
             return !super.apply(entry);
         }
 
+        @Override
+        public PortableMatcher createPortableMatcher(ClassDefinition classDefinition, ByteOrder byteOrder) {
+            if (getClass() != NotEqualPredicate.class) {
+                return null;
+            }
+            return PortableMatcher.equal(classDefinition, byteOrder, attribute, value, true);
+        }
+
         @Override
         public Set<QueryableEntry> filter(QueryContext queryContext) {
             Index index = getIndex(queryContext);
@@ -707,7 +795,7 @@ public final class Predicates {
         }
     }
 
-    public static class EqualPredicate extends AbstractPredicate {
+    public static class EqualPredicate extends AbstractPredicate implements PortableAwarePredicate {
         protected Comparable value;
 
         public EqualPredicate() {
@@ -734,6 +822,14 @@ public final class Predicates {
             return entryValue.equals(value);
         }
 
+        @Override
+        public PortableMatcher createPortableMatcher(ClassDefinition classDefinition, ByteOrder byteOrder) {
+            if (getClass() != EqualPredicate.class) {
+                return null;
+            }
+            return PortableMatcher.equal(classDefinition, byteOrder, attribute, value, false);
+        }
+
         @Override
         public void writeData(ObjectDataOutput out) throws IOException {
             super.writeData(out);
@@ -821,6 +917,127 @@ public final class Predicates {
         }
     }
 
+    /**
+     * Chooses the composite index answering most of the predicates of a conjunction: equality predicates on
+     * a prefix of the index attributes, followed by a range predicate on the next attribute if the index is
+     * ordered. Only plans covering at least two predicates are created, single predicates are better served
+     * by single attribute indexes.
+     */
+    private static final class CompositeIndexPlan {
+        private static final int MIN_MATCHED_PREDICATES = 2;
+
+        private final CompositeIndexImpl index;
+        private final Comparable[] prefix;
+        private final AbstractPredicate range;
+        private final List<Predicate> remainingPredicates;
+
+        private CompositeIndexPlan(CompositeIndexImpl index, Comparable[] prefix, AbstractPredicate range,
+                                   List<Predicate> remainingPredicates) {
+            this.index = index;
+            this.prefix = prefix;
+            this.range = range;
+            this.remainingPredicates = remainingPredicates;
+        }
+
+        static CompositeIndexPlan create(QueryContext queryContext, AndPredicate andPredicate) {
+            CompositeIndexImpl[] compositeIndexes = queryContext.getCompositeIndexes();
+            if (compositeIndexes == null || compositeIndexes.length == 0) {
+                return null;
+            }
+            List<Predicate> conjuncts = new ArrayList<Predicate>();
+            flatten(andPredicate, conjuncts);
+            Map<String, EqualPredicate> equalities = new HashMap<String, EqualPredicate>();
+            Map<String, AbstractPredicate> ranges = new HashMap<String, AbstractPredicate>();
+            for (Predicate predicate : conjuncts) {
+                if (predicate.getClass() == EqualPredicate.class) {
+                    EqualPredicate equalPredicate = (EqualPredicate) predicate;
+                    equalities.put(equalPredicate.attribute, equalPredicate);
+                } else if (predicate instanceof GreaterLessPredicate || predicate instanceof BetweenPredicate) {
+                    AbstractPredicate rangePredicate = (AbstractPredicate) predicate;
+                    ranges.put(rangePredicate.attribute, rangePredicate);
+                }
+            }
+            CompositeIndexImpl bestIndex = null;
+            int bestPrefixLength = 0;
+            AbstractPredicate bestRange = null;
+            int bestMatched = MIN_MATCHED_PREDICATES - 1;
+            for (CompositeIndexImpl index : compositeIndexes) {
+                String[] attributes = index.getAttributes();
+                int prefixLength = 0;
+                while (prefixLength < attributes.length && equalities.containsKey(attributes[prefixLength])) {
+                    prefixLength++;
+                }
+                AbstractPredicate range = null;
+                if (prefixLength < attributes.length) {
+                    if (!index.isOrdered()) {
+                        continue;
+                    }
+                    range = ranges.get(attributes[prefixLength]);
+                }
+                int matched = prefixLength + (range != null ? 1 : 0);
+                if (matched > bestMatched) {
+                    bestIndex = index;
+                    bestPrefixLength = prefixLength;
+                    bestRange = range;
+                    bestMatched = matched;
+                }
+            }
+            if (bestIndex == null) {
+                return null;
+            }
+            String[] attributes = bestIndex.getAttributes();
+            Set<Predicate> matchedPredicates = new HashSet<Predicate>();
+            Comparable[] prefix = new Comparable[bestPrefixLength];
+            for (int i = 0; i < bestPrefixLength; i++) {
+                EqualPredicate equalPredicate = equalities.get(attributes[i]);
+                prefix[i] = equalPredicate.value;
+                matchedPredicates.add(equalPredicate);
+            }
+            if (bestRange != null) {
+                matchedPredicates.add(bestRange);
+            }
+            List<Predicate> remainingPredicates = new ArrayList<Predicate>(conjuncts.size() - matchedPredicates.size());
+            for (Predicate predicate : conjuncts) {
+                if (!matchedPredicates.contains(predicate)) {
+                    remainingPredicates.add(predicate);
+                }
+            }
+            return new CompositeIndexPlan(bestIndex, prefix, bestRange, remainingPredicates);
+        }
+
+        private static void flatten(AndPredicate andPredicate, List<Predicate> conjuncts) {
+            for (Predicate predicate : andPredicate.predicates) {
+                if (predicate instanceof AndPredicate) {
+                    flatten((AndPredicate) predicate, conjuncts);
+                } else {
+                    conjuncts.add(predicate);
+                }
+            }
+        }
+
+        Set<QueryableEntry> filter() {
+            if (range == null) {
+                if (prefix.length == index.getAttributes().length) {
+                    return index.getRecordsByTuple(prefix);
+                }
+                return index.getSubRecords(prefix, null, false, null, false);
+            }
+            if (range instanceof BetweenPredicate) {
+                BetweenPredicate between = (BetweenPredicate) range;
+                return index.getSubRecords(prefix, between.from, true, between.to, true);
+            }
+            GreaterLessPredicate greaterLess = (GreaterLessPredicate) range;
+            if (greaterLess.less) {
+                return index.getSubRecords(prefix, null, false, greaterLess.value, greaterLess.equal);
+            }
+            return index.getSubRecords(prefix, greaterLess.value, greaterLess.equal, null, false);
+        }
+
+        List<Predicate> getRemainingPredicates() {
+            return remainingPredicates;
+        }
+    }
+
     private static class InstanceOfPredicate implements Predicate, DataSerializable {
         private Class klass;
 
@@ -18,11 +18,15 @@ package com.hazelcast.query;
 
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.ClassDefinition;
 import com.hazelcast.query.impl.IndexImpl;
+import com.hazelcast.query.impl.PortableAwarePredicate;
+import com.hazelcast.query.impl.PortableMatcher;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
 
 import java.io.IOException;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -43,7 +47,7 @@ import static com.hazelcast.query.Predicates.notEqual;
 import static com.hazelcast.query.Predicates.or;
 import static com.hazelcast.query.Predicates.regex;
 
-public class SqlPredicate extends AbstractPredicate implements IndexAwarePredicate {
+public class SqlPredicate extends AbstractPredicate implements IndexAwarePredicate, PortableAwarePredicate {
 
     private static final long serialVersionUID = 1;
 
@@ -76,6 +80,14 @@ public class SqlPredicate extends AbstractPredicate implements IndexAwarePredica
         return ((IndexAwarePredicate) predicate).filter(queryContext);
     }
 
+    @Override
+    public PortableMatcher createPortableMatcher(ClassDefinition classDefinition, ByteOrder byteOrder) {
+        if (predicate instanceof PortableAwarePredicate) {
+            return ((PortableAwarePredicate) predicate).createPortableMatcher(classDefinition, byteOrder);
+        }
+        return null;
+    }
+
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
         out.writeUTF(sql);
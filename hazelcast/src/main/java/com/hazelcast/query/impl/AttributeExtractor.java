@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+/**
+ * Base class of the attribute extractors generated by {@link ExtractorGenerator}. It has to be public,
+ * since the generated classes are defined by their own class loaders.
+ */
+public abstract class AttributeExtractor {
+
+    /**
+     * @param target the object to extract the attribute from
+     * @return the attribute value, boxed if primitive, or <tt>null</tt> if the target or an
+     *         intermediate value of the attribute path is <tt>null</tt>
+     */
+    public abstract Object extract(Object target);
+}
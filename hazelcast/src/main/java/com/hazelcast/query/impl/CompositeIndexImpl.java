@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Index over an ordered list of attributes, declared with a comma separated attribute name
+ * like <tt>"customerId, status"</tt>.
+ * <p/>
+ * Unordered composite indexes can only answer lookups on all of their attributes. Ordered ones also
+ * answer lookups on a prefix of the attributes optionally followed by a range on the next attribute,
+ * e.g. <tt>customerId = 5 AND status = 'OPEN' AND amount &gt; 100</tt> for an index on
+ * <tt>"customerId, status, amount"</tt>.
+ */
+public class CompositeIndexImpl implements Index {
+
+    static final String SEPARATOR = ",";
+
+    // indexKey -- indexValue
+    private final ConcurrentMap<Data, Comparable> recordValues = new ConcurrentHashMap<Data, Comparable>(1000);
+    private final IndexStore indexStore;
+    private final String name;
+    private final String[] attributes;
+    private final boolean ordered;
+
+    private volatile AttributeType[] attributeTypes;
+
+    public CompositeIndexImpl(String name, boolean ordered) {
+        this.attributes = parseAttributes(name);
+        this.name = normalizeName(name);
+        this.ordered = ordered;
+        indexStore = (ordered) ? new SortedIndexStore() : new UnsortedIndexStore();
+    }
+
+    /**
+     * Checks if the given index name declares a composite index.
+     */
+    public static boolean isComposite(String name) {
+        return name.contains(SEPARATOR);
+    }
+
+    static String normalizeName(String name) {
+        StringBuilder sb = new StringBuilder();
+        for (String attribute : parseAttributes(name)) {
+            if (sb.length() > 0) {
+                sb.append(SEPARATOR);
+            }
+            sb.append(attribute);
+        }
+        return sb.toString();
+    }
+
+    private static String[] parseAttributes(String name) {
+        String[] attributes = name.split(SEPARATOR);
+        for (int i = 0; i < attributes.length; i++) {
+            attributes[i] = attributes[i].trim();
+            if (attributes[i].length() == 0) {
+                throw new IllegalArgumentException("Composite index '" + name + "' contains an empty attribute name");
+            }
+        }
+        return attributes;
+    }
+
+    public String[] getAttributes() {
+        return attributes.clone();
+    }
+
+    @Override
+    public void saveEntryIndex(QueryableEntry e) throws QueryException {
+        Data key = e.getIndexKey();
+        Comparable oldValue = recordValues.remove(key);
+        Comparable[] components = new Comparable[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            Comparable value = e.getAttribute(attributes[i]);
+            if (value == null) {
+                value = IndexImpl.NULL;
+            } else if (value.getClass().isEnum()) {
+                value = TypeConverters.ENUM_CONVERTER.convert(value);
+            }
+            components[i] = value;
+        }
+        CompositeValue newValue = new CompositeValue(components);
+        recordValues.put(key, newValue);
+        if (oldValue != null) {
+            indexStore.removeIndex(oldValue, key);
+        }
+        indexStore.newIndex(newValue, e);
+        if (attributeTypes == null) {
+            AttributeType[] types = new AttributeType[attributes.length];
+            for (int i = 0; i < attributes.length; i++) {
+                types[i] = e.getAttributeType(attributes[i]);
+            }
+            attributeTypes = types;
+        }
+    }
+
+    @Override
+    public void removeEntryIndex(Data indexKey) {
+        Comparable oldValue = recordValues.remove(indexKey);
+        if (oldValue != null) {
+            indexStore.removeIndex(oldValue, indexKey);
+        }
+    }
+
+    @Override
+    public void clear() {
+        recordValues.clear();
+        indexStore.clear();
+    }
+
+    /**
+     * Returns the entries whose attributes are equal to the given tuple, one value per attribute.
+     */
+    public Set<QueryableEntry> getRecordsByTuple(Comparable[] tuple) {
+        if (tuple.length != attributes.length) {
+            throw new IllegalArgumentException("Expected " + attributes.length + " values for index " + name
+                    + " but got " + tuple.length);
+        }
+        Comparable[] components = new Comparable[tuple.length];
+        for (int i = 0; i < tuple.length; i++) {
+            components[i] = convert(i, tuple[i]);
+        }
+        return indexStore.getRecords(new CompositeValue(components));
+    }
+
+    /**
+     * Returns the entries whose composite value is any of the given values, like {@link IndexImpl#getRecords(Comparable[])}.
+     * Use {@link #getRecordsByTuple(Comparable[])} to look up the entries matching a value per attribute.
+     */
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable[] values) {
+        if (values.length == 1) {
+            return indexStore.getRecords(values[0]);
+        }
+        MultiResultSet results = new MultiResultSet();
+        indexStore.getRecords(results, new HashSet<Comparable>(Arrays.asList(values)));
+        return results;
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        return indexStore.getRecords(value);
+    }
+
+    /**
+     * Returns the entries whose first attributes are equal to <tt>prefix</tt> and whose next attribute is
+     * within the given range. A null bound leaves that side of the range open, and null attribute values
+     * are never in a range.
+     * With an empty range (both bounds null) all entries matching the prefix are returned,
+     * including the ones with null values in the remaining attributes.
+     *
+     * @throws UnsupportedOperationException if the index is not ordered
+     */
+    public Set<QueryableEntry> getSubRecords(Comparable[] prefix, Comparable from, boolean fromInclusive,
+                                             Comparable to, boolean toInclusive) {
+        if (!ordered) {
+            throw new UnsupportedOperationException("Index " + name + " is not ordered");
+        }
+        int rangeIndex = prefix.length;
+        boolean hasRange = from != null || to != null;
+        if (rangeIndex > attributes.length || (hasRange && rangeIndex == attributes.length)) {
+            throw new IllegalArgumentException("Too many values for index " + name);
+        }
+        // bounds have one more component than the stored values so the fill also applies to the last attribute
+        Comparable[] lower = new Comparable[attributes.length + 1];
+        Comparable[] upper = new Comparable[attributes.length + 1];
+        for (int i = 0; i < rangeIndex; i++) {
+            lower[i] = convert(i, prefix[i]);
+            upper[i] = lower[i];
+        }
+        Comparable lowerFill = CompositeValue.NEGATIVE_INFINITY;
+        Comparable upperFill = CompositeValue.POSITIVE_INFINITY;
+        if (hasRange) {
+            if (from != null) {
+                lower[rangeIndex] = convert(rangeIndex, from);
+                lowerFill = fromInclusive ? CompositeValue.NEGATIVE_INFINITY : CompositeValue.POSITIVE_INFINITY;
+            } else {
+                // skip null values
+                lower[rangeIndex] = IndexImpl.NULL;
+                lowerFill = CompositeValue.POSITIVE_INFINITY;
+            }
+            if (to != null) {
+                upper[rangeIndex] = convert(rangeIndex, to);
+                upperFill = toInclusive ? CompositeValue.POSITIVE_INFINITY : CompositeValue.NEGATIVE_INFINITY;
+            } else {
+                upper[rangeIndex] = CompositeValue.POSITIVE_INFINITY;
+            }
+            rangeIndex++;
+        }
+        for (int i = rangeIndex; i < lower.length; i++) {
+            lower[i] = lowerFill;
+            upper[i] = upperFill;
+        }
+        CompositeValue lowerValue = new CompositeValue(lower);
+        CompositeValue upperValue = new CompositeValue(upper);
+        if (lowerValue.compareTo(upperValue) > 0) {
+            return Collections.emptySet();
+        }
+        MultiResultSet results = new MultiResultSet();
+        indexStore.getSubRecordsBetween(results, lowerValue, upperValue);
+        return results;
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecordsBetween(Comparable from, Comparable to) {
+        MultiResultSet results = new MultiResultSet();
+        indexStore.getSubRecordsBetween(results, from, to);
+        return results;
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
+        MultiResultSet results = new MultiResultSet();
+        indexStore.getSubRecords(results, comparisonType, searchedValue);
+        return results;
+    }
+
+    private Comparable convert(int attributeIndex, Comparable value) {
+        if (value == null || value instanceof IndexImpl.NullObject) {
+            return IndexImpl.NULL;
+        }
+        AttributeType[] types = attributeTypes;
+        if (types == null || types[attributeIndex] == null) {
+            return value;
+        }
+        return types[attributeIndex].getConverter().convert(value);
+    }
+
+    public ConcurrentMap<Data, Comparable> getRecordValues() {
+        return recordValues;
+    }
+
+    @Override
+    public String getAttributeName() {
+        return name;
+    }
+
+    @Override
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    @Override
+    public String toString() {
+        return "CompositeIndexImpl{"
+                + "attributes=" + Arrays.toString(attributes)
+                + ", ordered=" + ordered
+                + ", indexStore=" + indexStore
+                + '}';
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+
+/**
+ * Value of a composite index: the values of all indexed attributes of an entry, ordered
+ * lexicographically. Null attribute values ({@link IndexImpl#NULL}) are smaller than any other value.
+ * <p/>
+ * {@link #NEGATIVE_INFINITY} and {@link #POSITIVE_INFINITY} are only used to build the bounds of range
+ * lookups on a prefix of the attributes; they are never stored in an index. Bounds may be longer than
+ * the stored values, a trailing infinity then puts the bound right before or after all values sharing
+ * its other components.
+ */
+public final class CompositeValue implements Comparable<CompositeValue> {
+
+    /**
+     * Component smaller than any other value, including null.
+     */
+    public static final Comparable NEGATIVE_INFINITY = new Infinity(-1);
+
+    /**
+     * Component greater than any other value.
+     */
+    public static final Comparable POSITIVE_INFINITY = new Infinity(1);
+
+    private final Comparable[] components;
+
+    public CompositeValue(Comparable[] components) {
+        this.components = components;
+    }
+
+    public int size() {
+        return components.length;
+    }
+
+    public Comparable get(int index) {
+        return components[index];
+    }
+
+    @Override
+    public int compareTo(CompositeValue other) {
+        int length = Math.min(components.length, other.components.length);
+        for (int i = 0; i < length; i++) {
+            int result = compareComponents(components[i], other.components[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        if (components.length == other.components.length) {
+            return 0;
+        }
+        // a longer value is greater unless its next component is the negative infinity
+        if (components.length > length) {
+            return components[length] == NEGATIVE_INFINITY ? -1 : 1;
+        }
+        return other.components[length] == NEGATIVE_INFINITY ? 1 : -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareComponents(Comparable left, Comparable right) {
+        if (left == right) {
+            return 0;
+        }
+        if (left instanceof Infinity) {
+            return ((Infinity) left).sign;
+        }
+        if (right instanceof Infinity) {
+            return -((Infinity) right).sign;
+        }
+        boolean leftNull = left instanceof IndexImpl.NullObject;
+        boolean rightNull = right instanceof IndexImpl.NullObject;
+        if (leftNull || rightNull) {
+            return leftNull == rightNull ? 0 : (leftNull ? -1 : 1);
+        }
+        return left.compareTo(right);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(components, ((CompositeValue) o).components);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(components);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(components);
+    }
+
+    private static final class Infinity implements Comparable {
+        private final int sign;
+
+        private Infinity(int sign) {
+            this.sign = sign;
+        }
+
+        @Override
+        public int compareTo(Object o) {
+            return o == this ? 0 : sign;
+        }
+
+        @Override
+        public String toString() {
+            return sign < 0 ? "-INF" : "+INF";
+        }
+    }
+}
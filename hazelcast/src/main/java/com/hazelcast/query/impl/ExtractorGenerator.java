@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates {@link AttributeExtractor} classes calling the getters and reading the fields of an attribute
+ * path, e.g. <tt>address.city</tt>, directly instead of through {@link Method#invoke} and {@link Field#get}.
+ * <p/>
+ * Extractors are generated only for paths of public, non-static members of public classes which are
+ * visible to the Hazelcast class loader; {@link ReflectionHelper} keeps using reflection for other paths.
+ * Generated classes use the class file format of Java 5, so they are verified without stack map frames.
+ * Each class is defined by its own class loader, so it does not pin other generated classes. Extractors are
+ * cached by {@link ReflectionHelper} until {@link ReflectionHelper#reset()}, which keeps both the generated
+ * classes and the classes of the keys and values loaded.
+ */
+final class ExtractorGenerator {
+
+    private static final ClassLoader THIS_CL = ExtractorGenerator.class.getClassLoader();
+    private static final String SUPER_CLASS = AttributeExtractor.class.getName().replace('.', '/');
+    private static final String CLASS_NAME_PREFIX = "com/hazelcast/query/impl/GeneratedExtractor";
+    private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int MAJOR_VERSION = 49;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private static final int ACONST_NULL = 0x01;
+    private static final int ALOAD_0 = 0x2A;
+    private static final int ALOAD_1 = 0x2B;
+    private static final int POP = 0x57;
+    private static final int DUP = 0x59;
+    private static final int ARETURN = 0xB0;
+    private static final int RETURN = 0xB1;
+    private static final int GETFIELD = 0xB4;
+    private static final int INVOKEVIRTUAL = 0xB6;
+    private static final int INVOKESPECIAL = 0xB7;
+    private static final int INVOKESTATIC = 0xB8;
+    private static final int INVOKEINTERFACE = 0xB9;
+    private static final int CHECKCAST = 0xC0;
+    private static final int IFNONNULL = 0xC7;
+
+    // ifnonnull jumps over itself and the following pop, aconst_null and areturn
+    private static final int NULL_CHECK_JUMP = 6;
+    private static final int MAX_STACK = 2;
+    private static final int MAX_LOCALS = 2;
+    // max stack, max locals, code length, exception table length and attribute count
+    private static final int CODE_ATTRIBUTE_HEADER_LENGTH = 12;
+
+    private ExtractorGenerator() {
+    }
+
+    /**
+     * @param rootClass class of the objects the attribute is extracted from
+     * @param path      the methods and fields to be read one after the other
+     * @return the extractor or <tt>null</tt> if no extractor can be generated for the path
+     */
+    static AttributeExtractor generate(Class rootClass, List<Member> path) {
+        if (path.isEmpty() || !isAccessible(rootClass, path)) {
+            return null;
+        }
+        final String className = CLASS_NAME_PREFIX + CLASS_COUNTER.incrementAndGet();
+        try {
+            final byte[] bytes = new ClassWriter(className).write(rootClass, path);
+            final Class extractorClass = new ExtractorClassLoader().define(className.replace('/', '.'), bytes);
+            return (AttributeExtractor) extractorClass.newInstance();
+        } catch (LinkageError e) {
+            // the class was not accepted by the class loader or the verifier, fall back to reflection
+            return null;
+        } catch (IOException e) {
+            return null;
+        } catch (InstantiationException e) {
+            return null;
+        } catch (IllegalAccessException e) {
+            return null;
+        } catch (SecurityException e) {
+            return null;
+        }
+    }
+
+    private static boolean isAccessible(Class rootClass, List<Member> path) {
+        Class owner = rootClass;
+        for (int i = 0; i < path.size(); i++) {
+            final Member member = path.get(i);
+            if (!isPublicClass(owner) || !isVisible(owner) || !Modifier.isPublic(member.getModifiers())
+                    || Modifier.isStatic(member.getModifiers())) {
+                return false;
+            }
+            final Class type = getType(member);
+            if (type == void.class || (type.isPrimitive() && i < path.size() - 1) || !isVisible(type)) {
+                return false;
+            }
+            owner = type;
+        }
+        return true;
+    }
+
+    private static boolean isPublicClass(Class clazz) {
+        for (Class c = clazz; c != null; c = c.getDeclaringClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The generated class resolves the classes it refers to through the Hazelcast class loader.
+     */
+    private static boolean isVisible(Class clazz) {
+        Class c = clazz;
+        while (c.isArray()) {
+            c = c.getComponentType();
+        }
+        if (c.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(c.getName(), false, THIS_CL) == c;
+        } catch (ClassNotFoundException e) {
+            return false;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    private static Class getType(Member member) {
+        return member instanceof Method ? ((Method) member).getReturnType() : ((Field) member).getType();
+    }
+
+    private static String internalName(Class clazz) {
+        return clazz.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Class clazz) {
+        if (clazz.isArray()) {
+            return internalName(clazz);
+        }
+        if (clazz == int.class) {
+            return "I";
+        } else if (clazz == long.class) {
+            return "J";
+        } else if (clazz == boolean.class) {
+            return "Z";
+        } else if (clazz == double.class) {
+            return "D";
+        } else if (clazz == float.class) {
+            return "F";
+        } else if (clazz == byte.class) {
+            return "B";
+        } else if (clazz == char.class) {
+            return "C";
+        } else if (clazz == short.class) {
+            return "S";
+        }
+        return "L" + internalName(clazz) + ";";
+    }
+
+    private static Class boxedType(Class primitive) {
+        if (primitive == int.class) {
+            return Integer.class;
+        } else if (primitive == long.class) {
+            return Long.class;
+        } else if (primitive == boolean.class) {
+            return Boolean.class;
+        } else if (primitive == double.class) {
+            return Double.class;
+        } else if (primitive == float.class) {
+            return Float.class;
+        } else if (primitive == byte.class) {
+            return Byte.class;
+        } else if (primitive == char.class) {
+            return Character.class;
+        }
+        return Short.class;
+    }
+
+    /**
+     * Writes the class file of an extractor.
+     */
+    private static final class ClassWriter {
+
+        private final Map<String, Integer> constants = new HashMap<String, Integer>();
+        private final ByteArrayOutputStream constantPoolBytes = new ByteArrayOutputStream();
+        private final DataOutputStream constantPool = new DataOutputStream(constantPoolBytes);
+        private final String className;
+
+        ClassWriter(String className) {
+            this.className = className;
+        }
+
+        byte[] write(Class rootClass, List<Member> path) throws IOException {
+            final int thisClass = classConstant(className);
+            final int superClass = classConstant(SUPER_CLASS);
+            final int codeName = utf8("Code");
+            final int initName = utf8("<init>");
+            final int initDescriptor = utf8("()V");
+            final int extractName = utf8("extract");
+            final int extractDescriptor = utf8("(Ljava/lang/Object;)Ljava/lang/Object;");
+            final byte[] initCode = writeInitCode();
+            final byte[] extractCode = writeExtractCode(rootClass, path);
+
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeShort(0);
+            out.writeShort(MAJOR_VERSION);
+            out.writeShort(constants.size() + 1);
+            constantPool.flush();
+            constantPoolBytes.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            // interfaces and fields
+            out.writeShort(0);
+            out.writeShort(0);
+            out.writeShort(2);
+            writeMethod(out, initName, initDescriptor, codeName, initCode, 1, 1);
+            writeMethod(out, extractName, extractDescriptor, codeName, extractCode, MAX_STACK, MAX_LOCALS);
+            // class attributes
+            out.writeShort(0);
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+        private byte[] writeInitCode() throws IOException {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream code = new DataOutputStream(bytes);
+            code.writeByte(ALOAD_0);
+            code.writeByte(INVOKESPECIAL);
+            code.writeShort(memberConstant(CONSTANT_METHODREF, SUPER_CLASS, "<init>", "()V"));
+            code.writeByte(RETURN);
+            code.flush();
+            return bytes.toByteArray();
+        }
+
+        private byte[] writeExtractCode(Class rootClass, List<Member> path) throws IOException {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream code = new DataOutputStream(bytes);
+            code.writeByte(ALOAD_1);
+            Class owner = rootClass;
+            for (int i = 0; i < path.size(); i++) {
+                // return null if the target or an intermediate value is null
+                code.writeByte(DUP);
+                code.writeByte(IFNONNULL);
+                code.writeShort(NULL_CHECK_JUMP);
+                code.writeByte(POP);
+                code.writeByte(ACONST_NULL);
+                code.writeByte(ARETURN);
+                if (i == 0) {
+                    code.writeByte(CHECKCAST);
+                    code.writeShort(classConstant(internalName(owner)));
+                }
+                final Member member = path.get(i);
+                final Class type = getType(member);
+                if (member instanceof Field) {
+                    code.writeByte(GETFIELD);
+                    code.writeShort(memberConstant(CONSTANT_FIELDREF, internalName(owner), member.getName(),
+                            descriptor(type)));
+                } else if (owner.isInterface()) {
+                    code.writeByte(INVOKEINTERFACE);
+                    code.writeShort(memberConstant(CONSTANT_INTERFACE_METHODREF, internalName(owner), member.getName(),
+                            "()" + descriptor(type)));
+                    // argument count including the target, followed by a zero byte
+                    code.writeByte(1);
+                    code.writeByte(0);
+                } else {
+                    code.writeByte(INVOKEVIRTUAL);
+                    code.writeShort(memberConstant(CONSTANT_METHODREF, internalName(owner), member.getName(),
+                            "()" + descriptor(type)));
+                }
+                owner = type;
+            }
+            if (owner.isPrimitive()) {
+                final Class boxedType = boxedType(owner);
+                code.writeByte(INVOKESTATIC);
+                code.writeShort(memberConstant(CONSTANT_METHODREF, internalName(boxedType), "valueOf",
+                        "(" + descriptor(owner) + ")" + descriptor(boxedType)));
+            }
+            code.writeByte(ARETURN);
+            code.flush();
+            return bytes.toByteArray();
+        }
+
+        private void writeMethod(DataOutputStream out, int name, int descriptor, int codeName, byte[] code,
+                                 int maxStack, int maxLocals) throws IOException {
+            out.writeShort(ACC_PUBLIC);
+            out.writeShort(name);
+            out.writeShort(descriptor);
+            out.writeShort(1);
+            out.writeShort(codeName);
+            out.writeInt(CODE_ATTRIBUTE_HEADER_LENGTH + code.length);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(code.length);
+            out.write(code);
+            out.writeShort(0);
+            out.writeShort(0);
+        }
+
+        private int utf8(String value) throws IOException {
+            final String key = "utf8:" + value;
+            Integer index = constants.get(key);
+            if (index == null) {
+                constantPool.writeByte(CONSTANT_UTF8);
+                constantPool.writeUTF(value);
+                index = addConstant(key);
+            }
+            return index;
+        }
+
+        private int classConstant(String internalName) throws IOException {
+            final String key = "class:" + internalName;
+            Integer index = constants.get(key);
+            if (index == null) {
+                final int name = utf8(internalName);
+                constantPool.writeByte(CONSTANT_CLASS);
+                constantPool.writeShort(name);
+                index = addConstant(key);
+            }
+            return index;
+        }
+
+        private int memberConstant(int tag, String owner, String name, String descriptor) throws IOException {
+            final String key = tag + ":" + owner + "." + name + descriptor;
+            Integer index = constants.get(key);
+            if (index == null) {
+                final int ownerClass = classConstant(owner);
+                final int nameAndType = nameAndType(name, descriptor);
+                constantPool.writeByte(tag);
+                constantPool.writeShort(ownerClass);
+                constantPool.writeShort(nameAndType);
+                index = addConstant(key);
+            }
+            return index;
+        }
+
+        private int nameAndType(String name, String descriptor) throws IOException {
+            final String key = "nameAndType:" + name + descriptor;
+            Integer index = constants.get(key);
+            if (index == null) {
+                final int nameIndex = utf8(name);
+                final int descriptorIndex = utf8(descriptor);
+                constantPool.writeByte(CONSTANT_NAME_AND_TYPE);
+                constantPool.writeShort(nameIndex);
+                constantPool.writeShort(descriptorIndex);
+                index = addConstant(key);
+            }
+            return index;
+        }
+
+        private int addConstant(String key) {
+            final int index = constants.size() + 1;
+            constants.put(key, index);
+            return index;
+        }
+    }
+
+    /**
+     * Defines a single extractor class; the classes it refers to are resolved by the Hazelcast class loader.
+     */
+    private static final class ExtractorClassLoader extends ClassLoader {
+
+        ExtractorClassLoader() {
+            super(THIS_CL);
+        }
+
+        Class define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -37,7 +37,7 @@ public class IndexImpl implements Index {
     public IndexImpl(String attribute, boolean ordered) {
         this.attribute = attribute;
         this.ordered = ordered;
-        indexStore = (ordered) ? new SortedIndexStore() : new UnsortedIndexStore();
+        indexStore = (ordered) ? new NumericSortedIndexStore() : new UnsortedIndexStore();
     }
 
     @Override
@@ -124,6 +124,42 @@ public class IndexImpl implements Index {
         return attributeType.getConverter().convert(value);
     }
 
+    /**
+     * Returns the number of indexed entries with a non null attribute value.
+     */
+    public int getValueCount() {
+        ConcurrentMap<Data, QueryableEntry> nullRecords = indexStore.getRecordMap(NULL);
+        return recordValues.size() - (nullRecords == null ? 0 : nullRecords.size());
+    }
+
+    /**
+     * Returns the smallest or largest non null attribute value, read from the sorted index store
+     * without touching the records.
+     *
+     * @param largest true for the largest value, false for the smallest one
+     * @return the value, {@link #NULL} if no entry has a non null value or null if the value can
+     * not be determined from the index (not ordered, values of different kinds, concurrent updates)
+     */
+    public Comparable getBoundaryValue(boolean largest) {
+        if (!ordered) {
+            return null;
+        }
+        ConcurrentMap<Data, QueryableEntry> records = indexStore.getBoundaryRecordMap(largest);
+        if (records == null) {
+            return null;
+        }
+        if (records.isEmpty()) {
+            return NULL;
+        }
+        for (Data indexKey : records.keySet()) {
+            Comparable value = recordValues.get(indexKey);
+            if (value != null && value != NULL) {
+                return value;
+            }
+        }
+        return null;
+    }
+
     public ConcurrentMap<Data, Comparable> getRecordValues() {
         return recordValues;
     }
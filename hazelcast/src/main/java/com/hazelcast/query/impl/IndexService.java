@@ -20,6 +20,8 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.query.IndexAwarePredicate;
 import com.hazelcast.query.Predicate;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -28,27 +30,54 @@ import java.util.concurrent.atomic.AtomicReference;
 public class IndexService {
     private final ConcurrentMap<String, Index> mapIndexes = new ConcurrentHashMap<String, Index>(3);
     private final AtomicReference<Index[]> indexes = new AtomicReference<Index[]>();
+    private volatile CompositeIndexImpl[] compositeIndexes = new CompositeIndexImpl[0];
     private volatile boolean hasIndex;
 
     public synchronized Index destroyIndex(String attribute) {
-        return mapIndexes.remove(attribute);
+        Index index = mapIndexes.remove(indexName(attribute));
+        if (index != null) {
+            publishIndexes();
+        }
+        return index;
     }
 
+    /**
+     * Returns the index on the given attribute, creating it if needed. A comma separated list of
+     * attributes creates a {@link CompositeIndexImpl}.
+     */
     public synchronized Index addOrGetIndex(String attribute, boolean ordered) {
-        Index index = mapIndexes.get(attribute);
+        String name = indexName(attribute);
+        Index index = mapIndexes.get(name);
         if (index != null) {
             return index;
         }
-        index = new IndexImpl(attribute, ordered);
-        mapIndexes.put(attribute, index);
+        if (CompositeIndexImpl.isComposite(name)) {
+            index = new CompositeIndexImpl(name, ordered);
+        } else {
+            index = new IndexImpl(attribute, ordered);
+        }
+        mapIndexes.put(name, index);
+        publishIndexes();
+        hasIndex = true;
+        return index;
+    }
+
+    private void publishIndexes() {
         Object[] indexObjects = mapIndexes.values().toArray();
         Index[] newIndexes = new Index[indexObjects.length];
+        List<CompositeIndexImpl> newCompositeIndexes = new ArrayList<CompositeIndexImpl>();
         for (int i = 0; i < indexObjects.length; i++) {
             newIndexes[i] = (Index) indexObjects[i];
+            if (newIndexes[i] instanceof CompositeIndexImpl) {
+                newCompositeIndexes.add((CompositeIndexImpl) newIndexes[i]);
+            }
         }
         indexes.set(newIndexes);
-        hasIndex = true;
-        return index;
+        compositeIndexes = newCompositeIndexes.toArray(new CompositeIndexImpl[newCompositeIndexes.size()]);
+    }
+
+    private static String indexName(String attribute) {
+        return CompositeIndexImpl.isComposite(attribute) ? CompositeIndexImpl.normalizeName(attribute) : attribute;
     }
 
     public Index[] getIndexes() {
@@ -75,6 +104,10 @@ public class IndexService {
         return mapIndexes.get(attribute);
     }
 
+    CompositeIndexImpl[] getCompositeIndexes() {
+        return compositeIndexes;
+    }
+
     public Set<QueryableEntry> query(Predicate predicate) {
         if (hasIndex) {
             QueryContext queryContext = new QueryContext(this);
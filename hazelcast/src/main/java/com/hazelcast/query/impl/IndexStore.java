@@ -38,4 +38,13 @@ public interface IndexStore {
     void newIndex(Comparable newValue, QueryableEntry entry);
 
     ConcurrentMap<Data, QueryableEntry> getRecordMap(Comparable indexValue);
+
+    /**
+     * Returns the records of the smallest or largest non null value of a sorted store.
+     *
+     * @param largest true for the largest value, false for the smallest one
+     * @return the records, an empty map if the store holds no non null value or null if the
+     * value can not be determined by this store
+     */
+    ConcurrentMap<Data, QueryableEntry> getBoundaryRecordMap(boolean largest);
 }
@@ -0,0 +1,520 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Sorted index store specialized for numeric and date attributes.
+ * <p/>
+ * Distinct values are encoded into primitive longs preserving their natural order and kept in sorted
+ * arrays split into copy-on-write segments, so there is no boxed value per distinct key and a range query
+ * is a binary search followed by a single pass over the segments. Values which can not be encoded this way
+ * (strings, nulls, infinities and NaN, values of a different kind than the first indexed one) are kept in a
+ * {@link SortedIndexStore} and queries merge the results of both.
+ * <p/>
+ * Updates are serialized on the store, queries read immutable segments without locking.
+ */
+public class NumericSortedIndexStore implements IndexStore {
+
+    static final int SEGMENT_CAPACITY = 256;
+
+    private static final int KIND_NONE = 0;
+    private static final int KIND_INTEGRAL = 1;
+    private static final int KIND_FLOATING_POINT = 2;
+    private static final int KIND_DATE = 3;
+
+    // where a searched value lies relative to the encoded keys, see sideOfKeys
+    private static final int SIDE_NONE = -2;
+    private static final int SIDE_BELOW = -1;
+    private static final int SIDE_WITHIN = 0;
+    private static final int SIDE_ABOVE = 1;
+
+    private static final int SIGN_BIT_SHIFT = 63;
+    private static final int NANOS_PER_MILLI = 1000000;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final Segment[] EMPTY_SEGMENTS = new Segment[0];
+
+    private final SortedIndexStore fallbackStore = new SortedIndexStore();
+    private volatile int kind = KIND_NONE;
+    private volatile Segment[] segments = EMPTY_SEGMENTS;
+
+    @Override
+    public void getSubRecordsBetween(MultiResultSet results, Comparable from, Comparable to) {
+        if (fallbackStore.hasNonNullValues()) {
+            fallbackStore.getSubRecordsBetween(results, from, to);
+        }
+        int currentKind = kind;
+        int fromSide = sideOfKeys(from, currentKind);
+        int toSide = sideOfKeys(to, currentKind);
+        if (fromSide == SIDE_NONE || toSide == SIDE_NONE || (fromSide == toSide && fromSide != SIDE_WITHIN)) {
+            return;
+        }
+        if (fromSide > toSide || (fromSide == SIDE_WITHIN && toSide == SIDE_WITHIN
+                && floorKey(from, currentKind) > floorKey(to, currentKind))) {
+            Comparable oldFrom = from;
+            from = to;
+            to = oldFrom;
+            int oldFromSide = fromSide;
+            fromSide = toSide;
+            toSide = oldFromSide;
+        }
+        long fromKey = fromSide == SIDE_BELOW ? Long.MIN_VALUE : ceilKey(from, currentKind);
+        long toKey = toSide == SIDE_ABOVE ? Long.MAX_VALUE : floorKey(to, currentKind);
+        if (fromKey <= toKey) {
+            addRange(results, fromKey, toKey);
+        }
+    }
+
+    @Override
+    public void getSubRecords(MultiResultSet results, ComparisonType comparisonType, Comparable searchedValue) {
+        if (fallbackStore.hasNonNullValues()) {
+            fallbackStore.getSubRecords(results, comparisonType, searchedValue);
+        }
+        int currentKind = kind;
+        int side = sideOfKeys(searchedValue, currentKind);
+        if (side != SIDE_WITHIN) {
+            if (side != SIDE_NONE && matchesAllKeys(comparisonType, side)) {
+                addRange(results, Long.MIN_VALUE, Long.MAX_VALUE);
+            }
+            return;
+        }
+        long floorKey = floorKey(searchedValue, currentKind);
+        long ceilKey = ceilKey(searchedValue, currentKind);
+        switch (comparisonType) {
+            case LESSER:
+                if (ceilKey != Long.MIN_VALUE) {
+                    addRange(results, Long.MIN_VALUE, ceilKey - 1);
+                }
+                break;
+            case LESSER_EQUAL:
+                addRange(results, Long.MIN_VALUE, floorKey);
+                break;
+            case GREATER:
+                if (floorKey != Long.MAX_VALUE) {
+                    addRange(results, floorKey + 1, Long.MAX_VALUE);
+                }
+                break;
+            case GREATER_EQUAL:
+                addRange(results, ceilKey, Long.MAX_VALUE);
+                break;
+            case NOT_EQUAL:
+                if (floorKey != ceilKey) {
+                    // the searched value lies between two keys, so no key is equal to it
+                    addRange(results, Long.MIN_VALUE, Long.MAX_VALUE);
+                    break;
+                }
+                if (floorKey != Long.MIN_VALUE) {
+                    addRange(results, Long.MIN_VALUE, floorKey - 1);
+                }
+                if (floorKey != Long.MAX_VALUE) {
+                    addRange(results, floorKey + 1, Long.MAX_VALUE);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unrecognized comparisonType:" + comparisonType);
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        return new SingleResultSet(getRecordMap(value));
+    }
+
+    @Override
+    public void getRecords(MultiResultSet results, Set<Comparable> values) {
+        for (Comparable value : values) {
+            ConcurrentMap<Data, QueryableEntry> records = getRecordMap(value);
+            if (records != null) {
+                results.addResultSet(records);
+            }
+        }
+    }
+
+    @Override
+    public ConcurrentMap<Data, QueryableEntry> getRecordMap(Comparable indexValue) {
+        int currentKind = kind;
+        if (canEncode(indexValue, currentKind)) {
+            long key = floorKey(indexValue, currentKind);
+            if (key == ceilKey(indexValue, currentKind)) {
+                ConcurrentMap<Data, QueryableEntry> records = findRecords(key);
+                if (records != null) {
+                    return records;
+                }
+            }
+        }
+        return fallbackStore.getRecordMap(indexValue);
+    }
+
+    @Override
+    public ConcurrentMap<Data, QueryableEntry> getBoundaryRecordMap(boolean largest) {
+        Segment[] currentSegments = segments;
+        if (currentSegments.length == 0) {
+            return fallbackStore.getBoundaryRecordMap(largest);
+        }
+        if (fallbackStore.hasNonNullValues()) {
+            // values of another kind can not be ordered against the encoded ones
+            return null;
+        }
+        Segment segment = currentSegments[largest ? currentSegments.length - 1 : 0];
+        return segment.records[largest ? segment.records.length - 1 : 0];
+    }
+
+    @Override
+    public synchronized void clear() {
+        segments = EMPTY_SEGMENTS;
+        kind = KIND_NONE;
+        fallbackStore.clear();
+    }
+
+    @Override
+    public synchronized void removeIndex(Comparable oldValue, Data indexKey) {
+        int currentKind = kind;
+        if (currentKind == KIND_NONE || kindOf(oldValue) != currentKind) {
+            fallbackStore.removeIndex(oldValue, indexKey);
+            return;
+        }
+        long key = floorKey(oldValue, currentKind);
+        Segment[] currentSegments = segments;
+        int segmentIndex = segmentIndex(currentSegments, key);
+        if (segmentIndex < 0) {
+            return;
+        }
+        Segment segment = currentSegments[segmentIndex];
+        int index = Arrays.binarySearch(segment.keys, key);
+        if (index < 0) {
+            return;
+        }
+        ConcurrentMap<Data, QueryableEntry> records = segment.records[index];
+        records.remove(indexKey);
+        if (records.isEmpty()) {
+            segments = removeKey(currentSegments, segmentIndex, index);
+        }
+    }
+
+    @Override
+    public synchronized void newIndex(Comparable newValue, QueryableEntry entry) {
+        int valueKind = kindOf(newValue);
+        if (valueKind != KIND_NONE && kind == KIND_NONE) {
+            kind = valueKind;
+        }
+        if (valueKind == KIND_NONE || valueKind != kind) {
+            fallbackStore.newIndex(newValue, entry);
+            return;
+        }
+        long key = floorKey(newValue, valueKind);
+        Segment[] currentSegments = segments;
+        int segmentIndex = segmentIndex(currentSegments, key);
+        if (segmentIndex >= 0) {
+            Segment segment = currentSegments[segmentIndex];
+            int index = Arrays.binarySearch(segment.keys, key);
+            if (index >= 0) {
+                segment.records[index].put(entry.getIndexKey(), entry);
+                return;
+            }
+        }
+        ConcurrentMap<Data, QueryableEntry> records = new ConcurrentHashMap<Data, QueryableEntry>(1, LOAD_FACTOR, 1);
+        records.put(entry.getIndexKey(), entry);
+        segments = insertKey(currentSegments, segmentIndex, key, records);
+    }
+
+    private ConcurrentMap<Data, QueryableEntry> findRecords(long key) {
+        Segment[] currentSegments = segments;
+        int segmentIndex = segmentIndex(currentSegments, key);
+        if (segmentIndex < 0) {
+            return null;
+        }
+        Segment segment = currentSegments[segmentIndex];
+        int index = Arrays.binarySearch(segment.keys, key);
+        return index < 0 ? null : segment.records[index];
+    }
+
+    /**
+     * Adds the records of all values in the inclusive [from, to] range, visiting the segments in order.
+     */
+    private void addRange(MultiResultSet results, long from, long to) {
+        Segment[] currentSegments = segments;
+        int segmentIndex = segmentIndex(currentSegments, from);
+        if (segmentIndex < 0) {
+            return;
+        }
+        int index = Arrays.binarySearch(currentSegments[segmentIndex].keys, from);
+        if (index < 0) {
+            index = -(index + 1);
+        }
+        for (; segmentIndex < currentSegments.length; segmentIndex++) {
+            Segment segment = currentSegments[segmentIndex];
+            long[] keys = segment.keys;
+            for (; index < keys.length; index++) {
+                if (keys[index] > to) {
+                    return;
+                }
+                results.addResultSet(segment.records[index]);
+            }
+            index = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        int valueCount = 0;
+        for (Segment segment : segments) {
+            valueCount += segment.keys.length;
+        }
+        return "NumericSortedIndexStore{"
+                + "values=" + valueCount
+                + ", fallbackStore=" + fallbackStore
+                + '}';
+    }
+
+    /**
+     * Finds the last segment whose first key is not greater than the given key,
+     * or the first segment if there is no such segment.
+     *
+     * @return index of the segment, -1 if there are no segments
+     */
+    private static int segmentIndex(Segment[] segments, long key) {
+        int low = 0;
+        int high = segments.length - 1;
+        if (high < 0) {
+            return -1;
+        }
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (segments[mid].keys[0] <= key) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private static Segment[] insertKey(Segment[] segments, int segmentIndex, long key,
+                                       ConcurrentMap<Data, QueryableEntry> records) {
+        if (segmentIndex < 0) {
+            return new Segment[]{new Segment(new long[]{key}, newRecordsArray(records))};
+        }
+        Segment segment = segments[segmentIndex];
+        int size = segment.keys.length;
+        int index = -(Arrays.binarySearch(segment.keys, key) + 1);
+        long[] keys = new long[size + 1];
+        ConcurrentMap<Data, QueryableEntry>[] recordsArray = newRecordsArray(size + 1);
+        System.arraycopy(segment.keys, 0, keys, 0, index);
+        System.arraycopy(segment.records, 0, recordsArray, 0, index);
+        keys[index] = key;
+        recordsArray[index] = records;
+        System.arraycopy(segment.keys, index, keys, index + 1, size - index);
+        System.arraycopy(segment.records, index, recordsArray, index + 1, size - index);
+
+        if (keys.length <= SEGMENT_CAPACITY) {
+            Segment[] newSegments = segments.clone();
+            newSegments[segmentIndex] = new Segment(keys, recordsArray);
+            return newSegments;
+        }
+        // split the full segment in two halves
+        int half = keys.length / 2;
+        ConcurrentMap<Data, QueryableEntry>[] lowRecords = newRecordsArray(half);
+        ConcurrentMap<Data, QueryableEntry>[] highRecords = newRecordsArray(keys.length - half);
+        System.arraycopy(recordsArray, 0, lowRecords, 0, half);
+        System.arraycopy(recordsArray, half, highRecords, 0, keys.length - half);
+        Segment low = new Segment(Arrays.copyOfRange(keys, 0, half), lowRecords);
+        Segment high = new Segment(Arrays.copyOfRange(keys, half, keys.length), highRecords);
+
+        Segment[] newSegments = new Segment[segments.length + 1];
+        System.arraycopy(segments, 0, newSegments, 0, segmentIndex);
+        newSegments[segmentIndex] = low;
+        newSegments[segmentIndex + 1] = high;
+        System.arraycopy(segments, segmentIndex + 1, newSegments, segmentIndex + 2, segments.length - segmentIndex - 1);
+        return newSegments;
+    }
+
+    private static Segment[] removeKey(Segment[] segments, int segmentIndex, int index) {
+        Segment segment = segments[segmentIndex];
+        int size = segment.keys.length;
+        if (size == 1) {
+            Segment[] newSegments = new Segment[segments.length - 1];
+            System.arraycopy(segments, 0, newSegments, 0, segmentIndex);
+            System.arraycopy(segments, segmentIndex + 1, newSegments, segmentIndex, segments.length - segmentIndex - 1);
+            return newSegments;
+        }
+        long[] keys = new long[size - 1];
+        ConcurrentMap<Data, QueryableEntry>[] recordsArray = newRecordsArray(size - 1);
+        System.arraycopy(segment.keys, 0, keys, 0, index);
+        System.arraycopy(segment.records, 0, recordsArray, 0, index);
+        System.arraycopy(segment.keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(segment.records, index + 1, recordsArray, index, size - index - 1);
+        Segment[] newSegments = segments.clone();
+        newSegments[segmentIndex] = new Segment(keys, recordsArray);
+        return newSegments;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConcurrentMap<Data, QueryableEntry>[] newRecordsArray(int length) {
+        return new ConcurrentMap[length];
+    }
+
+    private static ConcurrentMap<Data, QueryableEntry>[] newRecordsArray(ConcurrentMap<Data, QueryableEntry> records) {
+        ConcurrentMap<Data, QueryableEntry>[] recordsArray = newRecordsArray(1);
+        recordsArray[0] = records;
+        return recordsArray;
+    }
+
+    /**
+     * Returns the kind a stored value is encoded with. A java.sql.Timestamp with sub-millisecond nanoseconds
+     * does not fit into the encoding and is left to the fallback store, so are infinities and NaN.
+     */
+    private static int kindOf(Comparable value) {
+        if (isIntegral(value)) {
+            return KIND_INTEGRAL;
+        }
+        if (isFloatingPoint(value) && isFinite(value)) {
+            return KIND_FLOATING_POINT;
+        }
+        if (value instanceof Date && !hasSubMillisecondPart((Date) value)) {
+            return KIND_DATE;
+        }
+        return KIND_NONE;
+    }
+
+    /**
+     * Returns whether a searched value can be compared against the keys of the given kind.
+     * Any date (including a Timestamp) is compared by its time, integral and floating point values
+     * are compared with each other numerically.
+     */
+    private static boolean canEncode(Comparable value, int kind) {
+        switch (kind) {
+            case KIND_INTEGRAL:
+                if (isFloatingPoint(value)) {
+                    double doubleValue = ((Number) value).doubleValue();
+                    return doubleValue >= Long.MIN_VALUE && doubleValue < Long.MAX_VALUE;
+                }
+                return isIntegral(value);
+            case KIND_FLOATING_POINT:
+                return isIntegral(value) || (isFloatingPoint(value) && isFinite(value));
+            case KIND_DATE:
+                return value instanceof Date;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns whether a searched value can be encoded as a key of the given kind, or else whether it lies below
+     * or above all keys. Floating point values out of the range of numeric keys, like infinities, lie on the side
+     * of their sign and NaN lies above all keys, as in {@link Double#compareTo(Double)}.
+     * Other values can not be compared against the keys and return {@link #SIDE_NONE}.
+     */
+    private static int sideOfKeys(Comparable value, int kind) {
+        if (canEncode(value, kind)) {
+            return SIDE_WITHIN;
+        }
+        if ((kind != KIND_INTEGRAL && kind != KIND_FLOATING_POINT) || !isFloatingPoint(value)) {
+            return SIDE_NONE;
+        }
+        double doubleValue = ((Number) value).doubleValue();
+        return Double.isNaN(doubleValue) || doubleValue > 0 ? SIDE_ABOVE : SIDE_BELOW;
+    }
+
+    private static boolean matchesAllKeys(ComparisonType comparisonType, int side) {
+        switch (comparisonType) {
+            case NOT_EQUAL:
+                return true;
+            case LESSER:
+            case LESSER_EQUAL:
+                return side == SIDE_ABOVE;
+            case GREATER:
+            case GREATER_EQUAL:
+                return side == SIDE_BELOW;
+            default:
+                throw new IllegalArgumentException("Unrecognized comparisonType:" + comparisonType);
+        }
+    }
+
+    /**
+     * Encodes the value into the greatest key not greater than the value, having the same ordering as
+     * {@link Comparable#compareTo(Object)}. Doubles keep their bits with the magnitude bits of negative values flipped.
+     */
+    private static long floorKey(Comparable value, int kind) {
+        switch (kind) {
+            case KIND_INTEGRAL:
+                if (isFloatingPoint(value)) {
+                    return (long) Math.floor(((Number) value).doubleValue());
+                }
+                return ((Number) value).longValue();
+            case KIND_FLOATING_POINT:
+                long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+                return bits ^ ((bits >> SIGN_BIT_SHIFT) & Long.MAX_VALUE);
+            case KIND_DATE:
+                return ((Date) value).getTime();
+            default:
+                throw new IllegalArgumentException("Value can not be encoded: " + value);
+        }
+    }
+
+    /**
+     * Encodes the value into the smallest key not less than the value. Differs from {@link #floorKey}
+     * only for values lying between two keys, like a fractional value against integral keys.
+     */
+    private static long ceilKey(Comparable value, int kind) {
+        if (kind == KIND_INTEGRAL && isFloatingPoint(value)) {
+            return (long) Math.ceil(((Number) value).doubleValue());
+        }
+        long key = floorKey(value, kind);
+        if (kind == KIND_DATE && hasSubMillisecondPart((Date) value)) {
+            return key + 1;
+        }
+        return key;
+    }
+
+    private static boolean isIntegral(Comparable value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    private static boolean isFloatingPoint(Comparable value) {
+        return value instanceof Double || value instanceof Float;
+    }
+
+    private static boolean isFinite(Comparable value) {
+        double doubleValue = ((Number) value).doubleValue();
+        return !Double.isNaN(doubleValue) && !Double.isInfinite(doubleValue);
+    }
+
+    private static boolean hasSubMillisecondPart(Date value) {
+        return value instanceof Timestamp && ((Timestamp) value).getNanos() % NANOS_PER_MILLI != 0;
+    }
+
+    /**
+     * Immutable sorted run of distinct keys and the records indexed by each of them.
+     */
+    private static final class Segment {
+        final long[] keys;
+        final ConcurrentMap<Data, QueryableEntry>[] records;
+
+        Segment(long[] keys, ConcurrentMap<Data, QueryableEntry>[] records) {
+            this.keys = keys;
+            this.records = records;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.query.Predicate;
+
+import java.nio.ByteOrder;
+
+/**
+ * A predicate which can be evaluated directly on the serialized form of Portable values,
+ * without deserializing them or creating a {@link com.hazelcast.nio.serialization.PortableReader}.
+ */
+public interface PortableAwarePredicate extends Predicate {
+
+    /**
+     * Creates a matcher evaluating this predicate on serialized values of the given class definition.
+     * The matcher must give the same result as {@link #apply(java.util.Map.Entry)} for every value.
+     *
+     * @param classDefinition class definition of the serialized values
+     * @param byteOrder       byte order of the serialized values
+     * @return the matcher or <tt>null</tt> if this predicate cannot be evaluated on the serialized values
+     */
+    PortableMatcher createPortableMatcher(ClassDefinition classDefinition, ByteOrder byteOrder);
+}
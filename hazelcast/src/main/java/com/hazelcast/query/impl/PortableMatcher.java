@@ -0,0 +1,439 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.FieldDefinition;
+import com.hazelcast.nio.serialization.FieldType;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Evaluates a predicate on the serialized form of a Portable value. Field values are read from the
+ * byte array as primitives at the positions recorded in the Portable field table, so matching a value
+ * does not allocate.
+ * <p/>
+ * Matchers are created for a single {@link ClassDefinition} and byte order. The factory methods
+ * return <tt>null</tt> when a predicate cannot be evaluated this way, e.g. for UTF or nested Portable
+ * fields, unknown attributes or constants which cannot be converted to the field type; callers then
+ * fall back to evaluating the predicate on the deserialized value.
+ */
+public abstract class PortableMatcher {
+
+    private static final PortableMatcher TRUE = new ConstantMatcher(true);
+    private static final PortableMatcher FALSE = new ConstantMatcher(false);
+
+    /**
+     * @param buffer buffer of the serialized Portable value
+     * @return <tt>true</tt> if the value matches
+     */
+    public abstract boolean matches(byte[] buffer);
+
+    public static PortableMatcher not(PortableMatcher matcher) {
+        if (matcher == null) {
+            return null;
+        }
+        if (matcher instanceof ConstantMatcher) {
+            return matcher == TRUE ? FALSE : TRUE;
+        }
+        return new NotMatcher(matcher);
+    }
+
+    public static PortableMatcher and(PortableMatcher[] matchers) {
+        return containsNull(matchers) ? null : new AndMatcher(matchers);
+    }
+
+    public static PortableMatcher or(PortableMatcher[] matchers) {
+        return containsNull(matchers) ? null : new OrMatcher(matchers);
+    }
+
+    /**
+     * Creates a matcher for <tt>attribute = value</tt>, or <tt>attribute != value</tt> if negated.
+     */
+    public static PortableMatcher equal(ClassDefinition classDefinition, ByteOrder byteOrder, String attribute,
+                                        Comparable value, boolean negate) {
+        final FieldReader reader = FieldReader.create(classDefinition, byteOrder, attribute);
+        if (reader == null) {
+            return null;
+        }
+        if (value == null || value instanceof IndexImpl.NullObject) {
+            // primitive Portable fields are never null
+            return negate ? TRUE : FALSE;
+        }
+        final Comparable converted = reader.convert(value);
+        if (converted == null) {
+            return null;
+        }
+        final PortableMatcher matcher = new CompareMatcher(reader, converted, true, false, false);
+        return negate ? new NotMatcher(matcher) : matcher;
+    }
+
+    /**
+     * Creates a matcher for <tt>attribute &lt; value</tt>, <tt>attribute &lt;= value</tt>,
+     * <tt>attribute &gt; value</tt> or <tt>attribute &gt;= value</tt>.
+     */
+    public static PortableMatcher compare(ClassDefinition classDefinition, ByteOrder byteOrder, String attribute,
+                                          Comparable value, boolean equal, boolean less) {
+        final FieldReader reader = FieldReader.create(classDefinition, byteOrder, attribute);
+        if (reader == null || value == null || value instanceof IndexImpl.NullObject) {
+            return null;
+        }
+        final Comparable converted = reader.convert(value);
+        if (converted == null) {
+            return null;
+        }
+        return new CompareMatcher(reader, converted, equal, less, !less);
+    }
+
+    /**
+     * Creates a matcher for <tt>attribute BETWEEN from AND to</tt>, bounds included.
+     */
+    public static PortableMatcher between(ClassDefinition classDefinition, ByteOrder byteOrder, String attribute,
+                                          Comparable from, Comparable to) {
+        final FieldReader reader = FieldReader.create(classDefinition, byteOrder, attribute);
+        if (reader == null || from instanceof IndexImpl.NullObject || to instanceof IndexImpl.NullObject) {
+            return null;
+        }
+        if (from == null || to == null) {
+            return FALSE;
+        }
+        final Comparable convertedFrom = reader.convert(from);
+        final Comparable convertedTo = reader.convert(to);
+        if (convertedFrom == null || convertedTo == null) {
+            return null;
+        }
+        return new AndMatcher(new PortableMatcher[]{
+                new CompareMatcher(reader, convertedFrom, true, false, true),
+                new CompareMatcher(reader, convertedTo, true, true, false),
+        });
+    }
+
+    /**
+     * Creates a matcher for <tt>attribute IN (values)</tt>.
+     */
+    public static PortableMatcher in(ClassDefinition classDefinition, ByteOrder byteOrder, String attribute,
+                                     Comparable[] values) {
+        final FieldReader reader = FieldReader.create(classDefinition, byteOrder, attribute);
+        if (reader == null) {
+            return null;
+        }
+        final long[] keys = new long[values.length];
+        int keyCount = 0;
+        for (Comparable value : values) {
+            if (value == null || value instanceof IndexImpl.NullObject) {
+                // never equal to a primitive field
+                continue;
+            }
+            final Comparable converted = reader.convert(value);
+            if (converted == null) {
+                return null;
+            }
+            keys[keyCount++] = reader.toKey(converted);
+        }
+        final long[] sortedKeys = Arrays.copyOf(keys, keyCount);
+        Arrays.sort(sortedKeys);
+        return new InMatcher(reader, sortedKeys);
+    }
+
+    private static boolean containsNull(PortableMatcher[] matchers) {
+        for (PortableMatcher matcher : matchers) {
+            if (matcher == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads a primitive field of a serialized Portable. Integral, char and boolean fields are read as
+     * <tt>long</tt>, float and double fields as <tt>double</tt>; both preserve the ordering of the
+     * boxed field values.
+     */
+    static final class FieldReader {
+
+        private static final int FIELD_TABLE_OFFSET = 4;
+        private static final int INT_SIZE = 4;
+        private static final int BYTE_MASK = 0xFF;
+        private static final long INT_MASK = 0xFFFFFFFFL;
+
+        private final FieldType type;
+        private final int positionOffset;
+        private final boolean bigEndian;
+        private final boolean floatingPoint;
+
+        private FieldReader(FieldType type, int index, boolean bigEndian) {
+            this.type = type;
+            this.positionOffset = FIELD_TABLE_OFFSET + index * INT_SIZE;
+            this.bigEndian = bigEndian;
+            this.floatingPoint = type == FieldType.DOUBLE || type == FieldType.FLOAT;
+        }
+
+        static FieldReader create(ClassDefinition classDefinition, ByteOrder byteOrder, String attribute) {
+            final FieldDefinition fd = classDefinition.get(attribute);
+            if (fd == null) {
+                return null;
+            }
+            switch (fd.getType()) {
+                case INT:
+                case LONG:
+                case SHORT:
+                case BYTE:
+                case CHAR:
+                case BOOLEAN:
+                case DOUBLE:
+                case FLOAT:
+                    return new FieldReader(fd.getType(), fd.getIndex(), byteOrder == ByteOrder.BIG_ENDIAN);
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Converts a predicate constant the same way {@link com.hazelcast.query.Predicates.AbstractPredicate}
+         * does for the boxed field value.
+         *
+         * @return the converted constant or <tt>null</tt> if it cannot be compared to the field
+         */
+        Comparable convert(Comparable value) {
+            final Class boxedType = boxedType();
+            if (boxedType.isInstance(value)) {
+                return value;
+            }
+            final Comparable converted;
+            try {
+                converted = AttributeType.getAttributeType(type.getId()).getConverter().convert(value);
+            } catch (RuntimeException e) {
+                // let the deserializing path report the failure
+                return null;
+            }
+            return boxedType.isInstance(converted) ? converted : null;
+        }
+
+        private Class boxedType() {
+            switch (type) {
+                case INT:
+                    return Integer.class;
+                case LONG:
+                    return Long.class;
+                case SHORT:
+                    return Short.class;
+                case BYTE:
+                    return Byte.class;
+                case CHAR:
+                    return Character.class;
+                case BOOLEAN:
+                    return Boolean.class;
+                case DOUBLE:
+                    return Double.class;
+                case FLOAT:
+                    return Float.class;
+                default:
+                    throw new IllegalStateException("Unsupported field type: " + type);
+            }
+        }
+
+        /**
+         * Key with the same equality as the converted boxed value, used for IN lookups.
+         */
+        long toKey(Comparable converted) {
+            return floatingPoint ? Double.doubleToLongBits(toDouble(converted)) : toLong(converted);
+        }
+
+        long readKey(byte[] buffer) {
+            return floatingPoint ? Double.doubleToLongBits(readDouble(buffer)) : readLong(buffer);
+        }
+
+        int compare(byte[] buffer, long longOperand, double doubleOperand) {
+            if (floatingPoint) {
+                return Double.compare(readDouble(buffer), doubleOperand);
+            }
+            final long value = readLong(buffer);
+            return value < longOperand ? -1 : (value == longOperand ? 0 : 1);
+        }
+
+        boolean isFloatingPoint() {
+            return floatingPoint;
+        }
+
+        static long toLong(Comparable converted) {
+            if (converted instanceof Boolean) {
+                return ((Boolean) converted) ? 1 : 0;
+            }
+            if (converted instanceof Character) {
+                return (Character) converted;
+            }
+            return ((Number) converted).longValue();
+        }
+
+        static double toDouble(Comparable converted) {
+            return ((Number) converted).doubleValue();
+        }
+
+        private long readLong(byte[] buffer) {
+            final int position = readInt(buffer, positionOffset);
+            switch (type) {
+                case INT:
+                    return readInt(buffer, position);
+                case LONG:
+                    return readLong(buffer, position);
+                case SHORT:
+                    return (short) readChar(buffer, position);
+                case CHAR:
+                    return readChar(buffer, position);
+                case BYTE:
+                    return buffer[position];
+                case BOOLEAN:
+                    return buffer[position] != 0 ? 1 : 0;
+                default:
+                    throw new IllegalStateException("Not an integral field: " + type);
+            }
+        }
+
+        private double readDouble(byte[] buffer) {
+            final int position = readInt(buffer, positionOffset);
+            if (type == FieldType.DOUBLE) {
+                return Double.longBitsToDouble(readLong(buffer, position));
+            }
+            return Float.intBitsToFloat(readInt(buffer, position));
+        }
+
+        private int readInt(byte[] buffer, int position) {
+            final int b0 = buffer[position] & BYTE_MASK;
+            final int b1 = buffer[position + 1] & BYTE_MASK;
+            final int b2 = buffer[position + 2] & BYTE_MASK;
+            final int b3 = buffer[position + 3] & BYTE_MASK;
+            if (bigEndian) {
+                return (b0 << 24) | (b1 << 16) | (b2 << 8) | b3;
+            }
+            return (b3 << 24) | (b2 << 16) | (b1 << 8) | b0;
+        }
+
+        private long readLong(byte[] buffer, int position) {
+            final long first = readInt(buffer, position) & INT_MASK;
+            final long second = readInt(buffer, position + INT_SIZE) & INT_MASK;
+            return bigEndian ? (first << 32) | second : (second << 32) | first;
+        }
+
+        private char readChar(byte[] buffer, int position) {
+            final int b0 = buffer[position] & BYTE_MASK;
+            final int b1 = buffer[position + 1] & BYTE_MASK;
+            return (char) (bigEndian ? (b0 << 8) | b1 : (b1 << 8) | b0);
+        }
+    }
+
+    private static final class CompareMatcher extends PortableMatcher {
+        private final FieldReader reader;
+        private final long longOperand;
+        private final double doubleOperand;
+        private final boolean equal;
+        private final boolean less;
+        private final boolean greater;
+
+        CompareMatcher(FieldReader reader, Comparable converted, boolean equal, boolean less, boolean greater) {
+            this.reader = reader;
+            this.longOperand = reader.isFloatingPoint() ? 0 : FieldReader.toLong(converted);
+            this.doubleOperand = reader.isFloatingPoint() ? FieldReader.toDouble(converted) : 0;
+            this.equal = equal;
+            this.less = less;
+            this.greater = greater;
+        }
+
+        @Override
+        public boolean matches(byte[] buffer) {
+            final int result = reader.compare(buffer, longOperand, doubleOperand);
+            return result == 0 ? equal : (result < 0 ? less : greater);
+        }
+    }
+
+    private static final class InMatcher extends PortableMatcher {
+        private final FieldReader reader;
+        private final long[] sortedKeys;
+
+        InMatcher(FieldReader reader, long[] sortedKeys) {
+            this.reader = reader;
+            this.sortedKeys = sortedKeys;
+        }
+
+        @Override
+        public boolean matches(byte[] buffer) {
+            return Arrays.binarySearch(sortedKeys, reader.readKey(buffer)) >= 0;
+        }
+    }
+
+    private static final class AndMatcher extends PortableMatcher {
+        private final PortableMatcher[] matchers;
+
+        AndMatcher(PortableMatcher[] matchers) {
+            this.matchers = matchers;
+        }
+
+        @Override
+        public boolean matches(byte[] buffer) {
+            for (PortableMatcher matcher : matchers) {
+                if (!matcher.matches(buffer)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class OrMatcher extends PortableMatcher {
+        private final PortableMatcher[] matchers;
+
+        OrMatcher(PortableMatcher[] matchers) {
+            this.matchers = matchers;
+        }
+
+        @Override
+        public boolean matches(byte[] buffer) {
+            for (PortableMatcher matcher : matchers) {
+                if (matcher.matches(buffer)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class NotMatcher extends PortableMatcher {
+        private final PortableMatcher matcher;
+
+        NotMatcher(PortableMatcher matcher) {
+            this.matcher = matcher;
+        }
+
+        @Override
+        public boolean matches(byte[] buffer) {
+            return !matcher.matches(buffer);
+        }
+    }
+
+    private static final class ConstantMatcher extends PortableMatcher {
+        private final boolean result;
+
+        ConstantMatcher(boolean result) {
+            this.result = result;
+        }
+
+        @Override
+        public boolean matches(byte[] buffer) {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.IOUtil;
+import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.SerializationService;
+import com.hazelcast.query.Predicate;
+
+import java.nio.ByteOrder;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Evaluates a {@link PortableAwarePredicate} on serialized Portable values while scanning records.
+ * A {@link PortableMatcher} is created once per class definition; values of other types, and values
+ * whose class definition the predicate does not support, have to be evaluated on their deserialized form.
+ * <p/>
+ * Not thread-safe, intended to be used by a single scan.
+ */
+public final class PortablePredicateEvaluator {
+
+    private final PortableAwarePredicate predicate;
+    private final ByteOrder byteOrder;
+    private final Map<ClassDefinition, PortableMatcher> matchers = new IdentityHashMap<ClassDefinition, PortableMatcher>();
+
+    private ClassDefinition lastClassDefinition;
+    private PortableMatcher lastMatcher;
+
+    private PortablePredicateEvaluator(PortableAwarePredicate predicate, ByteOrder byteOrder) {
+        this.predicate = predicate;
+        this.byteOrder = byteOrder;
+    }
+
+    /**
+     * @return an evaluator for the predicate or <tt>null</tt> if it cannot be evaluated on serialized values
+     */
+    public static PortablePredicateEvaluator create(Predicate predicate, SerializationService serializationService) {
+        if (!(predicate instanceof PortableAwarePredicate)) {
+            return null;
+        }
+        final BufferObjectDataInput in = serializationService.createObjectDataInput(new byte[0]);
+        try {
+            return new PortablePredicateEvaluator((PortableAwarePredicate) predicate, in.getByteOrder());
+        } finally {
+            IOUtil.closeResource(in);
+        }
+    }
+
+    /**
+     * @param value serialized value
+     * @return the matcher evaluating the predicate on the value or <tt>null</tt> if the value
+     *         has to be deserialized to evaluate the predicate
+     */
+    public PortableMatcher getMatcher(Data value) {
+        if (!value.isPortable()) {
+            return null;
+        }
+        final ClassDefinition classDefinition = value.getClassDefinition();
+        if (classDefinition == lastClassDefinition) {
+            return lastMatcher;
+        }
+        PortableMatcher matcher = matchers.get(classDefinition);
+        if (matcher == null && !matchers.containsKey(classDefinition)) {
+            matcher = predicate.createPortableMatcher(classDefinition, byteOrder);
+            matchers.put(classDefinition, matcher);
+        }
+        lastClassDefinition = classDefinition;
+        lastMatcher = matcher;
+        return matcher;
+    }
+}
@@ -30,4 +30,15 @@ public class QueryContext {
             return indexService.getIndex(attributeName);
         }
     }
+
+    /**
+     * Returns the composite indexes which may be used to answer a conjunction of predicates.
+     */
+    public CompositeIndexImpl[] getCompositeIndexes() {
+        if (indexService == null) {
+            return null;
+        } else {
+            return indexService.getCompositeIndexes();
+        }
+    }
 }
@@ -17,6 +17,7 @@
 package com.hazelcast.query.impl;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -24,6 +25,7 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -33,7 +35,9 @@ import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
 public final class ReflectionHelper {
 
     private static final  ClassLoader THIS_CL = ReflectionHelper.class.getClassLoader();
-    private static final  ConcurrentMap<String, Getter> GETTER_CACHE = new ConcurrentHashMap<String, Getter>(1000);
+    // cached getters refer to the members of their classes, so these classes stay loaded until reset()
+    private static final  ConcurrentMap<Class, ConcurrentMap<String, Getter>> GETTER_CACHE
+            = new ConcurrentHashMap<Class, ConcurrentMap<String, Getter>>(1000);
     private static final int INITIAL_CAPACITY = 3;
 
     private ReflectionHelper() {
@@ -80,26 +84,28 @@ public final class ReflectionHelper {
         return getAttributeType(createGetter(entry, attribute).getReturnType());
     }
 
-    private static Getter createGetter(QueryableEntry entry, String attribute) {
-        Object obj;
-        if (attribute.startsWith(KEY_ATTRIBUTE_NAME)) {
-            obj = entry.getKey();
-            if (attribute.length() > KEY_ATTRIBUTE_NAME.length()) {
-                attribute = attribute.substring(KEY_ATTRIBUTE_NAME.length() + 1);
-            }
-        } else {
-            obj = entry.getValue();
-        }
-
-        Class clazz = obj.getClass();
-        final String cacheKey = clazz.getName() + ":" + attribute;
-        Getter getter = GETTER_CACHE.get(cacheKey);
+    /**
+     * Getters are cached by the class of the key or value and the attribute name as given, so looking up
+     * a cached getter does not allocate. Cached getters of attribute paths made of public members call the
+     * members through an {@link AttributeExtractor} generated by {@link ExtractorGenerator}.
+     */
+    private static Getter createGetter(Map.Entry entry, String attributeName) {
+        final Object obj = attributeName.startsWith(KEY_ATTRIBUTE_NAME) ? entry.getKey() : entry.getValue();
+        final Class rootClass = obj.getClass();
+        final ConcurrentMap<String, Getter> cachedGetters = GETTER_CACHE.get(rootClass);
+        Getter getter = cachedGetters != null ? cachedGetters.get(attributeName) : null;
         if (getter != null) {
             return getter;
         }
 
+        String attribute = attributeName;
+        if (attribute.startsWith(KEY_ATTRIBUTE_NAME) && attribute.length() > KEY_ATTRIBUTE_NAME.length()) {
+            attribute = attribute.substring(KEY_ATTRIBUTE_NAME.length() + 1);
+        }
+        Class clazz = rootClass;
         try {
             Getter parent = null;
+            List<Member> members = new ArrayList<Member>(INITIAL_CAPACITY);
             List<String> possibleMethodNames = new ArrayList<String>(INITIAL_CAPACITY);
             for (final String name : attribute.split("\\.")) {
                 Getter localGetter = null;
@@ -110,12 +116,14 @@ public final class ReflectionHelper {
                 possibleMethodNames.add("is" + camelName);
                 if (name.equals(THIS_ATTRIBUTE_NAME)) {
                     localGetter = new ThisGetter(parent, obj);
+                    members = null;
                 } else {
                     for (String methodName : possibleMethodNames) {
                         try {
                             final Method method = clazz.getMethod(methodName);
                             method.setAccessible(true);
                             localGetter = new MethodGetter(parent, method);
+                            addMember(members, method);
                             clazz = method.getReturnType();
                             break;
                         } catch (NoSuchMethodException ignored) {
@@ -125,6 +133,7 @@ public final class ReflectionHelper {
                         try {
                             final Field field = clazz.getField(name);
                             localGetter = new FieldGetter(parent, field);
+                            addMember(members, field);
                             clazz = field.getType();
                         } catch (NoSuchFieldException ignored) {
                         }
@@ -136,6 +145,7 @@ public final class ReflectionHelper {
                                 final Field field = c.getDeclaredField(name);
                                 field.setAccessible(true);
                                 localGetter = new FieldGetter(parent, field);
+                                addMember(members, field);
                                 clazz = field.getType();
                                 break;
                             } catch (NoSuchFieldException ignored) {
@@ -152,10 +162,12 @@ public final class ReflectionHelper {
             }
             getter = parent;
             if (getter.isCacheable()) {
-                Getter foundGetter = GETTER_CACHE.putIfAbsent(cacheKey, getter);
-                if (foundGetter != null) {
-                    getter = foundGetter;
+                final AttributeExtractor extractor = members != null
+                        ? ExtractorGenerator.generate(rootClass, members) : null;
+                if (extractor != null) {
+                    getter = new ExtractorGetter(getter, extractor);
                 }
+                getter = cacheGetter(rootClass, attributeName, getter);
             }
             return getter;
         } catch (Throwable e) {
@@ -163,10 +175,45 @@ public final class ReflectionHelper {
         }
     }
 
+    private static void addMember(List<Member> members, Member member) {
+        if (members != null) {
+            members.add(member);
+        }
+    }
+
+    private static Getter cacheGetter(Class clazz, String attributeName, Getter getter) {
+        ConcurrentMap<String, Getter> cachedGetters = GETTER_CACHE.get(clazz);
+        if (cachedGetters == null) {
+            cachedGetters = new ConcurrentHashMap<String, Getter>();
+            final ConcurrentMap<String, Getter> foundGetters = GETTER_CACHE.putIfAbsent(clazz, cachedGetters);
+            if (foundGetters != null) {
+                cachedGetters = foundGetters;
+            }
+        }
+        final Getter foundGetter = cachedGetters.putIfAbsent(attributeName, getter);
+        return foundGetter != null ? foundGetter : getter;
+    }
+
     public static Comparable extractValue(QueryEntry queryEntry, String attributeName, Object object) throws Exception {
         return (Comparable) createGetter(queryEntry, attributeName).getValue(object);
     }
 
+    /**
+     * Extracts the attribute of an entry holding deserialized keys and values.
+     */
+    public static Comparable extractValue(Map.Entry entry, String attributeName) throws Exception {
+        if (KEY_ATTRIBUTE_NAME.equals(attributeName)) {
+            return (Comparable) entry.getKey();
+        } else if (THIS_ATTRIBUTE_NAME.equals(attributeName)) {
+            return (Comparable) entry.getValue();
+        }
+        Object object = attributeName.startsWith(KEY_ATTRIBUTE_NAME) ? entry.getKey() : entry.getValue();
+        if (object == null) {
+            return null;
+        }
+        return (Comparable) createGetter(entry, attributeName).getValue(object);
+    }
+
     private abstract static class Getter {
         protected final Getter parent;
 
@@ -239,6 +286,40 @@ public final class ReflectionHelper {
         }
     }
 
+    /**
+     * Calls the members of an attribute path through a generated extractor instead of reflection.
+     */
+    static class ExtractorGetter extends Getter {
+        final Getter getter;
+        final AttributeExtractor extractor;
+
+        ExtractorGetter(Getter getter, AttributeExtractor extractor) {
+            super(null);
+            this.getter = getter;
+            this.extractor = extractor;
+        }
+
+        @Override
+        Object getValue(Object obj) throws Exception {
+            return extractor.extract(obj);
+        }
+
+        @Override
+        Class getReturnType() {
+            return getter.getReturnType();
+        }
+
+        @Override
+        boolean isCacheable() {
+            return getter.isCacheable();
+        }
+
+        @Override
+        public String toString() {
+            return "ExtractorGetter [getter=" + getter + ", extractor=" + extractor.getClass().getName() + "]";
+        }
+    }
+
     static class ThisGetter extends Getter {
         final Object object;
 
@@ -102,6 +102,21 @@ public class SortedIndexStore implements IndexStore {
         return mapRecords.get(indexValue);
     }
 
+    @Override
+    public ConcurrentMap<Data, QueryableEntry> getBoundaryRecordMap(boolean largest) {
+        for (Comparable value : largest ? sortedSet.descendingSet() : sortedSet) {
+            ConcurrentMap<Data, QueryableEntry> records = mapRecords.get(value);
+            if (records != null && !records.isEmpty()) {
+                return records;
+            }
+        }
+        return new ConcurrentHashMap<Data, QueryableEntry>(1);
+    }
+
+    boolean hasNonNullValues() {
+        return !sortedSet.isEmpty();
+    }
+
     @Override
     public void clear() {
         mapRecords.clear();
@@ -131,6 +131,11 @@ public class UnsortedIndexStore implements IndexStore {
         }
     }
 
+    @Override
+    public ConcurrentMap<Data, QueryableEntry> getBoundaryRecordMap(boolean largest) {
+        return null;
+    }
+
     @Override
     public void clear() {
         mapRecords.clear();
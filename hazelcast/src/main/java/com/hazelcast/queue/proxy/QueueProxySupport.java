@@ -88,7 +88,10 @@ abstract class QueueProxySupport extends AbstractDistributedObject<QueueService>
         throwExceptionIfNull(data);
         OfferOperation operation = new OfferOperation(name, timeout, data);
         try {
-            return (Boolean) invokeAndGet(operation);
+            final long start = System.nanoTime();
+            final Boolean offered = invokeAndGet(operation);
+            getService().getLocalQueueStatsImpl(name).recordOfferLatency(System.nanoTime() - start);
+            return offered;
         } catch (Throwable throwable) {
             throw ExceptionUtil.rethrowAllowInterrupted(throwable);
         }
@@ -113,7 +116,10 @@ abstract class QueueProxySupport extends AbstractDistributedObject<QueueService>
     Object pollInternal(long timeout) throws InterruptedException {
         PollOperation operation = new PollOperation(name, timeout);
         try {
-            return invokeAndGet(operation);
+            final long start = System.nanoTime();
+            final Object item = invokeAndGet(operation);
+            getService().getLocalQueueStatsImpl(name).recordPollLatency(System.nanoTime() - start);
+            return item;
         } catch (Throwable throwable) {
             throw ExceptionUtil.rethrowAllowInterrupted(throwable);
         }
@@ -16,6 +16,8 @@
 
 package com.hazelcast.replicatedmap.messages;
 
+import com.hazelcast.core.Member;
+import com.hazelcast.instance.MemberImpl;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
@@ -23,9 +25,14 @@ import com.hazelcast.replicatedmap.operation.ReplicatedMapDataSerializerHook;
 import edu.umd.cs.findbugs.annotations.SuppressWarnings;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
- * This replicated message contains multiple replications at once
+ * This replicated message contains multiple replications at once.
+ * <p/>
+ * The members of the origins and vector clocks are written once in a member table at the start of the message,
+ * the replication messages refer to them by index.
  */
 public class MultiReplicationMessage
         implements IdentifiedDataSerializable {
@@ -57,9 +64,21 @@ public class MultiReplicationMessage
     public void writeData(ObjectDataOutput out)
             throws IOException {
         out.writeUTF(name);
+        Map<Member, Integer> memberIndexes = new LinkedHashMap<Member, Integer>();
+        for (ReplicationMessage replicationMessage : replicationMessages) {
+            Member origin = replicationMessage.getOrigin();
+            if (!memberIndexes.containsKey(origin)) {
+                memberIndexes.put(origin, memberIndexes.size());
+            }
+            replicationMessage.getVectorClock().collectMembers(memberIndexes);
+        }
+        out.writeInt(memberIndexes.size());
+        for (Member member : memberIndexes.keySet()) {
+            member.writeData(out);
+        }
         out.writeInt(replicationMessages.length);
         for (int i = 0; i < replicationMessages.length; i++) {
-            replicationMessages[i].writeData(out);
+            replicationMessages[i].writeCompact(out, memberIndexes);
         }
     }
 
@@ -67,11 +86,16 @@ public class MultiReplicationMessage
     public void readData(ObjectDataInput in)
             throws IOException {
         name = in.readUTF();
+        Member[] members = new Member[in.readInt()];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = new MemberImpl();
+            members[i].readData(in);
+        }
         int length = in.readInt();
         replicationMessages = new ReplicationMessage[length];
         for (int i = 0; i < length; i++) {
             ReplicationMessage replicationMessage = new ReplicationMessage();
-            replicationMessage.readData(in);
+            replicationMessage.readCompact(in, name, members);
             replicationMessages[i] = replicationMessage;
         }
     }
@@ -25,6 +25,7 @@ import com.hazelcast.replicatedmap.operation.ReplicatedMapDataSerializerHook;
 import com.hazelcast.replicatedmap.record.VectorClock;
 
 import java.io.IOException;
+import java.util.Map;
 
 /**
  * This replication message is used for sending over a replication event to another node
@@ -112,6 +113,32 @@ public class ReplicationMessage<K, V>
         ttlMillis = in.readLong();
     }
 
+    /**
+     * Writes this message for a {@link MultiReplicationMessage}, without the map name and with the members
+     * referred to by their index in the member table of the batch.
+     */
+    void writeCompact(ObjectDataOutput out, Map<Member, Integer> memberIndexes)
+            throws IOException {
+        out.writeObject(key);
+        out.writeObject(value);
+        vectorClock.writeCompact(out, memberIndexes);
+        VectorClock.writeMember(out, origin, memberIndexes);
+        out.writeInt(updateHash);
+        out.writeLong(ttlMillis);
+    }
+
+    void readCompact(ObjectDataInput in, String name, Member[] members)
+            throws IOException {
+        this.name = name;
+        key = (K) in.readObject();
+        value = (V) in.readObject();
+        vectorClock = new VectorClock();
+        vectorClock.readCompact(in, members);
+        origin = VectorClock.readMember(in, members);
+        updateHash = in.readInt();
+        ttlMillis = in.readLong();
+    }
+
     @Override
     public int getFactoryId() {
         return ReplicatedMapDataSerializerHook.F_ID;
@@ -135,6 +135,7 @@ abstract class AbstractBaseReplicatedRecordStore<K, V>
     public LocalReplicatedMapStats createReplicatedMapStats() {
         LocalReplicatedMapStatsImpl stats = mapStats;
         stats.setOwnedEntryCount(storage.size());
+        stats.setPendingReplicationEventCount(replicationPublisher.getPendingReplicationCount());
 
         List<ReplicatedRecord<K, V>> records = new ArrayList<ReplicatedRecord<K, V>>(storage.values());
 
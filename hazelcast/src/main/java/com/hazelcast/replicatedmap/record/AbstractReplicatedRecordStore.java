@@ -56,7 +56,7 @@ public abstract class AbstractReplicatedRecordStore<K, V>
     @Override
     public Object remove(Object key) {
         ValidationUtil.isNotNull(key, "key");
-        long time = System.currentTimeMillis();
+        long time = System.nanoTime();
         storage.checkState();
         V oldValue;
         K marshalledKey = (K) marshallKey(key);
@@ -74,14 +74,14 @@ public abstract class AbstractReplicatedRecordStore<K, V>
 
                 vectorClock.incrementClock(localMember);
                 ReplicationMessage message = buildReplicationMessage(key, null, vectorClock, -1);
-                replicationPublisher.publishReplicatedMessage(message);
+                replicationPublisher.publishReplicatedMessage(marshalledKey, message);
             }
             cancelTtlEntry(marshalledKey);
         }
         Object unmarshalledOldValue = unmarshallValue(oldValue);
         fireEntryListenerEvent(key, unmarshalledOldValue, null);
         if (replicatedMapConfig.isStatisticsEnabled()) {
-            mapStats.incrementRemoves(System.currentTimeMillis() - time);
+            mapStats.incrementRemoves(System.nanoTime() - time);
         }
         return unmarshalledOldValue;
     }
@@ -89,7 +89,7 @@ public abstract class AbstractReplicatedRecordStore<K, V>
     @Override
     public Object get(Object key) {
         ValidationUtil.isNotNull(key, "key");
-        long time = System.currentTimeMillis();
+        long time = System.nanoTime();
         storage.checkState();
         ReplicatedRecord replicatedRecord = storage.get(marshallKey(key));
 
@@ -101,7 +101,7 @@ public abstract class AbstractReplicatedRecordStore<K, V>
 
         Object value = replicatedRecord == null ? null : unmarshallValue(replicatedRecord.getValue());
         if (replicatedMapConfig.isStatisticsEnabled()) {
-            mapStats.incrementGets(System.currentTimeMillis() - time);
+            mapStats.incrementGets(System.nanoTime() - time);
         }
         return value;
     }
@@ -122,7 +122,7 @@ public abstract class AbstractReplicatedRecordStore<K, V>
         if (ttl < 0) {
             throw new IllegalArgumentException("ttl must be a positive integer");
         }
-        long time = System.currentTimeMillis();
+        long time = System.nanoTime();
         storage.checkState();
         V oldValue = null;
         K marshalledKey = (K) marshallKey(key);
@@ -148,12 +148,12 @@ public abstract class AbstractReplicatedRecordStore<K, V>
 
             vectorClock.incrementClock(localMember);
             ReplicationMessage message = buildReplicationMessage(key, value, vectorClock, ttlMillis);
-            replicationPublisher.publishReplicatedMessage(message);
+            replicationPublisher.publishReplicatedMessage(marshalledKey, message);
         }
         Object unmarshalledOldValue = unmarshallValue(oldValue);
         fireEntryListenerEvent(key, unmarshalledOldValue, value);
         if (replicatedMapConfig.isStatisticsEnabled()) {
-            mapStats.incrementPuts(System.currentTimeMillis() - time);
+            mapStats.incrementPuts(System.nanoTime() - time);
         }
         return unmarshalledOldValue;
     }
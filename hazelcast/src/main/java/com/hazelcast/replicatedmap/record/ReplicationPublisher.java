@@ -46,13 +46,19 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class implements the actual replication logic for replicated map
+ * <p/>
+ * With a replication delay, updates are buffered per key until the delay has passed or the buffer is full. An
+ * update replaces the buffered update of the same key, so only the latest value of a key is replicated; its vector
+ * clock is merged with the one of the replaced update so that it dominates it.
  *
  * @param <K>
  * @param <V>
@@ -67,8 +73,12 @@ public class ReplicationPublisher<K, V>
     private static final int MAX_MESSAGE_CACHE_SIZE = 1000;
     private static final int MAX_CLEAR_EXECUTION_RETRY = 5;
 
-    private final List<ReplicationMessage> replicationMessageCache = new ArrayList<ReplicationMessage>();
-    private final Lock replicationMessageCacheLock = new ReentrantLock();
+    // buffered updates by marshalled key, the buffer lock of the old implementation is replaced by the key mutexes
+    // of the record store, which are held while publishing
+    private final ConcurrentMap<Object, PendingReplication> replicationMessageCache
+            = new ConcurrentHashMap<Object, PendingReplication>();
+    private final AtomicInteger replicationMessageCacheSize = new AtomicInteger();
+    private final AtomicBoolean replicationScheduled = new AtomicBoolean();
     private final Random memberRandomizer = new Random();
 
     private final ScheduledExecutorService executorService;
@@ -120,28 +130,44 @@ public class ReplicationPublisher<K, V>
         this.preReplicationHook = preReplicationHook;
     }
 
-    public void publishReplicatedMessage(ReplicationMessage message) {
+    /**
+     * Publishes an update of the given key to the other members. Must be called while holding the mutex of the key.
+     *
+     * @param marshalledKey the key as stored in the record store
+     * @param message       the update
+     */
+    public void publishReplicatedMessage(Object marshalledKey, ReplicationMessage message) {
         if (replicatedMapConfig.getReplicationDelayMillis() == 0) {
+            mapStats.incrementSentReplicationEvents(1);
             distributeReplicationMessage(message, false);
-        } else {
-            replicationMessageCacheLock.lock();
-            try {
-                replicationMessageCache.add(message);
-                if (replicationMessageCache.size() == 1) {
-                    ReplicationCachedSenderTask task = new ReplicationCachedSenderTask(this);
-                    long replicationDelayMillis = replicatedMapConfig.getReplicationDelayMillis();
-                    executorService.schedule(task, replicationDelayMillis, TimeUnit.MILLISECONDS);
-                } else {
-                    if (replicationMessageCache.size() > MAX_MESSAGE_CACHE_SIZE) {
-                        processMessageCache();
-                    }
-                }
-            } finally {
-                replicationMessageCacheLock.unlock();
-            }
+            return;
+        }
+
+        long enqueueNanos = System.nanoTime();
+        PendingReplication pending = replicationMessageCache.get(marshalledKey);
+        if (pending != null) {
+            mergeVectorClock(message.getVectorClock(), pending.message.getVectorClock());
+            // the key keeps its place in the lag statistics
+            enqueueNanos = pending.enqueueNanos;
+        }
+        PendingReplication replaced = replicationMessageCache.put(marshalledKey, new PendingReplication(message, enqueueNanos));
+        if (replaced != null) {
+            mapStats.incrementCoalescedReplicationEvents();
+        } else if (replicationMessageCacheSize.incrementAndGet() > MAX_MESSAGE_CACHE_SIZE) {
+            processMessageCache();
+            return;
+        }
+        if (replicationScheduled.compareAndSet(false, true)) {
+            ReplicationCachedSenderTask task = new ReplicationCachedSenderTask(this);
+            long replicationDelayMillis = replicatedMapConfig.getReplicationDelayMillis();
+            executorService.schedule(task, replicationDelayMillis, TimeUnit.MILLISECONDS);
         }
     }
 
+    public int getPendingReplicationCount() {
+        return replicationMessageCacheSize.get();
+    }
+
     public void queueUpdateMessage(final ReplicationMessage update) {
         executorService.execute(new Runnable() {
             @Override
@@ -167,23 +193,40 @@ public class ReplicationPublisher<K, V>
     }
 
     void processMessageCache() {
-        ReplicationMessage[] replicationMessages = null;
-        replicationMessageCacheLock.lock();
-        try {
-            final int size = replicationMessageCache.size();
-            if (size > 0) {
-                replicationMessages = replicationMessageCache.toArray(new ReplicationMessage[size]);
-                replicationMessageCache.clear();
+        // reset first; an update buffered after this point either is drained below or schedules a new task
+        replicationScheduled.set(false);
+        long now = System.nanoTime();
+        List<ReplicationMessage> replicationMessages = new ArrayList<ReplicationMessage>();
+        for (Map.Entry<Object, PendingReplication> entry : replicationMessageCache.entrySet()) {
+            PendingReplication pending = entry.getValue();
+            // an update replacing this one in the meantime stays for the next round
+            if (replicationMessageCache.remove(entry.getKey(), pending)) {
+                replicationMessageCacheSize.decrementAndGet();
+                replicationMessages.add(pending.message);
+                mapStats.recordReplicationLag(now - pending.enqueueNanos);
             }
-        } finally {
-            replicationMessageCacheLock.unlock();
         }
-        if (replicationMessages != null) {
-            MultiReplicationMessage message = new MultiReplicationMessage(name, replicationMessages);
+        if (!replicationMessages.isEmpty()) {
+            mapStats.incrementSentReplicationEvents(replicationMessages.size());
+            ReplicationMessage[] messages = replicationMessages.toArray(new ReplicationMessage[replicationMessages.size()]);
+            MultiReplicationMessage message = new MultiReplicationMessage(name, messages);
             distributeReplicationMessage(message, false);
         }
     }
 
+    private void mergeVectorClock(VectorClock vectorClock, VectorClock replacedVectorClock) {
+        if (vectorClock == replacedVectorClock) {
+            // same record, its clock already includes the replaced update
+            return;
+        }
+        // the replaced update is never sent; e.g. for a remove followed by a put, the put has a new clock
+        // which must dominate the clock of the remove on the other members
+        vectorClock.applyVector(replacedVectorClock);
+        if (!VectorClock.happenedBefore(replacedVectorClock, vectorClock)) {
+            vectorClock.incrementClock(localMember);
+        }
+    }
+
     void distributeReplicationMessage(final Object message, final boolean forceSend) {
         final PreReplicationHook preReplicationHook = getPreReplicationHook();
         if (forceSend || preReplicationHook == null) {
@@ -225,11 +268,10 @@ public class ReplicationPublisher<K, V>
     }
 
     public void emptyReplicationQueue() {
-        replicationMessageCacheLock.lock();
-        try {
-            replicationMessageCache.clear();
-        } finally {
-            replicationMessageCacheLock.unlock();
+        for (Object key : replicationMessageCache.keySet()) {
+            if (replicationMessageCache.remove(key) != null) {
+                replicationMessageCacheSize.decrementAndGet();
+            }
         }
     }
 
@@ -401,6 +443,19 @@ public class ReplicationPublisher<K, V>
         return preReplicationHook;
     }
 
+    /**
+     * An update waiting in the replication buffer.
+     */
+    private static final class PendingReplication {
+        final ReplicationMessage message;
+        final long enqueueNanos;
+
+        PendingReplication(ReplicationMessage message, long enqueueNanos) {
+            this.message = message;
+            this.enqueueNanos = enqueueNanos;
+        }
+    }
+
     private ScheduledExecutorService getExecutorService(NodeEngine nodeEngine, ReplicatedMapConfig replicatedMapConfig) {
         ScheduledExecutorService es = replicatedMapConfig.getReplicatorExecutorService();
         if (es == null) {
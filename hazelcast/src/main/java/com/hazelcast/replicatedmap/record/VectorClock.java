@@ -24,7 +24,9 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.replicatedmap.operation.ReplicatedMapDataSerializerHook;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -85,6 +87,77 @@ public final class VectorClock
         }
     }
 
+    /**
+     * Writes this vector clock referring to members by their index in a member table which is written only once
+     * for a batch of clocks. Members missing from the table are written in full.
+     *
+     * @param memberIndexes indexes of the members in the member table
+     */
+    public void writeCompact(ObjectDataOutput dataOutput, Map<Member, Integer> memberIndexes)
+            throws IOException {
+        // the clock may be updated concurrently, so a snapshot is written
+        List<Entry<Member, AtomicInteger>> entries = new ArrayList<Entry<Member, AtomicInteger>>(clocks.entrySet());
+        dataOutput.writeInt(entries.size());
+        for (Entry<Member, AtomicInteger> entry : entries) {
+            writeMember(dataOutput, entry.getKey(), memberIndexes);
+            dataOutput.writeInt(entry.getValue().get());
+        }
+    }
+
+    /**
+     * Reads a vector clock written by {@link #writeCompact(ObjectDataOutput, Map)}.
+     *
+     * @param members the member table
+     */
+    public void readCompact(ObjectDataInput dataInput, Member[] members)
+            throws IOException {
+        int size = dataInput.readInt();
+        for (int i = 0; i < size; i++) {
+            Member m = readMember(dataInput, members);
+            int clock = dataInput.readInt();
+            clocks.put(m, new AtomicInteger(clock));
+        }
+    }
+
+    /**
+     * Adds the members of this vector clock which are not in the given member table yet.
+     */
+    public void collectMembers(Map<Member, Integer> memberIndexes) {
+        for (Member member : clocks.keySet()) {
+            if (!memberIndexes.containsKey(member)) {
+                memberIndexes.put(member, memberIndexes.size());
+            }
+        }
+    }
+
+    /**
+     * Writes the index of the member in the member table, or -1 followed by the member itself.
+     */
+    public static void writeMember(ObjectDataOutput dataOutput, Member member, Map<Member, Integer> memberIndexes)
+            throws IOException {
+        Integer index = memberIndexes.get(member);
+        if (index != null) {
+            dataOutput.writeInt(index);
+        } else {
+            dataOutput.writeInt(-1);
+            member.writeData(dataOutput);
+        }
+    }
+
+    /**
+     * Reads a member written by {@link #writeMember(ObjectDataOutput, Member, Map)}.
+     */
+    public static Member readMember(ObjectDataInput dataInput, Member[] members)
+            throws IOException {
+        int index = dataInput.readInt();
+        if (index >= 0) {
+            return members[index];
+        }
+        Member member = new MemberImpl();
+        member.readData(dataInput);
+        return member;
+    }
+
     @Override
     public int getId() {
         return ReplicatedMapDataSerializerHook.VECTOR;
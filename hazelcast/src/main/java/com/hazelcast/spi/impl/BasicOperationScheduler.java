@@ -19,12 +19,16 @@ package com.hazelcast.spi.impl;
 import com.hazelcast.core.PartitionAware;
 import com.hazelcast.instance.Node;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.monitor.LatencyHistogram;
+import com.hazelcast.monitor.impl.LatencyHistogramImpl;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.spi.ExecutionService;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.PartitionAwareOperation;
 import com.hazelcast.spi.UrgentSystemOperation;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Queue;
 import java.util.Random;
 import java.util.concurrent.BlockingQueue;
@@ -34,6 +38,9 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import static com.hazelcast.instance.OutOfMemoryErrorDispatcher.onOutOfMemory;
 
@@ -58,6 +65,19 @@ import static com.hazelcast.instance.OutOfMemoryErrorDispatcher.onOutOfMemory;
  * specific to a partition. E.g. a heart beat or a map.size.
  * </li>
  * </ol>
+ * <p/>
+ * By default the generic operation threads share a single blocking work queue. When
+ * {@link com.hazelcast.instance.GroupProperties#PROP_GENERIC_OPERATION_WORK_STEALING_ENABLED} is set, every generic
+ * operation thread gets its own lock-free work queue instead. A generic operation is offered to the queue of the
+ * submitting generic operation thread, or of a random one, and an idle generic operation thread is woken up.
+ * A generic operation thread that runs out of work steals from the queues of the other generic operation threads
+ * before it parks. Partition operation threads never execute generic operations, since generic operations like
+ * the {@link PartitionIteratingOperation} wait for partition operations and could end up waiting for themselves.
+ * <p/>
+ * In both modes the time generic operations wait in the queue is recorded, see {@link #getGenericQueueWaitTimes()}.
+ * <p/>
+ * Each operation thread keeps track of the time it is busy processing tasks and of the operation it is currently
+ * executing, so that operations blocking a thread for too long can be found by the {@link SlowOperationDetector}.
  */
 public final class BasicOperationScheduler {
 
@@ -74,6 +94,13 @@ public final class BasicOperationScheduler {
     private final BlockingQueue genericWorkQueue = new LinkedBlockingQueue();
     private final ConcurrentLinkedQueue genericPriorityWorkQueue = new ConcurrentLinkedQueue();
 
+    //if enabled, each generic operation thread has its own work queue and idle threads steal from the others.
+    private final boolean genericWorkStealing;
+    //the generic operation threads that are parked and waiting to be woken up, only used with work stealing.
+    private final Queue<OperationThread> idleGenericOperationThreads = new ConcurrentLinkedQueue<OperationThread>();
+    private final AtomicLong stolenGenericTaskCount = new AtomicLong();
+    private final LatencyHistogramImpl genericQueueWaitTimes = new LatencyHistogramImpl();
+
     //all operations for specific partitions will be executed on these threads, .e.g map.put(key,value).
     final OperationThread[] partitionOperationThreads;
 
@@ -89,6 +116,9 @@ public final class BasicOperationScheduler {
 
     private final ResponseThread responseThread;
 
+    //null if the slow operation detection is disabled.
+    private final SlowOperationDetector slowOperationDetector;
+
     private volatile boolean shutdown;
 
     //The trigger is used when a priority message is send and offered to the operation-thread priority queue.
@@ -112,6 +142,7 @@ public final class BasicOperationScheduler {
         this.logger = node.getLogger(BasicOperationScheduler.class);
         this.node = node;
         this.processor = processor;
+        this.genericWorkStealing = node.getGroupProperties().GENERIC_OPERATION_WORK_STEALING_ENABLED.getBoolean();
 
         this.genericOperationThreads = new OperationThread[getGenericOperationThreadCount()];
         initOperationThreads(genericOperationThreads, new GenericOperationThreadFactory());
@@ -122,18 +153,35 @@ public final class BasicOperationScheduler {
         this.responseThread = new ResponseThread();
         responseThread.start();
 
-        logger.info("Starting with " + genericOperationThreads.length + " generic operation threads and "
+        this.slowOperationDetector = initSlowOperationDetector();
+
+        logger.info("Starting with " + genericOperationThreads.length + " generic operation threads"
+                + (genericWorkStealing ? " with work stealing" : "") + " and "
                 + partitionOperationThreads.length + " partition operation threads.");
     }
 
     private static void initOperationThreads(OperationThread[] operationThreads, ThreadFactory threadFactory) {
         for (int threadId = 0; threadId < operationThreads.length; threadId++) {
-            OperationThread operationThread = (OperationThread) threadFactory.newThread(null);
-            operationThreads[threadId] = operationThread;
+            operationThreads[threadId] = (OperationThread) threadFactory.newThread(null);
+        }
+        //the threads are started once all of them exist, since a generic operation thread may steal from any other.
+        for (OperationThread operationThread : operationThreads) {
             operationThread.start();
         }
     }
 
+    private SlowOperationDetector initSlowOperationDetector() {
+        long thresholdMillis = node.getGroupProperties().SLOW_OPERATION_DETECTOR_THRESHOLD_MILLIS.getLong();
+        if (thresholdMillis <= 0) {
+            return null;
+        }
+        int logSize = node.getGroupProperties().SLOW_OPERATION_DETECTOR_LOG_SIZE.getInteger();
+        SlowOperationDetector detector = new SlowOperationDetector(node, partitionOperationThreads,
+                genericOperationThreads, thresholdMillis, logSize);
+        detector.start();
+        return detector;
+    }
+
     private int getGenericOperationThreadCount() {
         int threadCount = node.getGroupProperties().GENERIC_OPERATION_THREAD_COUNT.getInteger();
         if (threadCount <= 0) {
@@ -190,6 +238,10 @@ public final class BasicOperationScheduler {
         return toPartitionThreadIndex(partitionId) == threadId;
     }
 
+    static boolean isPartitionOperationThread(Thread thread) {
+        return thread instanceof OperationThread && ((OperationThread) thread).isPartitionSpecific;
+    }
+
     boolean isInvocationAllowedFromCurrentThread(int partitionId) {
         Thread currentThread = Thread.currentThread();
 
@@ -214,6 +266,12 @@ public final class BasicOperationScheduler {
 
         size += genericWorkQueue.size();
 
+        if (genericWorkStealing) {
+            for (OperationThread t : genericOperationThreads) {
+                size += t.localWorkQueue.size();
+            }
+        }
+
         return size;
     }
 
@@ -232,6 +290,82 @@ public final class BasicOperationScheduler {
         return responseThread.workQueue.size();
     }
 
+    /**
+     * Returns the number of pending tasks, including the urgent ones, per partition operation thread.
+     */
+    public int[] getPartitionOperationThreadQueueSizes() {
+        int[] sizes = new int[partitionOperationThreads.length];
+        for (int i = 0; i < sizes.length; i++) {
+            OperationThread t = partitionOperationThreads[i];
+            sizes[i] = t.workQueue.size() + t.priorityWorkQueue.size();
+        }
+        return sizes;
+    }
+
+    /**
+     * Returns the time in milliseconds each partition operation thread has spent processing tasks.
+     */
+    public long[] getPartitionOperationThreadBusyTimes() {
+        long[] busyTimes = new long[partitionOperationThreads.length];
+        for (int i = 0; i < busyTimes.length; i++) {
+            busyTimes[i] = TimeUnit.NANOSECONDS.toMillis(partitionOperationThreads[i].busyTimeNanos.get());
+        }
+        return busyTimes;
+    }
+
+    public boolean isGenericWorkStealingEnabled() {
+        return genericWorkStealing;
+    }
+
+    /**
+     * Returns the number of generic tasks that have been executed by another generic operation thread than the one
+     * they were offered to. Always 0 if work stealing is disabled.
+     */
+    public long getStolenGenericTaskCount() {
+        return stolenGenericTaskCount.get();
+    }
+
+    /**
+     * Returns the time in microseconds generic tasks have been waiting in a work queue before being processed.
+     */
+    public LatencyHistogram getGenericQueueWaitTimes() {
+        return genericQueueWaitTimes;
+    }
+
+    public List<SlowOperationLog> getSlowOperationLogs() {
+        if (slowOperationDetector == null) {
+            return Collections.emptyList();
+        }
+        return slowOperationDetector.getSlowOperationLogs();
+    }
+
+    /**
+     * Marks the start of the execution of the operation, if it is executed by an operation thread and is not
+     * nested in another operation.
+     *
+     * @return the current operation thread if the execution is tracked, null otherwise.
+     */
+    OperationThread beforeOperationExecution(Operation op, long startNanos) {
+        Thread currentThread = Thread.currentThread();
+        if (!(currentThread instanceof OperationThread)) {
+            return null;
+        }
+        OperationThread operationThread = (OperationThread) currentThread;
+        if (operationThread.currentOperation != null) {
+            return null;
+        }
+        operationThread.currentOperationStartNanos = startNanos;
+        operationThread.currentOperation = op;
+        return operationThread;
+    }
+
+    void afterOperationExecution(OperationThread operationThread, long startNanos, long elapsedNanos) {
+        operationThread.currentOperation = null;
+        if (slowOperationDetector != null) {
+            slowOperationDetector.operationCompleted(operationThread, startNanos, elapsedNanos);
+        }
+    }
+
     public void execute(Operation op) {
         String executorName = op.getExecutorName();
         if (executorName == null) {
@@ -285,6 +419,12 @@ public final class BasicOperationScheduler {
         BlockingQueue workQueue;
         Queue priorityWorkQueue;
         if (partitionId < 0) {
+            GenericTask genericTask = new GenericTask(task);
+            if (genericWorkStealing) {
+                executeGeneric(genericTask, priority);
+                return;
+            }
+            task = genericTask;
             workQueue = genericWorkQueue;
             priorityWorkQueue = genericPriorityWorkQueue;
         } else {
@@ -301,6 +441,39 @@ public final class BasicOperationScheduler {
         }
     }
 
+    private void executeGeneric(GenericTask task, boolean priority) {
+        if (priority) {
+            offerWork(genericPriorityWorkQueue, task);
+        } else {
+            OperationThread target;
+            Thread currentThread = Thread.currentThread();
+            if (currentThread instanceof OperationThread && !((OperationThread) currentThread).isPartitionSpecific) {
+                //a generic operation thread keeps the work it creates local, no contention with other submitters.
+                target = (OperationThread) currentThread;
+            } else {
+                target = genericOperationThreads[genericOperationRandom.nextInt(genericOperationThreads.length)];
+            }
+            offerWork(target.localWorkQueue, task);
+        }
+        //the task is offered before an idle thread is selected: a thread going idle concurrently either is woken
+        //up here, or it sees the task when it checks the queues after registering itself as idle.
+        wakeupIdleGenericOperationThread();
+    }
+
+    private void wakeupIdleGenericOperationThread() {
+        for (; ; ) {
+            OperationThread idleThread = idleGenericOperationThreads.poll();
+            if (idleThread == null) {
+                return;
+            }
+            //the queue can contain stale entries of threads that found work after registering themselves.
+            if (idleThread.idle.compareAndSet(true, false)) {
+                LockSupport.unpark(idleThread);
+                return;
+            }
+        }
+    }
+
     private void offerWork(Queue queue, Object task) {
         //in 3.3 we are going to apply backpressure on overload and then we are going to do something
         //with the return values of the offer methods.
@@ -318,6 +491,9 @@ public final class BasicOperationScheduler {
 
     public void shutdown() {
         shutdown = true;
+        if (slowOperationDetector != null) {
+            slowOperationDetector.shutdown();
+        }
         interruptAll(partitionOperationThreads);
         interruptAll(genericOperationThreads);
         awaitTermination(partitionOperationThreads);
@@ -382,6 +558,15 @@ public final class BasicOperationScheduler {
         private final boolean isPartitionSpecific;
         private final BlockingQueue workQueue;
         private final Queue priorityWorkQueue;
+        private final AtomicLong busyTimeNanos = new AtomicLong();
+        //only used with generic work stealing.
+        private final Queue localWorkQueue = new ConcurrentLinkedQueue();
+        private final AtomicBoolean idle = new AtomicBoolean();
+
+        //the outermost operation executed by this thread, used for the slow operation detection.
+        volatile Operation currentOperation;
+        volatile long currentOperationStartNanos;
+        volatile SlowOperationLog slowOperationLog;
 
         public OperationThread(String name, boolean isPartitionSpecific,
                                int threadId, BlockingQueue workQueue, Queue priorityWorkQueue) {
@@ -405,6 +590,11 @@ public final class BasicOperationScheduler {
         }
 
         private void doRun() {
+            if (genericWorkStealing && !isPartitionSpecific) {
+                doRunWorkStealing();
+                return;
+            }
+
             for (; ; ) {
                 Object task;
                 try {
@@ -425,11 +615,69 @@ public final class BasicOperationScheduler {
             }
         }
 
+        private void doRunWorkStealing() {
+            while (!shutdown) {
+                Object task = nextGenericTask();
+                if (task != null) {
+                    process(task);
+                    continue;
+                }
+
+                idle.set(true);
+                idleGenericOperationThreads.offer(this);
+                task = nextGenericTask();
+                if (task != null) {
+                    //if the cas fails, a submitter has claimed this thread and its unpark is harmless.
+                    idle.compareAndSet(true, false);
+                    process(task);
+                    continue;
+                }
+
+                while (idle.get() && !shutdown) {
+                    LockSupport.park(this);
+                    //clear the interrupt flag, otherwise park returns immediately.
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        private Object nextGenericTask() {
+            Object task = genericPriorityWorkQueue.poll();
+            if (task != null) {
+                return task;
+            }
+            task = localWorkQueue.poll();
+            if (task != null) {
+                return task;
+            }
+            return stealGenericTask();
+        }
+
+        private Object stealGenericTask() {
+            OperationThread[] threads = genericOperationThreads;
+            for (int i = 1; i < threads.length; i++) {
+                Object task = threads[(threadId + i) % threads.length].localWorkQueue.poll();
+                if (task != null) {
+                    stolenGenericTaskCount.incrementAndGet();
+                    return task;
+                }
+            }
+            return null;
+        }
+
         private void process(Object task) {
+            if (task instanceof GenericTask) {
+                GenericTask genericTask = (GenericTask) task;
+                genericQueueWaitTimes.recordNanos(System.nanoTime() - genericTask.enqueueNanos);
+                task = genericTask.task;
+            }
+            long startNanos = System.nanoTime();
             try {
                 processor.process(task);
             } catch (Exception e) {
                 logger.severe("Failed to process task: " + task + " on partitionThread:" + getName());
+            } finally {
+                busyTimeNanos.addAndGet(System.nanoTime() - startNanos);
             }
         }
 
@@ -496,6 +744,23 @@ public final class BasicOperationScheduler {
         }
     }
 
+    /**
+     * Wraps a generic task to record how long it waits in the work queue.
+     */
+    private static final class GenericTask {
+        private final Object task;
+        private final long enqueueNanos = System.nanoTime();
+
+        private GenericTask(Object task) {
+            this.task = task;
+        }
+
+        @Override
+        public String toString() {
+            return task.toString();
+        }
+    }
+
     /**
      * Process the operation that has been send locally to this OperationService.
      */
@@ -23,6 +23,7 @@ import com.hazelcast.instance.MemberImpl;
 import com.hazelcast.instance.Node;
 import com.hazelcast.instance.OutOfMemoryErrorDispatcher;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.monitor.LatencyHistogram;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.Connection;
 import com.hazelcast.nio.Packet;
@@ -50,8 +51,11 @@ import com.hazelcast.spi.exception.CallTimeoutException;
 import com.hazelcast.spi.exception.CallerNotMemberException;
 import com.hazelcast.spi.exception.PartitionMigratingException;
 import com.hazelcast.spi.exception.WrongTargetException;
+import com.hazelcast.spi.impl.BasicOperationScheduler.OperationThread;
 import com.hazelcast.spi.impl.PartitionIteratingOperation.PartitionResponse;
 import com.hazelcast.util.Clock;
+import com.hazelcast.util.ConcurrencyUtil;
+import com.hazelcast.util.ConstructorFunction;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -86,6 +90,12 @@ import static com.hazelcast.spi.OperationAccessor.setCallId;
  * urgent packet. When this packet is received on the remove OperationService, the urgent flag is checked and if
  * needed, the operation is set on the urgent queue. So local and remote execution of System operations will obey
  * the urgency.
+ * <p/>
+ * <h1>Operation timing</h1>
+ * The execution time of every operation is recorded per operation class, see {@link #getOperationTimings()}.
+ * Operations that keep an operation thread busy for longer than
+ * {@link com.hazelcast.instance.GroupProperties#PROP_SLOW_OPERATION_DETECTOR_THRESHOLD_MILLIS} are reported by the
+ * {@link SlowOperationDetector}.
  *
  * @see com.hazelcast.spi.impl.BasicInvocation
  * @see com.hazelcast.spi.impl.BasicInvocationBuilder
@@ -94,7 +104,17 @@ import static com.hazelcast.spi.OperationAccessor.setCallId;
  */
 final class BasicOperationService implements InternalOperationService {
 
+    private static final ConstructorFunction<Class, OperationTimingStats> OPERATION_TIMING_CONSTRUCTOR
+            = new ConstructorFunction<Class, OperationTimingStats>() {
+        @Override
+        public OperationTimingStats createNew(Class operationClass) {
+            return new OperationTimingStats(operationClass.getName());
+        }
+    };
+
     private final AtomicLong executedOperationsCount = new AtomicLong();
+    private final ConcurrentMap<Class, OperationTimingStats> operationTimings
+            = new ConcurrentHashMap<Class, OperationTimingStats>();
 
     private final NodeEngineImpl nodeEngine;
     private final Node node;
@@ -163,6 +183,41 @@ final class BasicOperationService implements InternalOperationService {
         return scheduler.getPriorityOperationExecutorQueueSize();
     }
 
+    @Override
+    public int[] getPartitionOperationThreadQueueSizes() {
+        return scheduler.getPartitionOperationThreadQueueSizes();
+    }
+
+    @Override
+    public long[] getPartitionOperationThreadBusyTimes() {
+        return scheduler.getPartitionOperationThreadBusyTimes();
+    }
+
+    @Override
+    public Collection<OperationTimingStats> getOperationTimings() {
+        return new ArrayList<OperationTimingStats>(operationTimings.values());
+    }
+
+    @Override
+    public List<SlowOperationLog> getSlowOperationLogs() {
+        return scheduler.getSlowOperationLogs();
+    }
+
+    @Override
+    public boolean isGenericWorkStealingEnabled() {
+        return scheduler.isGenericWorkStealingEnabled();
+    }
+
+    @Override
+    public long getStolenGenericOperationCount() {
+        return scheduler.getStolenGenericTaskCount();
+    }
+
+    @Override
+    public LatencyHistogram getGenericOperationQueueWaitTimes() {
+        return scheduler.getGenericQueueWaitTimes();
+    }
+
     @Override
     public InvocationBuilder createInvocationBuilder(String serviceName, Operation op, int partitionId) {
         if (partitionId < 0) {
@@ -308,6 +363,8 @@ final class BasicOperationService implements InternalOperationService {
      */
     private void processOperation(final Operation op) {
         executedOperationsCount.incrementAndGet();
+        final long startNanos = System.nanoTime();
+        final OperationThread operationThread = scheduler.beforeOperationExecution(op, startNanos);
 
         RemoteCallKey callKey = null;
         try {
@@ -387,6 +444,16 @@ final class BasicOperationService implements InternalOperationService {
             handleOperationError(op, e);
         } finally {
             afterCallExecution(op, callKey);
+            recordExecutionTime(op, operationThread, startNanos);
+        }
+    }
+
+    private void recordExecutionTime(Operation op, OperationThread operationThread, long startNanos) {
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        ConcurrencyUtil.getOrPutIfAbsent(operationTimings, op.getClass(), OPERATION_TIMING_CONSTRUCTOR)
+                .record(elapsedNanos);
+        if (operationThread != null) {
+            scheduler.afterOperationExecution(operationThread, startNanos, elapsedNanos);
         }
     }
 
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.spi.impl.EventServiceImpl.EventPacket;
+import com.hazelcast.spi.impl.EventServiceImpl.EventPacketBatch;
+import com.hazelcast.util.Clock;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the events published to a single member and sends them in {@link EventPacketBatch}es.
+ * <p/>
+ * A batch is sent as soon as it is full, otherwise by the periodic {@link #flush()} of the {@link EventServiceImpl}.
+ * All events to the member go through the same batcher and the batches are sent in order, so the order of the
+ * events with the same order key is retained.
+ * <p/>
+ * With back pressure enabled, a publisher needs a credit for each event. The credits of a batch are returned when
+ * the member acknowledges the batch, which it does once its events have been queued for dispatching. So at most
+ * {@code window} events are on their way to the member, and publishers block when the member can't keep up.
+ * If the oldest unacknowledged batch is not acknowledged within the ack timeout, its events are assumed to be lost
+ * and its credits are returned; a late acknowledgement of such a batch is ignored.
+ */
+final class EventBatcher {
+
+    private static final long CREDIT_WAIT_MILLIS = 100;
+
+    private final NodeEngineImpl nodeEngine;
+    private final ILogger logger;
+    private final Address target;
+    private final boolean backpressure;
+    private final long ackTimeoutMillis;
+    private final Semaphore credits;
+    private final AtomicLong batchSequence;
+
+    private final EventPacket[] eventPackets;
+    private final int[] orderKeys;
+    private int size;
+    // sent batches waiting for their acknowledgement, oldest first
+    private final LinkedList<SentBatch> unacknowledgedBatches = new LinkedList<SentBatch>();
+
+    private volatile boolean closed;
+
+    EventBatcher(NodeEngineImpl nodeEngine, Address target, int maxBatchSize, boolean backpressure, int window,
+                 long ackTimeoutMillis, AtomicLong batchSequence) {
+        this.nodeEngine = nodeEngine;
+        this.logger = nodeEngine.getLogger(EventBatcher.class);
+        this.target = target;
+        this.backpressure = backpressure;
+        this.ackTimeoutMillis = ackTimeoutMillis;
+        this.credits = new Semaphore(window);
+        this.batchSequence = batchSequence;
+        this.eventPackets = new EventPacket[maxBatchSize];
+        this.orderKeys = new int[maxBatchSize];
+    }
+
+    /**
+     * Adds an event to the current batch, waiting for a credit first if back pressure is enabled.
+     *
+     * @param creditTimeoutMillis the maximum time to wait for a credit
+     * @return false if the event could not be sent because no credit was available in time, the member left
+     * or this member is shutting down.
+     */
+    boolean add(EventPacket eventPacket, int orderKey, long creditTimeoutMillis) {
+        if (backpressure && !acquireCredit(creditTimeoutMillis)) {
+            return false;
+        }
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            eventPackets[size] = eventPacket;
+            orderKeys[size] = orderKey;
+            size++;
+            if (size == eventPackets.length) {
+                send();
+            }
+        }
+        return true;
+    }
+
+    synchronized void flush() {
+        if (size > 0 && !closed) {
+            send();
+        }
+        if (backpressure) {
+            expireUnacknowledgedBatches();
+        }
+    }
+
+    private void send() {
+        final int count = size;
+        SentBatch sentBatch = null;
+        try {
+            final long sequence = batchSequence.incrementAndGet();
+            final EventPacketBatch batch = new EventPacketBatch(eventPackets, orderKeys, count, backpressure, sequence);
+            final Packet packet = new Packet(nodeEngine.toData(batch), nodeEngine.getPortableContext());
+            packet.setHeader(Packet.HEADER_EVENT);
+            packet.setHeader(Packet.HEADER_EVENT_BATCH);
+            if (backpressure) {
+                // registered before sending, the acknowledgement can't overtake it since it needs this lock
+                sentBatch = new SentBatch(sequence, count, Clock.currentTimeMillis());
+                unacknowledgedBatches.add(sentBatch);
+            }
+            if (!nodeEngine.send(packet, target)) {
+                onFailedSend(sentBatch, count);
+            }
+        } catch (RuntimeException e) {
+            onFailedSend(sentBatch, count);
+            throw e;
+        } finally {
+            Arrays.fill(eventPackets, 0, count, null);
+            size = 0;
+        }
+    }
+
+    private void onFailedSend(SentBatch sentBatch, int count) {
+        // the member won't acknowledge these events
+        if (backpressure && (sentBatch == null || unacknowledgedBatches.remove(sentBatch))) {
+            credits.release(count);
+        }
+        if (nodeEngine.isActive() && logger.isFinestEnabled()) {
+            logger.finest("Failed to send " + count + " events to " + target);
+        }
+    }
+
+    private boolean acquireCredit(long timeoutMillis) {
+        final long start = Clock.currentTimeMillis();
+        try {
+            while (true) {
+                final long remaining = timeoutMillis - (Clock.currentTimeMillis() - start);
+                if (credits.tryAcquire(Math.max(0, Math.min(CREDIT_WAIT_MILLIS, remaining)), TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+                if (closed || !nodeEngine.isActive()) {
+                    return false;
+                }
+                expireUnacknowledgedBatches();
+                if (remaining <= 0) {
+                    logger.warning("No event credit for " + target + " within " + timeoutMillis
+                            + " ms, dropping the event.");
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Returns the credits of the batches which have not been acknowledged within the ack timeout.
+     */
+    private synchronized void expireUnacknowledgedBatches() {
+        final long now = Clock.currentTimeMillis();
+        int expiredEvents = 0;
+        while (!unacknowledgedBatches.isEmpty() && now - unacknowledgedBatches.getFirst().sentMillis > ackTimeoutMillis) {
+            expiredEvents += unacknowledgedBatches.removeFirst().count;
+        }
+        if (expiredEvents > 0) {
+            logger.warning("No event acknowledgement received from " + target + " for " + ackTimeoutMillis
+                    + " ms, assuming " + expiredEvents + " unacknowledged events are lost.");
+            credits.release(expiredEvents);
+        }
+    }
+
+    synchronized void onAcknowledge(long sequence) {
+        final Iterator<SentBatch> iterator = unacknowledgedBatches.iterator();
+        while (iterator.hasNext()) {
+            final SentBatch sentBatch = iterator.next();
+            if (sentBatch.sequence == sequence) {
+                iterator.remove();
+                credits.release(sentBatch.count);
+                return;
+            }
+        }
+        // the batch has expired already and its credits have been returned
+    }
+
+    /**
+     * Closes this batcher when the member has left; pending and blocked events are discarded.
+     */
+    synchronized void close() {
+        closed = true;
+        Arrays.fill(eventPackets, 0, size, null);
+        size = 0;
+        unacknowledgedBatches.clear();
+    }
+
+    private static final class SentBatch {
+        final long sequence;
+        final int count;
+        final long sentMillis;
+
+        SentBatch(long sequence, int count, long sentMillis) {
+            this.sequence = sequence;
+            this.count = count;
+            this.sentMillis = sentMillis;
+        }
+    }
+}
@@ -38,6 +38,7 @@ import com.hazelcast.spi.EventService;
 import com.hazelcast.spi.annotation.PrivateApi;
 import com.hazelcast.util.ConcurrencyUtil;
 import com.hazelcast.util.ConstructorFunction;
+import com.hazelcast.util.executor.ExecutorType;
 import com.hazelcast.util.executor.StripedExecutor;
 import com.hazelcast.util.executor.StripedRunnable;
 import com.hazelcast.util.executor.TimeoutRunnable;
@@ -54,11 +55,30 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
-
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The EventServiceImpl dispatches events to local listeners on the striped event threads, and sends events for
+ * listeners of other members in event packets.
+ * <p/>
+ * When {@link GroupProperties#PROP_EVENT_BATCH_SIZE} is larger than 1, or back pressure is enabled, the events for
+ * another member are collected by an {@link EventBatcher} and sent in {@link EventPacketBatch}es. A batch is
+ * unpacked by a single thread of the receiving member, outside of the event threads, which then queues each event
+ * for the event thread of its order key.
+ * <p/>
+ * By default an event is dropped when the queue of its event thread stays full for longer than
+ * {@link GroupProperties#PROP_EVENT_QUEUE_TIMEOUT_MILLIS}. With {@link GroupProperties#PROP_EVENT_BACKPRESSURE_ENABLED}
+ * publishers of local events block until there is room, and publishers of remote events block when the receiving
+ * member has not acknowledged {@link GroupProperties#PROP_EVENT_BACKPRESSURE_WINDOW} events yet. Partition operation
+ * threads block for at most {@link GroupProperties#PROP_EVENT_BACKPRESSURE_MAX_WAIT_MILLIS} and drop the event then.
+ */
 public class EventServiceImpl implements EventService {
+    static final String EVENT_BATCH_EXECUTOR = "hz:event-batch";
+
     private static final EventRegistration[] EMPTY_REGISTRATIONS = new EventRegistration[0];
 
     private final ILogger logger;
@@ -68,6 +88,23 @@ public class EventServiceImpl implements EventService {
     private final int eventQueueTimeoutMs;
     private final int eventThreadCount;
     private final int eventQueueCapacity;
+    private final int eventBatchSize;
+    private final boolean eventBatching;
+    private final boolean backpressure;
+    private final int backpressureWindow;
+    private final long backpressureAckTimeoutMs;
+    private final long backpressureMaxWaitMs;
+    private final AtomicLong eventBatchSequence = new AtomicLong();
+    private final ConcurrentMap<Address, EventBatcher> eventBatchers = new ConcurrentHashMap<Address, EventBatcher>();
+    private final ConstructorFunction<Address, EventBatcher> eventBatcherConstructor
+            = new ConstructorFunction<Address, EventBatcher>() {
+        @Override
+        public EventBatcher createNew(Address target) {
+            return new EventBatcher(nodeEngine, target, eventBatchSize, backpressure, backpressureWindow,
+                    backpressureAckTimeoutMs, eventBatchSequence);
+        }
+    };
+    private final ScheduledFuture eventBatchFlushTask;
 
     EventServiceImpl(NodeEngineImpl nodeEngine) {
         this.nodeEngine = nodeEngine;
@@ -84,6 +121,28 @@ public class EventServiceImpl implements EventService {
                 eventThreadCount,
                 eventQueueCapacity);
         this.segments = new ConcurrentHashMap<String, EventServiceSegment>();
+
+        this.eventBatchSize = Math.max(1, groupProperties.EVENT_BATCH_SIZE.getInteger());
+        this.backpressure = groupProperties.EVENT_BACKPRESSURE_ENABLED.getBoolean();
+        this.backpressureWindow = Math.max(eventBatchSize, groupProperties.EVENT_BACKPRESSURE_WINDOW.getInteger());
+        this.backpressureAckTimeoutMs = groupProperties.OPERATION_CALL_TIMEOUT_MILLIS.getLong();
+        this.backpressureMaxWaitMs = groupProperties.EVENT_BACKPRESSURE_MAX_WAIT_MILLIS.getLong();
+        this.eventBatching = eventBatchSize > 1 || backpressure;
+        if (eventBatching) {
+            // a single thread unpacks the batches in the order they arrived. With back pressure the number of
+            // queued batches is bounded by the windows of the senders, so the queue does not need a bound itself.
+            nodeEngine.getExecutionService().register(EVENT_BATCH_EXECUTOR, 1,
+                    backpressure ? Integer.MAX_VALUE : eventQueueCapacity, ExecutorType.CACHED);
+            long maxDelayMs = Math.max(1, groupProperties.EVENT_BATCH_MAX_DELAY_MILLIS.getLong());
+            this.eventBatchFlushTask = nodeEngine.getExecutionService().scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    flushEventBatches();
+                }
+            }, maxDelayMs, maxDelayMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.eventBatchFlushTask = null;
+        }
     }
 
     @Override
@@ -288,7 +347,8 @@ public class EventServiceImpl implements EventService {
         if (nodeEngine.isActive()) {
             try {
                 if (reg.listener != null) {
-                    eventExecutor.execute(new LocalEventDispatcher(serviceName, event, reg.listener, orderKey, eventQueueTimeoutMs));
+                    long timeoutMs = backpressure ? getBackpressureWaitMs() : eventQueueTimeoutMs;
+                    eventExecutor.execute(new LocalEventDispatcher(serviceName, event, reg.listener, orderKey, timeoutMs));
                 } else {
                     logger.warning("Something seems wrong! Listener instance is null! -> " + reg);
                 }
@@ -301,6 +361,16 @@ public class EventServiceImpl implements EventService {
     }
 
     private void sendEventPacket(Address subscriber, EventPacket eventPacket, int orderKey) {
+        if (eventBatching) {
+            if (!(eventPacket.event instanceof Data)) {
+                // the event is serialized now, since the batch may be sent when the event object has changed
+                eventPacket.event = nodeEngine.toData(eventPacket.event);
+            }
+            EventBatcher batcher = ConcurrencyUtil.getOrPutIfAbsent(eventBatchers, subscriber, eventBatcherConstructor);
+            batcher.add(eventPacket, orderKey, getBackpressureWaitMs());
+            return;
+        }
+
         final String serviceName = eventPacket.serviceName;
         final EventServiceSegment segment = getSegment(serviceName, true);
         boolean sync = segment.incrementPublish() % 100000 == 0;
@@ -318,6 +388,63 @@ public class EventServiceImpl implements EventService {
         }
     }
 
+    /**
+     * Returns how long a publisher waits for room with back pressure enabled. An event thread does not wait for
+     * itself, and a partition operation thread waits only for a bounded time, since a listener calling back into
+     * one of its partitions would otherwise stall the partition thread.
+     */
+    private long getBackpressureWaitMs() {
+        if (eventExecutor.isWorkerThread()) {
+            return eventQueueTimeoutMs;
+        }
+        if (BasicOperationScheduler.isPartitionOperationThread(Thread.currentThread())) {
+            return backpressureMaxWaitMs;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private void flushEventBatches() {
+        for (EventBatcher batcher : eventBatchers.values()) {
+            try {
+                batcher.flush();
+            } catch (Exception e) {
+                logger.warning("Failed to send event batch", e);
+            }
+        }
+    }
+
+    /**
+     * Queues the events of a batch for the event threads of their order keys. Runs on the
+     * {@link #EVENT_BATCH_EXECUTOR}, never on an event thread, so it can block on a full event queue.
+     */
+    private void dispatchEventBatch(EventPacketBatch batch, Address sender) {
+        // with back pressure the events are never dropped; waiting for room is what delays the acknowledgement
+        // and so slows the sender down when this member can't keep up
+        long timeoutMs = batch.acknowledge ? Long.MAX_VALUE : eventQueueTimeoutMs;
+        int queued = 0;
+        for (int i = 0; i < batch.size; i++) {
+            EventPacketProcessor processor = new EventPacketProcessor(batch.eventPackets[i], batch.orderKeys[i]);
+            processor.timeoutMs = timeoutMs;
+            if (executeEvent(processor)) {
+                queued++;
+            }
+        }
+        if (batch.acknowledge && sender != null) {
+            if (queued < batch.size && logger.isFinestEnabled()) {
+                logger.finest("Dropped " + (batch.size - queued) + " events of a batch from " + sender);
+            }
+            // events which were not queued won't be queued later, so the whole batch is acknowledged
+            nodeEngine.getOperationService().send(new EventBatchAckOperation(batch.sequence), sender);
+        }
+    }
+
+    private void handleEventBatchAck(Address sender, long sequence) {
+        EventBatcher batcher = eventBatchers.get(sender);
+        if (batcher != null) {
+            batcher.onAcknowledge(sequence);
+        }
+    }
+
     private EventServiceSegment getSegment(String service, boolean forceCreate) {
         EventServiceSegment segment = segments.get(service);
         if (segment == null && forceCreate) {
@@ -335,22 +462,28 @@ public class EventServiceImpl implements EventService {
     }
 
     @PrivateApi
-    void executeEvent(Runnable eventRunnable) {
+    boolean executeEvent(Runnable eventRunnable) {
         if (nodeEngine.isActive()) {
             try {
                 eventExecutor.execute(eventRunnable);
+                return true;
             } catch (RejectedExecutionException e) {
                 if (eventExecutor.isLive()) {
                     logger.warning("EventQueue overloaded! Failed to execute event process: " + eventRunnable);
                 }
             }
         }
+        return false;
     }
 
     @PrivateApi
     void handleEvent(Packet packet) {
         try {
-            eventExecutor.execute(new RemoteEventPacketProcessor(packet));
+            if (packet.isHeaderSet(Packet.HEADER_EVENT_BATCH)) {
+                nodeEngine.getExecutionService().execute(EVENT_BATCH_EXECUTOR, new EventBatchProcessor(packet));
+            } else {
+                eventExecutor.execute(new RemoteEventPacketProcessor(packet));
+            }
         } catch (RejectedExecutionException e) {
             if (eventExecutor.isLive()) {
                 final Connection conn = packet.getConn();
@@ -374,6 +507,16 @@ public class EventServiceImpl implements EventService {
 
     void shutdown() {
         logger.finest("Stopping event executor...");
+        if (eventBatchFlushTask != null) {
+            eventBatchFlushTask.cancel(false);
+        }
+        for (EventBatcher batcher : eventBatchers.values()) {
+            batcher.close();
+        }
+        eventBatchers.clear();
+        if (eventBatching) {
+            nodeEngine.getExecutionService().shutdownExecutor(EVENT_BATCH_EXECUTOR);
+        }
         eventExecutor.shutdown();
         for (EventServiceSegment segment : segments.values()) {
             segment.clear();
@@ -383,6 +526,10 @@ public class EventServiceImpl implements EventService {
 
     void onMemberLeft(MemberImpl member) {
         final Address address = member.getAddress();
+        final EventBatcher batcher = eventBatchers.remove(address);
+        if (batcher != null) {
+            batcher.close();
+        }
         for (EventServiceSegment segment : segments.values()) {
             segment.onMemberLeft(address);
         }
@@ -465,9 +612,11 @@ public class EventServiceImpl implements EventService {
         }
     }
 
-    private class EventPacketProcessor implements StripedRunnable {
+    private class EventPacketProcessor implements StripedRunnable, TimeoutRunnable {
         private EventPacket eventPacket;
         int orderKey;
+        // 0 means the event is dropped right away if the queue is full
+        long timeoutMs;
 
         private EventPacketProcessor() {
         }
@@ -527,6 +676,16 @@ public class EventServiceImpl implements EventService {
             return orderKey;
         }
 
+        @Override
+        public long getTimeout() {
+            return timeoutMs;
+        }
+
+        @Override
+        public TimeUnit getTimeUnit() {
+            return TimeUnit.MILLISECONDS;
+        }
+
         @Override
         public String toString() {
             final StringBuilder sb = new StringBuilder("EventPacketProcessor{");
@@ -552,6 +711,21 @@ public class EventServiceImpl implements EventService {
         }
     }
 
+    private class EventBatchProcessor implements Runnable {
+        private final Packet packet;
+
+        EventBatchProcessor(Packet packet) {
+            this.packet = packet;
+        }
+
+        @Override
+        public void run() {
+            EventPacketBatch batch = (EventPacketBatch) nodeEngine.toObject(packet.getData());
+            Connection conn = packet.getConn();
+            dispatchEventBatch(batch, conn != null ? conn.getEndPoint() : null);
+        }
+    }
+
     private class LocalEventDispatcher implements StripedRunnable, TimeoutRunnable {
         final String serviceName;
         final Object event;
@@ -748,6 +922,69 @@ public class EventServiceImpl implements EventService {
         }
     }
 
+    /**
+     * A batch of events sent to the same member, see {@link EventBatcher}.
+     */
+    public static final class EventPacketBatch implements IdentifiedDataSerializable {
+
+        private EventPacket[] eventPackets;
+        private int[] orderKeys;
+        private int size;
+        private boolean acknowledge;
+        private long sequence;
+
+        public EventPacketBatch() {
+        }
+
+        EventPacketBatch(EventPacket[] eventPackets, int[] orderKeys, int size, boolean acknowledge, long sequence) {
+            this.eventPackets = eventPackets;
+            this.orderKeys = orderKeys;
+            this.size = size;
+            this.acknowledge = acknowledge;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeBoolean(acknowledge);
+            out.writeLong(sequence);
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                eventPackets[i].writeData(out);
+                out.writeInt(orderKeys[i]);
+            }
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            acknowledge = in.readBoolean();
+            sequence = in.readLong();
+            size = in.readInt();
+            eventPackets = new EventPacket[size];
+            orderKeys = new int[size];
+            for (int i = 0; i < size; i++) {
+                eventPackets[i] = new EventPacket();
+                eventPackets[i].readData(in);
+                orderKeys[i] = in.readInt();
+            }
+        }
+
+        @Override
+        public int getFactoryId() {
+            return SpiDataSerializerHook.F_ID;
+        }
+
+        @Override
+        public int getId() {
+            return SpiDataSerializerHook.EVENT_PACKET_BATCH;
+        }
+
+        @Override
+        public String toString() {
+            return "EventPacketBatch{size=" + size + ", acknowledge=" + acknowledge + ", sequence=" + sequence + '}';
+        }
+    }
+
     public static final class EmptyFilter implements EventFilter, DataSerializable {
         public boolean eval(Object arg) {
             return true;
@@ -811,6 +1048,41 @@ public class EventServiceImpl implements EventService {
         }
     }
 
+    /**
+     * Acknowledges a batch to its sender, once its events have been queued for dispatching.
+     */
+    public static class EventBatchAckOperation extends AbstractOperation {
+        private long sequence;
+
+        public EventBatchAckOperation() {
+        }
+
+        EventBatchAckOperation(long sequence) {
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() throws Exception {
+            EventServiceImpl eventService = (EventServiceImpl) getNodeEngine().getEventService();
+            eventService.handleEventBatchAck(getCallerAddress(), sequence);
+        }
+
+        @Override
+        public boolean returnsResponse() {
+            return false;
+        }
+
+        @Override
+        protected void writeInternal(ObjectDataOutput out) throws IOException {
+            out.writeLong(sequence);
+        }
+
+        @Override
+        protected void readInternal(ObjectDataInput in) throws IOException {
+            sequence = in.readLong();
+        }
+    }
+
     public static class RegistrationOperation extends AbstractOperation {
 
         private Registration registration;
@@ -17,10 +17,14 @@
 package com.hazelcast.spi.impl;
 
 import com.hazelcast.instance.MemberImpl;
+import com.hazelcast.monitor.LatencyHistogram;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.OperationService;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * This is the interface that needs to be implemented by actual InternalOperationService. Currently there is a single
  * InternalOperationService: {@link com.hazelcast.spi.impl.BasicOperationService}, but in the future others can be added.
@@ -38,6 +42,45 @@ public interface InternalOperationService extends OperationService {
 
     void notifyBackupCall(long callId);
 
+    /**
+     * Returns the number of pending operations per partition operation thread.
+     */
+    int[] getPartitionOperationThreadQueueSizes();
+
+    /**
+     * Returns the time in milliseconds each partition operation thread has spent executing operations.
+     */
+    long[] getPartitionOperationThreadBusyTimes();
+
+    /**
+     * Checks if the generic operation threads use work stealing instead of a single shared work queue.
+     *
+     * @see com.hazelcast.instance.GroupProperties#PROP_GENERIC_OPERATION_WORK_STEALING_ENABLED
+     */
+    boolean isGenericWorkStealingEnabled();
+
+    /**
+     * Returns the number of generic operations that were stolen by an idle generic operation thread.
+     */
+    long getStolenGenericOperationCount();
+
+    /**
+     * Returns the time in microseconds generic operations have been waiting in the work queue before being
+     * executed.
+     */
+    LatencyHistogram getGenericOperationQueueWaitTimes();
+
+    /**
+     * Returns the execution time statistics of the operations executed on this member, per operation class.
+     */
+    Collection<OperationTimingStats> getOperationTimings();
+
+    /**
+     * Returns the most recent operations that blocked an operation thread for longer than the slow operation
+     * threshold, oldest first.
+     */
+    List<SlowOperationLog> getSlowOperationLogs();
+
     /**
      * Shuts down this InternalOperationService.
      */
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Execution time statistics of a single operation class, as recorded by the
+ * {@link com.hazelcast.spi.OperationService} on this member.
+ * <p/>
+ * Times are in microseconds.
+ */
+public final class OperationTimingStats {
+
+    private static final AtomicLongFieldUpdater<OperationTimingStats> COUNT_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(OperationTimingStats.class, "count");
+    private static final AtomicLongFieldUpdater<OperationTimingStats> TOTAL_TIME_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(OperationTimingStats.class, "totalTimeNanos");
+    private static final AtomicLongFieldUpdater<OperationTimingStats> MAX_TIME_UPDATER = AtomicLongFieldUpdater
+            .newUpdater(OperationTimingStats.class, "maxTimeNanos");
+
+    private final String operationClassName;
+
+    // These fields are only accessed through the updaters
+    private volatile long count;
+    private volatile long totalTimeNanos;
+    private volatile long maxTimeNanos;
+
+    OperationTimingStats(String operationClassName) {
+        this.operationClassName = operationClassName;
+    }
+
+    void record(long elapsedNanos) {
+        COUNT_UPDATER.incrementAndGet(this);
+        TOTAL_TIME_UPDATER.addAndGet(this, elapsedNanos);
+        for (; ; ) {
+            final long max = maxTimeNanos;
+            if (elapsedNanos <= max || MAX_TIME_UPDATER.compareAndSet(this, max, elapsedNanos)) {
+                return;
+            }
+        }
+    }
+
+    public String getOperationClassName() {
+        return operationClassName;
+    }
+
+    public long getExecutionCount() {
+        return count;
+    }
+
+    public long getTotalExecutionTime() {
+        return TimeUnit.NANOSECONDS.toMicros(totalTimeNanos);
+    }
+
+    public long getMaxExecutionTime() {
+        return TimeUnit.NANOSECONDS.toMicros(maxTimeNanos);
+    }
+
+    public long getMeanExecutionTime() {
+        final long c = count;
+        return c == 0 ? 0 : getTotalExecutionTime() / c;
+    }
+
+    @Override
+    public String toString() {
+        return operationClassName
+                + "{count=" + count
+                + ", totalExecutionTime=" + getTotalExecutionTime()
+                + ", meanExecutionTime=" + getMeanExecutionTime()
+                + ", maxExecutionTime=" + getMaxExecutionTime()
+                + '}';
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl;
+
+import com.hazelcast.instance.Node;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.BasicOperationScheduler.OperationThread;
+import com.hazelcast.util.Clock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically scans the operation threads for operations that have been running for longer than the configured
+ * threshold. For each such operation a {@link SlowOperationLog} is created with a sample of the stack trace of
+ * the operation thread, so it is visible where e.g. a slow EntryProcessor or MapStore call is stuck while all
+ * other operations of the partitions of that thread are waiting behind it.
+ * <p/>
+ * Only the last {@link com.hazelcast.instance.GroupProperties#PROP_SLOW_OPERATION_DETECTOR_LOG_SIZE} logs are kept.
+ */
+final class SlowOperationDetector extends Thread {
+
+    private static final long MAX_SCAN_INTERVAL_MILLIS = 1000;
+
+    private final ILogger logger;
+    private final OperationThread[] partitionOperationThreads;
+    private final OperationThread[] genericOperationThreads;
+    private final long thresholdNanos;
+    private final long scanIntervalMillis;
+    private final int logSize;
+    private final Queue<SlowOperationLog> logs = new ConcurrentLinkedQueue<SlowOperationLog>();
+
+    private volatile boolean shutdown;
+
+    SlowOperationDetector(Node node, OperationThread[] partitionOperationThreads,
+                          OperationThread[] genericOperationThreads, long thresholdMillis, int logSize) {
+        super(node.threadGroup, node.getThreadNamePrefix("SlowOperationDetector"));
+        setDaemon(true);
+        this.logger = node.getLogger(SlowOperationDetector.class);
+        this.partitionOperationThreads = partitionOperationThreads;
+        this.genericOperationThreads = genericOperationThreads;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.scanIntervalMillis = Math.max(1, Math.min(MAX_SCAN_INTERVAL_MILLIS, thresholdMillis / 2));
+        this.logSize = Math.max(1, logSize);
+    }
+
+    @Override
+    public void run() {
+        while (!shutdown) {
+            try {
+                Thread.sleep(scanIntervalMillis);
+            } catch (InterruptedException e) {
+                if (shutdown) {
+                    return;
+                }
+            }
+            scan(partitionOperationThreads);
+            scan(genericOperationThreads);
+        }
+    }
+
+    private void scan(OperationThread[] operationThreads) {
+        for (OperationThread operationThread : operationThreads) {
+            try {
+                scan(operationThread);
+            } catch (Exception e) {
+                logger.warning("Failed to scan " + operationThread.getName() + " for slow operations", e);
+            }
+        }
+    }
+
+    private void scan(OperationThread operationThread) {
+        final Operation op = operationThread.currentOperation;
+        if (op == null) {
+            return;
+        }
+        final long startNanos = operationThread.currentOperationStartNanos;
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+        final SlowOperationLog current = operationThread.slowOperationLog;
+        if (current != null && current.startNanos == startNanos) {
+            // already reported
+            return;
+        }
+
+        final StackTraceElement[] stackTrace = operationThread.getStackTrace();
+        if (operationThread.currentOperation != op || operationThread.currentOperationStartNanos != startNanos) {
+            // the operation completed in the meantime, so the stack trace belongs to another one
+            return;
+        }
+
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        final SlowOperationLog log = new SlowOperationLog(op.getClass().getName(), op.getPartitionId(),
+                operationThread.getName(), Clock.currentTimeMillis() - elapsedMillis, startNanos, elapsedMillis,
+                stackTrace);
+        operationThread.slowOperationLog = log;
+        logs.offer(log);
+        while (logs.size() > logSize) {
+            logs.poll();
+        }
+        logger.warning("Slow operation detected: " + log + "\n" + log.getStackTrace());
+    }
+
+    /**
+     * Completes the slow operation log of the operation that has just finished on the given thread, if any.
+     */
+    void operationCompleted(OperationThread operationThread, long startNanos, long elapsedNanos) {
+        final SlowOperationLog log = operationThread.slowOperationLog;
+        if (log == null || log.startNanos != startNanos) {
+            return;
+        }
+        operationThread.slowOperationLog = null;
+        log.complete(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        logger.warning("Slow operation completed: " + log);
+    }
+
+    List<SlowOperationLog> getSlowOperationLogs() {
+        return new ArrayList<SlowOperationLog>(logs);
+    }
+
+    void shutdown() {
+        shutdown = true;
+        interrupt();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl;
+
+/**
+ * An entry of the slow operation log: an operation that has been running on an operation thread for longer than
+ * {@link com.hazelcast.instance.GroupProperties#PROP_SLOW_OPERATION_DETECTOR_THRESHOLD_MILLIS}.
+ * <p/>
+ * The stack trace is sampled from the operation thread when the operation is detected, so it shows where the
+ * operation was stuck at that moment. The duration is updated once the operation completes.
+ */
+public final class SlowOperationLog {
+
+    private final String operationClassName;
+    private final int partitionId;
+    private final String threadName;
+    private final long startTime;
+    private final String stackTrace;
+    // identifies the execution the log belongs to, so it can be completed by the operation thread
+    final long startNanos;
+    private volatile long durationMillis;
+    private volatile boolean completed;
+
+    SlowOperationLog(String operationClassName, int partitionId, String threadName,
+                     long startTime, long startNanos, long durationMillis, StackTraceElement[] stackTrace) {
+        this.operationClassName = operationClassName;
+        this.partitionId = partitionId;
+        this.threadName = threadName;
+        this.startTime = startTime;
+        this.startNanos = startNanos;
+        this.durationMillis = durationMillis;
+        this.stackTrace = toString(stackTrace);
+    }
+
+    private static String toString(StackTraceElement[] stackTrace) {
+        final StringBuilder sb = new StringBuilder();
+        for (StackTraceElement element : stackTrace) {
+            sb.append("\tat ").append(element).append('\n');
+        }
+        return sb.toString();
+    }
+
+    void complete(long durationMillis) {
+        this.durationMillis = durationMillis;
+        this.completed = true;
+    }
+
+    public String getOperationClassName() {
+        return operationClassName;
+    }
+
+    public int getPartitionId() {
+        return partitionId;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * Returns the time the operation started, in milliseconds since the epoch.
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Returns the execution time of the operation if it has completed, otherwise how long it had been running
+     * when it was detected.
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public String getStackTrace() {
+        return stackTrace;
+    }
+
+    @Override
+    public String toString() {
+        return "SlowOperationLog{"
+                + "operation=" + operationClassName
+                + ", partitionId=" + partitionId
+                + ", thread=" + threadName
+                + ", startTime=" + startTime
+                + ", durationMillis=" + durationMillis
+                + ", completed=" + completed
+                + '}';
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.storage.impl;
+
+import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.storage.DataRef;
+
+/**
+ * Reference to a value stored in {@link OffHeapStorage}. Only the value bytes live off-heap; the small
+ * amount of metadata needed to rebuild the {@link com.hazelcast.nio.serialization.Data} is kept here.
+ * <p/>
+ * Values fitting in a single chunk are referenced by {@link #address}, larger values are spread over
+ * several chunks whose addresses are kept in {@link #addresses}.
+ */
+final class OffHeapDataRef implements DataRef {
+
+    static final long NULL_ADDRESS = -1L;
+
+    // object header + fields
+    private static final int BASE_HEAP_COST = 40;
+    // array header + length
+    private static final int ARRAY_HEAP_COST = 16;
+    private static final int LONG_SIZE = 8;
+
+    final int type;
+    final int partitionHash;
+    final ClassDefinition classDefinition;
+    final int size;
+    long address;
+    long[] addresses;
+
+    OffHeapDataRef(int type, int partitionHash, ClassDefinition classDefinition, int size) {
+        this.type = type;
+        this.partitionHash = partitionHash;
+        this.classDefinition = classDefinition;
+        this.size = size;
+        this.address = NULL_ADDRESS;
+    }
+
+    boolean isReleased() {
+        return address == NULL_ADDRESS && addresses == null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int heapCost() {
+        int cost = BASE_HEAP_COST;
+        if (addresses != null) {
+            cost += ARRAY_HEAP_COST + addresses.length * LONG_SIZE;
+        }
+        return cost;
+    }
+}
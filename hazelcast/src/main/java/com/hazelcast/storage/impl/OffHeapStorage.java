@@ -0,0 +1,427 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.storage.impl;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.storage.DataRef;
+import com.hazelcast.storage.OffHeapOutOfMemoryException;
+import com.hazelcast.storage.Storage;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.storage.impl.OffHeapDataRef.NULL_ADDRESS;
+
+/**
+ * Slab based {@link Storage} keeping value bytes in direct memory, outside of the Java heap.
+ * <p/>
+ * Memory is reserved from a node wide budget in fixed size arenas. Arenas are carved into chunks of
+ * <tt>chunkSize</tt> bytes and a chunk is split into equally sized blocks of a power-of-two size class,
+ * from {@link #MIN_BLOCK_SIZE} up to <tt>chunkSize</tt>. A value is stored in the smallest block that fits;
+ * values larger than a chunk are spread over several chunks. Freed blocks are linked into a per size class
+ * free list through their first eight bytes, so no on-heap bookkeeping is needed for them.
+ * <p/>
+ * The storage is striped into segments selected by the partition hash passed by the caller. Each segment
+ * owns its arenas and is guarded by its own lock; since a partition is always served by the same partition
+ * thread, segment locks are practically uncontended.
+ * <p/>
+ * Direct buffers can not be freed explicitly on Java 6, memory of a destroyed storage is returned to the
+ * OS when the arenas are garbage collected. <tt>-XX:MaxDirectMemorySize</tt> should be at least as large
+ * as the configured memory limit.
+ */
+public final class OffHeapStorage implements Storage<DataRef> {
+
+    /**
+     * Smallest size class; a free block must be able to hold the free list link.
+     */
+    public static final int MIN_BLOCK_SIZE = 16;
+
+    private static final int DEFAULT_ARENA_SIZE = 1 << 22;
+    private static final int SEGMENT_COUNT = 16;
+    private static final int ARENA_SHIFT = 32;
+    private static final long OFFSET_MASK = 0xFFFFFFFFL;
+
+    private final long maxMemory;
+    private final int chunkSize;
+    private final int arenaSize;
+    private final int sizeClassCount;
+    private final AtomicLong reservedMemory = new AtomicLong();
+    private final Segment[] segments;
+    private volatile boolean destroyed;
+
+    /**
+     * @param maxMemory maximum number of bytes this storage is allowed to reserve
+     * @param chunkSize largest size class, rounded up to a power of two
+     */
+    public OffHeapStorage(long maxMemory, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive! -> " + chunkSize);
+        }
+        this.chunkSize = nextPowerOfTwo(Math.max(chunkSize, MIN_BLOCK_SIZE));
+        if (maxMemory < this.chunkSize) {
+            throw new IllegalArgumentException("Memory size " + maxMemory
+                    + " must be at least as large as the chunk size " + this.chunkSize + "!");
+        }
+        this.maxMemory = maxMemory;
+        // keep arenas small enough that every segment can get a few of them
+        long arena = Math.max(this.chunkSize, Math.min(DEFAULT_ARENA_SIZE, maxMemory / SEGMENT_COUNT));
+        this.arenaSize = (int) (arena - arena % this.chunkSize);
+        this.sizeClassCount = sizeClassIndex(this.chunkSize) + 1;
+        this.segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    @Override
+    public DataRef put(int hash, Data data) {
+        ensureActive();
+        OffHeapDataRef ref = new OffHeapDataRef(data.getType(), data.getPartitionHash(),
+                data.getClassDefinition(), data.bufferSize());
+        if (ref.size > 0) {
+            segmentFor(hash).write(ref, data.getBuffer());
+        }
+        return ref;
+    }
+
+    @Override
+    public Data get(int hash, DataRef ref) {
+        ensureActive();
+        OffHeapDataRef offHeapRef = (OffHeapDataRef) ref;
+        byte[] bytes = null;
+        if (offHeapRef.size > 0) {
+            bytes = segmentFor(hash).read(offHeapRef);
+        }
+        return new Data(offHeapRef.type, bytes, offHeapRef.partitionHash, offHeapRef.classDefinition);
+    }
+
+    @Override
+    public void remove(int hash, DataRef ref) {
+        if (destroyed) {
+            return;
+        }
+        OffHeapDataRef offHeapRef = (OffHeapDataRef) ref;
+        if (!offHeapRef.isReleased()) {
+            segmentFor(hash).release(offHeapRef);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        destroyed = true;
+        for (Segment segment : segments) {
+            segment.destroy();
+        }
+        reservedMemory.set(0);
+    }
+
+    /**
+     * @return the configured memory limit in bytes
+     */
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * @return number of bytes reserved from the memory limit as arenas
+     */
+    public long getReservedMemory() {
+        return reservedMemory.get();
+    }
+
+    /**
+     * @return number of bytes occupied by allocated blocks
+     */
+    public long getUsedMemory() {
+        long used = 0;
+        for (Segment segment : segments) {
+            used += segment.getUsedMemory();
+        }
+        return used;
+    }
+
+    /**
+     * @return number of value bytes stored, excluding the unused tail of the blocks
+     */
+    public long getPayloadMemory() {
+        long payload = 0;
+        for (Segment segment : segments) {
+            payload += segment.getPayloadMemory();
+        }
+        return payload;
+    }
+
+    /**
+     * @return number of reserved bytes not occupied by any block
+     */
+    public long getFreeMemory() {
+        return getReservedMemory() - getUsedMemory();
+    }
+
+    /**
+     * Internal fragmentation; the ratio of allocated bytes wasted because values are rounded up
+     * to their size class.
+     *
+     * @return a value between 0 and 1
+     */
+    public double getInternalFragmentation() {
+        long used = getUsedMemory();
+        return used == 0 ? 0d : (double) (used - getPayloadMemory()) / used;
+    }
+
+    /**
+     * External fragmentation; the ratio of reserved bytes sitting in free lists or uncarved
+     * arena space, which can not be returned to the OS.
+     *
+     * @return a value between 0 and 1
+     */
+    public double getExternalFragmentation() {
+        long reserved = getReservedMemory();
+        return reserved == 0 ? 0d : (double) getFreeMemory() / reserved;
+    }
+
+    /**
+     * @param blockSize a size class
+     * @return number of blocks of given size class currently allocated
+     */
+    public long getAllocatedBlockCount(int blockSize) {
+        int index = sizeClassIndex(blockSize);
+        long count = 0;
+        for (Segment segment : segments) {
+            count += segment.getAllocatedBlockCount(index);
+        }
+        return count;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapStorage{"
+                + "maxMemory=" + maxMemory
+                + ", reserved=" + getReservedMemory()
+                + ", used=" + getUsedMemory()
+                + ", payload=" + getPayloadMemory()
+                + ", internalFragmentation=" + getInternalFragmentation()
+                + ", externalFragmentation=" + getExternalFragmentation()
+                + '}';
+    }
+
+    private void ensureActive() {
+        if (destroyed) {
+            throw new IllegalStateException("Storage has been destroyed!");
+        }
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[(hash & Integer.MAX_VALUE) % segments.length];
+    }
+
+    private ByteBuffer reserveArena() {
+        long reserved;
+        do {
+            reserved = reservedMemory.get();
+            if (reserved + arenaSize > maxMemory) {
+                throw new OffHeapOutOfMemoryException("Not enough off-heap memory! Max: " + maxMemory
+                        + ", reserved: " + reserved + ", requested arena: " + arenaSize);
+            }
+        } while (!reservedMemory.compareAndSet(reserved, reserved + arenaSize));
+        try {
+            return ByteBuffer.allocateDirect(arenaSize);
+        } catch (OutOfMemoryError e) {
+            reservedMemory.addAndGet(-arenaSize);
+            throw new OffHeapOutOfMemoryException("Direct memory could not be allocated, "
+                    + "check -XX:MaxDirectMemorySize! " + e.getMessage());
+        }
+    }
+
+    static int sizeClassIndex(int blockSize) {
+        return Integer.numberOfTrailingZeros(blockSize) - Integer.numberOfTrailingZeros(MIN_BLOCK_SIZE);
+    }
+
+    static int nextPowerOfTwo(int value) {
+        int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+
+    private final class Segment {
+
+        private final List<ByteBuffer> arenas = new ArrayList<ByteBuffer>();
+        private final long[] freeLists = new long[sizeClassCount];
+        private final long[] allocatedBlocks = new long[sizeClassCount];
+        private int arenaOffset = arenaSize;
+        private long usedMemory;
+        private long payloadMemory;
+
+        Segment() {
+            for (int i = 0; i < freeLists.length; i++) {
+                freeLists[i] = NULL_ADDRESS;
+            }
+        }
+
+        synchronized void write(OffHeapDataRef ref, byte[] bytes) {
+            int size = ref.size;
+            int chunkCount = (size + chunkSize - 1) / chunkSize;
+            long[] addresses = new long[chunkCount];
+            int allocated = 0;
+            try {
+                for (; allocated < chunkCount; allocated++) {
+                    int length = Math.min(chunkSize, size - allocated * chunkSize);
+                    addresses[allocated] = allocate(blockSizeFor(length));
+                }
+            } catch (OffHeapOutOfMemoryException e) {
+                for (int i = 0; i < allocated; i++) {
+                    free(addresses[i], blockSizeFor(Math.min(chunkSize, size - i * chunkSize)));
+                }
+                throw e;
+            }
+            for (int i = 0; i < chunkCount; i++) {
+                int offset = i * chunkSize;
+                int length = Math.min(chunkSize, size - offset);
+                ByteBuffer arena = arenaOf(addresses[i]);
+                arena.position(offsetOf(addresses[i]));
+                arena.put(bytes, offset, length);
+            }
+            if (chunkCount == 1) {
+                ref.address = addresses[0];
+            } else {
+                ref.addresses = addresses;
+            }
+            payloadMemory += size;
+        }
+
+        synchronized byte[] read(OffHeapDataRef ref) {
+            if (ref.isReleased()) {
+                throw new IllegalStateException("Value has already been released!");
+            }
+            int size = ref.size;
+            byte[] bytes = new byte[size];
+            if (ref.addresses == null) {
+                readBlock(ref.address, bytes, 0, size);
+            } else {
+                for (int i = 0; i < ref.addresses.length; i++) {
+                    int offset = i * chunkSize;
+                    readBlock(ref.addresses[i], bytes, offset, Math.min(chunkSize, size - offset));
+                }
+            }
+            return bytes;
+        }
+
+        synchronized void release(OffHeapDataRef ref) {
+            if (ref.isReleased()) {
+                return;
+            }
+            int size = ref.size;
+            if (ref.addresses == null) {
+                free(ref.address, blockSizeFor(size));
+            } else {
+                for (int i = 0; i < ref.addresses.length; i++) {
+                    free(ref.addresses[i], blockSizeFor(Math.min(chunkSize, size - i * chunkSize)));
+                }
+            }
+            ref.address = NULL_ADDRESS;
+            ref.addresses = null;
+            payloadMemory -= size;
+        }
+
+        synchronized void destroy() {
+            arenas.clear();
+            for (int i = 0; i < freeLists.length; i++) {
+                freeLists[i] = NULL_ADDRESS;
+                allocatedBlocks[i] = 0;
+            }
+            arenaOffset = arenaSize;
+            usedMemory = 0;
+            payloadMemory = 0;
+        }
+
+        synchronized long getUsedMemory() {
+            return usedMemory;
+        }
+
+        synchronized long getPayloadMemory() {
+            return payloadMemory;
+        }
+
+        synchronized long getAllocatedBlockCount(int sizeClassIndex) {
+            return allocatedBlocks[sizeClassIndex];
+        }
+
+        private void readBlock(long address, byte[] bytes, int offset, int length) {
+            ByteBuffer arena = arenaOf(address);
+            arena.position(offsetOf(address));
+            arena.get(bytes, offset, length);
+        }
+
+        private long allocate(int blockSize) {
+            int index = sizeClassIndex(blockSize);
+            if (freeLists[index] == NULL_ADDRESS) {
+                carveChunk(blockSize, index);
+            }
+            long address = freeLists[index];
+            freeLists[index] = arenaOf(address).getLong(offsetOf(address));
+            allocatedBlocks[index]++;
+            usedMemory += blockSize;
+            return address;
+        }
+
+        private void free(long address, int blockSize) {
+            int index = sizeClassIndex(blockSize);
+            arenaOf(address).putLong(offsetOf(address), freeLists[index]);
+            freeLists[index] = address;
+            allocatedBlocks[index]--;
+            usedMemory -= blockSize;
+        }
+
+        /**
+         * Takes a fresh chunk from the current arena, reserving a new arena if needed,
+         * and splits it into blocks of the given size class.
+         */
+        private void carveChunk(int blockSize, int index) {
+            if (arenaOffset == arenaSize) {
+                arenas.add(reserveArena());
+                arenaOffset = 0;
+            }
+            int arenaIndex = arenas.size() - 1;
+            ByteBuffer arena = arenas.get(arenaIndex);
+            long next = freeLists[index];
+            for (int offset = arenaOffset + chunkSize - blockSize; offset >= arenaOffset; offset -= blockSize) {
+                arena.putLong(offset, next);
+                next = ((long) arenaIndex << ARENA_SHIFT) | offset;
+            }
+            freeLists[index] = next;
+            arenaOffset += chunkSize;
+        }
+
+        private ByteBuffer arenaOf(long address) {
+            return arenas.get((int) (address >>> ARENA_SHIFT));
+        }
+
+        private int offsetOf(long address) {
+            return (int) (address & OFFSET_MASK);
+        }
+
+        private int blockSizeFor(int length) {
+            return nextPowerOfTwo(Math.max(length, MIN_BLOCK_SIZE));
+        }
+    }
+}
@@ -49,6 +49,7 @@ public class PublishOperation extends AbstractNamedOperation
 
     @Override
     public void run() throws Exception {
+        final long start = System.nanoTime();
         TopicService service = getService();
         TopicEvent topicEvent = new TopicEvent(name, message, getCallerAddress());
         EventService eventService = getNodeEngine().getEventService();
@@ -61,6 +62,7 @@ public class PublishOperation extends AbstractNamedOperation
         } finally {
             lock.unlock();
         }
+        service.getLocalTopicStats(name).recordPublishLatency(System.nanoTime() - start);
     }
 
     @Override
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.transaction.impl;
+
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.Operation;
+
+/**
+ * A {@link TransactionLog} whose prepare, commit and rollback each consist of a single operation on one partition.
+ * The transaction batches the operations of such logs that target the same partition into a single
+ * {@link TxnBatchOperation} instead of invoking them one by one.
+ */
+public interface PartitionAwareTransactionLog extends TransactionLog {
+
+    String getServiceName();
+
+    int getPartitionId(NodeEngine nodeEngine);
+
+    Operation createPrepareOperation();
+
+    Operation createCommitOperation();
+
+    Operation createRollbackOperation();
+}
@@ -19,6 +19,7 @@ package com.hazelcast.transaction.impl;
 import com.hazelcast.core.MemberLeftException;
 import com.hazelcast.nio.Address;
 import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.OperationService;
 import com.hazelcast.spi.exception.TargetNotMemberException;
 import com.hazelcast.transaction.TransactionException;
@@ -29,10 +30,11 @@ import com.hazelcast.util.ExceptionUtil;
 import com.hazelcast.util.UuidUtil;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -226,11 +228,8 @@ final class TransactionImpl implements Transaction, TransactionSupport {
         checkThread();
         checkTimeout();
         try {
-            final List<Future> futures = new ArrayList<Future>(txLogs.size());
             state = PREPARING;
-            for (TransactionLog txLog : txLogs) {
-                futures.add(txLog.prepare(nodeEngine));
-            }
+            final List<Future> futures = invokeTxLogs(txLogs, Phase.PREPARE);
             for (Future future : futures) {
                 future.get(timeoutMillis, TimeUnit.MILLISECONDS);
             }
@@ -272,11 +271,8 @@ final class TransactionImpl implements Transaction, TransactionSupport {
             checkThread();
             checkTimeout();
             try {
-                final List<Future> futures = new ArrayList<Future>(txLogs.size());
                 state = COMMITTING;
-                for (TransactionLog txLog : txLogs) {
-                    futures.add(txLog.commit(nodeEngine));
-                }
+                final List<Future> futures = invokeTxLogs(txLogs, Phase.COMMIT);
                 for (Future future : futures) {
                     try {
                         future.get(COMMIT_TIMEOUT_MINUTES, TimeUnit.MINUTES);
@@ -297,6 +293,48 @@ final class TransactionImpl implements Transaction, TransactionSupport {
         }
     }
 
+    /**
+     * Invokes the given phase of the transaction logs. Partition aware logs targeting the same partition are shipped
+     * as a single {@link TxnBatchOperation}, so a transaction touching many keys costs one operation per partition
+     * instead of one per key.
+     */
+    private List<Future> invokeTxLogs(List<TransactionLog> logs, Phase phase) {
+        final List<Future> futures = new ArrayList<Future>(logs.size());
+        final Map<Integer, List<PartitionAwareTransactionLog>> partitionTxLogs
+                = new LinkedHashMap<Integer, List<PartitionAwareTransactionLog>>();
+        for (TransactionLog txLog : logs) {
+            if (txLog instanceof PartitionAwareTransactionLog) {
+                final PartitionAwareTransactionLog partitionAwareTxLog = (PartitionAwareTransactionLog) txLog;
+                final int partitionId = partitionAwareTxLog.getPartitionId(nodeEngine);
+                List<PartitionAwareTransactionLog> partitionLogs = partitionTxLogs.get(partitionId);
+                if (partitionLogs == null) {
+                    partitionLogs = new ArrayList<PartitionAwareTransactionLog>();
+                    partitionTxLogs.put(partitionId, partitionLogs);
+                }
+                partitionLogs.add(partitionAwareTxLog);
+            } else {
+                futures.add(phase.invoke(txLog, nodeEngine));
+            }
+        }
+        final OperationService operationService = nodeEngine.getOperationService();
+        for (Map.Entry<Integer, List<PartitionAwareTransactionLog>> entry : partitionTxLogs.entrySet()) {
+            final List<PartitionAwareTransactionLog> partitionLogs = entry.getValue();
+            if (partitionLogs.size() == 1) {
+                futures.add(phase.invoke(partitionLogs.get(0), nodeEngine));
+                continue;
+            }
+            final List<Operation> operations = new ArrayList<Operation>(partitionLogs.size());
+            for (PartitionAwareTransactionLog txLog : partitionLogs) {
+                final Operation op = phase.createOperation(txLog);
+                op.setServiceName(txLog.getServiceName());
+                operations.add(op);
+            }
+            futures.add(operationService.invokeOnPartition(TransactionManagerServiceImpl.SERVICE_NAME,
+                    new TxnBatchOperation(operations), entry.getKey()));
+        }
+        return futures;
+    }
+
     private void checkTimeout() throws TransactionException {
         if (startTime + timeoutMillis < Clock.currentTimeMillis()) {
             throw new TransactionException("Transaction is timed-out!");
@@ -313,12 +351,9 @@ final class TransactionImpl implements Transaction, TransactionSupport {
             try {
                 rollbackTxBackup();
 
-                final List<Future> futures = new ArrayList<Future>(txLogs.size());
-                final ListIterator<TransactionLog> iter = txLogs.listIterator(txLogs.size());
-                while (iter.hasPrevious()) {
-                    final TransactionLog txLog = iter.previous();
-                    futures.add(txLog.rollback(nodeEngine));
-                }
+                final List<TransactionLog> reversedTxLogs = new ArrayList<TransactionLog>(txLogs);
+                Collections.reverse(reversedTxLogs);
+                final List<Future> futures = invokeTxLogs(reversedTxLogs, Phase.ROLLBACK);
                 for (Future future : futures) {
                     try {
                         future.get(ROLLBACK_TIMEOUT_MINUTES, TimeUnit.MINUTES);
@@ -409,4 +444,38 @@ final class TransactionImpl implements Transaction, TransactionSupport {
         sb.append('}');
         return sb.toString();
     }
+
+    private enum Phase {
+        PREPARE {
+            Future invoke(TransactionLog txLog, NodeEngine nodeEngine) {
+                return txLog.prepare(nodeEngine);
+            }
+
+            Operation createOperation(PartitionAwareTransactionLog txLog) {
+                return txLog.createPrepareOperation();
+            }
+        },
+        COMMIT {
+            Future invoke(TransactionLog txLog, NodeEngine nodeEngine) {
+                return txLog.commit(nodeEngine);
+            }
+
+            Operation createOperation(PartitionAwareTransactionLog txLog) {
+                return txLog.createCommitOperation();
+            }
+        },
+        ROLLBACK {
+            Future invoke(TransactionLog txLog, NodeEngine nodeEngine) {
+                return txLog.rollback(nodeEngine);
+            }
+
+            Operation createOperation(PartitionAwareTransactionLog txLog) {
+                return txLog.createRollbackOperation();
+            }
+        };
+
+        abstract Future invoke(TransactionLog txLog, NodeEngine nodeEngine);
+
+        abstract Operation createOperation(PartitionAwareTransactionLog txLog);
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.transaction.impl;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.BackupOperation;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.OperationAccessor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replicates the backups of a {@link TxnBatchOperation}. Each nested backup operation only runs on the
+ * replicas its primary operation asked for.
+ */
+public final class TxnBatchBackupOperation extends Operation implements BackupOperation {
+
+    private List<Operation> operations;
+    private List<Integer> backupCounts;
+
+    public TxnBatchBackupOperation() {
+    }
+
+    public TxnBatchBackupOperation(List<Operation> operations, List<Integer> backupCounts) {
+        this.operations = operations;
+        this.backupCounts = backupCounts;
+    }
+
+    @Override
+    public void beforeRun() throws Exception {
+    }
+
+    @Override
+    public void run() throws Exception {
+        final NodeEngine nodeEngine = getNodeEngine();
+        for (int i = 0; i < operations.size(); i++) {
+            if (backupCounts.get(i) < getReplicaIndex()) {
+                continue;
+            }
+            final Operation op = operations.get(i);
+            op.setNodeEngine(nodeEngine).setPartitionId(getPartitionId()).setReplicaIndex(getReplicaIndex());
+            op.setResponseHandler(getResponseHandler());
+            op.setCallerUuid(getCallerUuid());
+            OperationAccessor.setCallerAddress(op, getCallerAddress());
+            try {
+                op.beforeRun();
+                op.run();
+                op.afterRun();
+            } catch (Throwable e) {
+                op.logError(e);
+            }
+        }
+    }
+
+    @Override
+    public void afterRun() throws Exception {
+    }
+
+    @Override
+    public boolean returnsResponse() {
+        return false;
+    }
+
+    @Override
+    public Object getResponse() {
+        return null;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeInt(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            out.writeObject(operations.get(i));
+            out.writeInt(backupCounts.get(i));
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        final int size = in.readInt();
+        operations = new ArrayList<Operation>(size);
+        backupCounts = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++) {
+            operations.add((Operation) in.readObject());
+            backupCounts.add(in.readInt());
+        }
+    }
+}
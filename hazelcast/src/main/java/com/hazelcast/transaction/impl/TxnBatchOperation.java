@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.transaction.impl;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.BackupAwareOperation;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.Notifier;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.OperationAccessor;
+import com.hazelcast.spi.PartitionAwareOperation;
+import com.hazelcast.spi.WaitNotifyKey;
+import com.hazelcast.spi.WaitNotifyService;
+import com.hazelcast.spi.WaitSupport;
+import com.hazelcast.spi.exception.RetryableException;
+import com.hazelcast.transaction.TransactionException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the prepare, commit or rollback operations of all transaction logs targeting the same partition
+ * as a single partition operation. The backups of the nested operations are replicated together by one
+ * {@link TxnBatchBackupOperation}; the first failure of a nested operation is returned as the response.
+ * <p/>
+ * The other nested operations have run already when one fails, so a failure is never returned as a
+ * {@link RetryableException}; that would make the invocation run the whole batch again.
+ */
+public final class TxnBatchOperation extends Operation
+        implements PartitionAwareOperation, BackupAwareOperation, WaitSupport {
+
+    private List<Operation> operations;
+    private List<Operation> completedOperations;
+    private List<Operation> backupOperations;
+    private List<Integer> backupCounts;
+    private int syncBackupCount;
+    private int totalBackupCount;
+    private WaitSupport waitingOperation;
+    private Throwable error;
+
+    public TxnBatchOperation() {
+    }
+
+    public TxnBatchOperation(List<Operation> operations) {
+        this.operations = operations;
+    }
+
+    @Override
+    public void beforeRun() throws Exception {
+        final NodeEngine nodeEngine = getNodeEngine();
+        for (Operation op : operations) {
+            op.setNodeEngine(nodeEngine).setPartitionId(getPartitionId()).setReplicaIndex(getReplicaIndex());
+            op.setResponseHandler(getResponseHandler());
+            op.setCallerUuid(getCallerUuid());
+            OperationAccessor.setCallerAddress(op, getCallerAddress());
+            OperationAccessor.setConnection(op, getConnection());
+            op.beforeRun();
+        }
+    }
+
+    @Override
+    public boolean shouldWait() {
+        waitingOperation = null;
+        for (Operation op : operations) {
+            if (op instanceof WaitSupport && ((WaitSupport) op).shouldWait()) {
+                waitingOperation = (WaitSupport) op;
+                setWaitTimeout(op.getWaitTimeout());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public WaitNotifyKey getWaitKey() {
+        return waitingOperation.getWaitKey();
+    }
+
+    @Override
+    public void onWaitExpire() {
+        waitingOperation.onWaitExpire();
+    }
+
+    @Override
+    public void run() throws Exception {
+        completedOperations = new ArrayList<Operation>(operations.size());
+        backupOperations = new ArrayList<Operation>();
+        backupCounts = new ArrayList<Integer>();
+        syncBackupCount = 0;
+        totalBackupCount = 0;
+        error = null;
+        for (Operation op : operations) {
+            try {
+                op.run();
+            } catch (Throwable e) {
+                op.logError(e);
+                if (error == null) {
+                    error = e;
+                }
+                continue;
+            }
+            completedOperations.add(op);
+            if (op instanceof BackupAwareOperation) {
+                addBackupOperation((BackupAwareOperation) op);
+            }
+        }
+    }
+
+    private void addBackupOperation(BackupAwareOperation op) {
+        if (!op.shouldBackup()) {
+            return;
+        }
+        final int sync = op.getSyncBackupCount();
+        final int total = sync + op.getAsyncBackupCount();
+        if (total == 0) {
+            return;
+        }
+        final Operation backupOp = op.getBackupOperation();
+        backupOp.setServiceName(((Operation) op).getServiceName());
+        backupOperations.add(backupOp);
+        backupCounts.add(total);
+        syncBackupCount = Math.max(syncBackupCount, sync);
+        totalBackupCount = Math.max(totalBackupCount, total);
+    }
+
+    @Override
+    public void afterRun() throws Exception {
+        final WaitNotifyService waitNotifyService = getNodeEngine().getWaitNotifyService();
+        for (Operation op : completedOperations) {
+            try {
+                op.afterRun();
+                if (op instanceof Notifier && ((Notifier) op).shouldNotify()) {
+                    waitNotifyService.notify((Notifier) op);
+                }
+            } catch (Throwable e) {
+                op.logError(e);
+            }
+        }
+    }
+
+    @Override
+    public boolean returnsResponse() {
+        return true;
+    }
+
+    @Override
+    public Object getResponse() {
+        if (error == null) {
+            return Boolean.TRUE;
+        }
+        if (error instanceof TransactionException && !(error instanceof RetryableException)) {
+            return error;
+        }
+        return new TransactionException("Transaction operation failed on partition " + getPartitionId(), error);
+    }
+
+    @Override
+    public boolean shouldBackup() {
+        return !backupOperations.isEmpty();
+    }
+
+    @Override
+    public int getSyncBackupCount() {
+        return syncBackupCount;
+    }
+
+    @Override
+    public int getAsyncBackupCount() {
+        return totalBackupCount - syncBackupCount;
+    }
+
+    @Override
+    public Operation getBackupOperation() {
+        return new TxnBatchBackupOperation(backupOperations, backupCounts);
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeInt(operations.size());
+        for (Operation op : operations) {
+            out.writeObject(op);
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        final int size = in.readInt();
+        operations = new ArrayList<Operation>(size);
+        for (int i = 0; i < size; i++) {
+            operations.add((Operation) in.readObject());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TxnBatchOperation{partitionId=" + getPartitionId() + ", operations=" + operations.size() + '}';
+    }
+}
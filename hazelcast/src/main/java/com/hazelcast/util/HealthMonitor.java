@@ -24,13 +24,14 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.ConnectionManager;
 import com.hazelcast.spi.EventService;
 import com.hazelcast.spi.ExecutionService;
-import com.hazelcast.spi.OperationService;
 import com.hazelcast.spi.ProxyService;
+import com.hazelcast.spi.impl.InternalOperationService;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.OperatingSystemMXBean;
 import java.lang.management.ThreadMXBean;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
@@ -51,7 +52,7 @@ public class HealthMonitor extends Thread {
     private final int delaySeconds;
     private final ExecutionService executionService;
     private final EventService eventService;
-    private final OperationService operationService;
+    private final InternalOperationService operationService;
     private final ProxyService proxyService;
     private final ConnectionManager connectionManager;
     private final ClientEngineImpl clientEngine;
@@ -73,7 +74,7 @@ public class HealthMonitor extends Thread {
         this.threadMxBean = ManagementFactory.getThreadMXBean();
         this.executionService = node.nodeEngine.getExecutionService();
         this.eventService = node.nodeEngine.getEventService();
-        this.operationService = node.nodeEngine.getOperationService();
+        this.operationService = (InternalOperationService) node.nodeEngine.getOperationService();
         this.proxyService = node.nodeEngine.getProxyService();
         this.clientEngine = node.clientEngine;
         this.connectionManager = node.connectionManager;
@@ -133,6 +134,11 @@ public class HealthMonitor extends Thread {
         private final int operationServiceOperationExecutorQueueSize;
         private final int operationServiceOperationPriorityExecutorQueueSize;
         private final int operationServiceOperationResponseQueueSize;
+        private final int[] partitionOperationThreadQueueSizes;
+        private final long[] partitionOperationThreadBusyTimes;
+        private final int slowOperationCount;
+        private final double genericOperationQueueWaitTimeMean;
+        private final long genericOperationQueueWaitTime99thPercentile;
         private final int runningOperationsCount;
         private final int remoteOperationsCount;
         private final int proxyCount;
@@ -164,6 +170,12 @@ public class HealthMonitor extends Thread {
             operationServiceOperationExecutorQueueSize = operationService.getOperationExecutorQueueSize();
             operationServiceOperationPriorityExecutorQueueSize = operationService.getPriorityOperationExecutorQueueSize();
             operationServiceOperationResponseQueueSize = operationService.getResponseQueueSize();
+            partitionOperationThreadQueueSizes = operationService.getPartitionOperationThreadQueueSizes();
+            partitionOperationThreadBusyTimes = operationService.getPartitionOperationThreadBusyTimes();
+            slowOperationCount = operationService.getSlowOperationLogs().size();
+            genericOperationQueueWaitTimeMean = operationService.getGenericOperationQueueWaitTimes().getMeanLatency();
+            genericOperationQueueWaitTime99thPercentile
+                    = operationService.getGenericOperationQueueWaitTimes().getLatencyAtPercentile(99);
             runningOperationsCount = operationService.getRunningOperationsCount();
             remoteOperationsCount = operationService.getRemoteOperationsCount();
             proxyCount = proxyService.getProxyCount();
@@ -217,6 +229,15 @@ public class HealthMonitor extends Thread {
             sb.append("executor.q.priorityOperation.size=").
                     append(operationServiceOperationPriorityExecutorQueueSize).append(", ");
             sb.append("executor.q.response.size=").append(operationServiceOperationResponseQueueSize).append(", ");
+            sb.append("executor.q.partitionOperation.sizes=")
+                    .append(Arrays.toString(partitionOperationThreadQueueSizes)).append(", ");
+            sb.append("operations.partitionThread.busyTimes=")
+                    .append(Arrays.toString(partitionOperationThreadBusyTimes)).append(", ");
+            sb.append("operations.slow.count=").append(slowOperationCount).append(", ");
+            sb.append("executor.q.generic.waitTime.mean=")
+                    .append(format("%.2f", genericOperationQueueWaitTimeMean)).append("us, ");
+            sb.append("executor.q.generic.waitTime.p99=")
+                    .append(genericOperationQueueWaitTime99thPercentile).append("us, ");
             sb.append("operations.remote.size=").append(remoteOperationsCount).append(", ");
             sb.append("operations.running.size=").append(runningOperationsCount).append(", ");
             sb.append("proxy.count=").append(proxyCount).append(", ");
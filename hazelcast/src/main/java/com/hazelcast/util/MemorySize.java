@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.util;
+
+import static com.hazelcast.util.StringUtil.upperCaseInternal;
+
+/**
+ * Parses memory sizes given in the form used by the Hazelcast properties, e.g. <tt>512K</tt>, <tt>128M</tt>
+ * or <tt>2G</tt>. A value without a unit is interpreted as bytes.
+ */
+public final class MemorySize {
+
+    private static final long K = 1024L;
+
+    private MemorySize() {
+    }
+
+    public static long parse(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Memory size cannot be null!");
+        }
+        String s = upperCaseInternal(value.trim());
+        if (s.endsWith("B")) {
+            s = s.substring(0, s.length() - 1);
+        }
+        long unit = 1L;
+        if (s.endsWith("K")) {
+            unit = K;
+        } else if (s.endsWith("M")) {
+            unit = K * K;
+        } else if (s.endsWith("G")) {
+            unit = K * K * K;
+        }
+        if (unit != 1L) {
+            s = s.substring(0, s.length() - 1);
+        }
+        try {
+            return Long.parseLong(s.trim()) * unit;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid memory size: " + value);
+        }
+    }
+}
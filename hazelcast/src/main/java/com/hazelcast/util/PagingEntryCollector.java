@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.util;
+
+import com.hazelcast.query.PagingPredicate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Collects the first {@link PagingPredicate#getFetchSize()} entries, in paging order, that follow
+ * the nearest anchor of a {@link PagingPredicate}.
+ * <p/>
+ * Entries are kept in a max-heap bounded by the fetch size, so collecting from <tt>n</tt> candidates
+ * costs <tt>O(n log k)</tt> time and <tt>O(k)</tt> memory instead of sorting all of them.
+ *
+ * @param <E> entry type
+ */
+public final class PagingEntryCollector<E extends Map.Entry> {
+
+    private final Comparator<Map.Entry> comparator;
+    private final Map.Entry anchor;
+    private final int limit;
+    private final PriorityQueue<E> heap;
+
+    public PagingEntryCollector(PagingPredicate pagingPredicate) {
+        this(pagingPredicate, pagingPredicate.getFetchSize());
+    }
+
+    /**
+     * Collects the first <tt>limit</tt> entries following the nearest anchor, instead of the fetch size.
+     */
+    public PagingEntryCollector(PagingPredicate pagingPredicate, int limit) {
+        this.comparator = SortingUtil.newComparator(pagingPredicate);
+        this.anchor = pagingPredicate.getNearestAnchorEntry();
+        this.limit = limit;
+        this.heap = new PriorityQueue<E>(Math.min(limit, 1024) + 1, Collections.reverseOrder(comparator));
+    }
+
+    /**
+     * Offers a matching entry, returns <tt>true</tt> if it is currently among the collected ones.
+     */
+    public boolean add(E entry) {
+        if (anchor != null && comparator.compare(anchor, entry) >= 0) {
+            return false;
+        }
+        if (heap.size() < limit) {
+            heap.offer(entry);
+            return true;
+        }
+        if (comparator.compare(entry, heap.peek()) >= 0) {
+            return false;
+        }
+        heap.poll();
+        heap.offer(entry);
+        return true;
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Returns the collected entries in paging order.
+     */
+    public List<E> toSortedList() {
+        List<E> list = new ArrayList<E>(heap);
+        Collections.sort(list, comparator);
+        return list;
+    }
+}
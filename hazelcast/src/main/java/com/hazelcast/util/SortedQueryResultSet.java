@@ -17,8 +17,10 @@
 package com.hazelcast.util;
 
 import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeSet;
 
@@ -50,6 +52,22 @@ public class SortedQueryResultSet extends AbstractSet<Map.Entry> {
         return new SortedIterator();
     }
 
+    /**
+     * Returns the entries in sorted order.
+     */
+    public List<Map.Entry> getEntries() {
+        return new ArrayList<Map.Entry>(entries);
+    }
+
+    /**
+     * Removes the given number of leading entries.
+     */
+    public void removeFirst(int count) {
+        for (int i = 0; i < count && !entries.isEmpty(); i++) {
+            entries.pollFirst();
+        }
+    }
+
     public Map.Entry last() {
         if (entries.isEmpty()) {
             return null;
@@ -88,6 +88,22 @@ public final class StripedExecutor implements Executor {
         }
     }
 
+    /**
+     * Checks if the calling thread is one of the worker threads of this StripedExecutor. A worker thread should
+     * not block indefinitely on a full work queue, since it may be the thread that has to drain it.
+     *
+     * @return true if the calling thread is a worker thread of this StripedExecutor.
+     */
+    public boolean isWorkerThread() {
+        Thread currentThread = Thread.currentThread();
+        for (Worker worker : workers) {
+            if (worker == currentThread) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Checks if this StripedExecutor is alive (so not shut down).
      *
@@ -0,0 +1,383 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.wan.impl;
+
+import com.hazelcast.cluster.AuthorizationOperation;
+import com.hazelcast.config.WanTargetClusterConfig;
+import com.hazelcast.instance.Node;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.ConnectionManager;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.InvocationBuilder;
+import com.hazelcast.spi.OperationService;
+import com.hazelcast.util.AddressUtil;
+import com.hazelcast.util.AddressUtil.AddressHolder;
+import com.hazelcast.util.UuidUtil;
+import com.hazelcast.wan.ReplicationEventObject;
+import com.hazelcast.wan.WanReplicationEndpoint;
+import com.hazelcast.wan.WanReplicationEvent;
+import com.hazelcast.wan.WanReplicationService;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Batching WAN replication implementation.
+ * <p/>
+ * Events are queued and drained into batches of up to {@link WanTargetClusterConfig#getBatchSize()} events,
+ * waiting at most {@link WanTargetClusterConfig#getBatchMaxDelayMillis()} for a batch to fill up. Every
+ * configured target endpoint gets its own publisher thread and connection; each publisher pipelines up to
+ * {@link #MAX_IN_FLIGHT_BATCHES} batches before it waits for acknowledgements. Batches which are not
+ * acknowledged in time, or whose connection fails, are queued again and resent, so events are delivered
+ * at least once. Events are only dropped, oldest first, when the queue is full; drops are counted.
+ * <p/>
+ * Ordering of events is not guaranteed across publishers, which matches the target side where events
+ * are applied concurrently anyway.
+ */
+public class WanBatchReplication
+        implements WanReplicationEndpoint {
+
+    static final int MAX_IN_FLIGHT_BATCHES = 4;
+
+    private static final long ACK_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final long WINDOW_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    private static final int RETRY_CONNECTION_MAX = 10;
+    private static final int RETRY_CONNECTION_SLEEP_MILLIS = 1000;
+
+    private final String publisherId = UuidUtil.buildRandomUuidString();
+    private final AtomicLong batchIdGenerator = new AtomicLong();
+    private final ConcurrentMap<Long, Batch> inFlightBatches = new ConcurrentHashMap<Long, Batch>();
+    private final ConcurrentLinkedQueue<QueuedEvent> retryQueue = new ConcurrentLinkedQueue<QueuedEvent>();
+    private final AtomicLong droppedEventCount = new AtomicLong();
+    private final AtomicLong replicatedEventCount = new AtomicLong();
+    private final AtomicLong resentBatchCount = new AtomicLong();
+
+    private Node node;
+    private ILogger logger;
+    private String groupName;
+    private String password;
+    private int batchSize = WanTargetClusterConfig.DEFAULT_BATCH_SIZE;
+    private long batchMaxDelayMillis = WanTargetClusterConfig.DEFAULT_BATCH_MAX_DELAY_MILLIS;
+    private int queueCapacity = WanTargetClusterConfig.DEFAULT_QUEUE_CAPACITY;
+    private BlockingQueue<QueuedEvent> eventQueue;
+    private volatile long replicationLagMillis;
+    private volatile boolean running = true;
+
+    /**
+     * Applies the batching settings of the target cluster config, must be called before
+     * {@link #init(Node, String, String, String...)}.
+     */
+    public void configure(WanTargetClusterConfig targetClusterConfig) {
+        this.batchSize = targetClusterConfig.getBatchSize();
+        this.batchMaxDelayMillis = targetClusterConfig.getBatchMaxDelayMillis();
+        this.queueCapacity = targetClusterConfig.getQueueCapacity();
+    }
+
+    @Override
+    public void init(Node node, String groupName, String password, String... targets) {
+        this.node = node;
+        this.logger = node.getLogger(WanBatchReplication.class.getName());
+        this.groupName = groupName;
+        this.password = password;
+        this.eventQueue = new ArrayBlockingQueue<QueuedEvent>(queueCapacity);
+        WanReplicationService wanReplicationService = node.nodeEngine.getWanReplicationService();
+        if (wanReplicationService instanceof WanReplicationServiceImpl) {
+            ((WanReplicationServiceImpl) wanReplicationService).registerBatchPublisher(publisherId, this);
+        }
+        for (String target : targets) {
+            node.nodeEngine.getExecutionService().execute("hz:wan", new Publisher(target));
+        }
+    }
+
+    @Override
+    public void publishReplicationEvent(String serviceName, ReplicationEventObject eventObject) {
+        QueuedEvent queuedEvent = new QueuedEvent(new WanReplicationEvent(serviceName, eventObject));
+        while (!eventQueue.offer(queuedEvent)) {
+            if (eventQueue.poll() != null) {
+                droppedEventCount.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+        WanReplicationService wanReplicationService = node.nodeEngine.getWanReplicationService();
+        if (wanReplicationService instanceof WanReplicationServiceImpl) {
+            ((WanReplicationServiceImpl) wanReplicationService).deregisterBatchPublisher(publisherId);
+        }
+    }
+
+    /**
+     * Number of events waiting to be sent, including events of failed batches waiting to be resent.
+     */
+    public int getQueueSize() {
+        return eventQueue.size() + retryQueue.size();
+    }
+
+    /**
+     * Number of batches sent but not acknowledged yet.
+     */
+    public int getInFlightBatchCount() {
+        return inFlightBatches.size();
+    }
+
+    /**
+     * Number of events dropped because the queue was full.
+     */
+    public long getDroppedEventCount() {
+        return droppedEventCount.get();
+    }
+
+    /**
+     * Number of events acknowledged by the target cluster.
+     */
+    public long getReplicatedEventCount() {
+        return replicatedEventCount.get();
+    }
+
+    /**
+     * Number of batches resent after a connection failure or an acknowledgement timeout.
+     */
+    public long getResentBatchCount() {
+        return resentBatchCount.get();
+    }
+
+    /**
+     * Time between publishing the oldest event of the last acknowledged batch and its acknowledgement.
+     */
+    public long getReplicationLagMillis() {
+        return replicationLagMillis;
+    }
+
+    void onBatchAck(long batchId) {
+        Batch batch = inFlightBatches.remove(batchId);
+        if (batch == null) {
+            return;
+        }
+        replicatedEventCount.addAndGet(batch.events.size());
+        replicationLagMillis = System.currentTimeMillis() - batch.oldestEventTime;
+        batch.publisher.window.release();
+    }
+
+    private final class Publisher implements Runnable {
+
+        private final String target;
+        private final Semaphore window = new Semaphore(MAX_IN_FLIGHT_BATCHES);
+        private Connection conn;
+
+        private Publisher(String target) {
+            this.target = target;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                // a window permit and the drained events are owned by this loop until the batch is registered
+                boolean permitHeld = false;
+                List<QueuedEvent> events = null;
+                try {
+                    resendExpiredBatches();
+                    if (!window.tryAcquire(WINDOW_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                        continue;
+                    }
+                    permitHeld = true;
+                    events = nextBatch();
+                    if (events.isEmpty()) {
+                        continue;
+                    }
+                    if (conn == null || !conn.live()) {
+                        conn = connect();
+                    }
+                    Batch batch = new Batch(batchIdGenerator.incrementAndGet(), events, this);
+                    inFlightBatches.put(batch.batchId, batch);
+                    // from now on the permit is released by the acknowledgement or the failure of the batch
+                    permitHeld = false;
+                    if (conn == null || !send(batch)) {
+                        failed(batch);
+                    }
+                } catch (InterruptedException e) {
+                    // only this publisher stops, its unacknowledged batches are left to the other publishers
+                    Thread.currentThread().interrupt();
+                    requeueInFlightBatches();
+                    return;
+                } catch (Throwable e) {
+                    if (logger != null) {
+                        logger.warning(e);
+                    }
+                    conn = null;
+                } finally {
+                    if (permitHeld) {
+                        if (events != null) {
+                            retryQueue.addAll(events);
+                        }
+                        window.release();
+                    }
+                }
+            }
+        }
+
+        private List<QueuedEvent> nextBatch() throws InterruptedException {
+            List<QueuedEvent> events = new ArrayList<QueuedEvent>(batchSize);
+            QueuedEvent event;
+            while (events.size() < batchSize && (event = retryQueue.poll()) != null) {
+                events.add(event);
+            }
+            eventQueue.drainTo(events, batchSize - events.size());
+            if (events.isEmpty()) {
+                event = eventQueue.poll(batchMaxDelayMillis, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    return events;
+                }
+                events.add(event);
+            }
+            long deadline = System.currentTimeMillis() + batchMaxDelayMillis;
+            while (events.size() < batchSize) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0 || (event = eventQueue.poll(remaining, TimeUnit.MILLISECONDS)) == null) {
+                    break;
+                }
+                events.add(event);
+                eventQueue.drainTo(events, batchSize - events.size());
+            }
+            return events;
+        }
+
+        private boolean send(Batch batch) {
+            List<WanReplicationEvent> events = new ArrayList<WanReplicationEvent>(batch.events.size());
+            for (QueuedEvent queuedEvent : batch.events) {
+                events.add(queuedEvent.event);
+            }
+            Data data = node.nodeEngine.getSerializationService()
+                    .toData(new WanReplicationEventBatch(publisherId, batch.batchId, events));
+            Packet packet = new Packet(data, node.nodeEngine.getPortableContext());
+            packet.setHeader(Packet.HEADER_WAN_REPLICATION);
+            batch.sendTime = System.currentTimeMillis();
+            return node.nodeEngine.send(packet, conn);
+        }
+
+        private void failed(Batch batch) {
+            if (inFlightBatches.remove(batch.batchId) != null) {
+                retryQueue.addAll(batch.events);
+                window.release();
+            }
+            conn = null;
+        }
+
+        private void resendExpiredBatches() {
+            long now = System.currentTimeMillis();
+            for (Iterator<Batch> iterator = inFlightBatches.values().iterator(); iterator.hasNext(); ) {
+                Batch batch = iterator.next();
+                if (batch.publisher == this && now - batch.sendTime > ACK_TIMEOUT_MILLIS) {
+                    resentBatchCount.incrementAndGet();
+                    failed(batch);
+                }
+            }
+        }
+
+        private void requeueInFlightBatches() {
+            for (Batch batch : inFlightBatches.values()) {
+                if (batch.publisher == this) {
+                    failed(batch);
+                }
+            }
+        }
+
+        @SuppressWarnings("BusyWait")
+        private Connection connect() throws InterruptedException {
+            final int defaultPort = node.getConfig().getNetworkConfig().getPort();
+            try {
+                final AddressHolder addressHolder = AddressUtil.getAddressHolder(target, defaultPort);
+                final Address address = new Address(addressHolder.getAddress(), addressHolder.getPort());
+                final ConnectionManager connectionManager = node.getConnectionManager();
+                Connection connection = connectionManager.getOrConnect(address);
+                for (int i = 0; i < RETRY_CONNECTION_MAX && connection == null; i++) {
+                    Thread.sleep(RETRY_CONNECTION_SLEEP_MILLIS);
+                    connection = connectionManager.getConnection(address);
+                }
+                return connection != null ? authorize(connection) : null;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Throwable e) {
+                logger.finest(e);
+                Thread.sleep(RETRY_CONNECTION_SLEEP_MILLIS);
+                return null;
+            }
+        }
+
+        private Connection authorize(Connection connection) {
+            AuthorizationOperation authorizationCall = new AuthorizationOperation(groupName, password);
+            OperationService operationService = node.nodeEngine.getOperationService();
+            InvocationBuilder invocationBuilder = operationService.createInvocationBuilder(
+                    WanReplicationService.SERVICE_NAME, authorizationCall, connection.getEndPoint());
+            Future<Boolean> future = invocationBuilder.setTryCount(1).invoke();
+            boolean authorized = false;
+            try {
+                authorized = future.get();
+            } catch (Exception ignored) {
+                logger.finest(ignored);
+            }
+            if (!authorized) {
+                connection.close();
+                logger.severe("Invalid groupName or groupPassword! ");
+                return null;
+            }
+            return connection;
+        }
+    }
+
+    private static final class QueuedEvent {
+        final WanReplicationEvent event;
+        final long enqueueTime = System.currentTimeMillis();
+
+        QueuedEvent(WanReplicationEvent event) {
+            this.event = event;
+        }
+    }
+
+    private static final class Batch {
+        final long batchId;
+        final List<QueuedEvent> events;
+        final Publisher publisher;
+        final long oldestEventTime;
+        volatile long sendTime = System.currentTimeMillis();
+
+        Batch(long batchId, List<QueuedEvent> events, Publisher publisher) {
+            this.batchId = batchId;
+            this.events = events;
+            this.publisher = publisher;
+            long oldest = Long.MAX_VALUE;
+            for (QueuedEvent event : events) {
+                oldest = Math.min(oldest, event.enqueueTime);
+            }
+            this.oldestEventTime = oldest;
+        }
+    }
+}
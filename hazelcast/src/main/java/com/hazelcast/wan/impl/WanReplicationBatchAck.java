@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.wan.impl;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+
+import java.io.IOException;
+
+/**
+ * Acknowledgement sent back to the publishing member once a {@link WanReplicationEventBatch}
+ * has been applied by the target cluster.
+ */
+public class WanReplicationBatchAck
+        implements DataSerializable {
+
+    private String publisherId;
+    private long batchId;
+
+    public WanReplicationBatchAck() {
+    }
+
+    public WanReplicationBatchAck(String publisherId, long batchId) {
+        this.publisherId = publisherId;
+        this.batchId = batchId;
+    }
+
+    public String getPublisherId() {
+        return publisherId;
+    }
+
+    public long getBatchId() {
+        return batchId;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out)
+            throws IOException {
+        out.writeUTF(publisherId);
+        out.writeLong(batchId);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in)
+            throws IOException {
+        publisherId = in.readUTF();
+        batchId = in.readLong();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.wan.impl;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.wan.WanReplicationEvent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch of {@link WanReplicationEvent}s sent to a target cluster in a single packet. The receiving
+ * member answers with a {@link WanReplicationBatchAck} once all events of the batch are applied.
+ */
+public class WanReplicationEventBatch
+        implements DataSerializable {
+
+    private String publisherId;
+    private long batchId;
+    private List<WanReplicationEvent> events;
+
+    public WanReplicationEventBatch() {
+    }
+
+    public WanReplicationEventBatch(String publisherId, long batchId, List<WanReplicationEvent> events) {
+        this.publisherId = publisherId;
+        this.batchId = batchId;
+        this.events = events;
+    }
+
+    public String getPublisherId() {
+        return publisherId;
+    }
+
+    public long getBatchId() {
+        return batchId;
+    }
+
+    public List<WanReplicationEvent> getEvents() {
+        return events;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out)
+            throws IOException {
+        out.writeUTF(publisherId);
+        out.writeLong(batchId);
+        out.writeInt(events.size());
+        for (WanReplicationEvent event : events) {
+            event.writeData(out);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in)
+            throws IOException {
+        publisherId = in.readUTF();
+        batchId = in.readLong();
+        int size = in.readInt();
+        events = new ArrayList<WanReplicationEvent>(size);
+        for (int i = 0; i < size; i++) {
+            WanReplicationEvent event = new WanReplicationEvent();
+            event.readData(in);
+            events.add(event);
+        }
+    }
+}
@@ -33,6 +33,7 @@ import com.hazelcast.wan.WanReplicationService;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Opensource based implementation of the {@link com.hazelcast.wan.WanReplicationService}
@@ -44,6 +45,8 @@ public class WanReplicationServiceImpl
     private final ILogger logger;
 
     private final Map<String, WanReplicationPublisherDelegate> wanReplications = initializeWanReplicationPublisherMapping();
+    private final ConcurrentMap<String, WanBatchReplication> batchPublishers
+            = new ConcurrentHashMap<String, WanBatchReplication>();
 
     public WanReplicationServiceImpl(Node node) {
         this.node = node;
@@ -81,6 +84,9 @@ public class WanReplicationServiceImpl
                 } else {
                     target = new WanNoDelayReplication();
                 }
+                if (target instanceof WanBatchReplication) {
+                    ((WanBatchReplication) target).configure(targetClusterConfig);
+                }
                 String groupName = targetClusterConfig.getGroupName();
                 String password = targetClusterConfig.getGroupPassword();
                 String[] addresses = new String[targetClusterConfig.getEndpoints().size()];
@@ -102,10 +108,14 @@ public class WanReplicationServiceImpl
             public void run() {
                 final Data data = packet.getData();
                 try {
-                    WanReplicationEvent replicationEvent = (WanReplicationEvent) node.nodeEngine.toObject(data);
-                    String serviceName = replicationEvent.getServiceName();
-                    ReplicationSupportingService service = node.nodeEngine.getService(serviceName);
-                    service.onReplicationEvent(replicationEvent);
+                    Object object = node.nodeEngine.toObject(data);
+                    if (object instanceof WanReplicationEventBatch) {
+                        handleBatch((WanReplicationEventBatch) object, packet);
+                    } else if (object instanceof WanReplicationBatchAck) {
+                        handleBatchAck((WanReplicationBatchAck) object);
+                    } else {
+                        handleReplicationEvent((WanReplicationEvent) object);
+                    }
                 } catch (Exception e) {
                     logger.severe(e);
                 }
@@ -113,6 +123,107 @@ public class WanReplicationServiceImpl
         });
     }
 
+    void registerBatchPublisher(String publisherId, WanBatchReplication publisher) {
+        batchPublishers.put(publisherId, publisher);
+    }
+
+    void deregisterBatchPublisher(String publisherId) {
+        batchPublishers.remove(publisherId);
+    }
+
+    /**
+     * Number of events waiting to be sent by the batching publishers of this member.
+     */
+    public int getQueueSize() {
+        int size = 0;
+        for (WanBatchReplication publisher : batchPublishers.values()) {
+            size += publisher.getQueueSize();
+        }
+        return size;
+    }
+
+    /**
+     * Number of batches sent by the batching publishers of this member but not acknowledged yet.
+     */
+    public int getInFlightBatchCount() {
+        int count = 0;
+        for (WanBatchReplication publisher : batchPublishers.values()) {
+            count += publisher.getInFlightBatchCount();
+        }
+        return count;
+    }
+
+    /**
+     * Number of events dropped by the batching publishers of this member because their queue was full.
+     */
+    public long getDroppedEventCount() {
+        long count = 0;
+        for (WanBatchReplication publisher : batchPublishers.values()) {
+            count += publisher.getDroppedEventCount();
+        }
+        return count;
+    }
+
+    /**
+     * Number of events replicated by the batching publishers of this member and acknowledged by their targets.
+     */
+    public long getReplicatedEventCount() {
+        long count = 0;
+        for (WanBatchReplication publisher : batchPublishers.values()) {
+            count += publisher.getReplicatedEventCount();
+        }
+        return count;
+    }
+
+    /**
+     * Number of batches resent by the batching publishers of this member.
+     */
+    public long getResentBatchCount() {
+        long count = 0;
+        for (WanBatchReplication publisher : batchPublishers.values()) {
+            count += publisher.getResentBatchCount();
+        }
+        return count;
+    }
+
+    /**
+     * The highest replication lag of the batching publishers of this member.
+     */
+    public long getReplicationLagMillis() {
+        long lag = 0;
+        for (WanBatchReplication publisher : batchPublishers.values()) {
+            lag = Math.max(lag, publisher.getReplicationLagMillis());
+        }
+        return lag;
+    }
+
+    private void handleReplicationEvent(WanReplicationEvent replicationEvent) {
+        String serviceName = replicationEvent.getServiceName();
+        ReplicationSupportingService service = node.nodeEngine.getService(serviceName);
+        service.onReplicationEvent(replicationEvent);
+    }
+
+    private void handleBatch(WanReplicationEventBatch batch, Packet packet) {
+        for (WanReplicationEvent replicationEvent : batch.getEvents()) {
+            try {
+                handleReplicationEvent(replicationEvent);
+            } catch (Exception e) {
+                logger.severe(e);
+            }
+        }
+        WanReplicationBatchAck ack = new WanReplicationBatchAck(batch.getPublisherId(), batch.getBatchId());
+        Packet ackPacket = new Packet(node.nodeEngine.toData(ack), node.nodeEngine.getPortableContext());
+        ackPacket.setHeader(Packet.HEADER_WAN_REPLICATION);
+        node.nodeEngine.send(ackPacket, packet.getConn());
+    }
+
+    private void handleBatchAck(WanReplicationBatchAck ack) {
+        WanBatchReplication publisher = batchPublishers.get(ack.getPublisherId());
+        if (publisher != null) {
+            publisher.onBatchAck(ack.getBatchId());
+        }
+    }
+
     @Override
     public void shutdown() {
         synchronized (this) {
@@ -127,6 +238,7 @@ public class WanReplicationServiceImpl
                 }
             }
             wanReplications.clear();
+            batchPublishers.clear();
         }
     }
 
@@ -244,12 +244,26 @@ public class XMLConfigBuilderTest {
         testConfig2Xml2Config("hazelcast-fullconfig.xml");
     }
 
+    @Test
+    public void testConfig2Xml2ConfigEvictionSampleCount() {
+        final Config config = new ClasspathXmlConfig("hazelcast-fullconfig.xml");
+        config.getMapConfig("default").setEvictionSampleCount(8);
+        testConfig2Xml2Config(config);
+    }
+
     private void testConfig2Xml2Config(String fileName) {
-        final Config config = new ClasspathXmlConfig(fileName);
+        testConfig2Xml2Config(new ClasspathXmlConfig(fileName));
+    }
+
+    private void testConfig2Xml2Config(Config config) {
         final String xml = new ConfigXmlGenerator(true).generate(config);
         final Config config2 = new InMemoryXmlConfig(xml);
         assertTrue(config.isCompatible(config2));
         assertTrue(config2.isCompatible(config));
+        for (MapConfig mapConfig : config.getMapConfigs().values()) {
+            assertEquals(mapConfig.getEvictionSampleCount(),
+                    config2.getMapConfig(mapConfig.getName()).getEvictionSampleCount());
+        }
     }
 
     @Test
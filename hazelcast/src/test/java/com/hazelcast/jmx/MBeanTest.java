@@ -164,6 +164,11 @@ public class MBeanTest extends HazelcastTestSupport {
         assertMBeanExistEventually("IExecutorService", executor.getName());
     }
 
+    @Test
+    public void testWanReplicationService() throws Exception {
+        assertMBeanExistEventually("HazelcastInstance.WanReplicationService", hz.getName());
+    }
+
     private static class DummyRunnable implements Runnable, Serializable {
         @Override
         public void run() {
@@ -37,6 +37,8 @@ import org.junit.runner.RunWith;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -398,6 +400,62 @@ public class EvictionTest extends HazelcastTestSupport {
         assertTrue(recentlyUsedEvicted == 0);
     }
 
+    @Test
+    public void testEvictionLRU_withSampling() {
+        final int size = 1000;
+        final String mapName = randomMapName("_testEvictionLRU_withSampling_");
+
+        Config cfg = new Config();
+        cfg.setProperty(GroupProperties.PROP_PARTITION_COUNT, "1");
+        MapConfig mc = cfg.getMapConfig(mapName);
+        mc.setEvictionPolicy(MapConfig.EvictionPolicy.LRU);
+        mc.setEvictionPercentage(10);
+        // samples cover the whole map, so every evicted record is the least recently used one
+        mc.setEvictionSampleCount(size);
+        MaxSizeConfig msc = new MaxSizeConfig();
+        msc.setMaxSizePolicy(MaxSizeConfig.MaxSizePolicy.PER_NODE);
+        msc.setSize(size);
+        mc.setMaxSizeConfig(msc);
+
+        HazelcastInstance instance = createHazelcastInstance(cfg);
+        IMap<Integer, Integer> map = instance.getMap(mapName);
+        // the LRU eviction criteria is a sequence number of the accesses, so every key is read once
+        // to get a distinct criteria and the keys are evicted in the order of their last access
+        final Set<Integer> accessOrder = new LinkedHashSet<Integer>();
+        int putCount = 0;
+        for (; putCount < size * 9 / 10; putCount++) {
+            map.put(putCount, putCount);
+        }
+        for (int i = 0; i < putCount; i++) {
+            map.get(i);
+            accessOrder.add(i);
+        }
+        for (int i = 0; i < size / 2; i += 2) {
+            map.get(i);
+            accessOrder.remove(i);
+            accessOrder.add(i);
+        }
+        // an eviction cycle runs at most once per second, stop after the first one
+        while (map.getLocalMapStats().getEvictionCount() == 0) {
+            assertTrue("no eviction up to size " + putCount, putCount < size);
+            map.put(putCount, putCount);
+            map.get(putCount);
+            accessOrder.add(putCount);
+            putCount++;
+        }
+
+        final int evictionCount = (int) map.getLocalMapStats().getEvictionCount();
+        assertEquals(putCount - evictionCount, map.size());
+        final Iterator<Integer> iterator = accessOrder.iterator();
+        for (int i = 0; i < evictionCount; i++) {
+            final Integer key = iterator.next();
+            assertFalse("key " + key + " should be evicted", map.containsKey(key));
+        }
+        while (iterator.hasNext()) {
+            final Integer key = iterator.next();
+            assertTrue("key " + key + " should not be evicted", map.containsKey(key));
+        }
+    }
 
     @Test
     public void testEvictionLRU_statisticsDisabled() {
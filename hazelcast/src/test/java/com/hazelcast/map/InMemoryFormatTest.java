@@ -33,7 +33,9 @@ import org.junit.runner.RunWith;
 import java.io.Serializable;
 
 import static junit.framework.Assert.assertNotSame;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -96,6 +98,26 @@ public class InMemoryFormatTest extends HazelcastTestSupport {
         assertTrue(objectMap2.containsValue(v1));
     }
 
+    @Test
+    public void offHeap() {
+        Config config = new Config();
+        config.addMapConfig(new MapConfig("offHeapMap").setInMemoryFormat(InMemoryFormat.OFFHEAP));
+
+        HazelcastInstance hz = createHazelcastInstance(config);
+        IMap<Integer, Pair> map = hz.getMap("offHeapMap");
+
+        for (int i = 0; i < 100; i++) {
+            map.put(i, new Pair("a" + i, "b"));
+        }
+        map.put(0, new Pair("c", "d"));
+        map.remove(1);
+
+        assertEquals(99, map.size());
+        assertEquals(new Pair("c", "x"), map.get(0));
+        assertEquals(new Pair("a50", "x"), map.get(50));
+        assertNull(map.get(1));
+    }
+
     public static final class Pair implements Serializable {
         private final String significant;
         private final String insignificant;
@@ -2,6 +2,9 @@ package com.hazelcast.map;
 
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
+import com.hazelcast.monitor.LatencyHistogram;
+import com.hazelcast.monitor.LocalMapStats;
+import com.hazelcast.query.SqlPredicate;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.annotation.QuickTest;
@@ -11,6 +14,7 @@ import org.junit.runner.RunWith;
 
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -39,4 +43,51 @@ public class LocalMapStatsTest extends HazelcastTestSupport {
         assertTrue(lastUpdateTime2 > lastUpdateTime);
     }
 
+    @Test
+    public void testQueryStats() {
+        HazelcastInstance h1 = createHazelcastInstance();
+        IMap<Integer, Integer> map1 = h1.getMap(name);
+        for (int i = 0; i < 100; i++) {
+            map1.put(i, i);
+        }
+
+        assertEquals(10, map1.values(new SqlPredicate("this < 10")).size());
+        LocalMapStats stats = map1.getLocalMapStats();
+        assertEquals(1, stats.getQueryCount());
+        assertEquals(0, stats.getIndexedQueryCount());
+        assertEquals(100, stats.getQueryScannedEntryCount());
+
+        map1.addIndex("this", true);
+        assertEquals(10, map1.values(new SqlPredicate("this < 10")).size());
+        stats = map1.getLocalMapStats();
+        assertEquals(2, stats.getQueryCount());
+        assertEquals(1, stats.getIndexedQueryCount());
+        assertEquals(100, stats.getQueryScannedEntryCount());
+    }
+
+    @Test
+    public void testLatencyHistograms() {
+        HazelcastInstance h1 = createHazelcastInstance();
+        IMap<Integer, Integer> map1 = h1.getMap(name);
+        for (int i = 0; i < 100; i++) {
+            map1.put(i, i);
+            map1.get(i);
+        }
+        for (int i = 0; i < 50; i++) {
+            map1.remove(i);
+        }
+
+        LocalMapStats stats = map1.getLocalMapStats();
+        assertEquals(stats.getPutOperationCount(), stats.getPutLatencyHistogram().getCount());
+        assertEquals(stats.getGetOperationCount(), stats.getGetLatencyHistogram().getCount());
+        assertEquals(stats.getRemoveOperationCount(), stats.getRemoveLatencyHistogram().getCount());
+        assertEquals(100, stats.getPutLatencyHistogram().getCount());
+        assertEquals(100, stats.getGetLatencyHistogram().getCount());
+        assertEquals(50, stats.getRemoveLatencyHistogram().getCount());
+
+        LatencyHistogram putLatencies = stats.getPutLatencyHistogram();
+        assertTrue(putLatencies.getLatencyAtPercentile(99) <= putLatencies.getMaxLatency());
+        assertTrue(putLatencies.getLatencyAtPercentile(50) <= putLatencies.getLatencyAtPercentile(99));
+    }
+
 }
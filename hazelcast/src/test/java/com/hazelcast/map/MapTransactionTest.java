@@ -34,6 +34,10 @@ import com.hazelcast.query.Predicate;
 import com.hazelcast.query.PredicateBuilder;
 import com.hazelcast.query.SampleObjects;
 import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.spi.AbstractOperation;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.OperationService;
+import com.hazelcast.spi.exception.RetryableHazelcastException;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.TestHazelcastInstanceFactory;
@@ -45,17 +49,24 @@ import com.hazelcast.transaction.TransactionNotActiveException;
 import com.hazelcast.transaction.TransactionOptions;
 import com.hazelcast.transaction.TransactionalTask;
 import com.hazelcast.transaction.TransactionalTaskContext;
+import com.hazelcast.transaction.impl.TransactionManagerServiceImpl;
+import com.hazelcast.transaction.impl.TxnBatchOperation;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -167,6 +178,90 @@ public class MapTransactionTest extends HazelcastTestSupport {
         assertFalse(h1.getMap(map2).isLocked(key));
     }
 
+    @Test
+    public void testTxnCommitManyKeysPerPartition() throws TransactionException {
+        Config config = new Config();
+        config.setProperty(GroupProperties.PROP_PARTITION_COUNT, "3");
+        final TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        final HazelcastInstance h1 = factory.newHazelcastInstance(config);
+        final HazelcastInstance h2 = factory.newHazelcastInstance(config);
+        final String mapName = randomMapName();
+        final int size = 100;
+
+        boolean b = h1.executeTransaction(options, new TransactionalTask<Boolean>() {
+            public Boolean execute(TransactionalTaskContext context) throws TransactionException {
+                final TransactionalMap<Object, Object> txMap = context.getMap(mapName);
+                for (int i = 0; i < size; i++) {
+                    txMap.put(i, "value" + i);
+                }
+                return true;
+            }
+        });
+        assertTrue(b);
+
+        final IMap<Object, Object> map = h2.getMap(mapName);
+        for (int i = 0; i < size; i++) {
+            assertEquals("value" + i, map.get(i));
+            assertFalse(map.isLocked(i));
+        }
+
+        // the entries owned by h1 are only left in the backups replicated by the batched commit
+        h1.getLifecycleService().terminate();
+        assertEquals(size, map.size());
+        for (int i = 0; i < size; i++) {
+            assertEquals("value" + i, map.get(i));
+        }
+    }
+
+    @Test
+    public void testTxnRollbackManyKeysPerPartition() throws TransactionException {
+        Config config = new Config();
+        config.setProperty(GroupProperties.PROP_PARTITION_COUNT, "3");
+        final TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        final HazelcastInstance h1 = factory.newHazelcastInstance(config);
+        final HazelcastInstance h2 = factory.newHazelcastInstance(config);
+        final String mapName = randomMapName();
+        final int size = 100;
+        final IMap<Object, Object> map = h2.getMap(mapName);
+        for (int i = 0; i < size; i++) {
+            map.put(i, "value" + i);
+        }
+
+        final TransactionContext context = h1.newTransactionContext(options);
+        context.beginTransaction();
+        final TransactionalMap<Object, Object> txMap = context.getMap(mapName);
+        for (int i = 0; i < size; i++) {
+            txMap.remove(i);
+        }
+        context.rollbackTransaction();
+
+        for (int i = 0; i < size; i++) {
+            assertEquals("value" + i, map.get(i));
+            assertFalse(map.isLocked(i));
+        }
+    }
+
+    @Test
+    public void testTxnBatchFailureIsNotRetried() throws InterruptedException {
+        final HazelcastInstance node = createHazelcastInstance();
+        final FailingOperation failingOperation = new FailingOperation();
+        final List<Operation> operations = new ArrayList<Operation>();
+        operations.add(new FailingOperation());
+        operations.add(failingOperation);
+
+        final OperationService operationService = getNode(node).nodeEngine.getOperationService();
+        final Future future = operationService.invokeOnPartition(TransactionManagerServiceImpl.SERVICE_NAME,
+                new TxnBatchOperation(operations), 0);
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TransactionException);
+            assertTrue(e.getCause().getCause() instanceof RetryableHazelcastException);
+        }
+        assertEquals(1, failingOperation.runCount.get());
+    }
+
     @Test
     public void testTxnBackupDies() throws TransactionException, InterruptedException {
         Config config = new Config();
@@ -1145,4 +1240,15 @@ public class MapTransactionTest extends HazelcastTestSupport {
         assertOpenEventually("Not reached expected update event count", expectedUpdateEventCount);
 
     }
+
+    static class FailingOperation extends AbstractOperation {
+
+        final AtomicInteger runCount = new AtomicInteger();
+
+        @Override
+        public void run() throws Exception {
+            runCount.incrementAndGet();
+            throw new RetryableHazelcastException("failed");
+        }
+    }
 }
@@ -18,8 +18,14 @@ package com.hazelcast.map;
 
 import com.hazelcast.config.Config;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.HazelcastException;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
+import com.hazelcast.instance.GroupProperties;
+import com.hazelcast.map.operation.MapReplicationOperation;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.test.AssertTask;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.TestHazelcastInstanceFactory;
@@ -28,9 +34,13 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 @RunWith(HazelcastSerialClassRunner.class)
 @Category(QuickTest.class)
@@ -63,6 +73,113 @@ public class MigrationTest extends HazelcastTestSupport {
     }
 
 
+    @Test
+    public void testMapMigration_inSmallChunks() {
+        TestHazelcastInstanceFactory nodeFactory = createHazelcastInstanceFactory(2);
+        Config cfg = new Config();
+        cfg.setProperty(GroupProperties.PROP_MAP_MIGRATION_CHUNK_SIZE, "256");
+        cfg.setProperty(GroupProperties.PROP_PARTITION_COUNT, "11");
+        HazelcastInstance instance1 = nodeFactory.newHazelcastInstance(cfg);
+        final int size = 2000;
+
+        final IMap<Integer, String> map1 = instance1.getMap("testMapMigration_inSmallChunks1");
+        final IMap<Integer, String> map2 = instance1.getMap("testMapMigration_inSmallChunks2");
+        for (int i = 0; i < size; i++) {
+            map1.put(i, "value" + i);
+            map2.put(i, "value" + i);
+        }
+
+        final HazelcastInstance instance2 = nodeFactory.newHazelcastInstance(cfg);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                long owned1 = instance2.getMap(map1.getName()).getLocalMapStats().getOwnedEntryCount();
+                long owned2 = instance2.getMap(map2.getName()).getLocalMapStats().getOwnedEntryCount();
+                assertTrue(owned1 > 0);
+                assertTrue(owned2 > 0);
+            }
+        });
+        for (int i = 0; i < size; i++) {
+            assertEquals("value" + i, map1.get(i));
+            assertEquals("value" + i, map2.get(i));
+        }
+        assertEquals(size, map1.size());
+        assertEquals(size, map2.size());
+    }
+
+    @Test
+    public void testMigrationChunksAreAppliedByMigrationOperation() throws Exception {
+        HazelcastInstance instance = createHazelcastInstance(createChunkedMigrationConfig());
+        IMap<Integer, Integer> map = fillMap(instance, 100);
+
+        MapReplicationOperation replicationOperation = runMigrationChunksOnClearedPartition(instance, map);
+        assertEquals(0, map.size());
+
+        copyOperation(instance, replicationOperation).run();
+        assertEquals(100, map.size());
+    }
+
+    @Test
+    public void testDiscardedMigrationChunksAreNotApplied() throws Exception {
+        HazelcastInstance instance = createHazelcastInstance(createChunkedMigrationConfig());
+        IMap<Integer, Integer> map = fillMap(instance, 100);
+
+        MapReplicationOperation replicationOperation = runMigrationChunksOnClearedPartition(instance, map);
+        copyOperation(instance, replicationOperation.discardChunks()).run();
+        try {
+            copyOperation(instance, replicationOperation).run();
+            fail("Discarded chunks must fail the migration");
+        } catch (HazelcastException expected) {
+        }
+        assertEquals(0, map.size());
+    }
+
+    private static Config createChunkedMigrationConfig() {
+        Config config = new Config();
+        config.setProperty(GroupProperties.PROP_PARTITION_COUNT, "1");
+        config.setProperty(GroupProperties.PROP_MAP_MIGRATION_CHUNK_SIZE, "256");
+        return config;
+    }
+
+    private static IMap<Integer, Integer> fillMap(HazelcastInstance instance, int size) {
+        IMap<Integer, Integer> map = instance.getMap(randomMapName());
+        for (int i = 0; i < size; i++) {
+            map.put(i, i);
+        }
+        return map;
+    }
+
+    /**
+     * Takes the migration chunks of the only partition, then clears the map and runs the chunks on the
+     * emptied partition, as a migration destination would. Returns the replication operation which would
+     * be sent after the chunks.
+     */
+    private static MapReplicationOperation runMigrationChunksOnClearedPartition(HazelcastInstance instance, IMap map)
+            throws Exception {
+        MapService mapService = getNode(instance).nodeEngine.getService(MapService.SERVICE_NAME);
+        MapReplicationOperation replicationOperation
+                = new MapReplicationOperation(mapService, mapService.getPartitionContainer(0), 0, 0);
+        replicationOperation.setService(mapService);
+        List<Operation> chunks = new ArrayList<Operation>();
+        Operation chunk;
+        while ((chunk = replicationOperation.nextChunk()) != null) {
+            chunks.add(copyOperation(instance, chunk));
+        }
+        assertTrue(chunks.size() > 1);
+        map.clear();
+        for (Operation copy : chunks) {
+            copy.run();
+        }
+        return replicationOperation;
+    }
+
+    private static Operation copyOperation(HazelcastInstance instance, Operation operation) {
+        NodeEngineImpl nodeEngine = getNode(instance).nodeEngine;
+        Operation copy = (Operation) nodeEngine.toObject(nodeEngine.toData(operation));
+        copy.setNodeEngine(nodeEngine).setPartitionId(0);
+        return copy;
+    }
+
     @Test
     public void testMigration_failure_when_statistics_disabled() {
         final int noOfRecords = 100;
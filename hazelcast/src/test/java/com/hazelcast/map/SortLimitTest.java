@@ -18,6 +18,7 @@ package com.hazelcast.map;
 
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
+import com.hazelcast.map.record.Record;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.Predicates;
@@ -31,6 +32,7 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -38,6 +40,7 @@ import java.util.Map;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -50,6 +53,32 @@ public class SortLimitTest extends HazelcastTestSupport {
     static int size = 50;
     static int pageSize = 5;
 
+    @Test
+    public void testPagingCursorsAreCapped() {
+        HazelcastInstance instance = createHazelcastInstance();
+        MapService mapService = getNode(instance).nodeEngine.getService(MapService.SERVICE_NAME);
+        PartitionContainer container = mapService.getPartitionContainer(0);
+        PagingPredicate predicate = new PagingPredicate(pageSize);
+        int kept = 0;
+        while (container.putPagingCursor("testCap", "cursor" + kept, emptyCursor(predicate))) {
+            kept++;
+            assertTrue(kept <= MapService.MAX_PAGING_CURSORS);
+        }
+        assertTrue(kept > 0);
+        // replacing a kept cursor and keeping one once another is closed still work
+        container.closeQueryCursor("testCap", "cursor0");
+        assertTrue(container.putPagingCursor("testCap", "cursor1", emptyCursor(predicate)));
+        assertTrue(container.putPagingCursor("testCap", "cursor0", emptyCursor(predicate)));
+        assertFalse(container.putPagingCursor("testCap", "cursor" + kept, emptyCursor(predicate)));
+        // destroying the map releases its cursors
+        container.destroyMap("testCap");
+        assertTrue(container.putPagingCursor("testCap", "cursor" + kept, emptyCursor(predicate)));
+    }
+
+    private static PagingCursor emptyCursor(PagingPredicate predicate) {
+        return new PagingCursor(predicate, new ArrayList<Record>(), true);
+    }
+
     @Test
     public void testLocalPaging() {
         TestHazelcastInstanceFactory nodeFactory = createHazelcastInstanceFactory(2);
@@ -241,6 +270,50 @@ public class SortLimitTest extends HazelcastTestSupport {
         assertEquals(0, values.size());
     }
 
+    @Test
+    public void testJumpToPageResumesFromNearestAnchor() {
+        final IMap<Integer, Integer> map = initMap();
+
+        final PagingPredicate predicate = new PagingPredicate(pageSize);
+        assertIterableEquals(map.values(predicate), 0, 1, 2, 3, 4);
+        predicate.nextPage();
+        assertIterableEquals(map.values(predicate), 5, 6, 7, 8, 9);
+        assertEquals(4 * pageSize, jumpToPage(predicate, 5).getFetchSize());
+        assertIterableEquals(map.values(predicate), 25, 26, 27, 28, 29);
+
+        // pages in between have been anchored by the jump
+        predicate.previousPage();
+        assertEquals(pageSize, predicate.getFetchSize());
+        assertIterableEquals(map.values(predicate), 20, 21, 22, 23, 24);
+        jumpToPage(predicate, 9);
+        assertIterableEquals(map.values(predicate), 45, 46, 47, 48, 49);
+        predicate.nextPage();
+        assertEquals(0, map.values(predicate).size());
+    }
+
+    @Test
+    public void testNextPageAfterUpdatesOfBufferedEntries() {
+        final IMap<Integer, Integer> map = initMap();
+
+        final PagingPredicate predicate = new PagingPredicate(pageSize);
+        assertIterableEquals(map.values(predicate), 0, 1, 2, 3, 4);
+        map.put(7, 100);
+        map.remove(8);
+        predicate.nextPage();
+        assertIterableEquals(map.values(predicate), 5, 6, 9, 10, 11);
+        predicate.nextPage();
+        assertIterableEquals(map.values(predicate), 12, 13, 14, 15, 16);
+        jumpToPage(predicate, 9);
+        assertIterableEquals(map.values(predicate), 47, 48, 49, 100);
+    }
+
+    private static PagingPredicate jumpToPage(PagingPredicate predicate, int page) {
+        while (predicate.getPage() < page) {
+            predicate.nextPage();
+        }
+        return predicate;
+    }
+
     private IMap<Integer, Integer> initMap(){
         TestHazelcastInstanceFactory nodeFactory = createHazelcastInstanceFactory(2);
         final HazelcastInstance instance1 = nodeFactory.newHazelcastInstance();
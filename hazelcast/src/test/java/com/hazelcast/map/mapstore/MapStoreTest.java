@@ -24,6 +24,7 @@ import com.hazelcast.config.MaxSizeConfig;
 import com.hazelcast.config.XmlConfigBuilder;
 import com.hazelcast.core.EntryAdapter;
 import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastException;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
 import com.hazelcast.core.MapLoader;
@@ -31,6 +32,7 @@ import com.hazelcast.core.MapLoaderLifecycleSupport;
 import com.hazelcast.core.MapStore;
 import com.hazelcast.core.MapStoreAdapter;
 import com.hazelcast.core.MapStoreFactory;
+import com.hazelcast.core.StreamingMapLoader;
 import com.hazelcast.core.PostProcessingMapStore;
 import com.hazelcast.core.TransactionalMap;
 import com.hazelcast.instance.GroupProperties;
@@ -61,6 +63,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -204,6 +207,219 @@ public class MapStoreTest extends HazelcastTestSupport {
 
     }
 
+    @Test(timeout = 120000)
+    public void testInitialLoadModeEagerWithStreamingMapLoader() {
+        final int size = 10000;
+        final TestHazelcastInstanceFactory nodeFactory = createHazelcastInstanceFactory(3);
+        final Config cfg = new Config();
+        cfg.setProperty(GroupProperties.PROP_MAP_LOAD_CHUNK_SIZE, "100");
+        final SimpleStreamingMapLoader loader = new SimpleStreamingMapLoader(size);
+        final MapStoreConfig mapStoreConfig = new MapStoreConfig();
+        mapStoreConfig.setEnabled(true);
+        mapStoreConfig.setImplementation(loader);
+        mapStoreConfig.setInitialLoadMode(MapStoreConfig.InitialLoadMode.EAGER);
+        cfg.getMapConfig("testInitialLoadModeEagerWithStreamingMapLoader").setMapStoreConfig(mapStoreConfig);
+
+        final HazelcastInstance instance1 = nodeFactory.newHazelcastInstance(cfg);
+        final HazelcastInstance instance2 = nodeFactory.newHazelcastInstance(cfg);
+        final HazelcastInstance instance3 = nodeFactory.newHazelcastInstance(cfg);
+
+        final IMap<Integer, Integer> map = instance1.getMap("testInitialLoadModeEagerWithStreamingMapLoader");
+        assertEquals(size, map.size());
+        for (int i = 0; i < size; i += 97) {
+            assertEquals(i, (int) map.get(i));
+        }
+        assertEquals(1, loader.iterateAllKeysCount.get());
+        assertEquals(0, loader.loadAllKeysCount.get());
+    }
+
+    @Test(timeout = 120000)
+    public void testStreamingMapLoaderRestartsFailedLoad() {
+        final int size = 10000;
+        final int failAfterKeys = 500;
+        final Config cfg = new Config();
+        cfg.setProperty(GroupProperties.PROP_MAP_LOAD_CHUNK_SIZE, "100");
+        final SimpleStreamingMapLoader loader = new SimpleStreamingMapLoader(size);
+        loader.failAfterKeys = failAfterKeys;
+        final MapStoreConfig mapStoreConfig = new MapStoreConfig();
+        mapStoreConfig.setEnabled(true);
+        mapStoreConfig.setImplementation(loader);
+        cfg.getMapConfig("testStreamingMapLoaderRestartsFailedLoad").setMapStoreConfig(mapStoreConfig);
+        final HazelcastInstance instance = createHazelcastInstance(cfg);
+
+        final IMap<Integer, Integer> map = instance.getMap("testStreamingMapLoaderRestartsFailedLoad");
+        try {
+            map.get(1);
+            fail("Initial load should have failed");
+        } catch (HazelcastException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("key stream failed"));
+        }
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                try {
+                    for (int i = 0; i < size; i += 97) {
+                        assertEquals(i, (int) map.get(i));
+                    }
+                } catch (HazelcastException e) {
+                    // failure is reported until the restarted stream reaches the partition
+                    fail(e.getMessage());
+                }
+            }
+        });
+        assertEquals(size, map.size());
+        assertEquals(2, loader.iterateAllKeysCount.get());
+        final LocalMapStats stats = map.getLocalMapStats();
+        assertEquals(failAfterKeys + size, stats.getInitialLoadKeyCount());
+        assertTrue(stats.getInitialLoadedEntryCount() >= size);
+    }
+
+    @Test(timeout = 120000)
+    public void testStreamingMapLoaderWithMigrationDuringLoad() {
+        final int size = 10000;
+        final TestHazelcastInstanceFactory nodeFactory = createHazelcastInstanceFactory(2);
+        final Config cfg = new Config();
+        cfg.setProperty(GroupProperties.PROP_MAP_LOAD_CHUNK_SIZE, "10");
+        final SimpleStreamingMapLoader loader = new SimpleStreamingMapLoader(size);
+        loader.slowIteration = true;
+        final MapStoreConfig mapStoreConfig = new MapStoreConfig();
+        mapStoreConfig.setEnabled(true);
+        mapStoreConfig.setImplementation(loader);
+        cfg.getMapConfig("testStreamingMapLoaderWithMigrationDuringLoad").setMapStoreConfig(mapStoreConfig);
+
+        final HazelcastInstance instance1 = nodeFactory.newHazelcastInstance(cfg);
+        final IMap<Integer, Integer> map = instance1.getMap("testStreamingMapLoaderWithMigrationDuringLoad");
+        // creates the record stores, which starts streaming the keys
+        new Thread() {
+            public void run() {
+                map.size();
+            }
+        }.start();
+        sleepSeconds(1);
+        nodeFactory.newHazelcastInstance(cfg);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(size, map.size());
+            }
+        });
+        for (int i = 0; i < size; i += 97) {
+            assertEquals(i, (int) map.get(i));
+        }
+        assertEquals(1, loader.iterateAllKeysCount.get());
+    }
+
+    @Test(timeout = 120000)
+    public void testStreamingMapLoaderRestartsWhenStreamingMemberLeaves() {
+        final int size = 10000;
+        final String name = "testStreamingMapLoaderRestartsWhenStreamingMemberLeaves";
+        final TestHazelcastInstanceFactory nodeFactory = createHazelcastInstanceFactory(2);
+        final Config cfg = new Config();
+        cfg.setProperty(GroupProperties.PROP_MAP_LOAD_CHUNK_SIZE, "10");
+        final SimpleStreamingMapLoader loader = new SimpleStreamingMapLoader(size);
+        loader.slowIteration = true;
+        final MapStoreConfig mapStoreConfig = new MapStoreConfig();
+        mapStoreConfig.setEnabled(true);
+        mapStoreConfig.setImplementation(loader);
+        cfg.getMapConfig(name).setMapStoreConfig(mapStoreConfig);
+        final HazelcastInstance instance1 = nodeFactory.newHazelcastInstance(cfg);
+        final HazelcastInstance instance2 = nodeFactory.newHazelcastInstance(cfg);
+
+        final IMap<Integer, Integer> map = instance2.getMap(name);
+        // creates the record stores, which starts streaming the keys
+        new Thread() {
+            public void run() {
+                try {
+                    map.size();
+                } catch (Exception ignored) {
+                }
+            }
+        }.start();
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(1, loader.iterateAllKeysCount.get());
+            }
+        });
+        sleepMillis(500);
+        final boolean streamedByInstance1 = loader.iteratingThreadName.contains(instance1.getName() + ".");
+        final HazelcastInstance streaming = streamedByInstance1 ? instance1 : instance2;
+        final HazelcastInstance survivor = streamedByInstance1 ? instance2 : instance1;
+        final Set<Integer> survivorKeys = new HashSet<Integer>();
+        for (int i = 0; i < size; i += 7) {
+            if (survivor.getPartitionService().getPartition(i).getOwner().localMember()) {
+                survivorKeys.add(i);
+            }
+        }
+        streaming.getLifecycleService().terminate();
+
+        final IMap<Integer, Integer> survivorMap = survivor.getMap(name);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                for (Integer key : survivorKeys) {
+                    assertEquals(key, survivorMap.get(key));
+                }
+            }
+        });
+        assertEquals(2, loader.iterateAllKeysCount.get());
+    }
+
+    private class SimpleStreamingMapLoader extends SimpleMapLoader implements StreamingMapLoader {
+
+        final AtomicInteger iterateAllKeysCount = new AtomicInteger();
+        final AtomicInteger loadAllKeysCount = new AtomicInteger();
+        volatile int failAfterKeys = -1;
+        volatile boolean slowIteration;
+        volatile String iteratingThreadName;
+
+        SimpleStreamingMapLoader(int size) {
+            super(size, false);
+        }
+
+        @Override
+        public Set loadAllKeys() {
+            loadAllKeysCount.incrementAndGet();
+            return super.loadAllKeys();
+        }
+
+        @Override
+        public Iterable iterateAllKeys() {
+            final boolean fail = iterateAllKeysCount.incrementAndGet() == 1 && failAfterKeys >= 0;
+            iteratingThreadName = Thread.currentThread().getName();
+            return new Iterable() {
+                @Override
+                public Iterator iterator() {
+                    return new Iterator() {
+                        int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < size;
+                        }
+
+                        @Override
+                        public Object next() {
+                            if (fail && next == failAfterKeys) {
+                                throw new IllegalStateException("key stream failed");
+                            }
+                            if (slowIteration && next % 10 == 0) {
+                                sleepMillis(10);
+                            }
+                            return next++;
+                        }
+
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    };
+                }
+            };
+        }
+    }
+
     @Test(timeout = 120000)
     public void testInitialLoadModeEagerMultipleThread() {
         final int instanceCount = 2;
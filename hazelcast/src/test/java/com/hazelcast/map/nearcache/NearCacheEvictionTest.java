@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.nearcache;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.monitor.NearCacheStats;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category(QuickTest.class)
+public class NearCacheEvictionTest extends HazelcastTestSupport {
+
+    @Test
+    public void testNearCacheMaxSizeEviction() {
+        String mapName = randomMapName();
+        Config config = new Config();
+        NearCacheConfig nearCacheConfig = new NearCacheConfig().setInvalidateOnChange(false);
+        nearCacheConfig.setMaxSize(100);
+        config.getMapConfig(mapName).setNearCacheConfig(nearCacheConfig);
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        IMap<Integer, Integer> map = instances[0].getMap(mapName);
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) map.get(i));
+        }
+
+        NearCacheStats stats = map.getLocalMapStats().getNearCacheStats();
+        assertEquals(100, stats.getOwnedEntryCount());
+        assertTrue("evictions", stats.getEvictions() > 0);
+        assertTrue("memory cost", stats.getOwnedEntryMemoryCost() > 0);
+    }
+
+    @Test
+    public void testOffHeapNearCache() {
+        String mapName = randomMapName();
+        Config config = new Config();
+        NearCacheConfig nearCacheConfig = new NearCacheConfig().setInvalidateOnChange(false);
+        nearCacheConfig.setInMemoryFormat(InMemoryFormat.OFFHEAP);
+        config.getMapConfig(mapName).setNearCacheConfig(nearCacheConfig);
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        IMap<Integer, String> map = instances[0].getMap(mapName);
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "value" + i);
+        }
+        //populate near cache
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("value" + i, map.get(i));
+        }
+        //read from near cache
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("value" + i, map.get(i));
+        }
+
+        NearCacheStats stats = map.getLocalMapStats().getNearCacheStats();
+        assertTrue("owned entries", stats.getOwnedEntryCount() > 0);
+        assertEquals(stats.getOwnedEntryCount(), stats.getHits());
+        assertTrue("memory cost", stats.getOwnedEntryMemoryCost() > 0);
+
+        map.clear();
+        NearCacheStats stats2 = map.getLocalMapStats().getNearCacheStats();
+        assertEquals(0, stats2.getOwnedEntryCount());
+        assertEquals(0, stats2.getOwnedEntryMemoryCost());
+    }
+}
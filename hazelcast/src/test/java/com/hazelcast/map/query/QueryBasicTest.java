@@ -4,16 +4,25 @@ package com.hazelcast.map.query;
 import com.hazelcast.config.Config;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
+import com.hazelcast.map.ChunkedQueryIterator;
+import com.hazelcast.map.MapService;
+import com.hazelcast.map.PartitionContainer;
+import com.hazelcast.map.QueryChunk;
+import com.hazelcast.map.operation.CloseQueryCursorOperation;
+import com.hazelcast.map.operation.QueryChunkOperation;
+import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.query.EntryObject;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.PredicateBuilder;
 import com.hazelcast.query.Predicates;
 import com.hazelcast.query.SampleObjects;
 import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.TestHazelcastInstanceFactory;
 import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.ExceptionUtil;
 import com.hazelcast.util.UuidUtil;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -25,12 +34,15 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Future;
 
 import static com.hazelcast.query.SampleObjects.Employee;
 import static com.hazelcast.query.SampleObjects.State;
@@ -40,6 +52,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -106,6 +119,119 @@ public class QueryBasicTest extends HazelcastTestSupport {
     }
 
 
+    @Test(timeout = 1000 * 60)
+    public void testCompositeIndex() {
+        HazelcastInstance instance = createHazelcastInstance();
+        IMap<String, Employee> map = instance.getMap("employees");
+        map.addIndex("city, active, age", true);
+        for (int i = 0; i < 100; i++) {
+            map.put("" + i, new Employee("name" + i, "city" + (i % 4), i, i % 8 < 4, i));
+        }
+        assertEquals(13, map.values(new SqlPredicate("city = 'city1' AND active = true")).size());
+        assertEquals(6, map.values(new SqlPredicate("city = 'city1' AND active = true AND age > 50")).size());
+        assertEquals(1, map.values(new SqlPredicate("active = true AND age = 41 AND city = 'city1'")).size());
+        assertEquals(0, map.values(new SqlPredicate("city = 'city1' AND active = true AND age = 42")).size());
+        map.put("41", new Employee("name41", "city1", 41, false, 41));
+        assertEquals(0, map.values(new SqlPredicate("active = true AND age = 41 AND city = 'city1'")).size());
+    }
+
+    @Test(timeout = 1000 * 60)
+    public void testEntryIterator() {
+        TestHazelcastInstanceFactory nodeFactory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance = nodeFactory.newHazelcastInstance();
+        nodeFactory.newHazelcastInstance();
+        IMap<Integer, Integer> map = instance.getMap("default");
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        Set<Integer> keys = new HashSet<Integer>();
+        Iterator<Map.Entry<Integer, Integer>> iterator = map.entryIterator(new SqlPredicate("this >= 100"), 7);
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Integer> entry = iterator.next();
+            assertEquals(entry.getKey(), entry.getValue());
+            assertTrue(keys.add(entry.getKey()));
+        }
+        assertEquals(900, keys.size());
+        assertFalse(map.entryIterator(new SqlPredicate("this < 0"), 10).hasNext());
+    }
+
+    @Test(timeout = 1000 * 60)
+    public void testEntryIteratorWithRetriedChunks() {
+        TestHazelcastInstanceFactory nodeFactory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance = nodeFactory.newHazelcastInstance();
+        nodeFactory.newHazelcastInstance();
+        final String name = randomMapName();
+        IMap<Integer, Integer> map = instance.getMap(name);
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        final NodeEngine nodeEngine = getNode(instance).nodeEngine;
+        final Predicate predicate = new SqlPredicate("this >= 100");
+        final Map<Integer, Integer> lastChunkSequences = new HashMap<Integer, Integer>();
+        final Map<Integer, String> closedCursors = new HashMap<Integer, String>();
+        Iterator<Map.Entry<Integer, Integer>> iterator = new ChunkedQueryIterator<Integer, Integer>(
+                nodeEngine.getPartitionService().getPartitionCount()) {
+            @Override
+            protected QueryChunk fetch(int partitionId, String cursorId, int chunkSequence) {
+                QueryChunk chunk = fetchOnce(partitionId, cursorId, chunkSequence);
+                QueryChunk retried = fetchOnce(partitionId, cursorId, chunkSequence);
+                assertEquals(chunk.size(), retried.size());
+                assertEquals(chunk.isLast(), retried.isLast());
+                for (int i = 0; i < chunk.size(); i++) {
+                    assertEquals(chunk.getKey(i), retried.getKey(i));
+                }
+                if (retried.isLast()) {
+                    lastChunkSequences.put(partitionId, chunkSequence);
+                }
+                return retried;
+            }
+
+            private QueryChunk fetchOnce(int partitionId, String cursorId, int chunkSequence) {
+                QueryChunkOperation operation = new QueryChunkOperation(name, predicate, cursorId, chunkSequence, 7);
+                Future<QueryChunk> future = nodeEngine.getOperationService()
+                        .invokeOnPartition(MapService.SERVICE_NAME, operation, partitionId);
+                try {
+                    return future.get();
+                } catch (Exception e) {
+                    throw ExceptionUtil.rethrow(e);
+                }
+            }
+
+            @Override
+            protected void close(int partitionId, String cursorId) {
+                Future future = nodeEngine.getOperationService().invokeOnPartition(MapService.SERVICE_NAME,
+                        new CloseQueryCursorOperation(name, cursorId), partitionId);
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    throw ExceptionUtil.rethrow(e);
+                }
+                closedCursors.put(partitionId, cursorId);
+            }
+
+            @Override
+            protected Object toObject(Data data) {
+                return nodeEngine.toObject(data);
+            }
+        };
+        Set<Integer> keys = new HashSet<Integer>();
+        while (iterator.hasNext()) {
+            assertTrue(keys.add(iterator.next().getKey()));
+        }
+        assertEquals(900, keys.size());
+
+        int partitionCount = nodeEngine.getPartitionService().getPartitionCount();
+        assertEquals(partitionCount, closedCursors.size());
+        for (HazelcastInstance hz : nodeFactory.getAllHazelcastInstances()) {
+            MapService mapService = getNode(hz).nodeEngine.getService(MapService.SERVICE_NAME);
+            for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+                PartitionContainer container = mapService.getPartitionContainer(partitionId);
+                assertNull(container.getReturnedQueryChunk(name, closedCursors.get(partitionId),
+                        lastChunkSequences.get(partitionId)));
+            }
+        }
+    }
+
     @Test(timeout = 1000 * 60)
     public void issue685RemoveIndexesOnClear() {
         HazelcastInstance instance = createHazelcastInstance();
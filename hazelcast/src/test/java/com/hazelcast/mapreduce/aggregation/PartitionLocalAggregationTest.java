@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.mapreduce.aggregation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.mapreduce.JobTracker;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableFactory;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category(QuickTest.class)
+public class PartitionLocalAggregationTest extends HazelcastTestSupport {
+
+    private static final int FACTORY_ID = 1;
+
+    @Test
+    public void testResultsEqualMapReduceResults() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance hz1 = factory.newHazelcastInstance();
+        HazelcastInstance hz2 = factory.newHazelcastInstance();
+        IMap<Integer, Integer> ints = hz1.getMap(randomMapName());
+        IMap<Integer, Long> longs = hz1.getMap(randomMapName());
+        IMap<Integer, Double> doubles = hz1.getMap(randomMapName());
+        for (int i = 0; i < 1000; i++) {
+            ints.set(i, i % 2 == 0 ? Integer.MAX_VALUE - i : i - 500);
+            longs.set(i, i % 2 == 0 ? Long.MIN_VALUE + i : i * 1000L);
+            doubles.set(i, i / 3d);
+        }
+        JobTracker jobTracker = hz2.getJobTracker(randomMapName());
+
+        for (IMap<Integer, Integer> map : new IMap[]{ints, hz1.<Integer, Integer>getMap(randomMapName())}) {
+            assertSameResult(map, Aggregations.<Integer, Integer>integerSum(), jobTracker);
+            assertSameResult(map, Aggregations.<Integer, Integer>integerAvg(), jobTracker);
+            assertSameResult(map, Aggregations.<Integer, Integer>integerMin(), jobTracker);
+            assertSameResult(map, Aggregations.<Integer, Integer>integerMax(), jobTracker);
+            assertSameResult(map, Aggregations.<Integer>count(), jobTracker);
+        }
+        for (IMap<Integer, Long> map : new IMap[]{longs, hz1.<Integer, Long>getMap(randomMapName())}) {
+            assertSameResult(map, Aggregations.<Integer, Long>longSum(), jobTracker);
+            assertSameResult(map, Aggregations.<Integer, Long>longAvg(), jobTracker);
+            assertSameResult(map, Aggregations.<Integer, Long>longMin(), jobTracker);
+            assertSameResult(map, Aggregations.<Integer, Long>longMax(), jobTracker);
+        }
+        for (IMap<Integer, Double> map : new IMap[]{doubles, hz1.<Integer, Double>getMap(randomMapName())}) {
+            assertSameResult(map, Aggregations.<Integer, Double>doubleMin(), jobTracker);
+            assertSameResult(map, Aggregations.<Integer, Double>doubleMax(), jobTracker);
+        }
+        Supplier<Integer, Long, Object> all = Supplier.all();
+        assertEquals(1000L, (long) longs.aggregate(all, Aggregations.<Integer>count()));
+        assertEquals(333 * 1000 / 2d, doubles.aggregate(Supplier.<Integer, Double, Double>all(),
+                Aggregations.<Integer, Double>doubleSum()), 0.0001);
+    }
+
+    @Test
+    public void testPortableAttributesAreReadWithoutDeserialization() {
+        Config config = new Config();
+        config.getSerializationConfig().addPortableFactory(FACTORY_ID, new PortableFactory() {
+            @Override
+            public Portable create(int classId) {
+                return new Employee();
+            }
+        });
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance hz1 = factory.newHazelcastInstance(config);
+        factory.newHazelcastInstance(config);
+        IMap<Integer, Employee> map = hz1.getMap(randomMapName());
+        for (int i = 0; i < 100; i++) {
+            map.set(i, new Employee(i, i % 2 == 0));
+        }
+        int deserializations = Employee.DESERIALIZATIONS.get();
+
+        Supplier<Integer, Employee, Integer> salaries = Supplier.fromAttribute("salary");
+        Supplier<Integer, Employee, Integer> activeSalaries = Supplier.fromPredicate(
+                new SqlPredicate("active = true"), salaries);
+        assertEquals(4950, (int) map.aggregate(salaries, Aggregations.<Integer, Integer>integerSum()));
+        assertEquals(99, (int) map.aggregate(salaries, Aggregations.<Integer, Integer>integerMax()));
+        Supplier<Integer, Employee, Object> activeCount = Supplier.fromPredicate(new SqlPredicate("active = true"),
+                Supplier.<Integer, Employee, Object>fromAttribute("salary"));
+        assertEquals(50L, (long) map.aggregate(activeCount, Aggregations.<Integer>count()));
+        assertEquals(2450, (int) map.aggregate(activeSalaries, Aggregations.<Integer, Integer>integerSum()));
+        assertEquals(deserializations, Employee.DESERIALIZATIONS.get());
+    }
+
+    @Test
+    public void testIndexedAggregations() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance hz1 = factory.newHazelcastInstance();
+        factory.newHazelcastInstance();
+        IMap<Integer, Salary> map = hz1.getMap(randomMapName());
+        map.addIndex("amount", true);
+        for (int i = 0; i < 100; i++) {
+            map.set(i, new Salary(i));
+        }
+        int deserializations = Salary.DESERIALIZATIONS.get();
+
+        // answered by the index without touching the records
+        Supplier<Integer, Salary, Integer> amounts = Supplier.fromAttribute("amount");
+        Supplier<Integer, Salary, Object> counted = Supplier.fromAttribute("amount");
+        assertEquals(100L, (long) map.aggregate(counted, Aggregations.<Integer>count()));
+        assertEquals(0, (int) map.aggregate(amounts, Aggregations.<Integer, Integer>integerMin()));
+        assertEquals(99, (int) map.aggregate(amounts, Aggregations.<Integer, Integer>integerMax()));
+        assertEquals(deserializations, Salary.DESERIALIZATIONS.get());
+
+        // only the entries matching the predicate are visited
+        Supplier<Integer, Salary, Integer> highAmounts = Supplier.fromPredicate(
+                new SqlPredicate("amount >= 90"), amounts);
+        assertEquals(945, (int) map.aggregate(highAmounts, Aggregations.<Integer, Integer>integerSum()));
+        assertTrue(Salary.DESERIALIZATIONS.get() - deserializations <= 10);
+
+        map.delete(99);
+        map.set(100, new Salary(null));
+        assertEquals(99L, (long) map.aggregate(counted, Aggregations.<Integer>count()));
+        assertEquals(98, (int) map.aggregate(amounts, Aggregations.<Integer, Integer>integerMax()));
+
+        IMap<Integer, Salary> empty = hz1.getMap(randomMapName());
+        empty.addIndex("amount", true);
+        assertEquals(Integer.MAX_VALUE, (int) empty.aggregate(amounts, Aggregations.<Integer, Integer>integerMin()));
+        assertEquals(0L, (long) empty.aggregate(counted, Aggregations.<Integer>count()));
+    }
+
+    @Test
+    public void testFailureIsRethrownWithoutAggregatingPartitionsAgain() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance hz1 = factory.newHazelcastInstance();
+        factory.newHazelcastInstance();
+        IMap<Integer, BrokenSalary> map = hz1.getMap(randomMapName());
+        map.set(1, new BrokenSalary());
+
+        Supplier<Integer, BrokenSalary, Integer> amounts = Supplier.fromAttribute("amount");
+        try {
+            map.aggregate(amounts, Aggregations.<Integer, Integer>integerSum());
+            fail();
+        } catch (HazelcastException expected) {
+        }
+        assertEquals(1, BrokenSalary.READS.get());
+    }
+
+    private static void assertSameResult(IMap map, Aggregation aggregation, JobTracker jobTracker) {
+        Supplier supplier = Supplier.all();
+        Object expected = map.aggregate(supplier, aggregation, jobTracker);
+        assertEquals(expected, map.aggregate(supplier, aggregation));
+    }
+
+    public static class Salary implements DataSerializable {
+
+        static final AtomicInteger DESERIALIZATIONS = new AtomicInteger();
+
+        private Integer amount;
+
+        public Salary() {
+        }
+
+        public Salary(Integer amount) {
+            this.amount = amount;
+        }
+
+        public Integer getAmount() {
+            return amount;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeObject(amount);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            DESERIALIZATIONS.incrementAndGet();
+            amount = in.readObject();
+        }
+    }
+
+    public static class BrokenSalary implements DataSerializable {
+
+        static final AtomicInteger READS = new AtomicInteger();
+
+        public Integer getAmount() {
+            READS.incrementAndGet();
+            throw new IllegalStateException("broken salary");
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+        }
+    }
+
+    public static class Employee implements Portable {
+
+        static final AtomicInteger DESERIALIZATIONS = new AtomicInteger();
+
+        private int salary;
+        private boolean active;
+
+        public Employee() {
+        }
+
+        public Employee(int salary, boolean active) {
+            this.salary = salary;
+            this.active = active;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return 1;
+        }
+
+        @Override
+        public void writePortable(PortableWriter writer) throws IOException {
+            writer.writeInt("salary", salary);
+            writer.writeBoolean("active", active);
+        }
+
+        @Override
+        public void readPortable(PortableReader reader) throws IOException {
+            DESERIALIZATIONS.incrementAndGet();
+            salary = reader.readInt("salary");
+            active = reader.readBoolean("active");
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.monitor.impl;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.SerializationService;
+import com.hazelcast.nio.serialization.SerializationServiceBuilder;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class LatencyHistogramImplTest {
+
+    @Test
+    public void testBuckets_areContiguous() {
+        long expectedLowest = 0;
+        for (int i = 0; i < LatencyHistogramImpl.BUCKET_COUNT; i++) {
+            assertEquals(i, LatencyHistogramImpl.bucketIndex(expectedLowest));
+            final long highest = LatencyHistogramImpl.highestValue(i);
+            assertEquals(i, LatencyHistogramImpl.bucketIndex(highest));
+            expectedLowest = highest + 1;
+        }
+        assertEquals(LatencyHistogramImpl.MAX_LATENCY + 1, expectedLowest);
+    }
+
+    @Test
+    public void testEmpty() {
+        final LatencyHistogramImpl histogram = new LatencyHistogramImpl();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getLatencyAtPercentile(99), 0);
+        assertEquals(0, histogram.getMeanLatency(), 0);
+    }
+
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogramImpl histogram = new LatencyHistogramImpl();
+        for (int i = 1; i <= 10000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(10000, histogram.getCount());
+        assertEquals(10000, histogram.getMaxLatency());
+        assertEquals(5000.5, histogram.getMeanLatency(), 0);
+        assertWithinBucketError(5000, histogram.getLatencyAtPercentile(50));
+        assertWithinBucketError(9900, histogram.getLatencyAtPercentile(99));
+        assertWithinBucketError(9990, histogram.getLatencyAtPercentile(99.9));
+        assertEquals(10000, histogram.getLatencyAtPercentile(100));
+        assertEquals(1, histogram.getLatencyAtPercentile(0));
+    }
+
+    @Test
+    public void testSmallValues_areExact() {
+        final LatencyHistogramImpl histogram = new LatencyHistogramImpl();
+        for (int i = 0; i < LatencyHistogramImpl.SUB_BUCKET_COUNT; i++) {
+            histogram.record(i);
+        }
+        assertEquals(31, histogram.getLatencyAtPercentile(50));
+    }
+
+    @Test
+    public void testOutOfRangeValues_areClamped() {
+        final LatencyHistogramImpl histogram = new LatencyHistogramImpl();
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getLatencyAtPercentile(50));
+        assertEquals(LatencyHistogramImpl.MAX_LATENCY, histogram.getLatencyAtPercentile(100));
+    }
+
+    @Test
+    public void testRecordNanos() {
+        final LatencyHistogramImpl histogram = new LatencyHistogramImpl();
+        histogram.recordNanos(1500);
+        assertEquals(1, histogram.getMaxLatency());
+    }
+
+    @Test
+    public void testAdd() {
+        final LatencyHistogramImpl histogram1 = new LatencyHistogramImpl();
+        final LatencyHistogramImpl histogram2 = new LatencyHistogramImpl();
+        for (int i = 1; i <= 100; i++) {
+            histogram1.record(i);
+            histogram2.record(i + 100);
+        }
+        histogram1.add(histogram2);
+        assertEquals(200, histogram1.getCount());
+        assertEquals(200, histogram1.getMaxLatency());
+        assertEquals(20100, histogram1.getTotalLatency());
+        assertWithinBucketError(100, histogram1.getLatencyAtPercentile(50));
+    }
+
+    @Test
+    public void testSerialization() {
+        final LatencyHistogramImpl histogram = new LatencyHistogramImpl();
+        for (int i = 0; i < 1000; i++) {
+            histogram.record(i * 37);
+        }
+        final SerializationService serializationService = new SerializationServiceBuilder().build();
+        final Data data = serializationService.toData(histogram);
+        final LatencyHistogramImpl copy = serializationService.toObject(data);
+        assertEquals(histogram.getCount(), copy.getCount());
+        assertEquals(histogram.getTotalLatency(), copy.getTotalLatency());
+        assertEquals(histogram.getMaxLatency(), copy.getMaxLatency());
+        for (double percentile : new double[]{1, 50, 90, 99, 99.9}) {
+            assertEquals(histogram.getLatencyAtPercentile(percentile), copy.getLatencyAtPercentile(percentile));
+        }
+    }
+
+    private static void assertWithinBucketError(long expected, long actual) {
+        final double error = Math.abs(actual - expected) / (double) expected;
+        assertTrue("expected " + expected + " but was " + actual,
+                error <= 1d / LatencyHistogramImpl.SUB_BUCKET_HALF_COUNT);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.lang.reflect.Member;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category(QuickTest.class)
+public class ExtractorGeneratorTest {
+
+    @Test
+    public void testMethodPath() throws Exception {
+        AttributeExtractor extractor = generate(Person.class,
+                Person.class.getMethod("getAddress"), Address.class.getMethod("getCity"));
+
+        assertNotNull(extractor);
+        assertEquals("Istanbul", extractor.extract(new Person(new Address("Istanbul", 34000))));
+        assertNull(extractor.extract(new Person(null)));
+        assertNull(extractor.extract(null));
+    }
+
+    @Test
+    public void testPrimitivesAreBoxed() throws Exception {
+        Person person = new Person(new Address("Istanbul", 34000));
+
+        assertEquals(42, generate(Person.class, Person.class.getMethod("getAge")).extract(person));
+        assertEquals(true, generate(Person.class, Person.class.getMethod("isActive")).extract(person));
+        assertEquals(1.5d, generate(Person.class, Person.class.getField("height")).extract(person));
+        assertEquals(34000L, generate(Person.class, Person.class.getField("address"),
+                Address.class.getMethod("getZip")).extract(person));
+    }
+
+    @Test
+    public void testInterfaceMethod() throws Exception {
+        AttributeExtractor extractor = generate(Person.class,
+                Person.class.getMethod("getAddress"), Address.class.getMethod("getLocation"),
+                Location.class.getMethod("getLatitude"));
+
+        assertEquals(41.0d, extractor.extract(new Person(new Address("Istanbul", 34000))));
+    }
+
+    @Test
+    public void testNotGeneratedForInaccessibleMembers() throws Exception {
+        assertNull(generate(Person.class, Person.class.getDeclaredField("name")));
+        assertNull(generate(Person.class, Person.class.getMethod("getDefaultAge")));
+        assertNull(generate(Hidden.class, Hidden.class.getMethod("getValue")));
+    }
+
+    @Test
+    public void testReflectionHelperExtractsGeneratedAndReflectivePaths() throws Exception {
+        Map.Entry<Integer, Person> entry = new AbstractMap.SimpleEntry<Integer, Person>(
+                1, new Person(new Address("Istanbul", 34000)));
+
+        assertEquals("Istanbul", ReflectionHelper.extractValue(entry, "address.city"));
+        assertEquals(34000L, ReflectionHelper.extractValue(entry, "address.zip"));
+        assertEquals("name", ReflectionHelper.extractValue(entry, "name"));
+        assertEquals("Istanbul", ReflectionHelper.extractValue(entry, "address.city"));
+        assertNull(ReflectionHelper.extractValue(
+                new AbstractMap.SimpleEntry<Integer, Person>(1, new Person(null)), "address.city"));
+    }
+
+    private static AttributeExtractor generate(Class rootClass, Member... path) {
+        return ExtractorGenerator.generate(rootClass, Arrays.asList(path));
+    }
+
+    public static class Person {
+        public final Address address;
+        public final double height = 1.5d;
+        private final String name = "name";
+
+        public Person(Address address) {
+            this.address = address;
+        }
+
+        public static int getDefaultAge() {
+            return 0;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        public int getAge() {
+            return 42;
+        }
+
+        public boolean isActive() {
+            return true;
+        }
+    }
+
+    public static class Address implements Location {
+        private final String city;
+        private final long zip;
+
+        public Address(String city, long zip) {
+            this.city = city;
+            this.zip = zip;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public long getZip() {
+            return zip;
+        }
+
+        public Location getLocation() {
+            return this;
+        }
+
+        @Override
+        public double getLatitude() {
+            return 41.0d;
+        }
+    }
+
+    public interface Location {
+        double getLatitude();
+    }
+
+    static class Hidden {
+        public int getValue() {
+            return 1;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.*;
 import com.hazelcast.query.Predicates.AndPredicate;
 import com.hazelcast.query.Predicates.EqualPredicate;
+import com.hazelcast.query.SqlPredicate;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.annotation.QuickTest;
 import org.junit.Test;
@@ -28,6 +29,9 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 
 import static com.hazelcast.instance.TestUtil.toData;
@@ -98,6 +102,149 @@ public class IndexTest {
         assertEquals(1, is.query(new AndPredicate(new EqualPredicate("d", "1"), new EqualPredicate("bool", false))).size());
     }
 
+    @Test
+    public void testSortedIndex_manyDistinctValues() {
+        IndexImpl index = new IndexImpl(null, true);
+        int count = 2000;
+        for (int i = 0; i < count; i++) {
+            index.saveEntryIndex(newRecord(i, (double) (count / 2 - i)));
+        }
+        assertEquals(count, index.getSubRecordsBetween(-1d * count, 1d * count).size());
+        assertEquals(101, index.getSubRecordsBetween(-50d, 50d).size());
+        assertEquals(101, index.getSubRecordsBetween(50d, -50d).size());
+        assertEquals(count / 2, index.getSubRecords(ComparisonType.GREATER, 0d).size());
+        assertEquals(count / 2 - 1, index.getSubRecords(ComparisonType.LESSER, 0d).size());
+        assertEquals(count / 2, index.getSubRecords(ComparisonType.LESSER_EQUAL, 0d).size());
+        assertEquals(count, index.getSubRecords(ComparisonType.NOT_EQUAL, -0.5d).size());
+        assertEquals(count - 1, index.getSubRecords(ComparisonType.NOT_EQUAL, 0d).size());
+        assertEquals(1, index.getRecords(-999d).size());
+        for (int i = 0; i < count; i += 2) {
+            index.removeEntryIndex(toData(i));
+        }
+        assertEquals(count / 2, index.getSubRecordsBetween(-1d * count, 1d * count).size());
+        assertEquals(50, index.getSubRecordsBetween(-50d, 50d).size());
+        assertEquals(0, index.getRecords(-998d).size());
+        assertEquals(1, index.getRecords(-999d).size());
+    }
+
+    @Test
+    public void testSortedIndex_infiniteAndNaNValues() {
+        IndexImpl index = new IndexImpl(null, true);
+        index.saveEntryIndex(newRecord(10, Double.POSITIVE_INFINITY));
+        index.saveEntryIndex(newRecord(11, Double.NEGATIVE_INFINITY));
+        index.saveEntryIndex(newRecord(12, Double.NaN));
+        for (int i = 0; i < 5; i++) {
+            index.saveEntryIndex(newRecord(i, (double) (i - 2)));
+        }
+        // ordered like Double.compareTo: -Infinity < finite values < Infinity < NaN
+        assertEquals(1, index.getRecords(Double.POSITIVE_INFINITY).size());
+        assertEquals(1, index.getRecords(Double.NaN).size());
+        assertEquals(6, index.getSubRecords(ComparisonType.LESSER, Double.POSITIVE_INFINITY).size());
+        assertEquals(7, index.getSubRecords(ComparisonType.LESSER_EQUAL, Double.POSITIVE_INFINITY).size());
+        assertEquals(7, index.getSubRecords(ComparisonType.LESSER, Double.NaN).size());
+        assertEquals(7, index.getSubRecords(ComparisonType.GREATER, Double.NEGATIVE_INFINITY).size());
+        assertEquals(0, index.getSubRecords(ComparisonType.LESSER, Double.NEGATIVE_INFINITY).size());
+        assertEquals(4, index.getSubRecords(ComparisonType.GREATER, 0d).size());
+        assertEquals(7, index.getSubRecords(ComparisonType.NOT_EQUAL, Double.POSITIVE_INFINITY).size());
+        assertEquals(4, index.getSubRecordsBetween(Double.NEGATIVE_INFINITY, 0d).size());
+        assertEquals(7, index.getSubRecordsBetween(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY).size());
+        index.removeEntryIndex(toData(12));
+        assertEquals(0, index.getRecords(Double.NaN).size());
+        assertEquals(7, index.getSubRecords(ComparisonType.LESSER, Double.NaN).size());
+    }
+
+    @Test
+    public void testSortedIndex_dateAndNullValues() {
+        IndexImpl index = new IndexImpl(null, true);
+        for (int i = 1; i <= 10; i++) {
+            index.saveEntryIndex(newRecord(i, new Date(i * 1000L)));
+        }
+        index.saveEntryIndex(newRecord(0, null));
+        assertEquals(10, index.getSubRecords(ComparisonType.LESSER, new Date(100000L)).size());
+        assertEquals(5, index.getSubRecordsBetween(new Date(3000L), new Date(7000L)).size());
+        assertEquals(3, index.getSubRecords(ComparisonType.GREATER, new Date(7000L)).size());
+        assertEquals(9, index.getSubRecords(ComparisonType.NOT_EQUAL, new Date(7000L)).size());
+        assertEquals(1, index.getRecords(new Date(7000L)).size());
+    }
+
+    @Test
+    public void testSortedIndex_timestampValues() {
+        IndexImpl index = new IndexImpl(null, true);
+        for (int i = 1; i <= 10; i++) {
+            index.saveEntryIndex(newRecord(i, new Date(i * 1000L)));
+        }
+        Timestamp fractional = new Timestamp(5000L);
+        fractional.setNanos(500000);
+        index.saveEntryIndex(newRecord(11, fractional));
+        index.saveEntryIndex(newRecord(12, new Timestamp(8000L)));
+        assertEquals(2, index.getRecords(new Timestamp(8000L)).size());
+        assertEquals(1, index.getRecords(fractional).size());
+        assertEquals(7, index.getSubRecords(ComparisonType.GREATER, new Timestamp(5000L)).size());
+        assertEquals(7, index.getSubRecords(ComparisonType.GREATER_EQUAL, fractional).size());
+        assertEquals(5, index.getSubRecords(ComparisonType.LESSER, fractional).size());
+        assertEquals(11, index.getSubRecords(ComparisonType.NOT_EQUAL, new Date(7000L)).size());
+        assertEquals(3, index.getSubRecordsBetween(new Timestamp(5000L), new Timestamp(6000L)).size());
+    }
+
+    @Test
+    public void testCompositeIndex() {
+        IndexService is = new IndexService();
+        Index compositeIndex = is.addOrGetIndex("str, bool, d", true);
+        assertEquals("str,bool,d", compositeIndex.getAttributeName());
+        assertSame(compositeIndex, is.addOrGetIndex("str,bool,d", true));
+        for (int i = 0; i < 1000; i++) {
+            Data key = ss.toData(i);
+            Data value = ss.toData(new MainPortable(i % 20 < 10, i, "joe" + (i % 10)));
+            is.saveEntryIndex(new QueryEntry(ss, key, key, value));
+        }
+        assertEquals(50, count(is.query(new SqlPredicate("str = 'joe2' AND bool = true"))));
+        assertEquals(50, count(is.query(new SqlPredicate("str = 'joe2' AND bool = false"))));
+        assertEquals(1, count(is.query(new SqlPredicate("str = 'joe2' AND bool = true AND d = 102"))));
+        assertEquals(45, count(is.query(new SqlPredicate("str = 'joe2' AND bool = true AND d > 100"))));
+        assertEquals(45, count(is.query(new SqlPredicate("str = 'joe2' AND bool = true AND d >= 102"))));
+        assertEquals(5, count(is.query(new SqlPredicate("str = 'joe2' AND bool = true AND d < 100"))));
+        assertEquals(6, count(is.query(new SqlPredicate("str = 'joe2' AND d <= 102 AND bool = true"))));
+        assertEquals(2, count(is.query(new SqlPredicate("str = 'joe2' AND bool = true AND d BETWEEN 100 AND 122"))));
+        assertEquals(1, count(is.query(new SqlPredicate("str = 'joe2' AND bool = true AND d > 100 AND d < 122"))));
+        assertEquals(0, count(is.query(new SqlPredicate("str = 'joe2' AND bool = true AND d > 200 AND d < 100"))));
+
+        CompositeIndexImpl index = (CompositeIndexImpl) compositeIndex;
+        assertEquals(1, index.getRecordsByTuple(new Comparable[]{"joe2", true, 102}).size());
+        // like for a single attribute index, several values are looked up with IN semantics
+        assertEquals(2, index.getRecords(new Comparable[]{
+                new CompositeValue(new Comparable[]{"joe2", true, 102d}),
+                new CompositeValue(new Comparable[]{"joe3", false, 113d})}).size());
+
+        for (int i = 0; i < 1000; i += 2) {
+            is.removeEntryIndex(ss.toData(i));
+        }
+        assertEquals(0, count(is.query(new SqlPredicate("str = 'joe2' AND bool = true"))));
+        assertEquals(50, count(is.query(new SqlPredicate("str = 'joe3' AND bool = false"))));
+        assertEquals(100, count(is.query(new SqlPredicate("str = 'joe3' AND bool = true")))
+                + count(is.query(new SqlPredicate("str = 'joe3' AND bool = false"))));
+    }
+
+    @Test
+    public void testUnorderedCompositeIndex_requiresAllAttributes() {
+        IndexService is = new IndexService();
+        is.addOrGetIndex("str,bool", false);
+        for (int i = 0; i < 100; i++) {
+            Data key = ss.toData(i);
+            Data value = ss.toData(new MainPortable(i % 20 < 10, i, "joe" + (i % 10)));
+            is.saveEntryIndex(new QueryEntry(ss, key, key, value));
+        }
+        assertEquals(5, count(is.query(new SqlPredicate("bool = true AND str = 'joe4'"))));
+        assertNull(is.query(new SqlPredicate("str = 'joe4' AND d > 10")));
+    }
+
+    private static int count(Set<QueryableEntry> results) {
+        int count = 0;
+        for (QueryableEntry ignored : results) {
+            count++;
+        }
+        return count;
+    }
+
     private class TestPortableFactory implements PortableFactory {
 
         public Portable create(int classId) {
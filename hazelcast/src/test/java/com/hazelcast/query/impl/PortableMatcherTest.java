@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.GroupProperties;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableFactory;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+import com.hazelcast.nio.serialization.SerializationService;
+import com.hazelcast.nio.serialization.SerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.between;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.greaterEqual;
+import static com.hazelcast.query.Predicates.greaterThan;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.lessEqual;
+import static com.hazelcast.query.Predicates.lessThan;
+import static com.hazelcast.query.Predicates.like;
+import static com.hazelcast.query.Predicates.not;
+import static com.hazelcast.query.Predicates.notEqual;
+import static com.hazelcast.query.Predicates.or;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class PortableMatcherTest extends HazelcastTestSupport {
+
+    static final int FACTORY_ID = 1;
+
+    @Test
+    public void testMatchesLikeDeserializedValue_bigEndian() {
+        assertMatchesLikeDeserializedValue(newSerializationService(ByteOrder.BIG_ENDIAN));
+    }
+
+    @Test
+    public void testMatchesLikeDeserializedValue_littleEndian() {
+        assertMatchesLikeDeserializedValue(newSerializationService(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    @Test
+    public void testUnsupportedPredicates() {
+        SerializationService ss = newSerializationService(ByteOrder.BIG_ENDIAN);
+        Data data = ss.toData(new Primitives(1));
+
+        assertNull(createMatcher(ss, equal("name", "name1"), data));
+        assertNull(createMatcher(ss, equal("unknown", 1), data));
+        assertNull(createMatcher(ss, equal("i", "not a number"), data));
+        assertNull(createMatcher(ss, greaterThan("i", null), data));
+        assertNull(createMatcher(ss, and(equal("i", 1), like("name", "name%")), data));
+        assertNull(createMatcher(ss, new SqlPredicate("name like 'name%'"), data));
+        assertNull(PortablePredicateEvaluator.create(like("name", "name%"), ss));
+        assertNull(PortablePredicateEvaluator.create(equal("i", 1), ss).getMatcher(ss.toData(1)));
+    }
+
+    @Test
+    public void testQueryDoesNotDeserializeValues() {
+        IMap<Integer, Primitives> map = fillMap(newConfig());
+        Primitives.DESERIALIZATION_COUNT.set(0);
+
+        assertEquals(50, map.keySet(new SqlPredicate("i >= 50")).size());
+        assertEquals(5, map.keySet(new SqlPredicate("l between 30 and 59 and bool = true")).size());
+        assertEquals(0, Primitives.DESERIALIZATION_COUNT.get());
+
+        assertEquals(1, map.keySet(new SqlPredicate("name = 'name1'")).size());
+        assertTrue(Primitives.DESERIALIZATION_COUNT.get() > 0);
+    }
+
+    @Test
+    public void testDisabled() {
+        Config config = newConfig();
+        config.setProperty(GroupProperties.PROP_QUERY_SERIALIZED_PREDICATES_ENABLED, "false");
+        IMap<Integer, Primitives> map = fillMap(config);
+        Primitives.DESERIALIZATION_COUNT.set(0);
+
+        assertEquals(50, map.keySet(new SqlPredicate("i >= 50")).size());
+        assertTrue(Primitives.DESERIALIZATION_COUNT.get() > 0);
+    }
+
+    private void assertMatchesLikeDeserializedValue(SerializationService ss) {
+        Predicate[] predicates = {
+                equal("i", 5),
+                equal("l", 5),
+                notEqual("l", 5L),
+                notEqual("i", null),
+                greaterThan("s", 3),
+                lessEqual("b", (byte) 2),
+                equal("c", 'c'),
+                greaterEqual("c", "e"),
+                equal("bool", true),
+                lessThan("bool", true),
+                greaterEqual("d", 1.5),
+                equal("d", "2.5"),
+                lessThan("f", 0.5f),
+                greaterThan("f", -2),
+                between("i", -3, 10),
+                between("d", -1, null),
+                in("l", 1, 5L, "7", null),
+                in("f", 1.5f, -1.5),
+                not(equal("i", 3)),
+                or(equal("i", 1), and(greaterThan("l", 3), lessThan("s", (short) 8))),
+                new SqlPredicate("i > 3 and (d < 2.5 or bool = true)"),
+                new SqlPredicate("l in (2, 4, 6) or c = 'a'"),
+                new SqlPredicate("not (b between 0 and 7)"),
+        };
+        for (int i = -10; i <= 10; i++) {
+            Data data = ss.toData(new Primitives(i));
+            Data key = ss.toData(i);
+            for (Predicate predicate : predicates) {
+                PortableMatcher matcher = createMatcher(ss, predicate, data);
+                assertNotNull(predicate.toString(), matcher);
+                boolean expected = predicate.apply(new QueryEntry(ss, key, i, data));
+                assertEquals(predicate + " for " + i, expected, matcher.matches(data.getBuffer()));
+            }
+        }
+    }
+
+    private static PortableMatcher createMatcher(SerializationService ss, Predicate predicate, Data data) {
+        PortablePredicateEvaluator evaluator = PortablePredicateEvaluator.create(predicate, ss);
+        return evaluator != null ? evaluator.getMatcher(data) : null;
+    }
+
+    private IMap<Integer, Primitives> fillMap(Config config) {
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Primitives> map = instance.getMap(randomMapName());
+        for (int i = 0; i < 100; i++) {
+            map.set(i, new Primitives(i));
+        }
+        return map;
+    }
+
+    private static Config newConfig() {
+        Config config = new Config();
+        config.getSerializationConfig().addPortableFactory(FACTORY_ID, new PrimitivesFactory());
+        return config;
+    }
+
+    private static SerializationService newSerializationService(ByteOrder byteOrder) {
+        return new SerializationServiceBuilder()
+                .setByteOrder(byteOrder)
+                .addPortableFactory(FACTORY_ID, new PrimitivesFactory())
+                .build();
+    }
+
+    static class PrimitivesFactory implements PortableFactory {
+        @Override
+        public Portable create(int classId) {
+            return classId == Primitives.CLASS_ID ? new Primitives() : null;
+        }
+    }
+
+    static class Primitives implements Portable {
+
+        static final int CLASS_ID = 1;
+        static final AtomicInteger DESERIALIZATION_COUNT = new AtomicInteger();
+
+        private String name;
+        private int i;
+        private long l;
+        private short s;
+        private byte b;
+        private char c;
+        private boolean bool;
+        private double d;
+        private float f;
+
+        Primitives() {
+        }
+
+        Primitives(int i) {
+            this.name = "name" + i;
+            this.i = i;
+            this.l = i * 3L;
+            this.s = (short) -i;
+            this.b = (byte) (Math.abs(i) % 8);
+            this.c = (char) ('a' + Math.abs(i) % 10);
+            this.bool = i % 2 == 0;
+            this.d = i / 2.0;
+            this.f = i / 4.0f;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writePortable(PortableWriter writer) throws IOException {
+            writer.writeUTF("name", name);
+            writer.writeInt("i", i);
+            writer.writeLong("l", l);
+            writer.writeShort("s", s);
+            writer.writeByte("b", b);
+            writer.writeChar("c", c);
+            writer.writeBoolean("bool", bool);
+            writer.writeDouble("d", d);
+            writer.writeFloat("f", f);
+        }
+
+        @Override
+        public void readPortable(PortableReader reader) throws IOException {
+            DESERIALIZATION_COUNT.incrementAndGet();
+            name = reader.readUTF("name");
+            i = reader.readInt("i");
+            l = reader.readLong("l");
+            s = reader.readShort("s");
+            b = reader.readByte("b");
+            c = reader.readChar("c");
+            bool = reader.readBoolean("bool");
+            d = reader.readDouble("d");
+            f = reader.readFloat("f");
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.SerializationService;
+import com.hazelcast.nio.serialization.SerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.SqlPredicate;
+import org.junit.Ignore;
+
+/**
+ * Compares full scans evaluating a predicate on deserialized values, on values read through a
+ * {@link com.hazelcast.nio.serialization.PortableReader} and on the serialized bytes by a {@link PortableMatcher}.
+ */
+@Ignore("not a JUnit test")
+public class PortablePredicateBenchmark {
+
+    private static final int ENTRY_COUNT = 1000000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    private final SerializationService ss = new SerializationServiceBuilder()
+            .addPortableFactory(PortableMatcherTest.FACTORY_ID, new PortableMatcherTest.PrimitivesFactory())
+            .build();
+    private final Predicate predicate = new SqlPredicate("i > 1000 and (d < 250000 or bool = true)");
+    private final Data[] keys = new Data[ENTRY_COUNT];
+    private final Data[] values = new Data[ENTRY_COUNT];
+
+    public static void main(String[] args) {
+        PortablePredicateBenchmark benchmark = new PortablePredicateBenchmark();
+        benchmark.run();
+    }
+
+    private void run() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            keys[i] = ss.toData(i);
+            values[i] = ss.toData(new PortableMatcherTest.Primitives(i));
+        }
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            scanDeserialized();
+            scanPortableReader();
+            scanSerialized();
+        }
+        long deserialized = 0;
+        long portableReader = 0;
+        long serialized = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            int expected = scanDeserialized();
+            deserialized += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            check(expected, scanPortableReader());
+            portableReader += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            check(expected, scanSerialized());
+            serialized += System.nanoTime() - start;
+        }
+        report("deserialized values", deserialized);
+        report("portable reader", portableReader);
+        report("serialized matcher", serialized);
+    }
+
+    private int scanDeserialized() {
+        int matches = 0;
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Object value = ss.toObject(values[i]);
+            if (predicate.apply(new QueryEntry(ss, keys[i], keys[i], value))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private int scanPortableReader() {
+        int matches = 0;
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            if (predicate.apply(new QueryEntry(ss, keys[i], keys[i], values[i]))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private int scanSerialized() {
+        PortablePredicateEvaluator evaluator = PortablePredicateEvaluator.create(predicate, ss);
+        int matches = 0;
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            if (evaluator.getMatcher(values[i]).matches(values[i].getBuffer())) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static void check(int expected, int actual) {
+        if (expected != actual) {
+            throw new AssertionError("Expected " + expected + " matches but got " + actual);
+        }
+    }
+
+    private static void report(String name, long totalNanos) {
+        System.out.println(name + ": " + (totalNanos / ROUNDS / ENTRY_COUNT) + " ns/entry");
+    }
+}
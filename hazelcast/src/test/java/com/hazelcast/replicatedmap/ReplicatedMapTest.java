@@ -22,9 +22,11 @@ import com.hazelcast.config.ReplicatedMapConfig;
 import com.hazelcast.core.EntryEventType;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.ReplicatedMap;
+import com.hazelcast.monitor.LocalReplicatedMapStats;
 import com.hazelcast.replicatedmap.record.AbstractReplicatedRecordStore;
 import com.hazelcast.replicatedmap.record.ReplicatedRecord;
 import com.hazelcast.replicatedmap.record.ReplicationPublisher;
+import com.hazelcast.test.AssertTask;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.TestHazelcastInstanceFactory;
@@ -50,6 +52,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -1065,6 +1068,70 @@ public class ReplicatedMapTest
         }
     }
 
+    @Test
+    public void testUpdatesOfSameKeyCoalesced()
+            throws Exception {
+
+        TestHazelcastInstanceFactory nodeFactory = createHazelcastInstanceFactory(2);
+        Config config = buildConfig(InMemoryFormat.BINARY, TimeUnit.SECONDS.toMillis(1));
+        HazelcastInstance instance1 = nodeFactory.newHazelcastInstance(config);
+        HazelcastInstance instance2 = nodeFactory.newHazelcastInstance(config);
+
+        final ReplicatedMap<String, Integer> map1 = instance1.getReplicatedMap("default");
+        final ReplicatedMap<String, Integer> map2 = instance2.getReplicatedMap("default");
+
+        final int updates = 100;
+        for (int i = 0; i < updates; i++) {
+            map1.put("foo", i);
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(Integer.valueOf(updates - 1), map2.get("foo"));
+            }
+        });
+        LocalReplicatedMapStats stats = ((ReplicatedMapProxy) map1).getReplicatedMapStats();
+        assertEquals(updates, stats.getSentReplicationEventCount() + stats.getCoalescedReplicationEventCount());
+        assertTrue(stats.getCoalescedReplicationEventCount() > 0);
+        assertEquals(0, stats.getPendingReplicationEventCount());
+        assertEquals(stats.getSentReplicationEventCount(), stats.getReplicationLagHistogram().getCount());
+    }
+
+    @Test
+    public void testRemoveAndPutOfSameKeyCoalesced()
+            throws Exception {
+
+        TestHazelcastInstanceFactory nodeFactory = createHazelcastInstanceFactory(2);
+        Config config = buildConfig(InMemoryFormat.OBJECT, TimeUnit.SECONDS.toMillis(1));
+        HazelcastInstance instance1 = nodeFactory.newHazelcastInstance(config);
+        HazelcastInstance instance2 = nodeFactory.newHazelcastInstance(config);
+
+        final ReplicatedMap<String, String> map1 = instance1.getReplicatedMap("default");
+        final ReplicatedMap<String, String> map2 = instance2.getReplicatedMap("default");
+
+        for (int i = 0; i < 5; i++) {
+            map1.put("foo", "bar" + i);
+        }
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals("bar4", map2.get("foo"));
+            }
+        });
+
+        // the put gets a new vector clock, which must still win over the one the other member has
+        map1.remove("foo");
+        map1.put("foo", "baz");
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals("baz", map2.get("foo"));
+            }
+        });
+    }
+
     private <K, V> ReplicatedRecord<K, V> getReplicatedRecord(ReplicatedMap<K, V> map, K key)
             throws Exception {
         ReplicatedMapProxy proxy = (ReplicatedMapProxy) map;
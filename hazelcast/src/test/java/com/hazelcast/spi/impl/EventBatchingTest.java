@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.EntryAdapter;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.GroupProperties;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category(QuickTest.class)
+public class EventBatchingTest extends HazelcastTestSupport {
+
+    private static final int KEY_COUNT = 10;
+    private static final int UPDATE_COUNT = 200;
+
+    @Test
+    public void testBatching() {
+        Config config = new Config();
+        config.setProperty(GroupProperties.PROP_EVENT_BATCH_SIZE, "50");
+        assertEventsReceivedInOrder(config);
+    }
+
+    @Test
+    public void testBatchingWithBackpressure() {
+        Config config = new Config();
+        config.setProperty(GroupProperties.PROP_EVENT_BATCH_SIZE, "50");
+        config.setProperty(GroupProperties.PROP_EVENT_BACKPRESSURE_ENABLED, "true");
+        config.setProperty(GroupProperties.PROP_EVENT_BACKPRESSURE_WINDOW, "100");
+        assertEventsReceivedInOrder(config);
+    }
+
+    @Test
+    public void testBackpressureWithoutBatching() {
+        Config config = new Config();
+        config.setProperty(GroupProperties.PROP_EVENT_BACKPRESSURE_ENABLED, "true");
+        config.setProperty(GroupProperties.PROP_EVENT_BACKPRESSURE_WINDOW, "10");
+        assertEventsReceivedInOrder(config);
+    }
+
+    @Test
+    public void testBackpressureWithFullEventQueues() {
+        Config config = new Config();
+        config.setProperty(GroupProperties.PROP_EVENT_BATCH_SIZE, "50");
+        config.setProperty(GroupProperties.PROP_EVENT_BACKPRESSURE_ENABLED, "true");
+        config.setProperty(GroupProperties.PROP_EVENT_BACKPRESSURE_WINDOW, "100");
+        config.setProperty(GroupProperties.PROP_EVENT_QUEUE_CAPACITY, "1");
+        config.setProperty(GroupProperties.PROP_EVENT_QUEUE_TIMEOUT_MILLIS, "1");
+        assertEventsReceivedInOrder(config);
+    }
+
+    @Test(timeout = 60000)
+    public void testBackpressureDoesNotStallPartitionThreadsOfListenerCallingBack() {
+        Config config = new Config();
+        config.setProperty(GroupProperties.PROP_EVENT_BACKPRESSURE_ENABLED, "true");
+        config.setProperty(GroupProperties.PROP_EVENT_BACKPRESSURE_MAX_WAIT_MILLIS, "100");
+        config.setProperty(GroupProperties.PROP_EVENT_THREAD_COUNT, "1");
+        config.setProperty(GroupProperties.PROP_EVENT_QUEUE_CAPACITY, "1");
+        HazelcastInstance hz = createHazelcastInstance(config);
+        final IMap<Integer, Integer> map = hz.getMap(randomMapName());
+        // the listener needs the partition thread which is waiting for room in the full event queue
+        map.addEntryListener(new EntryAdapter<Integer, Integer>() {
+            @Override
+            public void entryUpdated(EntryEvent<Integer, Integer> event) {
+                sleepMillis(50);
+                map.get(event.getKey());
+            }
+        }, false);
+
+        for (int i = 0; i < 20; i++) {
+            map.put(1, i);
+        }
+        assertEquals(19, (int) map.get(1));
+    }
+
+    private void assertEventsReceivedInOrder(Config config) {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance hz1 = factory.newHazelcastInstance(config);
+        HazelcastInstance hz2 = factory.newHazelcastInstance(config);
+        String mapName = randomMapName();
+
+        OrderListener listener1 = new OrderListener();
+        OrderListener listener2 = new OrderListener();
+        IMap<Integer, Integer> map = hz1.getMap(mapName);
+        map.addEntryListener(listener1, true);
+        hz2.<Integer, Integer>getMap(mapName).addEntryListener(listener2, true);
+
+        for (int i = 0; i < UPDATE_COUNT; i++) {
+            for (int key = 0; key < KEY_COUNT; key++) {
+                map.put(key, i);
+            }
+        }
+
+        assertOpenEventually(listener1.received);
+        assertOpenEventually(listener2.received);
+        listener1.assertInOrder();
+        listener2.assertInOrder();
+    }
+
+    private static class OrderListener extends EntryAdapter<Integer, Integer> {
+        final CountDownLatch received = new CountDownLatch(KEY_COUNT * UPDATE_COUNT);
+        final ConcurrentMap<Integer, List<Integer>> values = new ConcurrentHashMap<Integer, List<Integer>>();
+
+        @Override
+        public void entryAdded(EntryEvent<Integer, Integer> event) {
+            onEvent(event);
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<Integer, Integer> event) {
+            onEvent(event);
+        }
+
+        private void onEvent(EntryEvent<Integer, Integer> event) {
+            List<Integer> list = values.get(event.getKey());
+            if (list == null) {
+                List<Integer> newList = new CopyOnWriteArrayList<Integer>();
+                list = values.putIfAbsent(event.getKey(), newList);
+                if (list == null) {
+                    list = newList;
+                }
+            }
+            list.add(event.getValue());
+            received.countDown();
+        }
+
+        void assertInOrder() {
+            assertEquals(KEY_COUNT, values.size());
+            for (List<Integer> list : values.values()) {
+                assertEquals(UPDATE_COUNT, list.size());
+                for (int i = 0; i < UPDATE_COUNT; i++) {
+                    assertEquals(i, (int) list.get(i));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.GroupProperties;
+import com.hazelcast.spi.AbstractOperation;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category(QuickTest.class)
+public class GenericWorkStealingTest extends HazelcastTestSupport {
+
+    @Test
+    public void testDisabledByDefault() {
+        HazelcastInstance hz = createHazelcastInstance();
+        NodeEngineImpl nodeEngine = getNode(hz).nodeEngine;
+        InternalOperationService operationService = nodeEngine.operationService;
+        CountDownLatch completed = new CountDownLatch(1);
+
+        operationService.executeOperation(newOperation(nodeEngine, new SleepingOperation(completed)));
+
+        assertOpenEventually(completed);
+        assertFalse(operationService.isGenericWorkStealingEnabled());
+        assertEquals(0, operationService.getStolenGenericOperationCount());
+        assertTrue(operationService.getGenericOperationQueueWaitTimes().getCount() > 0);
+    }
+
+    @Test
+    public void testGenericOperations() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance hz1 = factory.newHazelcastInstance(newConfig());
+        HazelcastInstance hz2 = factory.newHazelcastInstance(newConfig());
+        IMap<Integer, Integer> map = hz1.getMap(randomMapName());
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+
+        // map.size() is executed by a PartitionIteratingOperation on the generic operation threads of each member
+        for (int i = 0; i < 100; i++) {
+            assertEquals(100, map.size());
+        }
+        assertEquals(100, hz2.getMap(map.getName()).size());
+
+        // the operations sent by hz1 are queued on the generic operation threads of hz2
+        InternalOperationService operationService = getNode(hz2).nodeEngine.operationService;
+        assertTrue(operationService.isGenericWorkStealingEnabled());
+        assertTrue(operationService.getGenericOperationQueueWaitTimes().getCount() >= 100);
+    }
+
+    @Test
+    public void testIdleThreadsStealWork() {
+        HazelcastInstance hz = createHazelcastInstance(newConfig());
+        NodeEngineImpl nodeEngine = getNode(hz).nodeEngine;
+        InternalOperationService operationService = nodeEngine.operationService;
+        int taskCount = 20;
+        CountDownLatch completed = new CountDownLatch(taskCount);
+
+        // operations submitted by a generic operation thread are offered to its own queue, so they can only
+        // be executed by the other generic operation threads by stealing them
+        operationService.executeOperation(newOperation(nodeEngine, new SubmittingOperation(taskCount, completed)));
+
+        assertOpenEventually(completed);
+        assertTrue(operationService.getStolenGenericOperationCount() > 0);
+    }
+
+    private static Operation newOperation(NodeEngine nodeEngine, Operation op) {
+        op.setNodeEngine(nodeEngine);
+        op.setResponseHandler(ResponseHandlerFactory.createEmptyResponseHandler());
+        return op;
+    }
+
+    private static Config newConfig() {
+        Config config = new Config();
+        config.setProperty(GroupProperties.PROP_GENERIC_OPERATION_WORK_STEALING_ENABLED, "true");
+        config.setProperty(GroupProperties.PROP_GENERIC_OPERATION_THREAD_COUNT, "4");
+        return config;
+    }
+
+    private static class SubmittingOperation extends AbstractOperation {
+
+        private final int taskCount;
+        private final CountDownLatch completed;
+
+        SubmittingOperation(int taskCount, CountDownLatch completed) {
+            this.taskCount = taskCount;
+            this.completed = completed;
+        }
+
+        @Override
+        public void run() throws Exception {
+            for (int i = 0; i < taskCount; i++) {
+                getNodeEngine().getOperationService()
+                        .executeOperation(newOperation(getNodeEngine(), new SleepingOperation(completed)));
+            }
+            sleepMillis(1000);
+        }
+
+        @Override
+        public boolean returnsResponse() {
+            return false;
+        }
+    }
+
+    private static class SleepingOperation extends AbstractOperation {
+
+        private final CountDownLatch completed;
+
+        SleepingOperation(CountDownLatch completed) {
+            this.completed = completed;
+        }
+
+        @Override
+        public void run() throws Exception {
+            sleepMillis(50);
+            completed.countDown();
+        }
+
+        @Override
+        public boolean returnsResponse() {
+            return false;
+        }
+    }
+}
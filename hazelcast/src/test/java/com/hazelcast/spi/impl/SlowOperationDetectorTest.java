@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.GroupProperties;
+import com.hazelcast.map.AbstractEntryProcessor;
+import com.hazelcast.map.operation.EntryOperation;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category(QuickTest.class)
+public class SlowOperationDetectorTest extends HazelcastTestSupport {
+
+    @Test
+    public void testSlowOperationIsLogged() {
+        Config config = new Config();
+        config.setProperty(GroupProperties.PROP_SLOW_OPERATION_DETECTOR_THRESHOLD_MILLIS, "500");
+        HazelcastInstance hz = createHazelcastInstance(config);
+        final InternalOperationService operationService = getNode(hz).nodeEngine.operationService;
+        IMap<String, String> map = hz.getMap(randomMapName());
+        final int partitionId = hz.getPartitionService().getPartition("key").getPartitionId();
+
+        map.executeOnKey("key", new SlowEntryProcessor(2000));
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                List<SlowOperationLog> logs = operationService.getSlowOperationLogs();
+                assertEquals(1, logs.size());
+                SlowOperationLog log = logs.get(0);
+                assertTrue(log.isCompleted());
+                assertEquals(EntryOperation.class.getName(), log.getOperationClassName());
+                assertEquals(partitionId, log.getPartitionId());
+                assertTrue(log.getDurationMillis() >= 1500);
+                assertTrue(log.getStackTrace(), log.getStackTrace().contains(SlowEntryProcessor.class.getName()));
+            }
+        });
+    }
+
+    @Test
+    public void testSlowOperationDetectionDisabled() {
+        Config config = new Config();
+        config.setProperty(GroupProperties.PROP_SLOW_OPERATION_DETECTOR_THRESHOLD_MILLIS, "0");
+        HazelcastInstance hz = createHazelcastInstance(config);
+        InternalOperationService operationService = getNode(hz).nodeEngine.operationService;
+        IMap<String, String> map = hz.getMap(randomMapName());
+
+        map.executeOnKey("key", new SlowEntryProcessor(1000));
+
+        assertTrue(operationService.getSlowOperationLogs().isEmpty());
+    }
+
+    @Test
+    public void testOperationTimingsAndBusyTimes() {
+        HazelcastInstance hz = createHazelcastInstance();
+        final InternalOperationService operationService = getNode(hz).nodeEngine.operationService;
+        IMap<String, String> map = hz.getMap(randomMapName());
+
+        for (int i = 0; i < 5; i++) {
+            map.executeOnKey("key", new SlowEntryProcessor(100));
+        }
+
+        // the timing is recorded after the response has been sent
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                OperationTimingStats entryOperationStats = null;
+                for (OperationTimingStats stats : operationService.getOperationTimings()) {
+                    if (stats.getOperationClassName().equals(EntryOperation.class.getName())) {
+                        entryOperationStats = stats;
+                    }
+                }
+                assertNotNull(entryOperationStats);
+                assertEquals(5, entryOperationStats.getExecutionCount());
+                assertTrue(entryOperationStats.getMaxExecutionTime() >= 100000);
+                assertTrue(entryOperationStats.getTotalExecutionTime() >= 500000);
+
+                long totalBusyTime = 0;
+                for (long busyTime : operationService.getPartitionOperationThreadBusyTimes()) {
+                    totalBusyTime += busyTime;
+                }
+                assertTrue(totalBusyTime >= 500);
+            }
+        });
+        assertEquals(operationService.getPartitionOperationThreadCount(),
+                operationService.getPartitionOperationThreadQueueSizes().length);
+    }
+
+    static class SlowEntryProcessor extends AbstractEntryProcessor<String, String> {
+
+        private final int sleepMillis;
+
+        SlowEntryProcessor(int sleepMillis) {
+            this.sleepMillis = sleepMillis;
+        }
+
+        @Override
+        public Object process(Map.Entry<String, String> entry) {
+            sleepMillis(sleepMillis);
+            return null;
+        }
+    }
+}
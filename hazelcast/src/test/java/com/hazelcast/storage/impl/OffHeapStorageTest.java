@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2013, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.storage.impl;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.storage.DataRef;
+import com.hazelcast.storage.OffHeapOutOfMemoryException;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class OffHeapStorageTest {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private OffHeapStorage storage;
+
+    @Before
+    public void init() {
+        storage = new OffHeapStorage(8 * 1024 * 1024, CHUNK_SIZE);
+    }
+
+    @After
+    public void destroy() {
+        storage.destroy();
+    }
+
+    @Test
+    public void testPutGet() {
+        Data data = newData(100);
+        DataRef ref = storage.put(1, data);
+
+        Data result = storage.get(1, ref);
+        assertEquals(data, result);
+        assertEquals(data.getPartitionHash(), result.getPartitionHash());
+        assertEquals(100, storage.getPayloadMemory());
+        assertEquals(128, storage.getUsedMemory());
+        assertEquals(1, storage.getAllocatedBlockCount(128));
+    }
+
+    @Test
+    public void testValueLargerThanChunk() {
+        Data data = newData(CHUNK_SIZE * 3 + 10);
+        DataRef ref = storage.put(1, data);
+
+        assertArrayEquals(data.getBuffer(), storage.get(1, ref).getBuffer());
+        assertEquals(3, storage.getAllocatedBlockCount(CHUNK_SIZE));
+        assertEquals(1, storage.getAllocatedBlockCount(OffHeapStorage.MIN_BLOCK_SIZE));
+    }
+
+    @Test
+    public void testEmptyValue() {
+        Data data = new Data(1, null);
+        DataRef ref = storage.put(1, data);
+
+        assertEquals(data, storage.get(1, ref));
+        assertEquals(0, storage.getReservedMemory());
+    }
+
+    @Test
+    public void testRemoveReusesBlocks() {
+        List<DataRef> refs = new ArrayList<DataRef>();
+        for (int i = 0; i < 1000; i++) {
+            refs.add(storage.put(i, newData(50)));
+        }
+        long reserved = storage.getReservedMemory();
+        for (int i = 0; i < refs.size(); i++) {
+            storage.remove(i, refs.get(i));
+        }
+        assertEquals(0, storage.getUsedMemory());
+        assertEquals(0, storage.getPayloadMemory());
+
+        for (int i = 0; i < 1000; i++) {
+            storage.put(i, newData(50));
+        }
+        assertEquals(reserved, storage.getReservedMemory());
+    }
+
+    @Test
+    public void testFragmentationStats() {
+        storage.put(1, newData(65));
+        assertEquals(65, storage.getPayloadMemory());
+        assertEquals(128, storage.getUsedMemory());
+        assertEquals((128d - 65) / 128, storage.getInternalFragmentation(), 0.0001d);
+        assertTrue(storage.getExternalFragmentation() > 0);
+    }
+
+    @Test
+    public void testMemoryLimit() {
+        OffHeapStorage small = new OffHeapStorage(CHUNK_SIZE * 4, CHUNK_SIZE);
+        try {
+            for (int i = 0; i < 4; i++) {
+                small.put(0, newData(CHUNK_SIZE));
+            }
+            try {
+                small.put(0, newData(CHUNK_SIZE));
+                fail("Memory limit should have been exceeded!");
+            } catch (OffHeapOutOfMemoryException expected) {
+            }
+            assertEquals(CHUNK_SIZE * 4, small.getReservedMemory());
+            assertEquals(CHUNK_SIZE * 4, small.getPayloadMemory());
+        } finally {
+            small.destroy();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testGetAfterDestroy() {
+        DataRef ref = storage.put(1, newData(10));
+        storage.destroy();
+        storage.get(1, ref);
+    }
+
+    private static Data newData(int size) {
+        byte[] bytes = new byte[size];
+        new Random().nextBytes(bytes);
+        return new Data(1, bytes, size, null);
+    }
+}
@@ -15,7 +15,9 @@ import com.hazelcast.test.AssertTask;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.annotation.NightlyTest;
+import com.hazelcast.wan.impl.WanBatchReplication;
 import com.hazelcast.wan.impl.WanNoDelayReplication;
+import com.hazelcast.wan.impl.WanReplicationServiceImpl;
 import org.junit.*;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
@@ -256,6 +258,53 @@ public class WanReplicationTest extends HazelcastTestSupport{
     }
 
 
+    @Test
+    public void VTopo_1passiveReplicar_2producers_Test_BatchReplication(){
+
+        setupReplicateFrom(configA, configC, clusterC.length, "atoc", PassThroughMergePolicy.class.getName());
+        setupReplicateFrom(configB, configC, clusterC.length, "btoc", PassThroughMergePolicy.class.getName());
+        useBatchReplication(configA, "atoc");
+        useBatchReplication(configB, "btoc");
+        initAllClusters();
+
+        createDataIn(clusterA, "map", 0,    1000);
+        createDataIn(clusterB, "map", 1000, 2000);
+
+        assertDataInFrom(clusterC, "map", 0, 1000, clusterA);
+        assertDataInFrom(clusterC, "map", 1000, 2000, clusterB);
+        assertReplicatedEventCount(clusterA, 1000);
+        assertReplicatedEventCount(clusterB, 1000);
+
+        removeDataIn(clusterA, "map", 0, 1000);
+        removeDataIn(clusterB, "map", 1000, 2000);
+
+        assertKeysNotIn(clusterC, "map", 0, 2000);
+        assertDataSize(clusterC, "map", 0);
+    }
+
+    private void assertReplicatedEventCount(final HazelcastInstance[] cluster, final long count) {
+        assertTrueEventually(new AssertTask() {
+            public void run() {
+                long replicated = 0;
+                for (HazelcastInstance instance : cluster) {
+                    WanReplicationServiceImpl wanReplicationService
+                            = (WanReplicationServiceImpl) getNode(instance).nodeEngine.getWanReplicationService();
+                    replicated += wanReplicationService.getReplicatedEventCount();
+                }
+                assertTrue(replicated >= count);
+            }
+        }, ASSERT_TRUE_EVENTUALLY_TIMEOUT_VALUE);
+    }
+
+    private void useBatchReplication(Config config, String setupName) {
+        for (WanTargetClusterConfig target : config.getWanReplicationConfig(setupName).getTargetClusterConfigs()) {
+            target.setReplicationImpl(WanBatchReplication.class.getName());
+            target.setBatchSize(100);
+            target.setBatchMaxDelayMillis(50);
+        }
+    }
+
+
     @Test
     public void Vtopo_TTL_Replication_Issue254(){
 